@@ -45,6 +45,13 @@ java {
 application {
     // Define the main class for the application.
     mainClass.set("tessellator.Main")
+    // The tiling engine transforms vertices with the incubating Vector API, without this
+    // module it falls back to scalar code
+    applicationDefaultJvmArgs = listOf("--add-modules=jdk.incubator.vector")
+}
+
+tasks.withType<JavaCompile> {
+    options.compilerArgs.add("--add-modules=jdk.incubator.vector")
 }
 
 javafx {
@@ -56,6 +63,36 @@ javafx {
     modules = listOf("javafx.controls", "javafx.swing", "javafx.web")
 }
 
+// Passing -Precording=<file> records the run with the application's flight recorder profile
+tasks.withType<JavaExec>().configureEach {
+    if (project.hasProperty("recording")) {
+        systemProperty("tessellator.recording", file(project.property("recording") as String).absolutePath)
+    }
+}
+
+// Runs the headless render service rather than the application, the port can be given with --args
+tasks.register<JavaExec>("runRenderService") {
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("tessellator.service.RenderService")
+    jvmArgs("--add-modules=jdk.incubator.vector", "-Djava.awt.headless=true")
+}
+
+// Runs the daemon which renders graphs saved into a directory, the directories, boundary and
+// formats are given with --args
+tasks.register<JavaExec>("runWatchDaemon") {
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("tessellator.service.WatchDaemon")
+    jvmArgs("--add-modules=jdk.incubator.vector", "-Djava.awt.headless=true")
+}
+
+// Runs the benchmark of the batch transform used to place tiles, the batch size and number
+// of seed vertices can be given with --args
+tasks.register<JavaExec>("runAffineBenchmark") {
+    classpath = sourceSets["test"].runtimeClasspath
+    mainClass.set("tessellator.tessellation.tiling.AffineBatchBenchmark")
+    jvmArgs("--add-modules=jdk.incubator.vector")
+}
+
 tasks.named<Test>("test") {
     // Use JUnit Platform for unit tests.
     useJUnitPlatform()
@@ -1,7 +1,10 @@
 package tessellator;
 
+import tessellator.profiling.FlightRecording;
+
 public class Main {
     public static void main(String[] args) {
+        FlightRecording.startIfRequested();
         App.launch(App.class, args);
     }
 }
@@ -0,0 +1,77 @@
+package tessellator.editor.graph;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import tessellator.editor.graph.block.Block;
+import tessellator.editor.graph.block.Connector;
+import tessellator.editor.graph.edge.Edge;
+import tessellator.editor.graph.edge.component.EdgeComponent;
+
+/**
+ * An object which keeps the geometry of the edges in the graph builder in line with the
+ * positions of the blocks they join.
+ *
+ * Rather than binding every edge's end points and control points to the blocks, a block
+ * which moves marks its edges as dirty and requests a layout of the graph builder. During
+ * the next layout pass every dirty edge is laid out exactly once, however many times its
+ * blocks moved since the last frame. So dragging a block with hundreds of edges costs one
+ * layout of each of its edges per frame rather than a cascade of binding invalidations.
+ */
+public class EdgeLayout {
+
+    private final GraphBuilder graphBuilder;
+    private final Set<Edge> dirty;
+
+    public EdgeLayout(GraphBuilder graphBuilder) {
+        this.graphBuilder = graphBuilder;
+        dirty = new LinkedHashSet<>();
+    }
+
+    /**
+     * Mark every edge attached to the block as needing to be laid out.
+     */
+    public void markDirty(Block block) {
+        for (Connector c : block.getInputConnectors()) {
+            markEdgeEndsDirty(c);
+        }
+        for (Connector c : block.getOutputConnectors()) {
+            markEdgeEndsDirty(c);
+        }
+    }
+
+    public void markDirty(Edge edge) {
+        if (dirty.add(edge) && dirty.size() == 1) {
+            graphBuilder.requestLayout();
+        }
+    }
+
+    /**
+     * Forget an edge that has been removed from the graph.
+     */
+    public void remove(Edge edge) {
+        dirty.remove(edge);
+    }
+
+    public void clear() {
+        dirty.clear();
+    }
+
+    /**
+     * Lay out every dirty edge. This is called by the graph builder during its layout pass,
+     * but can also be called directly when the edges must be in place straight away.
+     */
+    public void layoutDirtyEdges() {
+        if (dirty.isEmpty()) return;
+        dirty.forEach(Edge::layout);
+        dirty.clear();
+        // Edges that moved may have moved into or out of view
+        graphBuilder.getViewport().requestRefresh();
+    }
+
+    private void markEdgeEndsDirty(Connector connector) {
+        for (EdgeComponent end : connector.edgeEnds()) {
+            end.getEdge().ifPresent(this::markDirty);
+        }
+    }
+}
@@ -1,24 +1,80 @@
 package tessellator.editor.graph;
 
 import java.util.Optional;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.List;
 import java.util.ArrayList;
 
+import javafx.beans.value.ChangeListener;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.Group;
 import javafx.scene.Node;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.transform.Scale;
+import javafx.scene.transform.Translate;
 import tessellator.editor.graph.block.Block;
 import tessellator.editor.graph.block.factory.BlockFactory;
+import tessellator.editor.graph.edge.Edge;
 import tessellator.editor.graph.eventhandling.GraphBuilderEventHandler;
+import tessellator.editor.graph.history.GraphHistory;
 
 /**
  * An object whicha embodies the graph builder concept.
+ * 
+ * The blocks and edges of the graph don't sit directly within the graph builder, they
+ * sit within a single content layer. Zooming and panning are applied as one scale and
+ * one translate transform on that layer, so the blocks and edges themselves are always
+ * positioned in content coordinates and never need to be rescaled or moved when the
+ * view changes.
+ * 
+ * Every block and edge of the graph is recorded in the graph builder's model, however only
+ * those near the visible area have their nodes attached to the content layer, see GraphViewport.
+ * So always use the model (getBlocks() and getEdges()) rather than the children of the content
+ * layer when the whole graph needs to be visited.
+ * 
+ * The bounds of every block and edge are also kept in spatial indexes which are updated
+ * whenever a container or line moves. Use these instead of testing the bounds of every node
+ * when looking for what lies within some region of the graph.
+ * 
+ * The structure of the graph, which blocks are joined to which, is also kept in a GraphModel.
+ * Use it rather than the edge ends of the connectors when walking the graph.
+ * 
+ * How much detail the blocks and edges are drawn with depends on the zoom and the number of
+ * attached nodes, see RenderQuality.
+ * 
+ * Every block and edge added to or removed from the graph is recorded in the graph builder's
+ * history so the edit can be undone, see GraphHistory.
+ * 
+ * Edges aren't bound to the blocks they join, moving a block marks its edges dirty and
+ * they are laid out together during the graph builder's next layout pass, see EdgeLayout.
  */
 public class GraphBuilder extends BorderPane {
     
     private double strokeWidthOfLines;
-    private double zoomScale;
+    // The layer which holds all the blocks and edges, along with the transforms which
+    // map content coordinates to graph builder coordinates
+    private final Group content;
+    private final Translate pan;
+    private final Scale zoom;
+    // The model of the graph, this includes blocks and edges whose nodes are currently detached
+    private final Set<Block> blocks;
+    private final Set<Edge> edges;
+    private final GraphModel model;
+    private final GraphViewport viewport;
+    private final EdgeLayout edgeLayout;
+    private final RenderQuality renderQuality;
+    private final GraphHistory history;
+    // The bounds of the blocks and edges in content coordinates
+    private final SpatialIndex<Block> blockIndex;
+    private final SpatialIndex<Edge> edgeIndex;
+    // The listeners which keep the indexes up to date, kept so they can be removed again
+    private final Map<Block, ChangeListener<Bounds>> blockBoundsListeners;
+    private final Map<Edge, ChangeListener<Bounds>> edgeBoundsListeners;
     private final Set<Node> selected;
     private boolean hasRoot;
     private final JsonHelper jsonHelper;
@@ -32,7 +88,31 @@ public class GraphBuilder extends BorderPane {
 
     public GraphBuilder() {
         strokeWidthOfLines = 1;
-        zoomScale = 1;
+        pan = new Translate(0, 0);
+        zoom = new Scale(1, 1, 0, 0);
+        content = new Group();
+        // The order matters, content coordinates are scaled first and then panned
+        content.getTransforms().addAll(pan, zoom);
+        // The content layer is positioned purely by its transforms
+        content.setManaged(false);
+        getChildren().add(content);
+        blocks = new LinkedHashSet<>();
+        edges = new LinkedHashSet<>();
+        model = new GraphModel();
+        blockIndex = new SpatialIndex<>();
+        edgeIndex = new SpatialIndex<>();
+        blockBoundsListeners = new HashMap<>();
+        edgeBoundsListeners = new HashMap<>();
+        viewport = new GraphViewport(this);
+        edgeLayout = new EdgeLayout(this);
+        renderQuality = new RenderQuality(this);
+        history = new GraphHistory(this);
+        // Whenever the visible area changes the attached nodes are brought up to date
+        pan.xProperty().addListener((obs, oldValue, newValue) -> viewport.requestRefresh());
+        pan.yProperty().addListener((obs, oldValue, newValue) -> viewport.requestRefresh());
+        zoom.xProperty().addListener((obs, oldValue, newValue) -> viewport.requestRefresh());
+        widthProperty().addListener((obs, oldValue, newValue) -> viewport.requestRefresh());
+        heightProperty().addListener((obs, oldValue, newValue) -> viewport.requestRefresh());
         selected = new HashSet<>();
         eventHandler = new GraphBuilderEventHandler(this);
         eventHandler.handleEvents();
@@ -56,11 +136,168 @@ public class GraphBuilder extends BorderPane {
     }
 
     public void setZoomScale(double scale) {
-        zoomScale = scale;
+        zoom.setX(scale);
+        zoom.setY(scale);
     }
 
     public double getZoomScale() {
-        return zoomScale;
+        return zoom.getX();
+    }
+
+    /**
+     * The layer which all blocks and edges of the graph are placed in. Positions of nodes
+     * within this layer are content coordinates which are unaffected by zooming and panning.
+     */
+    public Group getContent() {
+        return content;
+    }
+
+    /**
+     * The translation applied to the content layer, this represents how far the view has
+     * been panned.
+     */
+    public Translate getPan() {
+        return pan;
+    }
+
+    public GraphViewport getViewport() {
+        return viewport;
+    }
+
+    public EdgeLayout getEdgeLayout() {
+        return edgeLayout;
+    }
+
+    public RenderQuality getRenderQuality() {
+        return renderQuality;
+    }
+
+    public GraphHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Alongside the usual layout of the graph builder, lay out the edges of any blocks
+     * that have moved since the last layout pass.
+     */
+    @Override
+    protected void layoutChildren() {
+        super.layoutChildren();
+        edgeLayout.layoutDirtyEdges();
+    }
+
+    /**
+     * Add a block to the graph and attach its container to the content layer.
+     */
+    public void addBlock(Block block) {
+        blocks.add(block);
+        model.addBlock(block);
+        content.getChildren().add(block.getContainer());
+        // When the block moves its edges need laying out again
+        ChangeListener<Bounds> listener = (obs, oldBounds, newBounds) -> {
+            blockIndex.put(block, newBounds);
+            edgeLayout.markDirty(block);
+        };
+        block.getContainer().boundsInParentProperty().addListener(listener);
+        blockBoundsListeners.put(block, listener);
+        blockIndex.put(block, block.getContainer().getBoundsInParent());
+        renderQuality.apply(block);
+        viewport.markAttached(block);
+        viewport.requestRefresh();
+        history.blockAdded(block);
+    }
+
+    /**
+     * Remove a block from the graph. This doesn't detach its container, the caller is expected
+     * to remove the nodes of everything it deletes from the content layer in bulk.
+     */
+    public void removeBlock(Block block) {
+        blocks.remove(block);
+        model.removeBlock(block);
+        ChangeListener<Bounds> listener = blockBoundsListeners.remove(block);
+        if (listener != null) block.getContainer().boundsInParentProperty().removeListener(listener);
+        blockIndex.remove(block);
+        history.blockRemoved(block);
+    }
+
+    /**
+     * All the blocks in the graph, whether or not their containers are currently attached.
+     */
+    public Set<Block> getBlocks() {
+        return blocks;
+    }
+
+    /**
+     * Add an edge to the graph, any of its components which aren't already attached to the
+     * content layer are attached behind the blocks.
+     */
+    public void addEdge(Edge edge) {
+        edges.add(edge);
+        model.addEdge(edge);
+        List<Node> detached = new ArrayList<>();
+        for (Node n : List.of(edge.lineComponent(), edge.startComponent(), edge.endComponent())) {
+            if (n.getParent() != content) detached.add(n);
+        }
+        if (!detached.isEmpty()) content.getChildren().addAll(0, detached);
+        edge.layout();
+        // The line spans from one end of the edge to the other so its bounds cover the whole edge
+        ChangeListener<Bounds> listener = (obs, oldBounds, newBounds) -> edgeIndex.put(edge, newBounds);
+        edge.lineComponent().boundsInParentProperty().addListener(listener);
+        edgeBoundsListeners.put(edge, listener);
+        edgeIndex.put(edge, edge.lineComponent().getBoundsInParent());
+        renderQuality.apply(edge);
+        viewport.markAttached(edge);
+        viewport.requestRefresh();
+        history.edgeAdded(edge);
+    }
+
+    /**
+     * Remove an edge from the graph. Like removeBlock() this doesn't detach the edge's components.
+     */
+    public void removeEdge(Edge edge) {
+        edges.remove(edge);
+        model.removeEdge(edge);
+        edgeLayout.remove(edge);
+        ChangeListener<Bounds> listener = edgeBoundsListeners.remove(edge);
+        if (listener != null) edge.lineComponent().boundsInParentProperty().removeListener(listener);
+        edgeIndex.remove(edge);
+        history.edgeRemoved(edge);
+    }
+
+    /**
+     * All the edges in the graph, whether or not their components are currently attached.
+     */
+    public Set<Edge> getEdges() {
+        return edges;
+    }
+
+    /**
+     * The structure of the graph as primitive arrays keyed by block id and port index.
+     */
+    public GraphModel getModel() {
+        return model;
+    }
+
+    /**
+     * The spatial index of the bounds of every block's container in content coordinates.
+     */
+    public SpatialIndex<Block> getBlockIndex() {
+        return blockIndex;
+    }
+
+    /**
+     * The spatial index of the bounds of every edge's line in content coordinates.
+     */
+    public SpatialIndex<Edge> getEdgeIndex() {
+        return edgeIndex;
+    }
+
+    /**
+     * Convert a point in the coordinate space of the graph builder to the coordinate space
+     * of the content layer.
+     */
+    public Point2D viewToContent(double x, double y) {
+        return content.parentToLocal(x, y);
     }
 
     public Set<Node> getSelected() {
@@ -167,9 +404,18 @@ public class GraphBuilder extends BorderPane {
      */
     public void clearContent() {
         freeAllBlockIds();
-        getChildren().clear();
+        content.getChildren().clear();
+        new ArrayList<>(blocks).forEach(this::removeBlock);
+        new ArrayList<>(edges).forEach(this::removeEdge);
+        model.clear();
+        viewport.clear();
+        edgeLayout.clear();
         selected.clear();
         hasRoot = false;
         root = null;
+        // The pan isn't saved with a graph, so a new or opened graph is shown from the origin
+        pan.setX(0);
+        pan.setY(0);
+        history.reset();
     }
 }
@@ -0,0 +1,405 @@
+package tessellator.editor.graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import tessellator.editor.graph.block.Block;
+import tessellator.editor.graph.block.Connector;
+import tessellator.editor.graph.edge.Edge;
+import tessellator.editor.graph.edge.component.end.ConnectorComponent;
+
+/**
+ * An object which holds the structure of the graph in the graph builder as primitive arrays,
+ * so that the graph can be walked without going through the JavaFX nodes of the blocks and
+ * edges.
+ *
+ * The graph is stored in compressed sparse row form keyed by block id and port index. The
+ * output ports of every block are given consecutive rows, in order of block id and then port
+ * index, and the children of all the rows are laid out one after another in a single array.
+ * So the children of a port, and all the children of a block, are a contiguous range of
+ * entries which is walked with a plain for loop:
+ *
+ * for (int i = model.outputStart(id); i < model.outputEnd(id); i++) {
+ *     Block child = model.block(model.childBlock(i));
+ *     int inputPort = model.childPort(i);
+ * }
+ *
+ * Every input port can only have one edge, so the parent of each input port is held in a
+ * row of its own.
+ *
+ * The graph builder tells the model whenever a block or edge is added or removed. Those
+ * changes are recorded straight away, but the arrays are only rebuilt, in time linear in the
+ * size of the graph, the next time the model is read. So a bulk change such as loading or
+ * deleting a selection rebuilds the arrays once. Ids which aren't the id of a block in the
+ * model have no ports, so reading them gives empty ranges.
+ */
+public class GraphModel {
+
+    /**
+     * The value given in place of a block id or port index when there is none.
+     */
+    public static final int NONE = -1;
+
+    // The blocks and edges of the graph, with the index of each one within these arrays
+    private Block[] blocks;
+    private int blockCount;
+    private final Map<Block, Integer> blockSlots;
+    private Edge[] edges;
+    // The output port an edge leaves from and the input port it arrives at
+    private int[] edgeOutputPorts;
+    private int[] edgeInputPorts;
+    private int edgeCount;
+    // The number of slots below edgeCount left empty by removed edges
+    private int removedEdgeCount;
+    private final Map<Edge, Integer> edgeSlots;
+    // True if the graph has changed since the arrays were last built
+    private boolean isStale;
+
+    // The block with each id, null for ids that aren't in use
+    private Block[] blocksById;
+    // The first output row and the first input row of each block id, with one more element
+    // at the end so the rows of an id end where the rows of the next id start
+    private int[] outputRowStarts;
+    private int[] inputRowStarts;
+    // The first child entry of each output row, again with one more element at the end
+    private int[] childStarts;
+    // The child entries, the input block id and input port index that each edge leads to
+    private int[] childBlocks;
+    private int[] childPorts;
+    private Edge[] childEdges;
+    // The output block id and output port index of the edge attached to each input row
+    private int[] parentBlocks;
+    private int[] parentPorts;
+    private Edge[] parentEdges;
+
+    public GraphModel() {
+        blocks = new Block[16];
+        blockCount = 0;
+        blockSlots = new HashMap<>();
+        edges = new Edge[16];
+        edgeOutputPorts = new int[16];
+        edgeInputPorts = new int[16];
+        edgeCount = 0;
+        removedEdgeCount = 0;
+        edgeSlots = new HashMap<>();
+        isStale = true;
+    }
+
+    public void addBlock(Block block) {
+        if (blockSlots.containsKey(block)) return;
+        if (blockCount == blocks.length) blocks = Arrays.copyOf(blocks, blockCount*2);
+        blockSlots.put(block, blockCount);
+        blocks[blockCount++] = block;
+        isStale = true;
+    }
+
+    public void removeBlock(Block block) {
+        Integer slot = blockSlots.remove(block);
+        if (slot == null) return;
+        // The last block fills the gap so the blocks stay packed
+        Block last = blocks[--blockCount];
+        blocks[blockCount] = null;
+        if (last != block) {
+            blocks[slot] = last;
+            blockSlots.put(last, slot);
+        }
+        isStale = true;
+    }
+
+    /**
+     * Add an edge whose end components have already been given their connectors.
+     */
+    public void addEdge(Edge edge) {
+        if (edgeSlots.containsKey(edge)) return;
+        // Gaps left by removed edges are reused before the arrays are grown
+        if (edgeCount == edges.length) packEdges();
+        if (edgeCount == edges.length) {
+            edges = Arrays.copyOf(edges, edgeCount*2);
+            edgeOutputPorts = Arrays.copyOf(edgeOutputPorts, edgeCount*2);
+            edgeInputPorts = Arrays.copyOf(edgeInputPorts, edgeCount*2);
+        }
+        Connector start = ((ConnectorComponent) edge.startComponent()).getConnector().orElseThrow();
+        Connector end = ((ConnectorComponent) edge.endComponent()).getConnector().orElseThrow();
+        edgeSlots.put(edge, edgeCount);
+        edges[edgeCount] = edge;
+        edgeOutputPorts[edgeCount] = edge.isOutputToInput() ? start.portIndex() : end.portIndex();
+        edgeInputPorts[edgeCount] = edge.isOutputToInput() ? end.portIndex() : start.portIndex();
+        edgeCount++;
+        isStale = true;
+    }
+
+    public void removeEdge(Edge edge) {
+        Integer slot = edgeSlots.remove(edge);
+        if (slot == null) return;
+        // The gap is closed up when the arrays are next rebuilt, so the edges stay in the
+        // order they were added
+        edges[slot] = null;
+        removedEdgeCount++;
+        isStale = true;
+    }
+
+    /**
+     * Rebuild the arrays the next time the model is read, for when the id of a block changes.
+     */
+    public void invalidate() {
+        isStale = true;
+    }
+
+    public void clear() {
+        Arrays.fill(blocks, 0, blockCount, null);
+        Arrays.fill(edges, 0, edgeCount, null);
+        blockCount = 0;
+        edgeCount = 0;
+        removedEdgeCount = 0;
+        blockSlots.clear();
+        edgeSlots.clear();
+        isStale = true;
+    }
+
+    /**
+     * One more than the largest block id in the graph, so an array of this length can hold
+     * something for every block, such as whether it has been visited.
+     */
+    public int idCapacity() {
+        compact();
+        return blocksById.length;
+    }
+
+    /**
+     * The block with the id, or null if there isn't one.
+     */
+    public Block block(int id) {
+        compact();
+        return (id >= 0 && id < blocksById.length) ? blocksById[id] : null;
+    }
+
+    /**
+     * Whether the block is part of the graph.
+     */
+    public boolean contains(Block block) {
+        return block(block.getId()) == block;
+    }
+
+    /**
+     * The first child entry of all the output ports of a block.
+     */
+    public int outputStart(int id) {
+        compact();
+        return childStarts[outputRowStarts[clamp(id)]];
+    }
+
+    /**
+     * One past the last child entry of all the output ports of a block.
+     */
+    public int outputEnd(int id) {
+        compact();
+        return childStarts[outputRowStarts[clamp(id)+1]];
+    }
+
+    /**
+     * The first child entry of an output port of a block.
+     */
+    public int portStart(int id, int port) {
+        compact();
+        return childStarts[outputRow(id, port)];
+    }
+
+    /**
+     * One past the last child entry of an output port of a block.
+     */
+    public int portEnd(int id, int port) {
+        compact();
+        int row = outputRow(id, port);
+        return (row == outputRowStarts[clamp(id)+1]) ? childStarts[row] : childStarts[row+1];
+    }
+
+    /**
+     * The id of the block a child entry leads to.
+     */
+    public int childBlock(int entry) {
+        return childBlocks[entry];
+    }
+
+    /**
+     * The index of the input port a child entry leads to.
+     */
+    public int childPort(int entry) {
+        return childPorts[entry];
+    }
+
+    public Edge childEdge(int entry) {
+        return childEdges[entry];
+    }
+
+    /**
+     * The number of input ports of a block.
+     */
+    public int inputCount(int id) {
+        compact();
+        int clamped = clamp(id);
+        return inputRowStarts[clamped+1]-inputRowStarts[clamped];
+    }
+
+    /**
+     * The id of the block an input port is connected to, or NONE if it isn't connected.
+     */
+    public int parentBlock(int id, int port) {
+        int row = inputRow(id, port);
+        return (row == NONE) ? NONE : parentBlocks[row];
+    }
+
+    /**
+     * The index of the output port an input port is connected to, or NONE if it isn't connected.
+     */
+    public int parentPort(int id, int port) {
+        int row = inputRow(id, port);
+        return (row == NONE) ? NONE : parentPorts[row];
+    }
+
+    /**
+     * The edge attached to an input port, or null if it isn't connected.
+     */
+    public Edge parentEdge(int id, int port) {
+        int row = inputRow(id, port);
+        return (row == NONE) ? null : parentEdges[row];
+    }
+
+    public boolean isInputConnected(int id, int port) {
+        return parentBlock(id, port) != NONE;
+    }
+
+    /**
+     * Whether every input port of a block has an edge attached to it.
+     */
+    public boolean allInputsConnected(int id) {
+        compact();
+        int clamped = clamp(id);
+        for (int row = inputRowStarts[clamped]; row < inputRowStarts[clamped+1]; row++) {
+            if (parentBlocks[row] == NONE) return false;
+        }
+        return true;
+    }
+
+    // Ids outside of the arrays are moved onto the extra element at the end, which has no rows
+    private int clamp(int id) {
+        return (id >= 0 && id < blocksById.length) ? id : blocksById.length;
+    }
+
+    // The output row of a port, or the end of the block's rows if it doesn't have the port
+    private int outputRow(int id, int port) {
+        int clamped = clamp(id);
+        int row = outputRowStarts[clamped]+port;
+        return (port >= 0 && row < outputRowStarts[clamped+1]) ? row : outputRowStarts[clamped+1];
+    }
+
+    private int inputRow(int id, int port) {
+        compact();
+        int clamped = clamp(id);
+        int row = inputRowStarts[clamped]+port;
+        return (port >= 0 && row < inputRowStarts[clamped+1]) ? row : NONE;
+    }
+
+    /**
+     * Rebuild the arrays from the blocks and edges if the graph has changed.
+     */
+    private void compact() {
+        if (!isStale) return;
+        packEdges();
+
+        int maxId = NONE;
+        for (int i = 0; i < blockCount; i++) {
+            maxId = Math.max(maxId, blocks[i].getId());
+        }
+        int ids = maxId+1;
+        blocksById = new Block[ids];
+        // Count the rows of each id then turn the counts into starts
+        outputRowStarts = new int[ids+2];
+        inputRowStarts = new int[ids+2];
+        for (int i = 0; i < blockCount; i++) {
+            Block block = blocks[i];
+            int id = block.getId();
+            blocksById[id] = block;
+            outputRowStarts[id+1] = block.getOutputConnectors().size();
+            inputRowStarts[id+1] = block.getInputConnectors().size();
+        }
+        for (int id = 0; id <= ids; id++) {
+            outputRowStarts[id+1] += outputRowStarts[id];
+            inputRowStarts[id+1] += inputRowStarts[id];
+        }
+        int outputRows = outputRowStarts[ids];
+        int inputRows = inputRowStarts[ids];
+
+        parentBlocks = new int[inputRows];
+        parentPorts = new int[inputRows];
+        parentEdges = new Edge[inputRows];
+        Arrays.fill(parentBlocks, NONE);
+        Arrays.fill(parentPorts, NONE);
+
+        // Count the children of each output row, filling in the parents along the way.
+        // The output row of each edge is kept so it only has to be found once.
+        int[] edgeRows = new int[edgeCount];
+        childStarts = new int[outputRows+1];
+        for (int i = 0; i < edgeCount; i++) {
+            Edge edge = edges[i];
+            int outputId = edge.outputBlock().getId();
+            int inputId = edge.inputBlock().getId();
+            // Edges to blocks which aren't in the model are left out
+            if (block(outputId, ids) != edge.outputBlock() || block(inputId, ids) != edge.inputBlock()) {
+                edgeRows[i] = NONE;
+                continue;
+            }
+            int outputRow = outputRowStarts[outputId]+edgeOutputPorts[i];
+            edgeRows[i] = outputRow;
+            childStarts[outputRow+1]++;
+            int inputRow = inputRowStarts[inputId]+edgeInputPorts[i];
+            parentBlocks[inputRow] = outputId;
+            parentPorts[inputRow] = edgeOutputPorts[i];
+            parentEdges[inputRow] = edge;
+        }
+        for (int row = 0; row < outputRows; row++) {
+            childStarts[row+1] += childStarts[row];
+        }
+
+        // Place each edge in the next free entry of its row, so the children of a port are in
+        // the order their edges were added
+        int entries = childStarts[outputRows];
+        childBlocks = new int[entries];
+        childPorts = new int[entries];
+        childEdges = new Edge[entries];
+        int[] next = Arrays.copyOf(childStarts, outputRows);
+        for (int i = 0; i < edgeCount; i++) {
+            if (edgeRows[i] == NONE) continue;
+            int entry = next[edgeRows[i]]++;
+            childBlocks[entry] = edges[i].inputBlock().getId();
+            childPorts[entry] = edgeInputPorts[i];
+            childEdges[entry] = edges[i];
+        }
+
+        isStale = false;
+    }
+
+    // Close up the gaps left by removed edges, keeping the rest in the order they were added
+    private void packEdges() {
+        if (removedEdgeCount == 0) return;
+        int packed = 0;
+        for (int i = 0; i < edgeCount; i++) {
+            if (edges[i] == null) continue;
+            if (packed != i) {
+                edges[packed] = edges[i];
+                edgeOutputPorts[packed] = edgeOutputPorts[i];
+                edgeInputPorts[packed] = edgeInputPorts[i];
+                edgeSlots.put(edges[packed], packed);
+            }
+            packed++;
+        }
+        Arrays.fill(edges, packed, edgeCount, null);
+        edgeCount = packed;
+        removedEdgeCount = 0;
+    }
+
+    // The block with an id while the arrays are being built
+    private Block block(int id, int ids) {
+        return (id >= 0 && id < ids) ? blocksById[id] : null;
+    }
+}
@@ -0,0 +1,154 @@
+package tessellator.editor.graph;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import tessellator.editor.graph.block.Block;
+import tessellator.editor.graph.edge.Edge;
+
+/**
+ * An object which keeps the scene graph of the graph builder proportional to what can be
+ * seen rather than to the size of the whole graph.
+ *
+ * The graph builder holds every block and edge in its model, but only the containers and
+ * edge components that intersect the visible part of the content layer (plus a margin) are
+ * attached to the content layer. When the view is panned or zoomed, nodes that scroll out of
+ * view are detached and nodes that scroll into view are re-attached. The nodes themselves are
+ * never rebuilt, the same container is detached and re-attached as many times as necessary,
+ * so a block keeps its attribute values, selection state and drag strategies while off screen.
+ *
+ * The visible blocks and edges are found through the graph builder's spatial indexes and only
+ * the blocks and edges attached by the previous refresh are considered for detaching, so a
+ * refresh costs in proportion to what is on screen rather than to the size of the graph.
+ */
+public class GraphViewport {
+
+    // How far outside the visible area (in graph builder pixels) nodes are kept attached, so
+    // small pans don't constantly attach and detach the nodes along the edges of the view
+    private static final double MARGIN = 200;
+
+    private final GraphBuilder graphBuilder;
+    private boolean refreshPending;
+    // The blocks and edges whose nodes may currently be attached to the content layer
+    private Set<Block> attachedBlocks;
+    private Set<Edge> attachedEdges;
+
+    public GraphViewport(GraphBuilder graphBuilder) {
+        this.graphBuilder = graphBuilder;
+        refreshPending = false;
+        attachedBlocks = new HashSet<>();
+        attachedEdges = new HashSet<>();
+    }
+
+    /**
+     * Record that a block's container has been attached outside of a refresh, so that the
+     * next refresh knows to detach it if it isn't visible.
+     */
+    public void markAttached(Block block) {
+        attachedBlocks.add(block);
+    }
+
+    /**
+     * Record that an edge's components have been attached outside of a refresh.
+     */
+    public void markAttached(Edge edge) {
+        attachedEdges.add(edge);
+    }
+
+    /**
+     * Forget every attached block and edge, for when the content layer has been cleared.
+     */
+    public void clear() {
+        attachedBlocks.clear();
+        attachedEdges.clear();
+    }
+
+    /**
+     * Schedule a refresh of the attached nodes. Any number of requests made before the
+     * refresh runs are coalesced into one refresh.
+     */
+    public void requestRefresh() {
+        if (refreshPending) return;
+        refreshPending = true;
+        Platform.runLater(() -> {
+            refreshPending = false;
+            refresh();
+        });
+    }
+
+    /**
+     * The area of the content layer (in content coordinates) that is visible within the
+     * graph builder, grown by the margin.
+     */
+    public Bounds visibleContentBounds() {
+        Bounds view = new BoundingBox(-MARGIN, -MARGIN, graphBuilder.getWidth()+2*MARGIN, graphBuilder.getHeight()+2*MARGIN);
+        return graphBuilder.getContent().parentToLocal(view);
+    }
+
+    /**
+     * Attach the nodes of every block and edge that intersect the visible area and detach
+     * the nodes of those that don't.
+     */
+    public void refresh() {
+        // Until the graph builder has been laid out there is no visible area to compare against
+        if (graphBuilder.getWidth() <= 0 || graphBuilder.getHeight() <= 0) return;
+
+        Bounds visible = visibleContentBounds();
+        ObservableList<Node> attached = graphBuilder.getContent().getChildren();
+
+        List<Node> toAttachBehind = new ArrayList<>();
+        List<Node> toAttachInFront = new ArrayList<>();
+        // A set keeps the bulk removal linear since removeAll() checks each child against it
+        Set<Node> toDetach = new HashSet<>();
+
+        Set<Edge> visibleEdges = new HashSet<>(graphBuilder.getEdgeIndex().query(visible));
+        Set<Block> visibleBlocks = new HashSet<>(graphBuilder.getBlockIndex().query(visible));
+
+        for (Edge edge : attachedEdges) {
+            if (!visibleEdges.contains(edge)) collectEdgeChange(edge, false, toAttachBehind, toDetach);
+        }
+        for (Edge edge : visibleEdges) {
+            collectEdgeChange(edge, true, toAttachBehind, toDetach);
+        }
+        for (Block block : attachedBlocks) {
+            if (!visibleBlocks.contains(block)) collectChange(block.getContainer(), false, toAttachInFront, toDetach);
+        }
+        for (Block block : visibleBlocks) {
+            collectChange(block.getContainer(), true, toAttachInFront, toDetach);
+        }
+        attachedEdges = visibleEdges;
+        attachedBlocks = visibleBlocks;
+
+        // Each list change is applied in bulk so the content layer only fires one change per list
+        if (!toDetach.isEmpty()) attached.removeAll(toDetach);
+        // Edges sit behind all of the blocks
+        if (!toAttachBehind.isEmpty()) attached.addAll(0, toAttachBehind);
+        if (!toAttachInFront.isEmpty()) attached.addAll(toAttachInFront);
+
+        // The zoom or the number of attached nodes may have crossed a quality threshold
+        graphBuilder.getRenderQuality().update();
+    }
+
+    private void collectEdgeChange(Edge edge, boolean isVisible, Collection<Node> toAttach, Collection<Node> toDetach) {
+        collectChange(edge.lineComponent(), isVisible, toAttach, toDetach);
+        collectChange(edge.startComponent(), isVisible, toAttach, toDetach);
+        collectChange(edge.endComponent(), isVisible, toAttach, toDetach);
+    }
+
+    private void collectChange(Node node, boolean isVisible, Collection<Node> toAttach, Collection<Node> toDetach) {
+        boolean isAttached = node.getParent() == graphBuilder.getContent();
+        if (isVisible && !isAttached) {
+            toAttach.add(node);
+        } else if (!isVisible && isAttached) {
+            toDetach.add(node);
+        }
+    }
+}
@@ -6,24 +6,19 @@ import java.util.ArrayList;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 
-import javafx.scene.Node;
-import javafx.scene.control.ComboBox;
-import javafx.scene.control.TextField;
 import javafx.scene.shape.Shape;
 import tessellator.editor.graph.block.Attribute;
 import tessellator.editor.graph.block.Block;
 import tessellator.editor.graph.block.Connector;
-import tessellator.editor.graph.block.Container;
 import tessellator.editor.graph.block.category.Category;
 import tessellator.editor.graph.block.eventhandling.ConnectorDragStrategies;
 import tessellator.editor.graph.block.factory.BlockFactory;
-import tessellator.editor.graph.edge.CoordinatePair;
 import tessellator.editor.graph.edge.Edge;
 import tessellator.editor.graph.edge.component.EdgeComponent;
 import tessellator.editor.graph.edge.component.end.CircleComponent;
-import tessellator.editor.graph.edge.component.end.ConnectorComponent;
 import tessellator.editor.graph.edge.line.LineFactory;
 import tessellator.editor.preview.TileCanvasCaretaker;
+import tessellator.profiling.GraphJsonEvent;
 
 /**
  * A helper object for encoding and decoding the graph builder into json.
@@ -43,16 +38,15 @@ public class JsonHelper {
      * @return A json string of the graph builder's content.
      */
     public String graphToJson() {
+        GraphJsonEvent event = new GraphJsonEvent();
+        event.begin();
         // SImplify all the blocks in the graph builder
         List<SimplifiedBlock> blocks = new ArrayList<>();
-        for (Node child : graphBuilder.getChildren()) {
-            if (child instanceof Container) {
-                Container container = (Container) child;
-                blocks.add(simplifyBlock(container.getBlock()));
-            }
+        for (Block block : graphBuilder.getBlocks()) {
+            blocks.add(simplifyBlock(block));
         }
         // Simplifiy the graph builder
-        SimplifiedGraphBuilder graph = new SimplifiedGraphBuilder(graphBuilder.getZoomScale(), graphBuilder.getStrokeWidthOfLines(), blocks);
+        SimplifiedGraphBuilder graph = new SimplifiedGraphBuilder(graphBuilder.getZoomScale(), graphBuilder.getStrokeWidthOfLines(), blocks, true);
 
         // Create an ObjectMapper instance
         ObjectMapper objectMapper = new ObjectMapper();
@@ -60,7 +54,12 @@ public class JsonHelper {
 
         try {
             // Return the simplified graphbuilder as a json string
-            return objectMapper.writeValueAsString(graph);
+            String json = objectMapper.writeValueAsString(graph);
+            event.operation = "save";
+            event.blocks = blocks.size();
+            event.characters = json.length();
+            event.commit();
+            return json;
         } catch (IOException e) {
             e.printStackTrace();
             return "";
@@ -69,14 +68,13 @@ public class JsonHelper {
 
     private SimplifiedBlock simplifyBlock(Block block) {
         // Construct the simplified output connectors
+        GraphModel model = graphBuilder.getModel();
+        int blockId = block.getId();
         List<SimplifiedOutputConnector> simplifiedOutputConnectors = new ArrayList<>();
-        for (Connector connector: block.getOutputConnectors()) {
+        for (int port = 0; port < block.getOutputConnectors().size(); port++) {
             List<SimplifiedChild> children = new ArrayList<>();
-            for (Edge edge : connector.edgeEnds().stream().map(e -> e.getEdge().orElseThrow()).toList()) {
-                int id = edge.inputBlock().getId();
-                ConnectorComponent comp = (edge.isOutputToInput()) ? (ConnectorComponent) edge.endComponent() : (ConnectorComponent) edge.startComponent();
-                int connectorIndex = edge.inputBlock().getInputConnectors().indexOf(comp.getConnector().orElseThrow());
-                children.add(new SimplifiedChild(id, connectorIndex));
+            for (int i = model.portStart(blockId, port); i < model.portEnd(blockId, port); i++) {
+                children.add(new SimplifiedChild(model.childBlock(i), model.childPort(i)));
             }
             simplifiedOutputConnectors.add(new SimplifiedOutputConnector(children));
         }
@@ -100,6 +98,8 @@ public class JsonHelper {
      * saves to be opened with different skins/themes.
      */
     public void jsonToGraph(String json, BlockFactory factory) {
+        GraphJsonEvent event = new GraphJsonEvent();
+        event.begin();
         ObjectMapper objectMapper = new ObjectMapper();
         try {
             // Read JSON string and convert it to a simplified graph builder
@@ -108,8 +108,12 @@ public class JsonHelper {
             // from the simplified graph builder object to the graph builder
             graphBuilder.clearContent();
 
-            graphBuilder.setStrokeWidthOfLines(graph.strokeWidthOfLines());
-            graphBuilder.setZoomScale(graph.zoom());
+            // Saves made before the graph builder had a content layer stored the stroke width
+            // and block positions after zooming, these are converted back into content coordinates.
+            boolean isLegacySave = !graph.contentCoordinates() && graph.zoom() > 0;
+            double legacyZoom = isLegacySave ? graph.zoom() : 1;
+            graphBuilder.setStrokeWidthOfLines(graph.strokeWidthOfLines()/legacyZoom);
+            graphBuilder.setZoomScale((graph.zoom() > 0) ? graph.zoom() : 1);
             TileCanvasCaretaker.getDrawings().clear();
 
             // Construct all of the blocks
@@ -131,22 +135,17 @@ public class JsonHelper {
                 SimplifiedBlock simpBlock = graph.blocks().stream().filter(b -> b.id()==block.getId()).findFirst().orElseThrow();
                 block.setId(simpBlock.id());
                 graphBuilder.usingBlockId(simpBlock.id());
-                block.getContainer().setLayoutX(simpBlock.layoutX());
-                block.getContainer().setLayoutY(simpBlock.layoutY());
+                // Legacy saves scaled each container about its own center
+                double centerX = block.getContainer().getLayoutBounds().getCenterX();
+                double centerY = block.getContainer().getLayoutBounds().getCenterY();
+                block.getContainer().setLayoutX((simpBlock.layoutX()+centerX)/legacyZoom-centerX);
+                block.getContainer().setLayoutY((simpBlock.layoutY()+centerY)/legacyZoom-centerY);
 
                 // Set up the attributes
                 for (int j = 0; j < block.getAttributes().size(); j ++) {
                     Attribute attribute = block.getAttributes().get(j);
                     attribute.setBlock(block);
-                    attribute.setValue(simpBlock.attributeValues().get(j));
-                    Node attrRegion = attribute.attributeRegion();
-                    if (attrRegion instanceof TextField) {
-                        TextField attr = (TextField) attrRegion;
-                        attr.setText(simpBlock.attributeValues().get(j));
-                    } else if (attrRegion instanceof ComboBox) {
-                        ComboBox<String> attr = (ComboBox<String>) attrRegion;
-                        attr.setValue(simpBlock.attributeValues().get(j));
-                    }
+                    attribute.showValue(simpBlock.attributeValues().get(j));
                 }
 
                 // Set up the edges between blocks
@@ -155,41 +154,23 @@ public class JsonHelper {
                         Block inputBlock = blocks.get(child.id());
                         LineFactory lineFactory = ConnectorDragStrategies.getLineFactory();
 
-                        double outputWidth = block.getBody().minWidth(0);
-                        double outputGap = (outputWidth-outputWidth*block.getContainer().getScaleX())/2;
-
-                        double inputWidth = inputBlock.getBody().minWidth(0);
-                        double inputGap = (inputWidth-inputWidth*inputBlock.getContainer().getScaleX())/2;
-
                         CircleComponent outputEnd = new CircleComponent();
                         Connector outputConnector = block.getOutputConnectors().get(j);
                         outputConnector.addEdgeEnd(outputEnd);
                         outputEnd.setRadius(0);
-                        outputEnd.layoutXProperty().bind(outputConnector.visibleRegion().layoutXProperty().add(block.getContainer().layoutXProperty()).add(-outputGap));
-                        double outputCenterHeight = block.getContainer().getBoundsInLocal().getHeight()/2;
-                        double outputScaledDiff = (outputConnector.visibleRegion().layoutYProperty().get()-outputCenterHeight)*block.getContainer().getScaleY();
-                        outputEnd.layoutYProperty().bind(block.getContainer().layoutYProperty().add(outputCenterHeight+outputScaledDiff));
                         outputEnd.setConnector(outputConnector);
-                        graphBuilder.getChildren().add(outputEnd);
 
                         CircleComponent inputEnd = new CircleComponent();
                         Connector inputConnector = inputBlock.getInputConnectors().get(child.connectorIndex());
                         inputConnector.addEdgeEnd(inputEnd);
                         inputEnd.setRadius(0);
-                        inputEnd.layoutXProperty().bind(inputConnector.visibleRegion().layoutXProperty().add(inputBlock.getContainer().layoutXProperty()).add(inputGap));
-                        double inputCenterHeight = inputBlock.getContainer().getBoundsInLocal().getHeight()/2;
-                        double inputScaledDiff = (inputConnector.visibleRegion().layoutYProperty().get()-inputCenterHeight)*inputBlock.getContainer().getScaleY();
-                        inputEnd.layoutYProperty().bind(inputBlock.getContainer().layoutYProperty().add(inputCenterHeight+inputScaledDiff));
                         inputEnd.setConnector(inputConnector);
-                        graphBuilder.getChildren().add(inputEnd);
 
-                        CoordinatePair cp = new CoordinatePair(outputEnd.layoutXProperty(), outputEnd.layoutYProperty(), inputEnd.layoutXProperty(), inputEnd.layoutYProperty());
-                        Shape line = (Shape) lineFactory.createLine(cp);
+                        // The line is put into place when the graph builder lays out the edge
+                        Shape line = (Shape) lineFactory.createLine(0, 0, 0, 0);
                         line.setStrokeWidth(graphBuilder.getStrokeWidthOfLines());
-                        graphBuilder.getChildren().add(line);
-                        line.toBack();
                         
-                        new Edge(outputEnd, inputEnd, (EdgeComponent) line, inputBlock, block, true);
+                        graphBuilder.addEdge(new Edge(outputEnd, inputEnd, (EdgeComponent) line, inputBlock, block, true));
                     }
                 }
 
@@ -200,6 +181,17 @@ public class JsonHelper {
             if (graphBuilder.hasRoot()) graphBuilder.getRoot().orElseThrow().satisfied();
             TileCanvasCaretaker.applyDrawingsToCanvas();
 
+            // Blocks positioned after their edges were added have left those edges dirty, they are
+            // laid out now so everything out of view can be detached before the graph is first rendered
+            graphBuilder.getEdgeLayout().layoutDirtyEdges();
+            graphBuilder.getViewport().refresh();
+            // Opening a graph can't be undone, the history starts from the opened graph
+            graphBuilder.getHistory().reset();
+
+            event.operation = "load";
+            event.blocks = blocks.size();
+            event.characters = json.length();
+            event.commit();
         } catch (Exception e) {
             System.out.println("The contents of the provided file are faulty.");
         }
@@ -224,10 +216,12 @@ public class JsonHelper {
         List<SimplifiedOutputConnector> outputConnectors
     ) {}
 
+    // contentCoordinates is false for saves made before block positions were stored in
+    // the content coordinates of the graph builder
     private record SimplifiedGraphBuilder(
         double zoom,
         double strokeWidthOfLines,
-        List<SimplifiedBlock> blocks
-
+        List<SimplifiedBlock> blocks,
+        boolean contentCoordinates
     ){}
 }
@@ -0,0 +1,118 @@
+package tessellator.editor.graph;
+
+import tessellator.editor.graph.block.Block;
+import tessellator.editor.graph.edge.Edge;
+
+/**
+ * An object which chooses how much detail the blocks and edges of the graph builder are
+ * drawn with.
+ *
+ * At full quality blocks are drawn with their theme's gradients and drop shadow and edges
+ * with the effects of their line style. At reduced quality the gradients are swapped for plain
+ * colours, the effects are dropped and the containers of blocks are cached as bitmaps. These
+ * per node effects are what JavaFX spends most of its time on when a lot of the graph is on
+ * screen, while the detail they add can't be made out once the graph is zoomed out.
+ *
+ * In the adaptive mode, which is the default, the graph is drawn at reduced quality once it is
+ * zoomed out past a threshold or once too many nodes are attached to the content layer, and
+ * at full quality again once it is zoomed back in and the number of attached nodes has fallen.
+ * The thresholds for going back to full quality are further in than those for leaving it, so
+ * hovering around a threshold doesn't redraw the whole graph over and over.
+ *
+ * The quality is checked after every refresh of the graph viewport, which follows every zoom,
+ * pan and change to the graph. Changing the quality visits every block and edge once, however
+ * the quality is only changed when a threshold is crossed.
+ */
+public class RenderQuality {
+
+    /**
+     * How the quality is chosen.
+     */
+    public enum Mode {
+        // Chosen from the zoom and the number of attached nodes
+        ADAPTIVE,
+        // Always full quality
+        FULL,
+        // Always reduced quality
+        REDUCED
+    }
+
+    // The graph is drawn at reduced quality when zoomed out past this scale, or when more nodes
+    // than this are attached to the content layer (every block has one node and every edge three)
+    private static final double REDUCE_BELOW_ZOOM = 0.5;
+    private static final int REDUCE_ABOVE_NODES = 1500;
+    // The graph is only drawn at full quality again once zoomed in past this scale and with no
+    // more nodes than this attached
+    private static final double RESTORE_ABOVE_ZOOM = 0.6;
+    private static final int RESTORE_BELOW_NODES = 1200;
+
+    private final GraphBuilder graphBuilder;
+    private Mode mode;
+    private boolean isReduced;
+
+    public RenderQuality(GraphBuilder graphBuilder) {
+        this.graphBuilder = graphBuilder;
+        mode = Mode.ADAPTIVE;
+        isReduced = false;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+        update();
+    }
+
+    /**
+     * Whether the graph is currently drawn at reduced quality.
+     */
+    public boolean isReduced() {
+        return isReduced;
+    }
+
+    /**
+     * Choose the quality from the mode, the zoom and the number of attached nodes, and redraw
+     * every block and edge if it has changed.
+     */
+    public void update() {
+        boolean shouldReduce;
+        if (mode == Mode.FULL) {
+            shouldReduce = false;
+        } else if (mode == Mode.REDUCED) {
+            shouldReduce = true;
+        } else {
+            double zoom = graphBuilder.getZoomScale();
+            int nodes = graphBuilder.getContent().getChildren().size();
+            if (isReduced) {
+                shouldReduce = zoom < RESTORE_ABOVE_ZOOM || nodes > RESTORE_BELOW_NODES;
+            } else {
+                shouldReduce = zoom < REDUCE_BELOW_ZOOM || nodes > REDUCE_ABOVE_NODES;
+            }
+        }
+        if (shouldReduce == isReduced) return;
+
+        isReduced = shouldReduce;
+        for (Block block : graphBuilder.getBlocks()) {
+            apply(block);
+        }
+        for (Edge edge : graphBuilder.getEdges()) {
+            apply(edge);
+        }
+    }
+
+    /**
+     * Draw a block at the current quality, for blocks added to the graph.
+     */
+    public void apply(Block block) {
+        block.getTheme().setReducedQuality(block, isReduced);
+    }
+
+    /**
+     * Draw an edge at the current quality, for edges added to the graph.
+     */
+    public void apply(Edge edge) {
+        edge.setReducedQuality(isReduced);
+    }
+}
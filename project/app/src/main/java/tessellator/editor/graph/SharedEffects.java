@@ -0,0 +1,54 @@
+package tessellator.editor.graph;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import javafx.scene.effect.Bloom;
+import javafx.scene.effect.ColorAdjust;
+import javafx.scene.effect.Effect;
+
+/**
+ * A helper object which hands out the effects used to highlight selected blocks and lines.
+ *
+ * JavaFX lets one effect be used by any number of nodes, so rather than every selection
+ * creating its own effect, each highlight is made once for each effect it is put on top of
+ * and shared from then on. The effects that are handed out must never be modified.
+ */
+public class SharedEffects {
+
+    // The highlights made so far, keyed by the effect they are put on top of (which may be null)
+    private static final Map<Effect, Effect> SELECTED_BLOCKS = new IdentityHashMap<>();
+    private static final Map<Effect, Effect> SELECTED_LINES = new IdentityHashMap<>();
+
+    private SharedEffects() {
+    }
+
+    /**
+     * The effect of a selected block's container.
+     *
+     * @param input The effect the container has when it isn't selected, or null.
+     */
+    public static Effect selectedBlock(Effect input) {
+        return SELECTED_BLOCKS.computeIfAbsent(input, i -> {
+            ColorAdjust colorAdjust = new ColorAdjust();
+            colorAdjust.setInput(i);
+            colorAdjust.setSaturation(0.16);
+            return colorAdjust;
+        });
+    }
+
+    /**
+     * The effect of a selected line.
+     *
+     * @param input The effect the line has when it isn't selected, or null.
+     */
+    public static Effect selectedLine(Effect input) {
+        return SELECTED_LINES.computeIfAbsent(input, i -> {
+            Bloom bloom = new Bloom();
+            bloom.setThreshold(0.1);
+            // Use the setInput() method to do compound effects
+            bloom.setInput(i);
+            return bloom;
+        });
+    }
+}
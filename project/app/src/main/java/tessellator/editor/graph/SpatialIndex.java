@@ -0,0 +1,142 @@
+package tessellator.editor.graph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javafx.geometry.Bounds;
+
+/**
+ * A uniform grid over the content coordinates of the graph builder which records the
+ * bounds of items (blocks or edges) so that the items within a region can be found
+ * without visiting every item in the graph.
+ *
+ * Each item is registered in every grid cell its bounds overlap. A query only visits
+ * the cells the queried region overlaps, so its cost depends on the size of the region
+ * and the number of items found rather than on the size of the graph.
+ *
+ * @param <T> The type of item being indexed.
+ */
+public class SpatialIndex<T> {
+
+    // The side length of a cell in content coordinates, roughly the size of a block
+    private static final double DEFAULT_CELL_SIZE = 256;
+
+    private final double cellSize;
+    private final Map<Cell, List<T>> cells;
+    private final Map<T, Entry> entries;
+
+    // The coordinates of a grid cell, a record rather than a packed long so that the hash
+    // codes of neighbouring cells don't collide
+    private record Cell(int x, int y) {}
+
+    // The bounds of an item and the range of cells it has been registered in
+    private record Entry(Bounds bounds, int minCellX, int minCellY, int maxCellX, int maxCellY) {}
+
+    public SpatialIndex() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    public SpatialIndex(double cellSize) {
+        this.cellSize = cellSize;
+        cells = new HashMap<>();
+        entries = new HashMap<>();
+    }
+
+    /**
+     * Add an item to the index, or update its bounds if it is already in the index.
+     * The item is only moved between cells when its new bounds overlap different cells.
+     *
+     * @param item The item being indexed.
+     * @param bounds The bounds of the item in content coordinates.
+     */
+    public void put(T item, Bounds bounds) {
+        int minCellX = cell(bounds.getMinX());
+        int minCellY = cell(bounds.getMinY());
+        int maxCellX = cell(bounds.getMaxX());
+        int maxCellY = cell(bounds.getMaxY());
+
+        Entry old = entries.get(item);
+        if (old != null && old.minCellX()==minCellX && old.minCellY()==minCellY &&
+            old.maxCellX()==maxCellX && old.maxCellY()==maxCellY) {
+            entries.put(item, new Entry(bounds, minCellX, minCellY, maxCellX, maxCellY));
+            return;
+        }
+        if (old != null) removeFromCells(item, old);
+
+        for (int x = minCellX; x <= maxCellX; x++) {
+            for (int y = minCellY; y <= maxCellY; y++) {
+                cells.computeIfAbsent(new Cell(x, y), k -> new ArrayList<>()).add(item);
+            }
+        }
+        entries.put(item, new Entry(bounds, minCellX, minCellY, maxCellX, maxCellY));
+    }
+
+    public void remove(T item) {
+        Entry old = entries.remove(item);
+        if (old != null) removeFromCells(item, old);
+    }
+
+    public void clear() {
+        cells.clear();
+        entries.clear();
+    }
+
+    /**
+     * The bounds an item was last indexed with, or null if the item isn't in the index.
+     */
+    public Bounds boundsOf(T item) {
+        Entry entry = entries.get(item);
+        return (entry == null) ? null : entry.bounds();
+    }
+
+    /**
+     * Find all the items whose bounds intersect the region.
+     *
+     * @param region The region in content coordinates.
+     * @return The items that intersect the region, each item appears once.
+     */
+    public Set<T> query(Bounds region) {
+        Set<T> found = new LinkedHashSet<>();
+        int minCellX = cell(region.getMinX());
+        int minCellY = cell(region.getMinY());
+        int maxCellX = cell(region.getMaxX());
+        int maxCellY = cell(region.getMaxY());
+
+        for (int x = minCellX; x <= maxCellX; x++) {
+            for (int y = minCellY; y <= maxCellY; y++) {
+                List<T> cellItems = cells.get(new Cell(x, y));
+                if (cellItems == null) continue;
+                for (T item : cellItems) {
+                    if (!found.contains(item) && region.intersects(entries.get(item).bounds())) {
+                        found.add(item);
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void removeFromCells(T item, Entry entry) {
+        for (int x = entry.minCellX(); x <= entry.maxCellX(); x++) {
+            for (int y = entry.minCellY(); y <= entry.maxCellY(); y++) {
+                Cell key = new Cell(x, y);
+                List<T> cellItems = cells.get(key);
+                if (cellItems == null) continue;
+                cellItems.remove(item);
+                if (cellItems.isEmpty()) cells.remove(key);
+            }
+        }
+    }
+
+    private int cell(double coordinate) {
+        return (int) Math.floor(coordinate/cellSize);
+    }
+}
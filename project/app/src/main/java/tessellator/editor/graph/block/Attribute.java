@@ -1,6 +1,10 @@
 package tessellator.editor.graph.block;
 
+import java.util.Objects;
+
 import javafx.scene.Node;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.TextField;
 /**
  * An object which groups together the visual components of and attribute as well
  * the value it holds. Make sure to assign a block to the attribute before using
@@ -43,7 +47,26 @@ public class Attribute {
 	}
 
 	public void setValue(String value) {
+		boolean hasChanged = !Objects.equals(value, this.value);
 		this.value = value;
+		// The change is recorded in the history of the graph builder so it can be undone
+		if (hasChanged && block != null) {
+			block.getTheme().getGraphBuilder().getHistory().blockChanged(block);
+		}
+	}
+
+	/**
+	 * Set the value and also show it in the input node, for values that didn't come from
+	 * the user typing or picking them.
+	 */
+	@SuppressWarnings("unchecked")
+	public void showValue(String value) {
+		setValue(value);
+		if (attributeRegion instanceof TextField) {
+			((TextField) attributeRegion).setText(value);
+		} else if (attributeRegion instanceof ComboBox) {
+			((ComboBox<String>) attributeRegion).setValue(value);
+		}
 	}
 
 	/**
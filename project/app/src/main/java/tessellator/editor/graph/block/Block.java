@@ -2,18 +2,18 @@ package tessellator.editor.graph.block;
 
 
 import java.util.List;
-import java.util.Set;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collection;
 
 import javafx.collections.ObservableList;
 import javafx.scene.Node;
 import javafx.scene.paint.Color;
+import tessellator.editor.graph.GraphModel;
 import tessellator.editor.graph.block.category.BlockCategory;
 import tessellator.editor.graph.block.theme.BlockTheme;
-import tessellator.editor.graph.edge.component.EdgeComponent;
 import tessellator.editor.preview.Drawing;
 import tessellator.editor.preview.TileCanvasCaretaker;
+import tessellator.profiling.BlockEvaluationEvent;
 
 /**
  * An object which represents a node within the graph of the graph builder. It groups together
@@ -91,12 +91,16 @@ public class Block {
 		}
 
 		public BlockBuilder inputConnector(String label) {
-            inputConnectors.add(theme.constructInputConnector(label, inputConnectors.size()+2, container));
+            Connector connector = theme.constructInputConnector(label, inputConnectors.size()+2, container);
+            connector.setPortIndex(inputConnectors.size());
+            inputConnectors.add(connector);
 			return this;
 		}
 
 		public BlockBuilder outputConnector(String label) {
-            outputConnectors.add(theme.constructOutputConnector(label, outputConnectors.size()+2, container));
+            Connector connector = theme.constructOutputConnector(label, outputConnectors.size()+2, container);
+            connector.setPortIndex(outputConnectors.size());
+            outputConnectors.add(connector);
 			return this;
 		}
 
@@ -185,8 +189,19 @@ public class Block {
 	 * satisfied. If they become satisfied then they too are drawn.
 	 */
 	public void satisfied() {
+		BlockEvaluationEvent event = new BlockEvaluationEvent();
+		event.begin();
+		int blocksEvaluated = satisfy();
+		event.trigger = "satisfied";
+		event.blocksEvaluated = blocksEvaluated;
+		event.commit();
+	}
+
+	// Draw this block and the descendants it satisfies, returning the number of blocks drawn
+	private int satisfy() {
 		
 		satisfied = true;
+		int blocksEvaluated = 1;
 		// If the drawing that we are redrawing was previously labelled, make the new
 		// drawing labelled as well.
 		if (drawing != null) {
@@ -198,39 +213,34 @@ public class Block {
 		} else {
 			blockCat.draw(this);
 		}
-		Set<Block> visitedChildren = new HashSet<>();
-
-		for (Connector oc : outputConnectors) {
-			for (EdgeComponent e : oc.edgeEnds()) {
-				Block child = e.getEdge().orElseThrow().inputBlock();
-				// A means to avoid pointless checking by skipping iterations that check child blocks
-				// that have already been checked
-				if (visitedChildren.contains(child)) {
-					continue;
-				}
-				visitedChildren.add(child);
-				boolean childIsSatisfied = false;
-				// If any of the child's input connectors are unoccupied then the child can never be satisfied
-				// so the search ends
-				for (Connector ic : child.getInputConnectors()) {
-					// If the child's input connector is occupied then check the whether the parent block
-					// it connects to is satisfied
-					if (ic.edgeEnds().size()==1) {
-						Block parent = ic.edgeEnds().iterator().next().getEdge().orElseThrow().outputBlock();
-						childIsSatisfied = parent.isSatisfied();
-					} else {
-						childIsSatisfied = false;
-					}
-					if (!childIsSatisfied) {
-						break;
-					}
-				}
+		GraphModel model = model();
+
+		for (int i = model.outputStart(id); i < model.outputEnd(id); i++) {
+			int childId = model.childBlock(i);
+			Block child = model.block(childId);
+			// A means to avoid pointless checking by skipping children that have already been
+			// satisfied, such as a child joined to more than one output connector of this block.
+			// Descendants of an unsatisfied block are never satisfied, so a satisfied child has
+			// already been drawn from the values of this block.
+			if (child.satisfied) {
+				continue;
+			}
+			boolean childIsSatisfied = true;
+			// If any of the child's input connectors are unoccupied then the child can never be satisfied
+			// so the search ends
+			int inputCount = model.inputCount(childId);
+			for (int port = 0; port < inputCount && childIsSatisfied; port++) {
+				// If the child's input connector is occupied then check the whether the parent block
+				// it connects to is satisfied
+				int parentId = model.parentBlock(childId, port);
+				childIsSatisfied = parentId != GraphModel.NONE && model.block(parentId).satisfied;
+			}
 
-				if (childIsSatisfied) {
-					child.satisfied();
-				}
+			if (childIsSatisfied) {
+				blocksEvaluated += child.satisfy();
 			}
 		}
+		return blocksEvaluated;
 	}
 
 	/**
@@ -239,14 +249,45 @@ public class Block {
 	 * being removed as well.
 	 */
 	public void unsatisfied() {
+		unsatisfied(List.of(this));
+	}
 
-		satisfied = false;
-		blockCat.undraw(this);
+	/**
+	 * Make every block in the collection and every one of their descendants unsatisfied.
+	 * Descendants shared between several of the blocks are only visited once, so this is
+	 * linear in the number of blocks reached no matter how many paths lead to them.
+	 */
+	public static void unsatisfied(Collection<Block> blocks) {
+		if (blocks.isEmpty()) return;
+		GraphModel model = blocks.iterator().next().model();
+		// Ids are marked as they are pushed, so each id is pushed at most once
+		boolean[] visited = new boolean[model.idCapacity()];
+		int[] toVisit = new int[visited.length];
+		int count = 0;
+
+		for (Block block : blocks) {
+			if (!model.contains(block)) {
+				// A block outside of the graph has no descendants to walk
+				block.satisfied = false;
+				block.blockCat.undraw(block);
+			} else if (!visited[block.id]) {
+				visited[block.id] = true;
+				toVisit[count++] = block.id;
+			}
+		}
 
-		for (Connector oc : outputConnectors) {
-			for (EdgeComponent e : oc.edgeEnds()) {
-				Block child = e.getEdge().orElseThrow().inputBlock();
-				child.unsatisfied();
+		while (count > 0) {
+			int id = toVisit[--count];
+			Block block = model.block(id);
+			block.satisfied = false;
+			block.blockCat.undraw(block);
+
+			for (int i = model.outputStart(id); i < model.outputEnd(id); i++) {
+				int childId = model.childBlock(i);
+				if (!visited[childId]) {
+					visited[childId] = true;
+					toVisit[count++] = childId;
+				}
 			}
 		}
 	}
@@ -254,16 +295,14 @@ public class Block {
 	/**
 	 * A recursive method for creating the list of blocks to redraw.
 	 */
-	private void constructRedrawList(List<Block> list, Block root) {
-		for (Connector oc : root.getOutputConnectors()) {
-			for (EdgeComponent end: oc.edgeEnds()) {
-				Block child = end.getEdge().orElseThrow().inputBlock();
-				if (child.isSatisfied()) {
-					if (!list.contains(child)) {
-						list.add(child);
-						constructRedrawList(list, child);
-					}
-				}
+	private static void constructRedrawList(List<Block> list, boolean[] listed, GraphModel model, int rootId) {
+		for (int i = model.outputStart(rootId); i < model.outputEnd(rootId); i++) {
+			int childId = model.childBlock(i);
+			Block child = model.block(childId);
+			if (child.isSatisfied() && !listed[childId]) {
+				listed[childId] = true;
+				list.add(child);
+				constructRedrawList(list, listed, model, childId);
 			}
 		}
 	}
@@ -274,13 +313,23 @@ public class Block {
 	 * are also redrawn.
 	 */
 	public void valueHasChanged() {
+		BlockEvaluationEvent event = new BlockEvaluationEvent();
+		event.begin();
 		List<Block> redrawList = new ArrayList<>();
 		redrawList.add(this);
-		constructRedrawList(redrawList, this);
+		GraphModel model = model();
+		if (model.contains(this)) {
+			boolean[] listed = new boolean[model.idCapacity()];
+			listed[id] = true;
+			constructRedrawList(redrawList, listed, model, id);
+		}
 		for (Block block: redrawList) {
 			block.getBlockCategory().draw(block);
 		}
 		TileCanvasCaretaker.applyDrawingsToCanvas();
+		event.trigger = "valueHasChanged";
+		event.blocksEvaluated = redrawList.size();
+		event.commit();
 	}
 
 	/**
@@ -300,6 +349,12 @@ public class Block {
 
 	public void setId(int id) {
 		this.id = id;
+		// The graph model is keyed by block id
+		model().invalidate();
+	}
+
+	private GraphModel model() {
+		return theme.getGraphBuilder().getModel();
 	}
 
 	public boolean isLabeled() {
@@ -18,6 +18,7 @@ public class Connector {
     private Set<EdgeComponent> edgeEnds;
 	private Point2D value;
 	private Point2D secondaryValue;
+	private int portIndex;
 	
 	/**
 	 * Constructs a input or output connectors.
@@ -57,6 +58,17 @@ public class Connector {
 		transparentRegion = region;
 	}
 
+	/**
+	 * The index of the connector within the input or output connectors of its block.
+	 */
+	public int portIndex() {
+		return portIndex;
+	}
+
+	public void setPortIndex(int portIndex) {
+		this.portIndex = portIndex;
+	}
+
     public void addEdgeEnd(EdgeComponent end) {
         edgeEnds.add(end);
     }
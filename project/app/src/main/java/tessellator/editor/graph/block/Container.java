@@ -1,11 +1,12 @@
 package tessellator.editor.graph.block;
 
 import java.util.Set;
+import javafx.scene.CacheHint;
 import javafx.scene.Group;
 import javafx.scene.Node;
-import javafx.scene.effect.ColorAdjust;
 import javafx.scene.effect.Effect;
 import tessellator.editor.graph.Selectable;
+import tessellator.editor.graph.SharedEffects;
 import tessellator.editor.graph.block.eventhandling.BlockDragStrategies;
 
 public class Container extends Group implements Selectable {
@@ -14,6 +15,9 @@ public class Container extends Group implements Selectable {
 	private boolean selected;
 	private Effect oldEffect;
 	private boolean oldEffectSwapped;
+	// The effect the container was given by its theme, kept while drawn at reduced quality
+	private Effect fullQualityEffect;
+	private boolean isReducedQuality;
 	
 	public void setBlock(Block block) {
 		this.block = block;
@@ -26,6 +30,33 @@ public class Container extends Group implements Selectable {
 	public boolean isSelected() {
 		return selected;
 	}
+
+	/**
+	 * Draw the container with or without its effect, see RenderQuality. At reduced quality
+	 * the container is also cached as a bitmap, which is redrawn rather than rebuilt while
+	 * the graph builder is zoomed and panned.
+	 */
+	public void setReducedQuality(boolean isReduced) {
+		if (isReduced == isReducedQuality) return;
+		isReducedQuality = isReduced;
+		// While selected the effect the container has without the highlight is the old effect
+		Effect effect = oldEffectSwapped ? oldEffect : getEffect();
+		if (isReduced) {
+			fullQualityEffect = effect;
+			effect = null;
+		} else {
+			effect = fullQualityEffect;
+			fullQualityEffect = null;
+		}
+		if (oldEffectSwapped) {
+			oldEffect = effect;
+			setEffect(SharedEffects.selectedBlock(effect));
+		} else {
+			setEffect(effect);
+		}
+		setCache(isReduced);
+		setCacheHint(isReduced ? CacheHint.SCALE : CacheHint.DEFAULT);
+	}
 	
 	/**
 	 * When container is selected highlight it and change the drag strategies of its
@@ -36,10 +67,7 @@ public class Container extends Group implements Selectable {
 		
         oldEffect = getEffect();
 		oldEffectSwapped = true;
-		ColorAdjust colorAdjust = new ColorAdjust();
-		colorAdjust.setInput(oldEffect);
-		colorAdjust.setSaturation(0.16);
-		setEffect(colorAdjust);
+		setEffect(SharedEffects.selectedBlock(oldEffect));
 		//setOpacity(0.5);
 		
 
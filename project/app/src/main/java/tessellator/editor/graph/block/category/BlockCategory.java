@@ -1,15 +1,14 @@
 package tessellator.editor.graph.block.category;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import javafx.geometry.Point2D;
+import tessellator.editor.graph.GraphModel;
 import tessellator.editor.graph.block.Block;
 import tessellator.editor.graph.block.Connector;
 import tessellator.editor.graph.block.theme.BlockTheme;
-import tessellator.editor.graph.edge.Edge;
-import tessellator.editor.graph.edge.component.EdgeComponent;
-import tessellator.editor.graph.edge.component.end.ConnectorComponent;
 import tessellator.editor.preview.Drawing;
 import tessellator.editor.preview.TileCanvasCaretaker;
 
@@ -144,17 +143,12 @@ public abstract class BlockCategory {
 			outputConnector.setValue(vertices.get(i));
 		}
 		// Propogate these values to the input connectors of the block's children
+		GraphModel model = theme.getGraphBuilder().getModel();
 		for (int i = 0; i <block.getOutputConnectors().size(); i++) {
 			Connector outputConnector = block.getOutputConnectors().get(i);
-			for (EdgeComponent end : outputConnector.edgeEnds()) {
-				Edge edge = end.getEdge().orElseThrow();
-				ConnectorComponent concomp = null;
-				if (edge.isOutputToInput()) {
-					concomp = (ConnectorComponent) edge.endComponent();
-				} else {
-					concomp = (ConnectorComponent) edge.startComponent();
-				}
-				Connector inputConnector = concomp.getConnector().orElseThrow();
+			for (int j = model.portStart(block.getId(), i); j < model.portEnd(block.getId(), i); j++) {
+				Block child = model.block(model.childBlock(j));
+				Connector inputConnector = child.getInputConnectors().get(model.childPort(j));
 				inputConnector.setValue(outputConnector.value());
 				int indexOfNextOutputConnector = (i+1)%block.getOutputConnectors().size();
 				inputConnector.setSecondaryValue(block.getOutputConnectors().get(indexOfNextOutputConnector).value());
@@ -183,6 +177,45 @@ public abstract class BlockCategory {
 		return includeLabels;
 	}
 
+	/**
+	 * A helper method for the tile categories. It calculates the vertices of a regular polygon
+	 * centered on a canvas, with a vertex at the start angle and the rest following clockwise,
+	 * then rotates them about the center by the rotation attribute of the block.
+	 * 
+	 * @param sides The number of sides of the polygon.
+	 * @param startAngleDegrees The angle of the first vertex from the center in degrees.
+	 * @param canvasWidth The width of the canvas the polygon is drawn on.
+	 * @param canvasHeight The height of the canvas the polygon is drawn on.
+	 * @param rotation The rotation attribute of the block in degrees, no rotation if it isn't a number.
+	 * @return The rotated vertices.
+	 */
+	protected static List<Point2D> regularPolygon(int sides, double startAngleDegrees, double canvasWidth, double canvasHeight, String rotation) {
+		// Interpret the rotation attribute
+		double rotationAngleDegrees = 0;
+		try {
+			rotationAngleDegrees = Double.parseDouble(rotation);
+		} catch (Exception e) {}
+		double rotationAngleRadians = Math.toRadians(rotationAngleDegrees);
+
+        // Define the center coordinates of the polygon
+        Point2D center = new Point2D(canvasWidth/2, canvasHeight/2);
+
+        // Set the radius length from the center to a vertex for the polygon
+        double radius = (canvasWidth-30)/2;
+
+		// Calculate the coordinates of the vertices
+		List<Point2D> vertices = new ArrayList<>();
+		for (int i = 0; i < sides; i++) {
+            double angleRad = Math.toRadians(startAngleDegrees) + Math.toRadians(360.0/sides * i); // Angle in radians
+            double xcoord = center.getX() + radius * Math.cos(angleRad);
+            double ycoord = center.getY() + radius * Math.sin(angleRad);
+			vertices.add(new Point2D(xcoord, ycoord));
+        }
+
+		// Rotate the vertices
+		return vertices.stream().map(p -> rotatePoint(p, center, rotationAngleRadians)).toList();
+	}
+
     /**
 	 * A helper method that may be used be subclasses within their implementation of the draw method.
 	 * It rotates a point about a center point by an angle.
@@ -192,7 +225,7 @@ public abstract class BlockCategory {
 	 * @param angle The angle in radians which the point will be rotated.
 	 * @return The rotated point.
 	 */
-    protected Point2D rotatePoint(Point2D point, Point2D center, double angle) {
+    protected static Point2D rotatePoint(Point2D point, Point2D center, double angle) {
         double rotatedX = center.getX() + (point.getX() - center.getX()) * Math.cos(angle) - (point.getY() - center.getY()) * Math.sin(angle);
         double rotatedY = center.getY() + (point.getX() - center.getX()) * Math.sin(angle) + (point.getY() - center.getY()) * Math.cos(angle);
         return new Point2D(rotatedX, rotatedY);
@@ -48,37 +48,10 @@ public class SquareTileCategory extends BlockCategory{
 	public void draw(Block block) {
 
 		// Interpret attribute inputs
-		double rotationAngleDegrees = 0;
-		try {
-			rotationAngleDegrees = Double.parseDouble(block.getAttributes().get(0).value());
-		} catch (Exception e) {}
-		double rotationAngleRadians = Math.toRadians(rotationAngleDegrees);
 		String border = block.getAttributes().get(1).value().toLowerCase();
 
-		// Canvas size
-        double canvasWidth = TileCanvasCaretaker.getCanvasWidth();
-		double canvasHeight = TileCanvasCaretaker.getCanvasHeight();
-		
-        // Define the center coordinates of the square
-        Point2D center = new Point2D(canvasWidth/2, canvasHeight/2);
-
-        // Set the radius length from the center to a vertex for the square
-        double radius = (canvasWidth-30)/2;
-
-        // Starting angle to position one vertex above the center
-        double startAngleRad = Math.toRadians(135);
-
-		// Calculate the coordinates of the vertices
-		List<Point2D> vertices = new ArrayList<>();
-		for (int i = 0; i < 4; i++) {
-            double angleRad = startAngleRad + Math.toRadians(90 * i); // Angle in radians
-            double xcoord = center.getX() + radius * Math.cos(angleRad);
-            double ycoord = center.getY() + radius * Math.sin(angleRad);
-			vertices.add(new Point2D(xcoord, ycoord));
-        }
-
-		// Rotate the vertices
-		List<Point2D> rotatedVertices = vertices.stream().map(p -> rotatePoint(p, center, rotationAngleRadians)).toList();
+		List<Point2D> rotatedVertices = vertices(TileCanvasCaretaker.getCanvasWidth(), TileCanvasCaretaker.getCanvasHeight(),
+												 block.getAttributes().get(0).value());
 
 		ArrayList<Double> xcoords = new ArrayList<>();
 		ArrayList<Double> ycoords = new ArrayList<>();
@@ -103,4 +76,18 @@ public class SquareTileCategory extends BlockCategory{
 		// Update the various linked objects with the newly calculated output coordinates
 		applyChanges(block, drawing, rotatedVertices);
 	}
+
+	/**
+	 * The vertices of a square tile block's drawing, centered on a canvas and rotated
+	 * clockwise by the block's rotation attribute.
+	 * 
+	 * @param canvasWidth The width of the canvas the tile is drawn on.
+	 * @param canvasHeight The height of the canvas the tile is drawn on.
+	 * @param rotation The rotation attribute of the block in degrees.
+	 * @return The vertices in the order of the block's output connectors.
+	 */
+	public static List<Point2D> vertices(double canvasWidth, double canvasHeight, String rotation) {
+		// Starting angle to position one vertex above the center
+		return regularPolygon(4, 135, canvasWidth, canvasHeight, rotation);
+	}
 }
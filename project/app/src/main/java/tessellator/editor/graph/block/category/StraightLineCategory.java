@@ -43,18 +43,55 @@ public class StraightLineCategory extends BlockCategory {
 	@Override
 	public void draw(Block block) {
 		
-		// Initialise the points
-		double e1TrimFactor = interpretString(block.getAttributes().get(0).value());
-		double e1SlideFactor = interpretString(block.getAttributes().get(2).value());
+		// Slide and trim the points the line is drawn between
+		List<Point2D> ends = ends(block.getInputConnectors().get(0).value(), block.getInputConnectors().get(0).secondaryValue(),
+								  block.getInputConnectors().get(1).value(), block.getInputConnectors().get(1).secondaryValue(),
+								  block.getAttributes().stream().map(a -> a.value()).toList());
+
+		ArrayList<Double> xcoords = new ArrayList<>();
+		ArrayList<Double> ycoords = new ArrayList<>();
+
+		// Set up the x and y coordinate lists
+		populateCoordinates(ends, xcoords, ycoords);
 
-		double e2TrimFactor = interpretString(block.getAttributes().get(1).value());
-		double e2SlideFactor = interpretString(block.getAttributes().get(3).value());
+		// Colour the line black
+		java.awt.Color color = java.awt.Color.BLACK;
+
+		// Create the labels if required
+		List<String> labels = new ArrayList<>();
+		if (includeLabels()) {
+			labels.add("E1");
+			labels.add("E2");
+		}
+
+		// Create the drawing that will be intepreted and drawn
+		Drawing drawing = new Drawing(xcoords, ycoords, labels, color, Category.STRAIGHT_LINE, block);
+
+		// Update the various linked objects with the newly calculated output coordinates
+		applyChanges(block, drawing, ends);
+	}
+
+	/**
+	 * The ends of a straight line block's drawing. Each end starts at the value of its input
+	 * connector, slides towards the secondary value of that connector and is then trimmed
+	 * towards the other end.
+	 * 
+	 * @param e1Value The value of the E1 input connector.
+	 * @param e1SecondValue The secondary value of the E1 input connector.
+	 * @param e2Value The value of the E2 input connector.
+	 * @param e2SecondValue The secondary value of the E2 input connector.
+	 * @param attributeValues The E1Trim, E2Trim, E1Slide and E2Slide attributes of the block.
+	 * @return The E1 and E2 ends of the line.
+	 */
+	public static List<Point2D> ends(Point2D e1Value, Point2D e1SecondValue, Point2D e2Value, Point2D e2SecondValue,
+									 List<String> attributeValues) {
 
-		Point2D e1Value = block.getInputConnectors().get(0).value();
-		Point2D e1SecondValue = block.getInputConnectors().get(0).secondaryValue();
+		// Initialise the points
+		double e1TrimFactor = interpretString(attributeValues.get(0));
+		double e1SlideFactor = interpretString(attributeValues.get(2));
 
-		Point2D e2Value = block.getInputConnectors().get(1).value();
-		Point2D e2SecondValue = block.getInputConnectors().get(1).secondaryValue();
+		double e2TrimFactor = interpretString(attributeValues.get(1));
+		double e2SlideFactor = interpretString(attributeValues.get(3));
 
 		// slide the points
 		Point2D interpolatedE1 = interpolate(e1Value, e1SecondValue, e1SlideFactor);
@@ -76,31 +113,10 @@ public class StraightLineCategory extends BlockCategory {
 		ArrayList<Point2D> ends = new ArrayList<>();
 		ends.add(trimmedE1);
 		ends.add(trimmedE2);
-
-		ArrayList<Double> xcoords = new ArrayList<>();
-		ArrayList<Double> ycoords = new ArrayList<>();
-
-		// Set up the x and y coordinate lists
-		populateCoordinates(ends, xcoords, ycoords);
-
-		// Colour the line black
-		java.awt.Color color = java.awt.Color.BLACK;
-
-		// Create the labels if required
-		List<String> labels = new ArrayList<>();
-		if (includeLabels()) {
-			labels.add("E1");
-			labels.add("E2");
-		}
-
-		// Create the drawing that will be intepreted and drawn
-		Drawing drawing = new Drawing(xcoords, ycoords, labels, color, Category.STRAIGHT_LINE, block);
-
-		// Update the various linked objects with the newly calculated output coordinates
-		applyChanges(block, drawing, ends);
+		return ends;
 	}
 
-    public double distance(Point2D p1, Point2D p2) {
+    public static double distance(Point2D p1, Point2D p2) {
         double deltaX = p2.getX() - p1.getX();
         double deltaY = p2.getY() - p1.getY();
         return Math.sqrt(deltaX * deltaX + deltaY * deltaY);
@@ -113,7 +129,7 @@ public class StraightLineCategory extends BlockCategory {
 	 * @param input The string that will be interpreted into a factor.
 	 * @return The factor the string represents, default to 0 of the input can't be interpreted.
 	 */
-	private double interpretString(String input) {
+	private static double interpretString(String input) {
 		double value = 0;
 		try {
 			value = Double.parseDouble(input);
@@ -132,7 +148,7 @@ public class StraightLineCategory extends BlockCategory {
 	 * - 1.0 => maximum slide, point p1 as now the same as point p2
 	 * @return The point after it has been slid.
 	 */
-    private Point2D interpolate(Point2D p1, Point2D p2, double position) {
+    private static Point2D interpolate(Point2D p1, Point2D p2, double position) {
         double newX = (1 - position) * p1.getX() + position * p2.getX();
         double newY = (1 - position) * p1.getY() + position * p2.getY();
         return new Point2D(newX, newY);
@@ -148,7 +164,7 @@ public class StraightLineCategory extends BlockCategory {
 	 * - 1.0 => maximum movement, point p1 as now the same as point p2
 	 * @return The point after it has been moved.
 	 */
-	private Point2D trimPoint(Point2D p, Point2D midpoint, double trim) {
+	private static Point2D trimPoint(Point2D p, Point2D midpoint, double trim) {
         double newX1 = p.getX() + (midpoint.getX() - p.getX()) * trim;
         double newY1 = p.getY() + (midpoint.getY() - p.getY()) * trim;
         return new Point2D(newX1, newY1);
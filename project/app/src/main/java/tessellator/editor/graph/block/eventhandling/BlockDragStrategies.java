@@ -3,8 +3,10 @@ package tessellator.editor.graph.block.eventhandling;
 import java.util.Set;
 import java.util.Map;
 import java.util.HashMap;
+import javafx.geometry.Point2D;
 import javafx.scene.Node;
 import tessellator.editor.graph.block.Container;
+import tessellator.editor.graph.history.GraphHistory;
 import tessellator.editor.preview.Drawing;
 import tessellator.editor.preview.TileCanvasCaretaker;
 
@@ -56,14 +58,11 @@ public class BlockDragStrategies {
 				me.setDragDetect(true);
 				container.requestFocus();
 	
-				double width = container.getBoundsInLocal().getWidth();
-				double xScaleGap = (width-width*container.getScaleX())/2;
-	
-				double height = container.getBoundsInLocal().getHeight();
-				double yScaleGap = (height-height*container.getScaleY())/2;
-	
-				xOffset = (me.getX()+component.getLayoutX())*container.getScaleX()+xScaleGap+OffsetCalculator.supplyOffsetX(container.getParent());
-				yOffset = (me.getY()+component.getLayoutY())*container.getScaleY()+yScaleGap+OffsetCalculator.supplyOffsetY(container.getParent());
+				// The offsets are the gap between the cursor and the container's position, both of
+				// which are in the content coordinates of the graph builder.
+				Point2D cursor = container.getParent().sceneToLocal(me.getSceneX(), me.getSceneY());
+				xOffset = cursor.getX()-container.getLayoutX();
+				yOffset = cursor.getY()-container.getLayoutY();
 	
 				// When a component is pressed, its block must be moved to the front so all other blocks will be behind it, as it is dragged.
 				// This creates the illusion that the pressed block is more important than all others.
@@ -74,13 +73,18 @@ public class BlockDragStrategies {
 		
 		component.setOnMouseReleased(me -> {
 			component.setMouseTransparent(false);
+			// Record where the block was dropped so the move can be undone
+			container.getBlock().getTheme().getGraphBuilder().getHistory().blockChanged(container.getBlock());
 			me.consume();
 		});
 		
 		component.setOnMouseDragged(me -> {
-			// Subtract the offsets from the position of the cursor relative to the scene to avoid the cursor locking to the wrong position.
-			container.setLayoutX(me.getSceneX() - xOffset);
-			container.setLayoutY(me.getSceneY() - yOffset);
+			// Subtract the offsets from the position of the cursor relative to the content to avoid the cursor locking to the wrong position.
+			Point2D cursor = container.getParent().sceneToLocal(me.getSceneX(), me.getSceneY());
+			container.setLayoutX(cursor.getX() - xOffset);
+			container.setLayoutY(cursor.getY() - yOffset);
+			// Edges joined to the block may have been moved into view
+			container.getBlock().getTheme().getGraphBuilder().getViewport().requestRefresh();
 			me.setDragDetect(false);
 			me.consume();
 		});
@@ -102,17 +106,13 @@ public class BlockDragStrategies {
 			me.setDragDetect(true);
 			container.requestFocus();
 
-			double width = container.getBoundsInLocal().getWidth();
-			double xScaleGap = (width-width*container.getScaleX())/2;
-
-			double height = container.getBoundsInLocal().getHeight();
-			double yScaleGap = (height-height*container.getScaleY())/2;
+			Point2D cursor = container.getParent().sceneToLocal(me.getSceneX(), me.getSceneY());
 
 			// Prepare the offsets for the selected containers that will be dragged
 			selectedNodes.forEach(n -> {
 				if (n instanceof Container) {
-					xOffsets.put(n, (me.getX()+component.getLayoutX())*container.getScaleX()+xScaleGap+container.getLayoutX()-n.getLayoutX()+OffsetCalculator.supplyOffsetX(n.getParent()));
-					yOffsets.put(n, (me.getY()+component.getLayoutY())*container.getScaleY()+yScaleGap+container.getLayoutY()-n.getLayoutY()+OffsetCalculator.supplyOffsetY(n.getParent()));
+					xOffsets.put(n, cursor.getX()-n.getLayoutX());
+					yOffsets.put(n, cursor.getY()-n.getLayoutY());
 				}
 			});
 			me.consume();
@@ -120,6 +120,11 @@ public class BlockDragStrategies {
 		
 		component.setOnMouseReleased(me -> {
 			component.setMouseTransparent(false);
+			// Record where the blocks were dropped, all of which are undone as one move
+			GraphHistory history = container.getBlock().getTheme().getGraphBuilder().getHistory();
+			selectedNodes.forEach(n -> {
+				if (n instanceof Container) history.blockChanged(((Container) n).getBlock());
+			});
 			xOffsets.clear();
 			yOffsets.clear();
 			me.consume();
@@ -128,12 +133,15 @@ public class BlockDragStrategies {
 		component.setOnMouseDragged(me -> {
 			
 			// Drag the selected containers
+			Point2D cursor = container.getParent().sceneToLocal(me.getSceneX(), me.getSceneY());
 			selectedNodes.forEach(n -> {
 				if (n instanceof Container) {
-					n.setLayoutX(me.getSceneX() - xOffsets.get(n));
-					n.setLayoutY(me.getSceneY() - yOffsets.get(n));
+					n.setLayoutX(cursor.getX() - xOffsets.get(n));
+					n.setLayoutY(cursor.getY() - yOffsets.get(n));
 				}
 			});
+			// Selected blocks that were out of view may have been dragged into view
+			container.getBlock().getTheme().getGraphBuilder().getViewport().requestRefresh();
 			me.setDragDetect(false);
 			me.consume();
 		});
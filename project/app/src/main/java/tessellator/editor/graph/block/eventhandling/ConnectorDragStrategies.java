@@ -1,18 +1,20 @@
 package tessellator.editor.graph.block.eventhandling;
 
+import javafx.geometry.Point2D;
 import javafx.scene.Node;
 import javafx.scene.shape.Circle;
 import javafx.scene.shape.Shape;
 import tessellator.editor.graph.GraphBuilder;
+import tessellator.editor.graph.GraphModel;
 import tessellator.editor.graph.Selectable;
 import tessellator.editor.graph.block.Block;
 import tessellator.editor.graph.block.Connector;
 import tessellator.editor.graph.block.Container;
-import tessellator.editor.graph.edge.CoordinatePair;
 import tessellator.editor.graph.edge.Edge;
 import tessellator.editor.graph.edge.component.EdgeComponent;
 import tessellator.editor.graph.edge.component.end.CircleComponent;
 import tessellator.editor.graph.edge.component.end.ConnectorComponent;
+import tessellator.editor.graph.edge.component.line.LineComponent;
 import tessellator.editor.graph.edge.line.LineFactory;
 import tessellator.editor.graph.edge.line.shape.LineShape;
 import tessellator.editor.graph.edge.line.style.LineStyle;
@@ -76,7 +78,6 @@ public class ConnectorDragStrategies {
 
         Circle source = (Circle) connector.transparentRegion();
 		Circle template = (Circle) connector.visibleRegion();
-		boolean isOutput = connector.isOutputConnector();
 
 		source.setOnMousePressed(me -> {
 			// The source is the node that is dragged and the node that is the end point of the line
@@ -85,11 +86,6 @@ public class ConnectorDragStrategies {
 			originBlock = container.getBlock();
 			connectionFound = false;
 			
-			// The gap is difference between the scaled and unscaled container width
-			// The y inset is the radius of the source circle
-			double width = container.getBlock().getBody().minWidth(0);
-			double gap = (width-width*container.getScaleX())/2;
-			
 			// Replace the source circle with a copy.
 			// This has to be done because the source circle is the node that's moved alongside the drag.
 			Circle sourceReplacement = new CircleComponent();
@@ -108,19 +104,12 @@ public class ConnectorDragStrategies {
 			ConnectorDragStrategies.addDrag(connector, container, graphBuilder);
 			
 			// An anchor for the line is created with the same position as the template.
+			// The block can't move during the drag, so the anchor is only positioned once.
 			originPoint = new CircleComponent();
 			originPoint.setRadius(0);
-			//The last additions to both bindings account for the offsets incurred from scaling.
-			if (isOutput) {
-				originPoint.layoutXProperty().bind(template.layoutXProperty().add(container.layoutXProperty()).add(-gap));
-			}
-			else {
-				originPoint.layoutXProperty().bind(template.layoutXProperty().add(container.layoutXProperty()).add(gap));
-			}
-			double centerHeight = container.getBoundsInLocal().getHeight()/2;
-			double scaledDiff = (template.layoutYProperty().get()-centerHeight)*container.getScaleY();
-			originPoint.layoutYProperty().bind(container.layoutYProperty().add(centerHeight+scaledDiff));
-			graphBuilder.getChildren().add(originPoint);
+			originPoint.setLayoutX(template.getLayoutX()+container.getLayoutX());
+			originPoint.setLayoutY(template.getLayoutY()+container.getLayoutY());
+			graphBuilder.getContent().getChildren().add(originPoint);
 			
 			// The source is removed from its container, transformed into a copy of the template
 			// then added to the graph builder so it can be manipulated.
@@ -130,33 +119,29 @@ public class ConnectorDragStrategies {
 			source.setEffect(template.getEffect());
 			source.setLayoutX(source.getLayoutX()+container.getLayoutX());
 			source.setLayoutY(source.getLayoutY()+container.getLayoutY());
-			source.setScaleX(container.getScaleX());
-			source.setScaleY(container.getScaleX());
-			graphBuilder.getChildren().add(source);
+			graphBuilder.getContent().getChildren().add(source);
 			
-			CoordinatePair cp = new CoordinatePair(originPoint.layoutXProperty(), originPoint.layoutYProperty(), endPoint.layoutXProperty(), endPoint.layoutYProperty());
-			line = (Shape) factory.createLine(cp);
+			line = (Shape) factory.createLine(originPoint.getLayoutX(), originPoint.getLayoutY(), endPoint.getLayoutX(), endPoint.getLayoutY());
 			// Set the stroke width to match the value specified by the diagram
 			line.setStrokeWidth(graphBuilder.getStrokeWidthOfLines());
-			graphBuilder.getChildren().add(line);
+			graphBuilder.getContent().getChildren().add(line);
 			line.toBack();
 			
 			source.setMouseTransparent(true);
 			me.setDragDetect(true);
 	
-			xOffset = me.getX()*container.getScaleX()+OffsetCalculator.supplyOffsetX(container.getParent());
-			yOffset = me.getY()*container.getScaleX()+OffsetCalculator.supplyOffsetY(container.getParent());
+			// The offsets are the position of the cursor within the source, the content layer
+			// isn't scaled relative to the container so they can be used as they are.
+			xOffset = me.getX();
+			yOffset = me.getY();
 			
-			// Need to apply the offsets at the press stage otherwise the source appears at the wrong position when scaled.
-			source.setLayoutX(me.getSceneX() - xOffset);
-			source.setLayoutY(me.getSceneY() - yOffset);
+			moveDraggedEnd(source, me.getSceneX(), me.getSceneY());
 			
 			me.consume();
 		});
 
 		source.setOnMouseDragged(me -> {
-			source.setLayoutX(me.getSceneX() - xOffset);
-			source.setLayoutY(me.getSceneY() - yOffset);
+			moveDraggedEnd(source, me.getSceneX(), me.getSceneY());
 			me.setDragDetect(false);
 			me.consume();
 		});
@@ -166,7 +151,7 @@ public class ConnectorDragStrategies {
 			source.setMouseTransparent(false);
 			// The line is destroyed if a connection isn't found.
 			if (!connectionFound) {
-				graphBuilder.getChildren().removeAll(originPoint, endPoint, line);
+				graphBuilder.getContent().getChildren().removeAll(originPoint, endPoint, line);
 			} else {
 				// Otherwise we officially create the edge with the line components
 				Block inputBlock;
@@ -177,7 +162,7 @@ public class ConnectorDragStrategies {
 					// update the input connector value to be the same as the output connector value
 					endConnector.setValue(originConnector.value());
 					// The secondary value is the coordinate that is next to the value coordinate
-					int outputConnectorIndex = originBlock.getOutputConnectors().indexOf(originConnector);
+					int outputConnectorIndex = originConnector.portIndex();
 					int numOfOutputConnectors = originBlock.getOutputConnectors().size();
 					endConnector.setSecondaryValue(originBlock.getOutputConnectors().get((outputConnectorIndex+1)%numOfOutputConnectors).value());
 				} else {
@@ -185,7 +170,7 @@ public class ConnectorDragStrategies {
 					outputBlock = endBlock;
 					// update the input connector value to be the same as the output connector value
 					originConnector.setValue(endConnector.value());
-					int outputConnectorIndex = endBlock.getOutputConnectors().indexOf(endConnector);
+					int outputConnectorIndex = endConnector.portIndex();
 					int numOfOutputConnectors = endBlock.getOutputConnectors().size();
 					originConnector.setSecondaryValue(endBlock.getOutputConnectors().get((outputConnectorIndex+1)%numOfOutputConnectors).value());
 				}
@@ -197,10 +182,11 @@ public class ConnectorDragStrategies {
 				Edge edge = new Edge((EdgeComponent) originPoint, (EdgeComponent) endPoint, (EdgeComponent) line, inputBlock, outputBlock, originConnector.isOutputConnector());
 				originConnector.addEdgeEnd((EdgeComponent) originPoint);
 				endConnector.addEdgeEnd((EdgeComponent) endPoint);
+				graphBuilder.addEdge(edge);
 
 				
 
-				if (inputBlockCompletelyLinked(edge)) {
+				if (inputBlockCompletelyLinked(edge, graphBuilder)) {
 					edge.inputBlock().satisfied();
 					TileCanvasCaretaker.applyDrawingsToCanvas();
 				}
@@ -215,6 +201,16 @@ public class ConnectorDragStrategies {
 		});
     }
 
+    /**
+     * Move the dragged end of the line under the cursor and stretch the line to meet it.
+     */
+    private static void moveDraggedEnd(Circle source, double sceneX, double sceneY) {
+		Point2D cursor = source.getParent().sceneToLocal(sceneX, sceneY);
+		source.setLayoutX(cursor.getX() - xOffset);
+		source.setLayoutY(cursor.getY() - yOffset);
+		((LineComponent) line).setEnds(originPoint.getLayoutX(), originPoint.getLayoutY(), source.getLayoutX(), source.getLayoutY());
+    }
+
     private static void addDragWhenTarget(Connector connector, Container container, GraphBuilder graphBuilder) {
 		
 		Circle target = (Circle) connector.transparentRegion();
@@ -239,19 +235,13 @@ public class ConnectorDragStrategies {
 			endBlock = container.getBlock();
 		
 			Circle source = (Circle) me.getGestureSource();
-			double width = container.getBlock().getBody().minWidth(0);
-			double gap = (width-width*container.getScaleX())/2;
 			
-			if (edgeChecksSucceed()) {
+			if (edgeChecksSucceed(graphBuilder.getModel())) {
 				connectionFound = true;
-				if (endConnector.isOutputConnector()) {
-					source.layoutXProperty().bind(container.layoutXProperty().add(template.layoutXProperty()).add(-gap));
-				} else {
-					source.layoutXProperty().bind(container.layoutXProperty().add(template.layoutXProperty()).add(gap));
-				}
-				double centerHeight = container.getBoundsInLocal().getHeight()/2;
-				double scaledDiff = (template.layoutYProperty().get()-centerHeight)*container.getScaleY();
-				source.layoutYProperty().bind(container.layoutYProperty().add(centerHeight+scaledDiff));
+				// The end is snapped onto the target, from then on the edge's layout keeps it there
+				source.setLayoutX(container.getLayoutX()+template.getLayoutX());
+				source.setLayoutY(container.getLayoutY()+template.getLayoutY());
+				((LineComponent) line).setEnds(originPoint.getLayoutX(), originPoint.getLayoutY(), source.getLayoutX(), source.getLayoutY());
 				source.toBack();
 				source.setRadius(0);
 			} else {
@@ -268,8 +258,8 @@ public class ConnectorDragStrategies {
 	 * Applies a series of checks so that the edge satisfies the constraints of the graph,
 	 * returning true only if all the checks pass.
 	 */
-	private static boolean edgeChecksSucceed() {
-		return sameTypeOfConnectorCheck() && sameBlockCheck() && oneEdgePerInputConnectorCheck() && satisfiedParentCheck();
+	private static boolean edgeChecksSucceed(GraphModel model) {
+		return sameTypeOfConnectorCheck() && sameBlockCheck() && oneEdgePerInputConnectorCheck(model) && satisfiedParentCheck();
 	}
 
 	/**
@@ -290,11 +280,11 @@ public class ConnectorDragStrategies {
 	 * Checks to make sure the input connector which the edge is joining from/to doesn't
 	 * already have any edges attached to it.
 	 */
-	private static boolean oneEdgePerInputConnectorCheck() {
+	private static boolean oneEdgePerInputConnectorCheck(GraphModel model) {
 		if (originConnector.isOutputConnector()) {
-			return (endConnector.edgeEnds().size()==0) ? true : false;
+			return !model.isInputConnected(endBlock.getId(), endConnector.portIndex());
 		} else {
-			return (originConnector.edgeEnds().size()==0) ? true : false;
+			return !model.isInputConnected(originBlock.getId(), originConnector.portIndex());
 		}
 	}
 
@@ -314,7 +304,7 @@ public class ConnectorDragStrategies {
 	/**
 	 * An input block is completely linked if all of its input connectors have an edge attached to them.
 	 */
-	private static boolean inputBlockCompletelyLinked(Edge edge) {
-		return edge.inputBlock().getInputConnectors().stream().map(c -> c.edgeEnds().iterator().hasNext()).reduce(true, (acc, value) -> acc && value);
+	private static boolean inputBlockCompletelyLinked(Edge edge, GraphBuilder graphBuilder) {
+		return graphBuilder.getModel().allInputsConnected(edge.inputBlock().getId());
 	}
 }
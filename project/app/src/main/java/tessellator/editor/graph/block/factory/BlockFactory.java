@@ -40,7 +40,7 @@ public class BlockFactory {
     /**
      * Spawns a block at the specified coordinates. The part of the block that is spawned
      * at the coordinates is its center. Usually the x and y coordinates passed for the
-     * spawn are the center of the graph builder.
+     * spawn are the center of the graph builder, converted into content coordinates.
      * 
      * @param block The block that will be spawned.
      * @param spawnX The x coordinate of the spawn point.
@@ -54,7 +54,7 @@ public class BlockFactory {
         Container container = block.getContainer();
         container.setLayoutX(spawnX-container.getBoundsInLocal().getWidth()/2);
         container.setLayoutY(spawnY-container.getBoundsInLocal().getHeight()/2);
-        theme.getGraphBuilder().getChildren().add(container);
+        theme.getGraphBuilder().addBlock(block);
     }
 
     /**
@@ -62,6 +62,8 @@ public class BlockFactory {
      * within the graph builder.
      * 
      * @param cat The category of block that will be created.
+     * @param spawnX The x coordinate of the spawn point in content coordinates.
+     * @param spawnY The y coordinate of the spawn point in content coordinates.
      * 
      * @return The block that's been created. Note that the block may be null. This return
      * value shouldn't be used unless you are sure the block passes all constraints and will be created.
@@ -5,6 +5,7 @@ import javafx.scene.Node;
 import javafx.scene.paint.Color;
 import tessellator.editor.graph.GraphBuilder;
 import tessellator.editor.graph.block.Attribute;
+import tessellator.editor.graph.block.Block;
 import tessellator.editor.graph.block.Connector;
 import tessellator.editor.graph.block.Container;
 
@@ -129,6 +130,19 @@ public abstract class BlockTheme
 	 * Cleaning the theme restores it to its original state prior to constructing a block.
 	 */
 	public abstract void clean();
+
+	/**
+	 * Draw a block with less detail, or with its full detail again, see RenderQuality.
+	 * By default only the container's effect is dropped, themes which draw blocks with
+	 * costly paints should also swap those for plain ones.
+	 * 
+	 * @param block A block constructed by this theme.
+	 * @param isReduced True to draw the block with less detail.
+	 */
+	public void setReducedQuality(Block block, boolean isReduced)
+	{
+		block.getContainer().setReducedQuality(isReduced);
+	}
 	
 	public GraphBuilder getGraphBuilder()
 	{
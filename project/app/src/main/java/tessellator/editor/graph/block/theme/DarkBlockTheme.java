@@ -1,7 +1,9 @@
 package tessellator.editor.graph.block.theme;
 
 import java.util.List;
+import java.util.Map;
 import java.util.ArrayList;
+import java.util.HashMap;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.scene.Node;
@@ -17,15 +19,18 @@ import javafx.scene.layout.CornerRadii;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.CycleMethod;
 import javafx.scene.paint.LinearGradient;
+import javafx.scene.paint.Paint;
 import javafx.scene.paint.RadialGradient;
 import javafx.scene.paint.Stop;
 import javafx.scene.shape.Circle;
 import javafx.scene.shape.SVGPath;
+import javafx.scene.shape.Shape;
 import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 import javafx.util.Callback;
 import tessellator.editor.graph.GraphBuilder;
 import tessellator.editor.graph.block.Attribute;
+import tessellator.editor.graph.block.Block;
 import tessellator.editor.graph.block.Connector;
 import tessellator.editor.graph.block.Container;
 import tessellator.editor.graph.block.eventhandling.BlockDragStrategies;
@@ -54,6 +59,11 @@ import tessellator.editor.graph.edge.line.style.LineStyle;
  * Node title = theme.constructTitle(<<...>>);
  * Node body = theme.constructBody(<<...>>);
  * theme.clean();
+ * 
+ * The gradients and drop shadow are shared between blocks rather than made for each one.
+ * Every connector and every block shadow is the same, and gradients are shared between
+ * blocks of the same colour and size. At reduced quality the gradients are swapped for
+ * plain colours and the drop shadow is dropped.
  */
 public class DarkBlockTheme extends BlockTheme {
 
@@ -81,6 +91,18 @@ public class DarkBlockTheme extends BlockTheme {
 	private static final double DEFAULT_ATTRIBUTE_LABEL_WIDTH = 30;
 	private static final double DEFAULT_ATTRIBUTE_INPUT_WIDTH = 30;
 	private static double maxAttributeInputWidth = DEFAULT_ATTRIBUTE_INPUT_WIDTH;
+
+	// The paints and effects shared between blocks, these must never be modified
+	private static final Color CONNECTOR_COLOR = Color.MEDIUMAQUAMARINE;
+	private static final RadialGradient CONNECTOR_FILL = new RadialGradient(0, 0, 0, 0, 13, false, CycleMethod.NO_CYCLE,
+			new Stop(0, Color.AQUAMARINE), new Stop(1, Color.BLACK));
+	private static final DropShadow BLOCK_SHADOW = createBlockShadow();
+	// The header and body gradients made so far, keyed by the colour and size they were made for
+	private static final Map<Object, Paint> GRADIENTS = new HashMap<>();
+	private record HeaderGradient(Color color, double width) {}
+	private record BodyGradient(double width, double height) {}
+	// The key under which a shape keeps its gradient while it is drawn with a plain colour
+	private static final String FULL_QUALITY_FILL = "tessellator.fullQualityFill";
 	
 	/**
 	 * This constructor supplies the theme a graph builder which is necessary for setting up
@@ -101,8 +123,6 @@ public class DarkBlockTheme extends BlockTheme {
 	 * are set. This process is done at this stage because their X layouts need knowledge of the
 	 * total number number of connectors and attributes within the block before they be set.
 	 * 
-	 * The zoom scale of the block's container is also set in this method.
-	 * 
 	 * @param headerColor The colour which will be used in the header.
 	 * @param container The object that encapsulates the visible parts of the block.
 	 * 
@@ -111,15 +131,13 @@ public class DarkBlockTheme extends BlockTheme {
 	@Override
 	public Node constructHeader(Color headerColor, Container container) {
 		setXLayouts();
-		// The scale of the container is set to the same scale as all the other containers in the graph builder
-		container.setScaleX(graphBuilder.getZoomScale());
-		container.setScaleY(graphBuilder.getZoomScale());
-		
-		Stop[] stops = new Stop[] {new Stop(0, headerColor), new Stop(1, BACKGROUND_COLOR)};
 		
 		SVGPath section  = new SVGPath();
 		section.setContent("M0, "+h+" L0, "+a+" Q0, 0 "+a+", 0 L"+(w-a)+", 0 Q"+w+", 0 "+w+", "+a+" L"+w+", "+h+" Z");
-		section.setFill(new RadialGradient(0, 0, w/2, h/2, w, false, CycleMethod.NO_CYCLE, stops));
+		section.setFill(GRADIENTS.computeIfAbsent(new HeaderGradient(headerColor, w), k -> {
+			Stop[] stops = new Stop[] {new Stop(0, headerColor), new Stop(1, BACKGROUND_COLOR)};
+			return new RadialGradient(0, 0, w/2, h/2, w, false, CycleMethod.NO_CYCLE, stops);
+		}));
 		
 		BlockDragStrategies.addDrag(section, container);
 		
@@ -141,20 +159,25 @@ public class DarkBlockTheme extends BlockTheme {
 		
 		SVGPath section = new SVGPath();
 		section.setContent("M0, "+h+" L0, "+(h2-a)+" Q0, "+h2+" "+a+", "+h2+" L"+(w-a)+", "+h2+" Q"+w+", "+h2+" "+w+", "+(h2-a)+" L"+w+", "+h+" Z");
-		Stop[] stops = new Stop[] { new Stop(1, BACKGROUND_COLOR), new Stop(0, new Color(0.2, 0.2, 0.2, 1))};
-		LinearGradient lg = new LinearGradient(0, h, w, h2, false, CycleMethod.NO_CYCLE, stops);
-		section.setFill(lg);
+		section.setFill(GRADIENTS.computeIfAbsent(new BodyGradient(w, h2), k -> {
+			Stop[] stops = new Stop[] { new Stop(1, BACKGROUND_COLOR), new Stop(0, new Color(0.2, 0.2, 0.2, 1))};
+			return new LinearGradient(0, h, w, h2, false, CycleMethod.NO_CYCLE, stops);
+		}));
 		
 		BlockDragStrategies.addDrag(section, container);
 		
+		container.setEffect(BLOCK_SHADOW);
+		
+		return section;
+	}
+
+	private static DropShadow createBlockShadow() {
 		DropShadow dropShadow = new DropShadow();
 		dropShadow.setRadius(5.0);
 		dropShadow.setOffsetX(3.5);
 		dropShadow.setOffsetY(3.5);
 		dropShadow.setColor(Color.color(0.16, 0.16, 0.16));
-		container.setEffect(dropShadow);
-		
-		return section;
+		return dropShadow;
 	}
 
 	/**
@@ -206,9 +229,7 @@ public class DarkBlockTheme extends BlockTheme {
 		smallC.setRadius(5);
 		smallC.setLayoutX(0);
 		smallC.setLayoutY(height*UNIT);
-		smallC.setFill(new Color(0.5,0.5,0.5,1));
-		Stop[] stops = new Stop[] {new Stop(0, Color.AQUAMARINE), new Stop(1, Color.BLACK)};
-		smallC.setFill(new RadialGradient(0, 0, 0, 0, 13, false, CycleMethod.NO_CYCLE, stops));
+		smallC.setFill(CONNECTOR_FILL);
 		
 		Text label = new Text(text);
 		label.setFill(TEXT_COLOR);
@@ -250,9 +271,7 @@ public class DarkBlockTheme extends BlockTheme {
 		Circle smallC = new CircleComponent();
 		smallC.setRadius(5);
 		smallC.setLayoutY(height*UNIT);
-		smallC.setFill(new Color(0.5,0.5,0.5,1));
-		Stop[] stops = new Stop[] {new Stop(0, Color.AQUAMARINE), new Stop(1, Color.BLACK)};
-		smallC.setFill(new RadialGradient(0, 0, 0, 0, 13, false, CycleMethod.NO_CYCLE, stops));
+		smallC.setFill(CONNECTOR_FILL);
 		
 		
 		Text label = new Text(text);
@@ -415,11 +434,12 @@ public class DarkBlockTheme extends BlockTheme {
 						lv.setPadding(new Insets(0));
 						lv.setBackground(background);
 						
-						// This handler scales the listview to match the scale of its container
+						// This handler scales the listview to match the zoom of the graph builder, the listview
+						// sits in a popup so it isn't scaled by the graph builder's content layer.
 						// Was changed from its previous version to avoid a one time visual scale offset bug
 						cmb.setOnMouseClicked(me -> {
-							double scaleX = container.getScaleX();
-							double scaleY = container.getScaleY();
+							double scaleX = graphBuilder.getZoomScale();
+							double scaleY = graphBuilder.getZoomScale();
 
 							lv.setScaleX(scaleX);
 							lv.setScaleY(scaleY);
@@ -471,6 +491,41 @@ public class DarkBlockTheme extends BlockTheme {
 		return content;
 	}
 
+	/**
+	 * At reduced quality the header is filled with its colour, the body with the background
+	 * colour and the connectors with a plain aquamarine.
+	 */
+	@Override
+	public void setReducedQuality(Block block, boolean isReduced) {
+		block.getContainer().setReducedQuality(isReduced);
+		Shape header = (Shape) block.getHeader();
+		Paint headerFill = header.getProperties().containsKey(FULL_QUALITY_FILL) ? (Paint) header.getProperties().get(FULL_QUALITY_FILL) : header.getFill();
+		// The colour of the header is the colour at the centre of its gradient
+		Color headerColor = (headerFill instanceof RadialGradient) ? ((RadialGradient) headerFill).getStops().get(0).getColor() : BACKGROUND_COLOR;
+		setPlainFill(header, isReduced ? headerColor : null);
+		setPlainFill((Shape) block.getBody(), isReduced ? BACKGROUND_COLOR : null);
+		for (Connector c : block.getInputConnectors()) {
+			setPlainFill((Shape) c.visibleRegion(), isReduced ? CONNECTOR_COLOR : null);
+		}
+		for (Connector c : block.getOutputConnectors()) {
+			setPlainFill((Shape) c.visibleRegion(), isReduced ? CONNECTOR_COLOR : null);
+		}
+	}
+
+	/**
+	 * Fill a shape with a plain colour, keeping its gradient so it can be given back.
+	 * 
+	 * @param color The plain colour, or null to give the shape back its gradient.
+	 */
+	private static void setPlainFill(Shape shape, Color color) {
+		if (color != null) {
+			shape.getProperties().putIfAbsent(FULL_QUALITY_FILL, shape.getFill());
+			shape.setFill(color);
+		} else if (shape.getProperties().containsKey(FULL_QUALITY_FILL)) {
+			shape.setFill((Paint) shape.getProperties().remove(FULL_QUALITY_FILL));
+		}
+	}
+
 	/**
 	 * Find the widest node from a list of nodes. This is a helper method for the setXLayouts() method.
 	 * 
@@ -2,7 +2,10 @@ package tessellator.editor.graph.edge;
 
 import javafx.scene.Node;
 import tessellator.editor.graph.block.Block;
+import tessellator.editor.graph.block.Connector;
 import tessellator.editor.graph.edge.component.EdgeComponent;
+import tessellator.editor.graph.edge.component.end.ConnectorComponent;
+import tessellator.editor.graph.edge.component.line.LineComponent;
 
 /**
  * An object that represents an edge within the graph builder. Instead of inheriting
@@ -15,6 +18,10 @@ import tessellator.editor.graph.edge.component.EdgeComponent;
  * builder that edge will be rooted between two blocks. If two new blocks need to be
  * linked then an existing edge won't be repurposed to link them, instead a new edge
  * will be created between them.
+ * 
+ * The components aren't bound to the blocks they join. When either block moves the edge
+ * is laid out again with the layout() method, which the graph builder's EdgeLayout does
+ * once per frame for every edge whose blocks have moved.
  */
 public class Edge {
     
@@ -87,4 +94,38 @@ public class Edge {
     public boolean isOutputToInput() {
         return isOutputToInput;
     }
+
+    /**
+     * Move the end components onto the connectors they are attached to and reposition
+     * the line between them. The end components must have their connectors set.
+     */
+    public void layout() {
+        // The start component sits on the block the edge was dragged from
+        Block startBlock = isOutputToInput ? outBlock : inBlock;
+        Block endBlock = isOutputToInput ? inBlock : outBlock;
+        Node startRegion = connectorOf(startComponent).visibleRegion();
+        Node endRegion = connectorOf(endComponent).visibleRegion();
+
+        double startX = startBlock.getContainer().getLayoutX() + startRegion.getLayoutX();
+        double startY = startBlock.getContainer().getLayoutY() + startRegion.getLayoutY();
+        double endX = endBlock.getContainer().getLayoutX() + endRegion.getLayoutX();
+        double endY = endBlock.getContainer().getLayoutY() + endRegion.getLayoutY();
+
+        startComponent.setLayoutX(startX);
+        startComponent.setLayoutY(startY);
+        endComponent.setLayoutX(endX);
+        endComponent.setLayoutY(endY);
+        ((LineComponent) lineComponent).setEnds(startX, startY, endX, endY);
+    }
+
+    /**
+     * Draw the edge with or without the effects of its style, see RenderQuality.
+     */
+    public void setReducedQuality(boolean isReduced) {
+        ((LineComponent) lineComponent).setReducedQuality(isReduced);
+    }
+
+    private static Connector connectorOf(Node end) {
+        return ((ConnectorComponent) end).getConnector().orElseThrow();
+    }
 }
@@ -3,8 +3,6 @@ package tessellator.editor.graph.edge.component.line;
 import java.util.Set;
 import java.util.Optional;
 import javafx.scene.Node;
-import javafx.scene.effect.Bloom;
-import javafx.scene.effect.Effect;
 import javafx.scene.shape.CubicCurve;
 import tessellator.editor.graph.Selectable;
 import tessellator.editor.graph.edge.Edge;
@@ -14,11 +12,13 @@ import tessellator.editor.graph.edge.component.EdgeComponent;
  * An object that can be used as the line component of an edge in the graph builder.
  * This particular object represents a curved 'S' shaped line.
  */
-public class CubicCurveComponent extends CubicCurve implements Selectable, EdgeComponent{
+public class CubicCurveComponent extends CubicCurve implements Selectable, EdgeComponent, LineComponent {
     
+    // How far along the horizontal gap between the ends each control point sits
+    private static final double BEZIER_FACTOR = 0.4;
+
     private boolean selected;
-	private Effect oldEffect;
-	private boolean oldEffectSwapped;
+	private final LineEffects effects = new LineEffects(this);
 
     private Edge edge;
 
@@ -33,13 +33,7 @@ public class CubicCurveComponent extends CubicCurve implements Selectable, EdgeC
      */
     @Override
 	public void select(Set<Node> selectedNodes) {
-		oldEffect = getEffect();
-		oldEffectSwapped = true;
-		Bloom bloom = new Bloom();
-		bloom.setThreshold(0.1);
-        // Use the setInput() method to do compound effects
-		bloom.setInput(oldEffect);
-		setEffect(bloom);
+		effects.select();
 		selected = true;
 	}
 	
@@ -49,13 +43,32 @@ public class CubicCurveComponent extends CubicCurve implements Selectable, EdgeC
      */
     @Override
 	public void deselect() {
-		if (oldEffectSwapped) {
-			setEffect(oldEffect);
-			oldEffectSwapped = false;
-		}
+		effects.deselect();
 		selected = false;
 	}
 
+    /**
+     * The control points are placed level with their nearest end, a fraction of the
+     * horizontal gap inwards, which gives the line its 'S' shape.
+     */
+    @Override
+    public void setEnds(double startX, double startY, double endX, double endY) {
+        double bend = (endX-startX)*BEZIER_FACTOR;
+        setStartX(startX);
+        setStartY(startY);
+        setControlX1(startX+bend);
+        setControlY1(startY);
+        setControlX2(endX-bend);
+        setControlY2(endY);
+        setEndX(endX);
+        setEndY(endY);
+    }
+
+    @Override
+    public void setReducedQuality(boolean isReduced) {
+        effects.setReducedQuality(isReduced);
+    }
+
     @Override
     public void setEdge(Edge e) {
         edge = e;
@@ -0,0 +1,22 @@
+package tessellator.editor.graph.edge.component.line;
+
+/**
+ * An interface which lets the line component of an edge be positioned between two points
+ * without knowing the shape of the line. The ends of a line aren't bound to the blocks they
+ * join, instead the line is repositioned through this interface whenever the edge it belongs
+ * to is laid out.
+ */
+public interface LineComponent {
+
+    /**
+     * Position the line so that it runs from the start point to the end point.
+     * Coordinates are in the coordinate space of the line's parent.
+     */
+    public void setEnds(double startX, double startY, double endX, double endY);
+
+    /**
+     * Draw the line with or without its effect, see RenderQuality. The line keeps the effect
+     * it was styled with while it is drawn without it, so it can be given back.
+     */
+    public void setReducedQuality(boolean isReduced);
+}
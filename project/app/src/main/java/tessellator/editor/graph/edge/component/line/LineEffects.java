@@ -0,0 +1,66 @@
+package tessellator.editor.graph.edge.component.line;
+
+import javafx.scene.effect.Effect;
+import javafx.scene.shape.Shape;
+import tessellator.editor.graph.SharedEffects;
+
+/**
+ * A helper object which swaps the effect of a line component as the line is selected and
+ * deselected and as it is drawn at reduced and full quality, so every kind of line swaps
+ * its effect in the same way.
+ */
+class LineEffects {
+
+    private final Shape line;
+    private Effect oldEffect;
+    private boolean oldEffectSwapped;
+    // The effect the line was styled with, kept while the line is drawn at reduced quality
+    private Effect fullQualityEffect;
+    private boolean isReducedQuality;
+
+    LineEffects(Shape line) {
+        this.line = line;
+    }
+
+    /**
+     * Highlight the line on top of its current effect.
+     */
+    void select() {
+        oldEffect = line.getEffect();
+        oldEffectSwapped = true;
+        line.setEffect(SharedEffects.selectedLine(oldEffect));
+    }
+
+    /**
+     * Give the line back the effect it had before it was highlighted.
+     */
+    void deselect() {
+        if (oldEffectSwapped) {
+            line.setEffect(oldEffect);
+            oldEffectSwapped = false;
+        }
+    }
+
+    /**
+     * See LineComponent.setReducedQuality().
+     */
+    void setReducedQuality(boolean isReduced) {
+        if (isReduced == isReducedQuality) return;
+        isReducedQuality = isReduced;
+        // While selected the effect the line has without the highlight is the old effect
+        Effect effect = oldEffectSwapped ? oldEffect : line.getEffect();
+        if (isReduced) {
+            fullQualityEffect = effect;
+            effect = null;
+        } else {
+            effect = fullQualityEffect;
+            fullQualityEffect = null;
+        }
+        if (oldEffectSwapped) {
+            oldEffect = effect;
+            line.setEffect(SharedEffects.selectedLine(effect));
+        } else {
+            line.setEffect(effect);
+        }
+    }
+}
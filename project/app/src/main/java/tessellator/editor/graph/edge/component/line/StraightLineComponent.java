@@ -4,8 +4,6 @@ package tessellator.editor.graph.edge.component.line;
 import java.util.Set;
 import java.util.Optional;
 import javafx.scene.Node;
-import javafx.scene.effect.Bloom;
-import javafx.scene.effect.Effect;
 import javafx.scene.shape.Line;
 import tessellator.editor.graph.Selectable;
 import tessellator.editor.graph.edge.Edge;
@@ -15,11 +13,10 @@ import tessellator.editor.graph.edge.component.EdgeComponent;
  * An object that can be used as the line component of an edge in the graph builder.
  * This particular object represents a straight line.
  */
-public class StraightLineComponent extends Line implements Selectable, EdgeComponent {
+public class StraightLineComponent extends Line implements Selectable, EdgeComponent, LineComponent {
 	
     private boolean selected;
-	private Effect oldEffect;
-	private boolean oldEffectSwapped;
+	private final LineEffects effects = new LineEffects(this);
 
     private Edge edge;
 
@@ -34,12 +31,7 @@ public class StraightLineComponent extends Line implements Selectable, EdgeCompo
      */
     @Override
 	public void select(Set<Node> selectedNodes) {
-		oldEffect = getEffect();
-		oldEffectSwapped = true;
-		Bloom bloom = new Bloom();
-		bloom.setThreshold(0.1);
-		bloom.setInput(oldEffect);
-		setEffect(bloom);
+		effects.select();
 		selected = true;
 	}
 	
@@ -49,13 +41,23 @@ public class StraightLineComponent extends Line implements Selectable, EdgeCompo
      */
     @Override
 	public void deselect() {
-		if (oldEffectSwapped) {
-			setEffect(oldEffect);
-			oldEffectSwapped = false;
-		}
+		effects.deselect();
 		selected = false;
 	}
 
+    @Override
+    public void setEnds(double startX, double startY, double endX, double endY) {
+        setStartX(startX);
+        setStartY(startY);
+        setEndX(endX);
+        setEndY(endY);
+    }
+
+    @Override
+    public void setReducedQuality(boolean isReduced) {
+        effects.setReducedQuality(isReduced);
+    }
+
     @Override
     public void setEdge(Edge e) {
         edge = e;
@@ -2,7 +2,6 @@ package tessellator.editor.graph.edge.line;
 
 import javafx.scene.Node;
 import javafx.scene.shape.Shape;
-import tessellator.editor.graph.edge.CoordinatePair;
 import tessellator.editor.graph.edge.line.shape.EaseInEaseOutLineFactory;
 import tessellator.editor.graph.edge.line.shape.LineShape;
 import tessellator.editor.graph.edge.line.shape.StraightLineFactory;
@@ -33,20 +32,20 @@ public class LineFactory {
     }
 
     /**
-     * Produce a line bounded between the coordinates provided that conforms to the shape
-     * and style specified by the factory.
+     * Produce a line between the coordinates provided that conforms to the shape and style
+     * specified by the factory. The line produced implements LineComponent, which is how
+     * it's repositioned when the blocks it joins move.
      * 
-     * @param boundCoords The double property coordinates that the line will be bound between.
-     * @return A bounded line that matches the style and shape of this factory.
+     * @return A line that matches the style and shape of this factory.
      */
-    public Node createLine(CoordinatePair boundCoords) {
+    public Node createLine(double startX, double startY, double endX, double endY) {
         Node line = null;
         switch (shape) {
             case STRAIGHT:
-                line = StraightLineFactory.createLine(boundCoords);
+                line = StraightLineFactory.createLine(startX, startY, endX, endY);
                 break;
             case EASEINEASEOUT:
-                line = EaseInEaseOutLineFactory.createLine(boundCoords);
+                line = EaseInEaseOutLineFactory.createLine(startX, startY, endX, endY);
                 break;
         }
 
@@ -1,8 +1,6 @@
 package tessellator.editor.graph.edge.line.shape;
 
-import javafx.beans.property.DoubleProperty;
 import javafx.scene.Node;
-import tessellator.editor.graph.edge.CoordinatePair;
 import tessellator.editor.graph.edge.component.line.StraightLineComponent;
 
 /**
@@ -11,31 +9,14 @@ import tessellator.editor.graph.edge.component.line.StraightLineComponent;
 public class StraightLineFactory {
 
     /**
-     * Create a straight line that is bound between the double properties
-     * passed to the method.
+     * Create a straight line between the two points passed to the method. The line
+     * is moved afterwards through its setEnds() method.
      * 
-     * @param boundCoords The double properties which the line will be bound between.
-     * @return A straight line that starts at the start bound and ends at the end bound.
+     * @return A straight line that starts at the start point and ends at the end point.
      */
-    public static Node createLine(CoordinatePair boundCoords) {
-       
-        DoubleProperty x1, y1, x2, y2;
-        x1 = boundCoords.startX();
-		y1 = boundCoords.startY();
-		x2 = boundCoords.endX();
-		y2 = boundCoords.endY();
-
+    public static Node createLine(double startX, double startY, double endX, double endY) {
         StraightLineComponent l = new StraightLineComponent();
-        initStartAndEndPoints(l, x1, y1, x2, y2);
-        
+        l.setEnds(startX, startY, endX, endY);
         return l;
     }
-
-    private static void initStartAndEndPoints(StraightLineComponent l, DoubleProperty x1, DoubleProperty y1, DoubleProperty x2, DoubleProperty y2) {
-		
-        l.startXProperty().bind(x1);
-		l.startYProperty().bind(y1);
-		l.endXProperty().bind(x2);
-		l.endYProperty().bind(y2);
-    }
 }
@@ -6,6 +6,9 @@ import javafx.scene.shape.Shape;
 
 public class Spectral {
 
+    // Every spectral line shares the one glow, it must never be modified
+    private static final DropShadow GLOW = createGlow();
+
     /**
      * Styles the passed line to have a white glow.
      */
@@ -15,12 +18,15 @@ public class Spectral {
 		
 		line.setSmooth(true);
 		
+		line.setEffect(GLOW);
+    }
+
+    private static DropShadow createGlow() {
 		DropShadow dropShadow = new DropShadow();
 		dropShadow.setRadius(2);
 		dropShadow.setOffsetX(2);
 		dropShadow.setOffsetY(2);
 		dropShadow.setColor(Color.BLACK);
-		
-		line.setEffect(dropShadow);
+		return dropShadow;
     }
 }
@@ -10,18 +10,21 @@ package tessellator.editor.graph.edge;
  * edge with said components.
  * 
  * Example:
- * 1. Set up start component => instantiate CircleComponent and bind it to the block
- * that represents the input block of the edge.
+ * 1. Set up start component => instantiate CircleComponent and set the connector of
+ * the block it starts from.
  * 
  * 2. Set up end component => instantiate CircleComponent.
  * 
  * 3. Set up line component => create a line with the LineFactory createLine() method,
- * passing the start and end components as parameters.
+ * passing the coordinates of the start and end components.
  * 
- * 4. When the end block has been decided, bind the end component to the output block.
+ * 4. When the end block has been decided, set the connector of the end component.
  * 
  * 5. Create an Edge object with the start, end and line components, and the input
- * and output blocks.
+ * and output blocks, then add it to the graph builder which lays it out.
+ * 
+ * None of the components are bound to the blocks. Whenever a block moves its edges are
+ * marked dirty and laid out again once per frame by the graph builder's EdgeLayout.
  * 
  * Side note: All edge components must also be of type Selectable and of type Node.
  */
\ No newline at end of file
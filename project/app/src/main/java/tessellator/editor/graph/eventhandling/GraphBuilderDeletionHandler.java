@@ -1,12 +1,16 @@
 package tessellator.editor.graph.eventhandling;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
 import javafx.scene.Node;
 import tessellator.editor.graph.GraphBuilder;
+import tessellator.editor.graph.GraphModel;
+import tessellator.editor.graph.block.Block;
 import tessellator.editor.graph.block.Container;
 import tessellator.editor.graph.edge.Edge;
 import tessellator.editor.graph.edge.component.EdgeComponent;
@@ -15,6 +19,11 @@ import tessellator.editor.preview.TileCanvasCaretaker;
 
 /**
  * An object which provides methods for handling the delete event within the graph builder.
+ * 
+ * A deletion is carried out as one transaction. First every edge and block being deleted is
+ * collected, then the blocks whose drawings are invalidated are made unsatisfied in a single
+ * walk, then all of the nodes are removed from the content layer in one bulk change and finally
+ * the canvas is redrawn once. So deleting a large selection is linear in its size.
  */
 public class GraphBuilderDeletionHandler {
 
@@ -28,52 +37,71 @@ public class GraphBuilderDeletionHandler {
 
     public void deleteSelected() {
 		//graphBuilder.requestFocus();
-		Set<Node> removalSet = new HashSet<>();
+		GraphModel model = graphBuilder.getModel();
+		Set<Block> deletedBlocks = new LinkedHashSet<>();
+		Set<Edge> deletedEdges = new LinkedHashSet<>();
+
 		for (Node n: selected) {
 			if (n instanceof EdgeComponent) {
-				// If the selected component is any part of the line then all the other parts
-				// of that line must be removed.
-				// These values could potentially be null, if a value is null, don't add it to the removal set
+				// If the selected component is any part of the line then the whole edge is deleted
 			    EdgeComponent component = (EdgeComponent) n;
-                Edge edge = component.getEdge().orElseThrow();
-				edge.inputBlock().unsatisfied();
-
-				removalSet.add(edge.lineComponent());
-				removalSet.add(edge.startComponent());
-				removalSet.add(edge.endComponent());
-                // The end components are also removed from the edge ends of the connectors they were connected to
-                ConnectorComponent sc = (ConnectorComponent) edge.startComponent();
-                ConnectorComponent ec = (ConnectorComponent) edge.endComponent();
-               
-                sc.getConnector().orElseThrow().removeEdgeEnd((EdgeComponent) sc);
-                ec.getConnector().orElseThrow().removeEdgeEnd((EdgeComponent) ec);
+                deletedEdges.add(component.getEdge().orElseThrow());
 			}
 			else if (n instanceof Container) {
 				// If a block is deleted, delete all the edges that are connected to it as well.
-				Container container = (Container) n;
-				// Free tbe id of a deleted block
-				graphBuilder.freeBlockId(container.getBlock().getId());
-				List<EdgeComponent> reducedList = new ArrayList<>();
-				for (Set<EdgeComponent> set : container.getBlock().getInputConnectors().stream().map(ic -> ic.edgeEnds()).toList()) {
-					reducedList.addAll(set);
+				Block block = ((Container) n).getBlock();
+				deletedBlocks.add(block);
+				int id = block.getId();
+				int inputCount = model.inputCount(id);
+				for (int port = 0; port < inputCount; port++) {
+					Edge edge = model.parentEdge(id, port);
+					if (edge != null) deletedEdges.add(edge);
 				}
-				for (Set<EdgeComponent> set : container.getBlock().getOutputConnectors().stream().map(ic -> ic.edgeEnds()).toList()) {
-					reducedList.addAll(set);
+				for (int i = model.outputStart(id); i < model.outputEnd(id); i++) {
+					deletedEdges.add(model.childEdge(i));
 				}
-				reducedList.forEach(e -> {
-					Edge edge = e.getEdge().orElseThrow();
-					edge.inputBlock().unsatisfied();
-					removalSet.add(edge.lineComponent());
-					removalSet.add(edge.startComponent());
-					removalSet.add(edge.endComponent());
-				});
-				if (container.getBlock().isRoot()) graphBuilder.setHasRoot(false);
-				container.getBlock().unsatisfied();
-				removalSet.add(n);
 			}
 		}
-		removalSet.forEach(n -> graphBuilder.getChildren().remove(n));
-		TileCanvasCaretaker.applyDrawingsToCanvas();
+
+		delete(deletedBlocks, deletedEdges);
 		selected.clear();
 	}
+
+	/**
+	 * Remove blocks and edges from the graph in one transaction. Every edge joined to a block
+	 * being removed must also be among the edges being removed.
+	 */
+	public void delete(Collection<Block> deletedBlocks, Collection<Edge> deletedEdges) {
+		// The blocks downstream of a deleted edge lose an input, so they and their descendants
+		// become unsatisfied. This has to happen before the edge ends are removed from the
+		// connectors since the walk follows them.
+		List<Block> invalidated = new ArrayList<>(deletedBlocks);
+		deletedEdges.forEach(edge -> invalidated.add(edge.inputBlock()));
+		Block.unsatisfied(invalidated);
+
+		// A set keeps the bulk removal linear since removeAll() checks each child against it
+		Set<Node> removalSet = new HashSet<>();
+		for (Edge edge : deletedEdges) {
+			removalSet.add(edge.lineComponent());
+			removalSet.add(edge.startComponent());
+			removalSet.add(edge.endComponent());
+			// The end components are also removed from the edge ends of the connectors they were connected to
+			ConnectorComponent sc = (ConnectorComponent) edge.startComponent();
+			ConnectorComponent ec = (ConnectorComponent) edge.endComponent();
+			sc.getConnector().orElseThrow().removeEdgeEnd((EdgeComponent) sc);
+			ec.getConnector().orElseThrow().removeEdgeEnd((EdgeComponent) ec);
+			graphBuilder.removeEdge(edge);
+		}
+		for (Block block : deletedBlocks) {
+			// Free tbe id of a deleted block
+			graphBuilder.freeBlockId(block.getId());
+			if (block.isRoot()) graphBuilder.setHasRoot(false);
+			graphBuilder.removeBlock(block);
+			removalSet.add(block.getContainer());
+		}
+
+		graphBuilder.getContent().getChildren().removeAll(removalSet);
+		selected.removeAll(removalSet);
+		TileCanvasCaretaker.applyDrawingsToCanvas();
+	}
 }
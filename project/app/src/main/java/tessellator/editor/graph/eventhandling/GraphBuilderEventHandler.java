@@ -51,6 +51,19 @@ public class GraphBuilderEventHandler {
                 zoomHandler.zoom(false);
                 ke.consume();
             }
+            // Text fields keep their own undo
+            else if (ke.getCode().equals(KeyCode.Z) && ke.isControlDown() && !(ke.getTarget() instanceof TextField)) {
+                if (ke.isShiftDown()) {
+                    graphBuilder.getHistory().redo();
+                } else {
+                    graphBuilder.getHistory().undo();
+                }
+                ke.consume();
+            }
+            else if (ke.getCode().equals(KeyCode.Y) && ke.isControlDown() && !(ke.getTarget() instanceof TextField)) {
+                graphBuilder.getHistory().redo();
+                ke.consume();
+            }
         });
 
         graphBuilder.setOnKeyReleased(ke -> {
@@ -104,7 +117,6 @@ public class GraphBuilderEventHandler {
                 me.consume();
 			} else if (me.getButton() == MouseButton.PRIMARY) {
                 graphBuilder.setMouseTransparent(false);
-			    dragHandler.endGraphDrag();
                 me.consume();
 			}
 		});
@@ -1,16 +1,24 @@
 package tessellator.editor.graph.eventhandling;
 
+import java.util.HashSet;
 import java.util.Set;
 
+import javafx.geometry.Bounds;
 import javafx.scene.Node;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.SVGPath;
 import tessellator.editor.graph.GraphBuilder;
 import tessellator.editor.graph.Selectable;
+import tessellator.editor.graph.block.Block;
+import tessellator.editor.graph.edge.Edge;
 
 /**
  * An object which provides methods for handling select events within the graph builder.
+ * 
+ * The blocks and edges under the select box are found through the graph builder's spatial
+ * indexes, and they are highlighted as the box is drawn. Only the nodes which enter or leave
+ * the box between two drag events are selected or deselected.
  */
 public class GraphBuilderSelectionHandler {
     
@@ -23,11 +31,14 @@ public class GraphBuilderSelectionHandler {
 	// The point where the cursor has been dragged
 	private double sBoxEndX;
 	private double sBoxEndY;
+	// The nodes currently highlighted by the select box
+	private Set<Node> underBox;
 
     public GraphBuilderSelectionHandler(GraphBuilder graphBuilder) {
 
         this.graphBuilder = graphBuilder;
         this.selected = graphBuilder.getSelected();
+        this.underBox = new HashSet<>();
     }
 
     public void deselectAll() {
@@ -54,6 +65,7 @@ public class GraphBuilderSelectionHandler {
 			s.deselect();
 		});
 		selected.clear();
+		underBox.clear();
 	}
 
 	public void drawSelectBox(MouseEvent me) {
@@ -61,23 +73,41 @@ public class GraphBuilderSelectionHandler {
         sBoxEndX = me.getX();
         sBoxEndY = me.getY();
         selectBox.setContent("M"+sBoxStartX+", "+sBoxStartY+" L"+sBoxEndX+", "+sBoxStartY+" L"+sBoxEndX+", "+sBoxEndY+" L"+sBoxStartX+", "+sBoxEndY+" Z");
+
+		// Highlight what has entered the box and stop highlighting what has left it
+		Set<Node> nowUnderBox = nodesUnderSelectBox();
+		underBox.forEach(n -> {
+			if (!nowUnderBox.contains(n)) ((Selectable) n).deselect();
+		});
+		nowUnderBox.forEach(n -> {
+			if (!underBox.contains(n)) ((Selectable) n).select(selected);
+		});
+		underBox = nowUnderBox;
 	}
 
 	public void applyAndRemoveSelectBox() {
 
-		graphBuilder.getChildren().forEach(n -> {
-			if (n instanceof SVGPath) {
-				
-			}
-			else if (selectBox.getBoundsInParent().intersects(n.getBoundsInParent())) {
-				selected.add(n);
-			}
-		});
-		selected.forEach(n -> {
-			Selectable s = (Selectable) n;
-			s.select(selected);
-		});
+		// The nodes under the box were already highlighted while the box was drawn, and
+		// they hold a reference to the selected set, so they only need adding to it
+		selected.addAll(underBox);
+		underBox = new HashSet<>();
 		graphBuilder.getChildren().remove(selectBox);
 	}
-}
 
+	/**
+	 * The containers and edge lines whose bounds intersect the select box.
+	 */
+	private Set<Node> nodesUnderSelectBox() {
+		Set<Node> nodes = new HashSet<>();
+		// The select box is drawn over the graph builder, whereas the blocks and edges
+		// sit in the content layer, so the box is converted into content coordinates
+		Bounds contentBox = graphBuilder.getContent().parentToLocal(selectBox.getBoundsInParent());
+		for (Block block : graphBuilder.getBlockIndex().query(contentBox)) {
+			nodes.add(block.getContainer());
+		}
+		for (Edge edge : graphBuilder.getEdgeIndex().query(contentBox)) {
+			nodes.add(edge.lineComponent());
+		}
+		return nodes;
+	}
+}
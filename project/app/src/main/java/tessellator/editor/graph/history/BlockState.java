@@ -0,0 +1,23 @@
+package tessellator.editor.graph.history;
+
+import java.util.List;
+
+import tessellator.editor.graph.block.Attribute;
+import tessellator.editor.graph.block.Block;
+
+/**
+ * The parts of a block which the user can change once it is in the graph, its position and
+ * the values of its attributes.
+ */
+public record BlockState(double layoutX, double layoutY, List<String> attributeValues) {
+
+    /**
+     * The current state of a block.
+     */
+    public static BlockState of(Block block) {
+        return new BlockState(
+            block.getContainer().getLayoutX(),
+            block.getContainer().getLayoutY(),
+            block.getAttributes().stream().map(Attribute::value).toList());
+    }
+}
@@ -0,0 +1,289 @@
+package tessellator.editor.graph.history;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+import tessellator.editor.graph.GraphBuilder;
+import tessellator.editor.graph.GraphModel;
+import tessellator.editor.graph.Selectable;
+import tessellator.editor.graph.block.Attribute;
+import tessellator.editor.graph.block.Block;
+import tessellator.editor.graph.edge.Edge;
+import tessellator.editor.graph.edge.component.EdgeComponent;
+import tessellator.editor.graph.edge.component.end.ConnectorComponent;
+import tessellator.editor.graph.eventhandling.GraphBuilderDeletionHandler;
+import tessellator.editor.preview.TileCanvasCaretaker;
+
+/**
+ * An object which records the edits made to a graph builder so they can be undone and redone.
+ *
+ * The graph builder tells the history about every block and edge it gains or loses, and the
+ * blocks tell it whenever they are moved or have an attribute changed. Each of these updates
+ * the current snapshot of the graph, which only copies the few nodes of the snapshot's maps
+ * that lead to what changed, see PersistentMap. All the changes made while handling one event,
+ * such as every block and edge removed by one deletion, are gathered into a single checkpoint
+ * once the event has been handled, so one user action is one step of the history.
+ *
+ * Undoing or redoing a step swaps the current snapshot for the one on the top of the undo or
+ * redo stack, which costs the same however many blocks and edges the step changed. The graph
+ * builder is then brought in line with the new snapshot by diffing it against the old one,
+ * which only visits what the step changed.
+ *
+ * Since the snapshots share everything they didn't change, the memory held by the history
+ * grows with the number of changes it records rather than with the size of the graph. It is
+ * bounded by dropping the oldest steps once there are too many of them or once they have
+ * recorded too many changes between them.
+ */
+public class GraphHistory {
+
+    // The most steps that can be undone
+    private static final int MAX_STEPS = 200;
+    // The most changed blocks and edges that the steps may record between them
+    private static final long MAX_CHANGES = 200_000;
+
+    // A snapshot to return to, along with the number of changes between it and its neighbour
+    private record Step(GraphSnapshot snapshot, int changes) {}
+
+    private final GraphBuilder graphBuilder;
+    private final Deque<Step> undoSteps;
+    private final Deque<Step> redoSteps;
+    // The graph builder as it currently is
+    private GraphSnapshot current;
+    // The graph builder as it was at the last checkpoint
+    private GraphSnapshot committed;
+    private int pendingChanges;
+    private long heldChanges;
+    private boolean isCheckpointScheduled;
+    // Changes made while undoing or redoing aren't recorded
+    private boolean isRestoring;
+
+    public GraphHistory(GraphBuilder graphBuilder) {
+        this.graphBuilder = graphBuilder;
+        undoSteps = new ArrayDeque<>();
+        redoSteps = new ArrayDeque<>();
+        current = GraphSnapshot.EMPTY;
+        committed = current;
+    }
+
+    public boolean canUndo() {
+        return !undoSteps.isEmpty() || current != committed;
+    }
+
+    public boolean canRedo() {
+        return !redoSteps.isEmpty();
+    }
+
+    /**
+     * Forget every step and take the graph builder as it currently is as the start of the
+     * history, for when a graph is opened or cleared.
+     */
+    public void reset() {
+        GraphSnapshot snapshot = GraphSnapshot.EMPTY;
+        for (Block block : graphBuilder.getBlocks()) {
+            snapshot = snapshot.withBlock(block, BlockState.of(block));
+        }
+        for (Edge edge : graphBuilder.getEdges()) {
+            snapshot = snapshot.withEdge(edge);
+        }
+        current = snapshot;
+        committed = snapshot;
+        undoSteps.clear();
+        redoSteps.clear();
+        pendingChanges = 0;
+        heldChanges = 0;
+    }
+
+    public void blockAdded(Block block) {
+        if (isRestoring) return;
+        record(current.withBlock(block, BlockState.of(block)));
+    }
+
+    public void blockRemoved(Block block) {
+        if (isRestoring) return;
+        record(current.withoutBlock(block));
+    }
+
+    public void edgeAdded(Edge edge) {
+        if (isRestoring) return;
+        record(current.withEdge(edge));
+    }
+
+    public void edgeRemoved(Edge edge) {
+        if (isRestoring) return;
+        record(current.withoutEdge(edge));
+    }
+
+    /**
+     * Record the position and attribute values of a block in the graph, if they have changed.
+     */
+    public void blockChanged(Block block) {
+        if (isRestoring) return;
+        BlockState recorded = current.blocks().get(block);
+        if (recorded == null) return;
+        BlockState state = BlockState.of(block);
+        if (!state.equals(recorded)) record(current.withBlock(block, state));
+    }
+
+    private void record(GraphSnapshot snapshot) {
+        if (snapshot == current) return;
+        current = snapshot;
+        pendingChanges++;
+        if (!isCheckpointScheduled) {
+            isCheckpointScheduled = true;
+            // Everything changed while handling the current event becomes one step
+            Platform.runLater(() -> {
+                isCheckpointScheduled = false;
+                checkpoint();
+            });
+        }
+    }
+
+    /**
+     * Make the changes recorded since the last checkpoint into a step that can be undone.
+     */
+    public void checkpoint() {
+        if (current == committed) return;
+        undoSteps.push(new Step(committed, pendingChanges));
+        heldChanges += pendingChanges;
+        committed = current;
+        pendingChanges = 0;
+        // A new edit replaces whatever had been undone
+        redoSteps.forEach(step -> heldChanges -= step.changes());
+        redoSteps.clear();
+        while (undoSteps.size() > MAX_STEPS || (heldChanges > MAX_CHANGES && undoSteps.size() > 1)) {
+            heldChanges -= undoSteps.removeLast().changes();
+        }
+    }
+
+    /**
+     * Return the graph builder to how it was before the last step.
+     */
+    public void undo() {
+        checkpoint();
+        if (undoSteps.isEmpty()) return;
+        Step step = undoSteps.pop();
+        redoSteps.push(new Step(current, step.changes()));
+        restore(step.snapshot());
+    }
+
+    /**
+     * Make the last step that was undone again.
+     */
+    public void redo() {
+        checkpoint();
+        if (redoSteps.isEmpty()) return;
+        Step step = redoSteps.pop();
+        undoSteps.push(new Step(current, step.changes()));
+        restore(step.snapshot());
+    }
+
+    /**
+     * Bring the graph builder in line with a snapshot. This is carried out like a deletion,
+     * the blocks and edges that aren't in the snapshot are removed in one transaction, then
+     * those that are missing are attached again and satisfied, and finally the canvas is
+     * redrawn once.
+     */
+    private void restore(GraphSnapshot target) {
+        List<Block> removedBlocks = new ArrayList<>();
+        List<Block> addedBlocks = new ArrayList<>();
+        List<Block> changedBlocks = new ArrayList<>();
+        List<Edge> removedEdges = new ArrayList<>();
+        List<Edge> addedEdges = new ArrayList<>();
+        PersistentMap.diff(current.blocks(), target.blocks(), new PersistentMap.Differences<>() {
+            public void removed(Block block, BlockState state) { removedBlocks.add(block); }
+            public void added(Block block, BlockState state) { addedBlocks.add(block); }
+            public void changed(Block block, BlockState oldState, BlockState newState) { changedBlocks.add(block); }
+        });
+        PersistentMap.diff(current.edges(), target.edges(), new PersistentMap.Differences<>() {
+            public void removed(Edge edge, Edge value) { removedEdges.add(edge); }
+            public void added(Edge edge, Edge value) { addedEdges.add(edge); }
+            public void changed(Edge edge, Edge oldValue, Edge newValue) {}
+        });
+
+        isRestoring = true;
+        try {
+            // Removals come first so the ids of removed blocks are free for any block that
+            // is added back with the same id
+            if (!removedBlocks.isEmpty() || !removedEdges.isEmpty()) {
+                new GraphBuilderDeletionHandler(graphBuilder).delete(removedBlocks, removedEdges);
+            }
+
+            for (Block block : addedBlocks) {
+                BlockState state = target.blocks().get(block);
+                deselect(block.getContainer());
+                graphBuilder.usingBlockId(block.getId());
+                applyState(block, state);
+                if (block.isRoot()) {
+                    graphBuilder.setRoot(block);
+                    graphBuilder.setHasRoot(true);
+                }
+                graphBuilder.addBlock(block);
+            }
+            for (Edge edge : addedEdges) {
+                for (Node n : List.of(edge.lineComponent(), edge.startComponent(), edge.endComponent())) {
+                    deselect(n);
+                }
+                ConnectorComponent sc = (ConnectorComponent) edge.startComponent();
+                ConnectorComponent ec = (ConnectorComponent) edge.endComponent();
+                sc.getConnector().orElseThrow().addEdgeEnd((EdgeComponent) sc);
+                ec.getConnector().orElseThrow().addEdgeEnd((EdgeComponent) ec);
+                graphBuilder.addEdge(edge);
+            }
+
+            // Blocks that are back in the graph are drawn once all of their inputs are back
+            for (Block block : addedBlocks) {
+                if (block.isRoot()) block.satisfied();
+            }
+            GraphModel model = graphBuilder.getModel();
+            for (Edge edge : addedEdges) {
+                Block block = edge.inputBlock();
+                if (!block.isSatisfied() && model.contains(block) && hasSatisfiedInputs(model, block)) {
+                    block.satisfied();
+                }
+            }
+
+            for (Block block : changedBlocks) {
+                BlockState state = target.blocks().get(block);
+                boolean valuesChanged = !state.attributeValues().equals(current.blocks().get(block).attributeValues());
+                applyState(block, state);
+                if (valuesChanged && block.isSatisfied()) block.valueHasChanged();
+            }
+            TileCanvasCaretaker.applyDrawingsToCanvas();
+        } finally {
+            isRestoring = false;
+        }
+        current = target;
+        committed = target;
+        pendingChanges = 0;
+    }
+
+    private static void applyState(Block block, BlockState state) {
+        block.getContainer().setLayoutX(state.layoutX());
+        block.getContainer().setLayoutY(state.layoutY());
+        List<Attribute> attributes = block.getAttributes();
+        for (int i = 0; i < attributes.size(); i++) {
+            Attribute attribute = attributes.get(i);
+            String value = state.attributeValues().get(i);
+            if (!value.equals(attribute.value())) attribute.showValue(value);
+        }
+    }
+
+    // Whether every input connector of a block is joined to a satisfied block
+    private static boolean hasSatisfiedInputs(GraphModel model, Block block) {
+        int id = block.getId();
+        if (!model.allInputsConnected(id)) return false;
+        for (int port = 0; port < model.inputCount(id); port++) {
+            if (!model.block(model.parentBlock(id, port)).isSatisfied()) return false;
+        }
+        return true;
+    }
+
+    // Nodes that were selected when they were removed come back deselected
+    private static void deselect(Node node) {
+        if (node instanceof Selectable && ((Selectable) node).isSelected()) ((Selectable) node).deselect();
+    }
+}
@@ -0,0 +1,37 @@
+package tessellator.editor.graph.history;
+
+import tessellator.editor.graph.block.Block;
+import tessellator.editor.graph.edge.Edge;
+
+/**
+ * An immutable record of the graph at one point in time, the blocks in it along with their
+ * states and the edges in it.
+ *
+ * Blocks and edges are recorded by the objects themselves rather than copies of them, which
+ * works because a block or edge that is deleted is only ever detached from the graph, so
+ * undoing its deletion can attach the very same object again. The edges are held as a map
+ * of each edge to itself.
+ *
+ * Every method which changes the graph returns a new snapshot which shares everything it
+ * didn't change with this one, see PersistentMap.
+ */
+public record GraphSnapshot(PersistentMap<Block, BlockState> blocks, PersistentMap<Edge, Edge> edges) {
+
+    public static final GraphSnapshot EMPTY = new GraphSnapshot(PersistentMap.empty(), PersistentMap.empty());
+
+    public GraphSnapshot withBlock(Block block, BlockState state) {
+        return new GraphSnapshot(blocks.plus(block, state), edges);
+    }
+
+    public GraphSnapshot withoutBlock(Block block) {
+        return new GraphSnapshot(blocks.minus(block), edges);
+    }
+
+    public GraphSnapshot withEdge(Edge edge) {
+        return new GraphSnapshot(blocks, edges.plus(edge, edge));
+    }
+
+    public GraphSnapshot withoutEdge(Edge edge) {
+        return new GraphSnapshot(blocks, edges.minus(edge));
+    }
+}
@@ -0,0 +1,361 @@
+package tessellator.editor.graph.history;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * An immutable map whose updates return a new map rather than changing the old one.
+ *
+ * The map is a hash array mapped trie. Each level of the trie is picked by five bits of the
+ * hash of a key, so a map of any size that is practical is only a handful of levels deep.
+ * Adding or removing a key copies only the nodes on the path down to that key, every other
+ * node is shared between the old and the new map. This means keeping every version of a map
+ * costs memory in proportion to the changes made between them, not to the size of the map.
+ *
+ * Because unchanged parts of two versions are the very same nodes, diff() can skip them
+ * without looking inside, so finding the differences between two versions takes time in
+ * proportion to the number of differences.
+ *
+ * Keys and values must never be changed once they are put in a map.
+ */
+public final class PersistentMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(null, 0);
+
+    /**
+     * What diff() reports for each key that differs between two maps.
+     */
+    public interface Differences<K, V> {
+        // The key is in the old map but not the new one
+        void removed(K key, V value);
+        // The key is in the new map but not the old one
+        void added(K key, V value);
+        // The key is in both maps with values that aren't equal
+        void changed(K key, V oldValue, V newValue);
+    }
+
+    // Null for an empty map
+    private final Node root;
+    private final int size;
+
+    private PersistentMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * The value of a key, or null if the key isn't in the map.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        if (root == null) return null;
+        Entry entry = root.find(key, hash(key), 0);
+        return (entry == null) ? null : (V) entry.value;
+    }
+
+    public boolean containsKey(K key) {
+        return root != null && root.find(key, hash(key), 0) != null;
+    }
+
+    /**
+     * A map with the key set to the value. This map is returned if the key already has that
+     * very value.
+     */
+    public PersistentMap<K, V> plus(K key, V value) {
+        Entry entry = new Entry(key, value, hash(key));
+        if (root == null) return new PersistentMap<>(new BitmapNode(0, new Object[0]).plus(entry, 0, new boolean[1]), 1);
+        boolean[] isAdded = new boolean[1];
+        Node newRoot = root.plus(entry, 0, isAdded);
+        if (newRoot == root) return this;
+        return new PersistentMap<>(newRoot, isAdded[0] ? size+1 : size);
+    }
+
+    /**
+     * A map without the key. This map is returned if the key isn't in it.
+     */
+    public PersistentMap<K, V> minus(K key) {
+        if (root == null) return this;
+        Object newRoot = root.minus(key, hash(key), 0);
+        if (newRoot == root) return this;
+        if (size == 1) return empty();
+        // A root left with a single entry still has to be a node
+        if (newRoot instanceof Entry) newRoot = new BitmapNode(0, new Object[0]).plus((Entry) newRoot, 0, new boolean[1]);
+        return new PersistentMap<>((Node) newRoot, size-1);
+    }
+
+    /**
+     * Visit every key and value in the map, in no particular order.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (root != null) root.forEach(e -> action.accept((K) e.key, (V) e.value));
+    }
+
+    /**
+     * Report every key which differs between two maps. Parts of the maps which are shared are
+     * skipped, so if one map was made from the other this takes time in proportion to the
+     * changes made rather than to the size of the maps.
+     */
+    public static <K, V> void diff(PersistentMap<K, V> from, PersistentMap<K, V> to, Differences<K, V> differences) {
+        if (from.root == to.root) return;
+        diffSlots(from.root, to.root, 0, differences);
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        // Spread the higher bits downwards since each level of the trie only uses five bits
+        return h ^ (h >>> 16);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> void diffSlots(Object from, Object to, int shift, Differences<K, V> differences) {
+        if (from == to) return;
+        if (from == null) {
+            forEachIn(to, e -> differences.added((K) e.key, (V) e.value));
+        } else if (to == null) {
+            forEachIn(from, e -> differences.removed((K) e.key, (V) e.value));
+        } else if (from instanceof BitmapNode && to instanceof BitmapNode) {
+            BitmapNode a = (BitmapNode) from;
+            BitmapNode b = (BitmapNode) to;
+            int bits = a.bitmap | b.bitmap;
+            while (bits != 0) {
+                int bit = Integer.lowestOneBit(bits);
+                bits &= ~bit;
+                diffSlots(a.slot(bit), b.slot(bit), shift+BITS, differences);
+            }
+        } else if (from instanceof Entry && to instanceof Entry && Objects.equals(((Entry) from).key, ((Entry) to).key)) {
+            Entry a = (Entry) from;
+            Entry b = (Entry) to;
+            if (!Objects.equals(a.value, b.value)) differences.changed((K) a.key, (V) a.value, (V) b.value);
+        } else {
+            // Where the shapes differ, an entry against a node or a collision node, the slots
+            // hold only a few entries so they are compared directly
+            Map<Object, Entry> remaining = new HashMap<>();
+            forEachIn(to, e -> remaining.put(e.key, e));
+            forEachIn(from, a -> {
+                Entry b = remaining.remove(a.key);
+                if (b == null) {
+                    differences.removed((K) a.key, (V) a.value);
+                } else if (!Objects.equals(a.value, b.value)) {
+                    differences.changed((K) a.key, (V) a.value, (V) b.value);
+                }
+            });
+            remaining.values().forEach(e -> differences.added((K) e.key, (V) e.value));
+        }
+    }
+
+    private static void forEachIn(Object slot, Consumer<Entry> action) {
+        if (slot instanceof Entry) {
+            action.accept((Entry) slot);
+        } else {
+            ((Node) slot).forEach(action);
+        }
+    }
+
+    private static final class Entry {
+        final Object key;
+        final Object value;
+        final int hash;
+
+        Entry(Object key, Object value, int hash) {
+            this.key = key;
+            this.value = value;
+            this.hash = hash;
+        }
+    }
+
+    private abstract static class Node {
+        abstract Entry find(Object key, int hash, int shift);
+        // Returns this node if nothing changed, isAdded is set if the key is new
+        abstract Node plus(Entry entry, int shift, boolean[] isAdded);
+        // Returns this node if nothing changed, the remaining entry if only one is left,
+        // or null if nothing is left
+        abstract Object minus(Object key, int hash, int shift);
+        abstract void forEach(Consumer<Entry> action);
+    }
+
+    /**
+     * A node with up to 32 slots, each holding an entry or a node of the next level. Only the
+     * slots in use are stored, the bitmap records which they are.
+     */
+    private static final class BitmapNode extends Node {
+        final int bitmap;
+        final Object[] slots;
+
+        BitmapNode(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit-1));
+        }
+
+        Object slot(int bit) {
+            return ((bitmap & bit) == 0) ? null : slots[index(bit)];
+        }
+
+        @Override
+        Entry find(Object key, int hash, int shift) {
+            Object slot = slot(1 << ((hash >>> shift) & MASK));
+            if (slot instanceof Entry) {
+                Entry entry = (Entry) slot;
+                return key.equals(entry.key) ? entry : null;
+            }
+            return (slot == null) ? null : ((Node) slot).find(key, hash, shift+BITS);
+        }
+
+        @Override
+        Node plus(Entry entry, int shift, boolean[] isAdded) {
+            int bit = 1 << ((entry.hash >>> shift) & MASK);
+            int index = index(bit);
+            if ((bitmap & bit) == 0) {
+                isAdded[0] = true;
+                Object[] newSlots = new Object[slots.length+1];
+                System.arraycopy(slots, 0, newSlots, 0, index);
+                newSlots[index] = entry;
+                System.arraycopy(slots, index, newSlots, index+1, slots.length-index);
+                return new BitmapNode(bitmap | bit, newSlots);
+            }
+            Object slot = slots[index];
+            Object newSlot;
+            if (slot instanceof Entry) {
+                Entry existing = (Entry) slot;
+                if (existing.key.equals(entry.key)) {
+                    if (existing.value == entry.value) return this;
+                    newSlot = entry;
+                } else {
+                    isAdded[0] = true;
+                    newSlot = merge(existing, entry, shift+BITS);
+                }
+            } else {
+                newSlot = ((Node) slot).plus(entry, shift+BITS, isAdded);
+                if (newSlot == slot) return this;
+            }
+            Object[] newSlots = slots.clone();
+            newSlots[index] = newSlot;
+            return new BitmapNode(bitmap, newSlots);
+        }
+
+        @Override
+        Object minus(Object key, int hash, int shift) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) return this;
+            int index = index(bit);
+            Object slot = slots[index];
+            Object newSlot;
+            if (slot instanceof Entry) {
+                if (!((Entry) slot).key.equals(key)) return this;
+                newSlot = null;
+            } else {
+                newSlot = ((Node) slot).minus(key, hash, shift+BITS);
+                if (newSlot == slot) return this;
+            }
+            if (newSlot == null) {
+                if (slots.length == 1) return null;
+                // A node left with a single entry is replaced by the entry in its parent
+                if (slots.length == 2 && slots[1-index] instanceof Entry) return slots[1-index];
+                Object[] newSlots = new Object[slots.length-1];
+                System.arraycopy(slots, 0, newSlots, 0, index);
+                System.arraycopy(slots, index+1, newSlots, index, slots.length-index-1);
+                return new BitmapNode(bitmap & ~bit, newSlots);
+            }
+            if (slots.length == 1 && newSlot instanceof Entry) return newSlot;
+            Object[] newSlots = slots.clone();
+            newSlots[index] = newSlot;
+            return new BitmapNode(bitmap, newSlots);
+        }
+
+        @Override
+        void forEach(Consumer<Entry> action) {
+            for (Object slot : slots) forEachIn(slot, action);
+        }
+    }
+
+    /**
+     * A node of the entries whose keys have the same hash, which only exists once every bit
+     * of the hash has been used.
+     */
+    private static final class CollisionNode extends Node {
+        final int hash;
+        final Entry[] entries;
+
+        CollisionNode(int hash, Entry[] entries) {
+            this.hash = hash;
+            this.entries = entries;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i].key.equals(key)) return i;
+            }
+            return -1;
+        }
+
+        @Override
+        Entry find(Object key, int hash, int shift) {
+            int index = (hash == this.hash) ? indexOf(key) : -1;
+            return (index < 0) ? null : entries[index];
+        }
+
+        @Override
+        Node plus(Entry entry, int shift, boolean[] isAdded) {
+            int index = indexOf(entry.key);
+            if (index < 0) {
+                isAdded[0] = true;
+                Entry[] newEntries = Arrays.copyOf(entries, entries.length+1);
+                newEntries[entries.length] = entry;
+                return new CollisionNode(hash, newEntries);
+            }
+            if (entries[index].value == entry.value) return this;
+            Entry[] newEntries = entries.clone();
+            newEntries[index] = entry;
+            return new CollisionNode(hash, newEntries);
+        }
+
+        @Override
+        Object minus(Object key, int hash, int shift) {
+            int index = (hash == this.hash) ? indexOf(key) : -1;
+            if (index < 0) return this;
+            if (entries.length == 2) return entries[1-index];
+            Entry[] newEntries = new Entry[entries.length-1];
+            System.arraycopy(entries, 0, newEntries, 0, index);
+            System.arraycopy(entries, index+1, newEntries, index, entries.length-index-1);
+            return new CollisionNode(hash, newEntries);
+        }
+
+        @Override
+        void forEach(Consumer<Entry> action) {
+            for (Entry entry : entries) action.accept(entry);
+        }
+    }
+
+    // A node holding two entries whose hashes agree on every level above this one
+    private static Node merge(Entry a, Entry b, int shift) {
+        if (shift >= 32) return new CollisionNode(a.hash, new Entry[] {a, b});
+        int indexA = (a.hash >>> shift) & MASK;
+        int indexB = (b.hash >>> shift) & MASK;
+        if (indexA == indexB) return new BitmapNode(1 << indexA, new Object[] {merge(a, b, shift+BITS)});
+        Object[] slots = (indexA < indexB) ? new Object[] {a, b} : new Object[] {b, a};
+        return new BitmapNode((1 << indexA) | (1 << indexB), slots);
+    }
+}
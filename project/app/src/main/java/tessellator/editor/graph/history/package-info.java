@@ -0,0 +1,8 @@
+package tessellator.editor.graph.history;
+
+/**
+ * The 'history' package holds the undo and redo history of the graph builder. Each edit of
+ * the graph is recorded as an immutable snapshot of the graph which shares all of its unchanged
+ * parts with the snapshot before it, and undoing or redoing an edit brings the graph builder
+ * back in line with an earlier or later snapshot.
+ */
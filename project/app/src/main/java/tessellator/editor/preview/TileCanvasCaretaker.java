@@ -8,6 +8,7 @@ import org.w3c.dom.DOMImplementation;
 import org.w3c.dom.Element;
 import org.w3c.dom.svg.SVGDocument;
 
+import tessellator.profiling.TileCanvasEvent;
 import tessellator.util.DocumentHelper;
 
 import java.awt.Color;
@@ -81,6 +82,8 @@ public class TileCanvasCaretaker {
      * be quicker and simpler compared to editing and fixing a document that already exists.
      */
     public static void applyDrawingsToCanvas() {
+        TileCanvasEvent event = new TileCanvasEvent();
+        event.begin();
         newDocument();
         drawings.forEach(drawing -> {
             switch (drawing.typeOfShape()) {
@@ -99,6 +102,9 @@ public class TileCanvasCaretaker {
             }
         });
         renderCanvas();
+        event.drawings = drawings.size();
+        event.elementsWritten = tileGroup.getChildNodes().getLength();
+        event.commit();
     }
 
     private static void drawTriangleTile(Drawing drawing) {
@@ -1,6 +1,7 @@
 package tessellator.editor.shop;
 
 import javafx.geometry.Insets;
+import javafx.geometry.Point2D;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -42,9 +43,9 @@ public class ShopItem extends HBox {
 
         addButton.setOnMouseClicked(me -> {
             GraphBuilder graphBuilder = factory.getGraphBuilder();
-            double spawnX = graphBuilder.getWidth()/2;
-            double spawnY = graphBuilder.getHeight()/2;
-            factory.createBlock(productCategory, spawnX, spawnY);
+            // Spawn the block at whatever part of the content is currently in the center of the view
+            Point2D spawn = graphBuilder.viewToContent(graphBuilder.getWidth()/2, graphBuilder.getHeight()/2);
+            factory.createBlock(productCategory, spawn.getX(), spawn.getY());
         });
 
         return addButton;
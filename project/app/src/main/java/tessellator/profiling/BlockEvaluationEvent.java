@@ -0,0 +1,24 @@
+package tessellator.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * An event recorded each time a block and the blocks it affects are drawn again, either
+ * because the block became satisfied or because one of its attributes changed.
+ */
+@Name("tessellator.BlockEvaluation")
+@Label("Block Evaluation")
+@Category({"Tessellator", "Editor"})
+@Description("A block and its descendants drawn again")
+public class BlockEvaluationEvent extends jdk.jfr.Event {
+
+    @Label("Trigger")
+    @Description("satisfied or valueHasChanged")
+    public String trigger;
+
+    @Label("Blocks Evaluated")
+    public int blocksEvaluated;
+}
@@ -0,0 +1,62 @@
+package tessellator.profiling;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * A helper object for recording a session with the Java Flight Recorder using the
+ * application's own recording profile, which turns on the application's events along with
+ * the JDK events that explain them (garbage collection, allocation, locks and method
+ * samples).
+ *
+ * A recording is started when the tessellator.recording system property names the file
+ * it should be written to, and is written to that file when the application exits.
+ */
+public class FlightRecording {
+
+    private static final String PROPERTY = "tessellator.recording";
+    private static final String PROFILE = "tessellator.jfc";
+
+    private FlightRecording() {
+    }
+
+    /**
+     * Start a recording if the tessellator.recording system property is set.
+     */
+    public static void startIfRequested() {
+        String destination = System.getProperty(PROPERTY);
+        if (destination == null || destination.isBlank()) return;
+        try {
+            Recording recording = new Recording(profile());
+            recording.setName("Tessellator");
+            recording.setToDisk(true);
+            recording.setDestination(Path.of(destination));
+            recording.start();
+            // Stopping the recording writes it to its destination
+            Runtime.getRuntime().addShutdownHook(new Thread(recording::stop));
+            System.out.println("Recording to " + destination);
+        } catch (IOException | ParseException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * The application's recording profile.
+     */
+    public static Configuration profile() throws IOException, ParseException {
+        try (InputStream in = FlightRecording.class.getResourceAsStream(PROFILE)) {
+            if (in == null) throw new IOException("The recording profile " + PROFILE + " is missing.");
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                return Configuration.create(reader);
+            }
+        }
+    }
+}
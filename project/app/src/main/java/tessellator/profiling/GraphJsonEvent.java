@@ -0,0 +1,23 @@
+package tessellator.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * An event recorded each time the graph builder is saved to or loaded from json.
+ */
+@Name("tessellator.GraphJson")
+@Label("Graph Json")
+@Category({"Tessellator", "Editor"})
+public class GraphJsonEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Blocks")
+    public int blocks;
+
+    @Label("Characters")
+    public int characters;
+}
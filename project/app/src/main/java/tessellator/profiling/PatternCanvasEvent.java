@@ -0,0 +1,25 @@
+package tessellator.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * An event recorded each time the svg of the pattern is loaded into the preview of the
+ * tessellation window.
+ */
+@Name("tessellator.PatternCanvas")
+@Label("Apply Document To Canvas")
+@Category({"Tessellator", "Tessellation"})
+@Description("The pattern document serialised and loaded into the preview")
+public class PatternCanvasEvent extends jdk.jfr.Event {
+
+    @Label("From Cache")
+    @Description("Whether the svg came from the render cache rather than being serialised")
+    public boolean fromCache;
+
+    @Label("Characters")
+    @Description("The length of the svg loaded into the preview")
+    public int characters;
+}
@@ -0,0 +1,27 @@
+package tessellator.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * An event recorded each time a tessellation is clipped, merged and written to the document
+ * of the tessellation window.
+ */
+@Name("tessellator.PatternDocument")
+@Label("Apply Tessellation To Document")
+@Category({"Tessellator", "Tessellation"})
+@Description("A tessellation clipped to the boundary, merged into paths and written to the pattern")
+public class PatternDocumentEvent extends jdk.jfr.Event {
+
+    @Label("Tiles")
+    public int tiles;
+
+    @Label("Segments")
+    @Description("The segments of the visible tiles before they were clipped and merged")
+    public int segments;
+
+    @Label("Elements Written")
+    public int elementsWritten;
+}
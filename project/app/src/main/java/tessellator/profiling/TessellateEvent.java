@@ -0,0 +1,26 @@
+package tessellator.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * An event recorded each time a tiling strategy generates a tessellation.
+ */
+@Name("tessellator.Tessellate")
+@Label("Tessellate")
+@Category({"Tessellator", "Tessellation"})
+@Description("The seed grown into a tessellation")
+public class TessellateEvent extends jdk.jfr.Event {
+
+    @Label("Seed Shape")
+    public String seedShape;
+
+    @Label("Whole Canvas")
+    @Description("Whether every tile was generated rather than the tiles of a region")
+    public boolean wholeCanvas;
+
+    @Label("Tiles Generated")
+    public int tilesGenerated;
+}
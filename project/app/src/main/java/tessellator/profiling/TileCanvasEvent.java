@@ -0,0 +1,20 @@
+package tessellator.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * An event recorded each time the drawings of the editor are drawn onto the tile preview.
+ */
+@Name("tessellator.TileCanvas")
+@Label("Apply Drawings To Canvas")
+@Category({"Tessellator", "Editor"})
+public class TileCanvasEvent extends jdk.jfr.Event {
+
+    @Label("Drawings")
+    public int drawings;
+
+    @Label("Elements Written")
+    public int elementsWritten;
+}
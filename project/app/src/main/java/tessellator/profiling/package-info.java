@@ -0,0 +1,6 @@
+package tessellator.profiling;
+
+/**
+ * The 'profiling' package holds the Java Flight Recorder events the application records
+ * around its slowest operations, and the recording profile that turns them on.
+ */
\ No newline at end of file
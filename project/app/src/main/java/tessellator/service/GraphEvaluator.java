@@ -0,0 +1,152 @@
+package tessellator.service;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import javafx.geometry.Point2D;
+import tessellator.editor.graph.block.category.Category;
+import tessellator.editor.graph.block.category.HexagonTileCategory;
+import tessellator.editor.graph.block.category.SquareTileCategory;
+import tessellator.editor.graph.block.category.StraightLineCategory;
+import tessellator.editor.graph.block.category.TriangleTileCategory;
+import tessellator.editor.preview.Drawing;
+
+/**
+ * An object which works out the drawings of a graph saved by the editor without building
+ * the graph in a graph builder, so a seed can be made without any of the editor's windows.
+ *
+ * The drawings are the same as the editor's. The root block is drawn first, then any block
+ * whose input connectors are all connected to blocks that have been drawn is drawn, until
+ * no more blocks can be drawn. Blocks which are never satisfied in the editor aren't drawn.
+ */
+public class GraphEvaluator {
+
+    // The size of the editor's tile preview, the seed is fitted to the pattern's canvas
+    // whatever size it is drawn at
+    private static final double CANVAS_WIDTH = 250;
+    private static final double CANVAS_HEIGHT = 250;
+
+    // Where an input connector gets its value from
+    private record Source(int blockId, int connectorIndex) {}
+
+    private GraphEvaluator() {
+    }
+
+    /**
+     * The drawings of a graph, in the json format written by the editor.
+     *
+     * @param graph The json of the graph builder.
+     * @return The drawing of the root block and the drawings of the blocks it satisfies.
+     * @throws IllegalArgumentException If the graph isn't in the editor's format.
+     */
+    public static List<Drawing> evaluate(JsonNode graph) {
+        JsonNode blocks = graph.path("blocks");
+        if (!blocks.isArray()) throw new IllegalArgumentException("The graph has no blocks.");
+
+        // Connect the input connectors of every block to the output connectors feeding them
+        Map<Integer, Source[]> inputs = new HashMap<>();
+        for (JsonNode block : blocks) {
+            inputs.put(block.path("id").asInt(), new Source[inputCount(category(block))]);
+        }
+        for (JsonNode block : blocks) {
+            JsonNode outputConnectors = block.path("outputConnectors");
+            for (int i = 0; i < outputConnectors.size(); i++) {
+                for (JsonNode child : outputConnectors.get(i).path("children")) {
+                    Source[] childInputs = inputs.get(child.path("id").asInt());
+                    int connectorIndex = child.path("connectorIndex").asInt();
+                    if (childInputs == null || connectorIndex < 0 || connectorIndex >= childInputs.length) {
+                        throw new IllegalArgumentException("An edge of the graph leads to a missing connector.");
+                    }
+                    childInputs[connectorIndex] = new Source(block.path("id").asInt(), i);
+                }
+            }
+        }
+
+        List<Drawing> drawings = new ArrayList<>();
+        Map<Integer, List<Point2D>> outputs = new HashMap<>();
+        boolean drewBlock = true;
+        while (drewBlock) {
+            drewBlock = false;
+            for (JsonNode block : blocks) {
+                int id = block.path("id").asInt();
+                if (outputs.containsKey(id) || !isSatisfied(block, inputs.get(id), outputs)) continue;
+                List<Point2D> vertices = draw(block, inputs.get(id), outputs, drawings);
+                outputs.put(id, vertices);
+                drewBlock = true;
+            }
+        }
+        return drawings;
+    }
+
+    private static Category category(JsonNode block) {
+        return Category.fromString(block.path("category").asText());
+    }
+
+    private static int inputCount(Category category) {
+        return (category == Category.STRAIGHT_LINE) ? 2 : 0;
+    }
+
+    // A root block is always satisfied, any other block is once all of its inputs have values
+    private static boolean isSatisfied(JsonNode block, Source[] sources, Map<Integer, List<Point2D>> outputs) {
+        if (block.path("isRoot").asBoolean()) return true;
+        if (sources.length == 0) return false;
+        for (Source source : sources) {
+            if (source == null || !outputs.containsKey(source.blockId())) return false;
+        }
+        return true;
+    }
+
+    // Add the drawing of a block and return the values of its output connectors
+    private static List<Point2D> draw(JsonNode block, Source[] sources, Map<Integer, List<Point2D>> outputs, List<Drawing> drawings) {
+        List<String> attributes = new ArrayList<>();
+        for (JsonNode attribute : block.path("attributeValues")) attributes.add(attribute.asText());
+        Category category = category(block);
+
+        List<Point2D> vertices;
+        Color color = Color.BLACK;
+        switch (category) {
+            case TRIANGLE_TILE:
+                vertices = TriangleTileCategory.vertices(CANVAS_WIDTH, CANVAS_HEIGHT, attribute(attributes, 0));
+                break;
+            case SQUARE_TILE:
+                vertices = SquareTileCategory.vertices(CANVAS_WIDTH, CANVAS_HEIGHT, attribute(attributes, 0));
+                break;
+            case HEXAGON_TILE:
+                vertices = HexagonTileCategory.vertices(CANVAS_WIDTH, CANVAS_HEIGHT, attribute(attributes, 0));
+                break;
+            default:
+                // An input connector's secondary value is the output connector after the one it is connected to
+                List<Point2D> e1Outputs = outputs.get(sources[0].blockId());
+                List<Point2D> e2Outputs = outputs.get(sources[1].blockId());
+                int e1Index = sources[0].connectorIndex();
+                int e2Index = sources[1].connectorIndex();
+                while (attributes.size() < 4) attributes.add("");
+                vertices = StraightLineCategory.ends(e1Outputs.get(e1Index), e1Outputs.get((e1Index+1)%e1Outputs.size()),
+                                                     e2Outputs.get(e2Index), e2Outputs.get((e2Index+1)%e2Outputs.size()),
+                                                     attributes);
+                break;
+        }
+        if (category != Category.STRAIGHT_LINE) {
+            // The border of a tile is red in the editor if it will be invisible
+            color = attribute(attributes, 1).toLowerCase().equals("visible") ? Color.BLACK : Color.RED;
+        }
+
+        List<Double> xcoords = new ArrayList<>();
+        List<Double> ycoords = new ArrayList<>();
+        for (Point2D vertex : vertices) {
+            xcoords.add(vertex.getX());
+            ycoords.add(vertex.getY());
+        }
+        drawings.add(new Drawing(xcoords, ycoords, new ArrayList<>(), color, category, null));
+        return vertices;
+    }
+
+    private static String attribute(List<String> attributes, int index) {
+        return (index < attributes.size()) ? attributes.get(index) : "";
+    }
+}
@@ -0,0 +1,78 @@
+package tessellator.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import tessellator.tessellation.BoundaryDocument;
+import tessellator.tessellation.output.BoundaryClipper;
+import tessellator.tessellation.output.ContactSheet;
+import tessellator.tessellation.output.PathMerger;
+import tessellator.tessellation.output.Polyline;
+import tessellator.tessellation.output.RasterExporter;
+import tessellator.tessellation.output.Segment;
+import tessellator.tessellation.output.SvgStreamWriter;
+import tessellator.tessellation.tiling.SeedTilingStrategy;
+
+/**
+ * A helper object for rendering a saved graph within a boundary without any of the
+ * application's windows, giving the same svg documents and PNG images as exporting the
+ * pattern from the tessellation window.
+ */
+public class HeadlessRenderer {
+
+    private HeadlessRenderer() {
+    }
+
+    /**
+     * The merged paths of the pattern of a graph within a boundary.
+     *
+     * @param graph The json of a graph saved by the editor.
+     * @param boundary The boundary the pattern is drawn within.
+     * @param parameters The parameters of the pattern, values the tessellation window
+     *                   wouldn't accept fall back to its defaults.
+     * @throws IllegalArgumentException If the graph isn't in the editor's format.
+     */
+    public static List<Polyline> paths(JsonNode graph, BoundaryDocument boundary, ContactSheet.Variation parameters) {
+        SeedTilingStrategy tiler = new SeedTilingStrategy(GraphEvaluator.evaluate(graph));
+        tiler.setCanvasDimensions(boundary.canvasWidth(), boundary.canvasHeight());
+        double xTranslation = parameters.xTranslation();
+        double yTranslation = parameters.yTranslation();
+        tiler.setXTranslation((xTranslation<0 || xTranslation>1) ? 0 : xTranslation);
+        tiler.setYTranslation((yTranslation<0 || yTranslation>1) ? 0 : yTranslation);
+        tiler.setRotation(parameters.rotation());
+        tiler.setScale((parameters.scale()<=0) ? 1 : parameters.scale());
+
+        BoundaryClipper clipper = boundary.clipper();
+        List<Segment> segments = PathMerger.segmentsOf(clipper.visibleTiles(tiler.tessellate()));
+        return PathMerger.merge(clipper.clip(segments));
+    }
+
+    /**
+     * An svg document with the paths as its pattern, encoded as UTF-8.
+     *
+     * @param header The start of the document, as made by SvgStreamWriter.header().
+     */
+    public static byte[] svg(List<Polyline> paths, String header) throws IOException {
+        StringWriter svg = new StringWriter();
+        try (SvgStreamWriter writer = new SvgStreamWriter(svg, header)) {
+            writer.writePaths(paths);
+        }
+        return svg.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A PNG image of the paths drawn on one thread, for when many images are rendered at once.
+     *
+     * @param pixelWidth The width of the image in pixels.
+     */
+    public static byte[] png(List<Polyline> paths, BoundaryDocument boundary, int pixelWidth) throws IOException {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        new RasterExporter(paths, boundary.canvasWidth(), boundary.canvasHeight()).export(png, pixelWidth, 1);
+        return png.toByteArray();
+    }
+}
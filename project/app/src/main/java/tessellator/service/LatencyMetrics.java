@@ -0,0 +1,77 @@
+package tessellator.service;
+
+import java.util.Arrays;
+
+/**
+ * An object which keeps track of how long the render service takes to answer requests.
+ *
+ * The number of requests, cache hits and failures are counted over the life of the service,
+ * while the percentiles are worked out from the most recent requests only, so they follow
+ * how the service is doing now rather than since it started.
+ */
+public class LatencyMetrics {
+
+    // The number of recent latencies the percentiles are taken from
+    private static final int WINDOW = 1024;
+
+    /**
+     * The metrics at a moment in time, with the latencies in milliseconds.
+     */
+    public record Snapshot(long requests, long cacheHits, long failures, double meanMillis,
+                           double p50Millis, double p95Millis, double p99Millis, double maxMillis) {}
+
+    private final long[] recentNanos;
+    private int recentCount;
+    private int next;
+    private long requests;
+    private long cacheHits;
+    private long failures;
+    private long totalNanos;
+
+    public LatencyMetrics() {
+        recentNanos = new long[WINDOW];
+        recentCount = 0;
+        next = 0;
+        requests = 0;
+        cacheHits = 0;
+        failures = 0;
+        totalNanos = 0;
+    }
+
+    /**
+     * Record a request that was answered.
+     *
+     * @param nanos How long the request took, from being read to being answered.
+     * @param isCacheHit Whether the response came from the cache.
+     * @param isFailure Whether the request couldn't be rendered.
+     */
+    public synchronized void record(long nanos, boolean isCacheHit, boolean isFailure) {
+        requests++;
+        if (isCacheHit) cacheHits++;
+        if (isFailure) failures++;
+        totalNanos += nanos;
+        recentNanos[next] = nanos;
+        next = (next+1)%WINDOW;
+        recentCount = Math.min(recentCount+1, WINDOW);
+    }
+
+    public synchronized Snapshot snapshot() {
+        long[] sorted = Arrays.copyOf(recentNanos, recentCount);
+        Arrays.sort(sorted);
+        double mean = (requests == 0) ? 0 : millis(totalNanos/requests);
+        double max = (recentCount == 0) ? 0 : millis(sorted[recentCount-1]);
+        return new Snapshot(requests, cacheHits, failures, mean,
+                            percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99), max);
+    }
+
+    // The nearest rank percentile of sorted latencies
+    private static double percentile(long[] sorted, int percent) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(percent/100.0*sorted.length);
+        return millis(sorted[Math.max(0, rank-1)]);
+    }
+
+    private static double millis(long nanos) {
+        return nanos/1e6;
+    }
+}
@@ -0,0 +1,258 @@
+package tessellator.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import tessellator.profiling.FlightRecording;
+import tessellator.tessellation.BoundaryDocument;
+import tessellator.tessellation.output.ContactSheet;
+import tessellator.tessellation.output.Polyline;
+
+/**
+ * An object which renders tessellations over http, without any of the application's windows.
+ *
+ * A POST to /render takes a json object with:
+ * - "graph": the graph saved by the editor, as an object or as the text of the save.
+ * - "boundary": the text of the svg document of the boundary.
+ * - "parameters": optionally, the "xTranslation", "yTranslation", "rotation" and "scale".
+ * - "format": optionally, "svg" (the default) or "png".
+ * - "pixelWidth": optionally, the width of a PNG in pixels.
+ * and answers with the tessellated svg document or PNG image, the same as exporting the
+ * pattern from the tessellation window would give.
+ *
+ * The service listens on the loopback address, so only programs on the same machine can
+ * reach it, since it has no authentication of its own. Requests bigger than a limit are
+ * refused without being read in full.
+ *
+ * Each request is handled on its own virtual thread, so a slow render doesn't hold up other
+ * requests. Responses are cached by a hash of their request, so a repeated request is
+ * answered without rendering it again. A GET to /metrics answers with the number of requests
+ * and cache hits and the latency of recent requests.
+ */
+public class RenderService {
+
+    private static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_PIXEL_WIDTH = 1000;
+    // The widest PNG the service renders, so one request can't take all of the memory
+    private static final int MAX_PIXEL_WIDTH = 8000;
+    // The biggest request body the service reads, graphs and boundaries are far smaller
+    private static final int MAX_REQUEST_BYTES = 16*1024*1024;
+    // The boundary is parsed as if it came from here, it is never fetched
+    private static final String BOUNDARY_URI = "file:boundary.svg";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper;
+    private final ResponseCache cache;
+    private final LatencyMetrics metrics;
+
+    /**
+     * A service which listens on the loopback address.
+     *
+     * @param port The port the service listens on.
+     */
+    public RenderService(int port) throws IOException {
+        this(InetAddress.getLoopbackAddress(), port);
+    }
+
+    /**
+     * @param address The address the service listens on. Only listen on an address other
+     * machines can reach when the network in between is trusted.
+     * @param port The port the service listens on.
+     */
+    public RenderService(InetAddress address, int port) throws IOException {
+        objectMapper = new ObjectMapper();
+        cache = new ResponseCache();
+        metrics = new LatencyMetrics();
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress(address, port), 0);
+        server.createContext("/render", this::handleRender);
+        server.createContext("/metrics", this::handleMetrics);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * @param args Optionally the port, followed by the address to listen on instead of the
+     * loopback address.
+     */
+    public static void main(String[] args) throws IOException {
+        FlightRecording.startIfRequested();
+        String usage = "Usage: RenderService [port] [address]";
+        if (args.length > 2) {
+            System.out.println(usage);
+            return;
+        }
+        int port = DEFAULT_PORT;
+        if (args.length > 0) {
+            try {
+                port = Integer.parseInt(args[0]);
+            } catch (NumberFormatException e) {
+                port = -1;
+            }
+            if (port < 0 || port > 65535) {
+                System.out.println("The port " + args[0] + " isn't a number from 0 to 65535.");
+                System.out.println(usage);
+                return;
+            }
+        }
+        InetAddress address = (args.length > 1) ? InetAddress.getByName(args[1]) : InetAddress.getLoopbackAddress();
+        RenderService service = new RenderService(address, port);
+        service.start();
+        System.out.println("Render service listening on " + address.getHostAddress() + " port " + service.getPort());
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stop accepting requests, waiting up to a number of seconds for the requests being
+     * handled to finish.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public ResponseCache getCache() {
+        return cache;
+    }
+
+    public LatencyMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void handleRender(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        if (!exchange.getRequestMethod().equals("POST")) {
+            respondWithText(exchange, 405, "Requests to /render must be POST requests.");
+            return;
+        }
+        boolean isCacheHit = false;
+        boolean isFailure = false;
+        try {
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                // One byte past the limit is enough to tell the body is too big
+                body = in.readNBytes(MAX_REQUEST_BYTES+1);
+            }
+            if (body.length > MAX_REQUEST_BYTES) {
+                isFailure = true;
+                respondWithText(exchange, 413, "The request must be no bigger than " + MAX_REQUEST_BYTES + " bytes.");
+                return;
+            }
+            JsonNode request = objectMapper.readTree(body);
+            if (request == null || !request.isObject()) throw new IllegalArgumentException("The request must be a json object.");
+
+            String requestHash = hash(request);
+            ResponseCache.Response response = cache.get(requestHash);
+            isCacheHit = response != null;
+            if (response == null) {
+                response = render(request);
+                cache.put(requestHash, response);
+            }
+            exchange.getResponseHeaders().set("Content-Type", response.contentType());
+            exchange.sendResponseHeaders(200, response.body().length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response.body());
+            }
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            isFailure = true;
+            respondWithText(exchange, 400, e.getMessage());
+        } catch (Exception e) {
+            isFailure = true;
+            e.printStackTrace();
+            respondWithText(exchange, 500, "The pattern couldn't be rendered.");
+        } finally {
+            metrics.record(System.nanoTime()-start, isCacheHit, isFailure);
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(metrics.snapshot());
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Render the pattern a request asks for.
+     */
+    private ResponseCache.Response render(JsonNode request) throws IOException {
+        JsonNode graph = request.path("graph");
+        // The graph can be sent as it is saved by the editor, as text
+        if (graph.isTextual()) graph = objectMapper.readTree(graph.asText());
+
+        JsonNode boundaryText = request.path("boundary");
+        if (!boundaryText.isTextual()) throw new IllegalArgumentException("The request has no boundary.");
+        Optional<BoundaryDocument> loaded;
+        try {
+            loaded = BoundaryDocument.load(BOUNDARY_URI, boundaryText.asText());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("The boundary isn't an svg document.");
+        }
+        if (loaded.isEmpty()) throw new IllegalArgumentException("The boundary must have a width, a height and one element.");
+        BoundaryDocument boundary = loaded.get();
+
+        JsonNode parameters = request.path("parameters");
+        List<Polyline> paths = HeadlessRenderer.paths(graph, boundary, new ContactSheet.Variation(
+                parameters.path("xTranslation").asDouble(0), parameters.path("yTranslation").asDouble(0),
+                parameters.path("rotation").asDouble(0), parameters.path("scale").asDouble(1)));
+
+        String format = request.path("format").asText("svg").toLowerCase();
+        if (format.equals("png")) {
+            int pixelWidth = request.path("pixelWidth").asInt(DEFAULT_PIXEL_WIDTH);
+            if (pixelWidth <= 0 || pixelWidth > MAX_PIXEL_WIDTH) {
+                throw new IllegalArgumentException("The pixel width must be between 1 and " + MAX_PIXEL_WIDTH + ".");
+            }
+            // Other requests keep the cores busy, so each image is drawn on one thread
+            return new ResponseCache.Response("image/png", HeadlessRenderer.png(paths, boundary, pixelWidth));
+        } else if (format.equals("svg")) {
+            String header = boundary.svgHeader();
+            return new ResponseCache.Response("image/svg+xml", HeadlessRenderer.svg(paths, header));
+        }
+        throw new IllegalArgumentException("The format must be svg or png.");
+    }
+
+    // A hash of the request, the same for requests which only differ in their whitespace
+    private String hash(JsonNode request) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("SHA-256 isn't available.", e);
+        }
+    }
+
+    private void respondWithText(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = String.valueOf(message).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
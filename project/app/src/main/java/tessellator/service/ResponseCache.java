@@ -0,0 +1,75 @@
+package tessellator.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An object which remembers the most recent responses of the render service, so a request
+ * that was just made isn't rendered again.
+ *
+ * Responses are looked up by a hash of their request. Once the responses held take up more
+ * than the memory budget, the least recently used responses are evicted. The cache is shared
+ * by every request the service is handling, so all of its methods are synchronized.
+ */
+public class ResponseCache {
+
+    // The default memory budget of the cache
+    private static final long DEFAULT_BUDGET_BYTES = 64L << 20;
+
+    /**
+     * A rendered response.
+     */
+    public record Response(String contentType, byte[] body) {}
+
+    private final long budgetBytes;
+    // In access order, so the first entry is the least recently used
+    private final LinkedHashMap<String, Response> responses;
+    private long usedBytes;
+
+    public ResponseCache() {
+        this(DEFAULT_BUDGET_BYTES);
+    }
+
+    public ResponseCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+        responses = new LinkedHashMap<>(16, 0.75f, true);
+        usedBytes = 0;
+    }
+
+    /**
+     * The response to the request with the hash, or null if it isn't cached.
+     */
+    public synchronized Response get(String requestHash) {
+        return responses.get(requestHash);
+    }
+
+    /**
+     * Remember a response, evicting the least recently used responses if the cache is over
+     * its budget. A response bigger than the whole budget isn't cached.
+     */
+    public synchronized void put(String requestHash, Response response) {
+        long size = response.body().length;
+        if (size > budgetBytes) return;
+
+        Response old = responses.put(requestHash, response);
+        if (old != null) usedBytes -= old.body().length;
+        usedBytes += size;
+
+        Iterator<Map.Entry<String, Response>> eldest = responses.entrySet().iterator();
+        while (usedBytes > budgetBytes && eldest.hasNext()) {
+            Map.Entry<String, Response> entry = eldest.next();
+            if (entry.getKey().equals(requestHash)) continue;
+            usedBytes -= entry.getValue().body().length;
+            eldest.remove();
+        }
+    }
+
+    public synchronized int size() {
+        return responses.size();
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+}
@@ -0,0 +1,344 @@
+package tessellator.service;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import tessellator.profiling.FlightRecording;
+import tessellator.tessellation.BoundaryDocument;
+import tessellator.tessellation.output.AnimationExporter.Format;
+import tessellator.tessellation.output.ContactSheet;
+import tessellator.tessellation.output.Polyline;
+
+/**
+ * An object which watches a directory for graphs saved by the editor and renders the pattern
+ * of each one within a boundary to an output directory whenever it is saved, so a batch of
+ * designs doesn't have to be exported by hand.
+ *
+ * Saving a file often takes several writes, so a graph is only rendered once it has gone
+ * unchanged for the debounce time. Graphs are rendered on a pool of worker threads, a graph
+ * that changes while it is being rendered is rendered again afterwards. The outputs of a
+ * graph are named after it, so saves/rose.json becomes rose.svg and rose.png, and each is
+ * written to a temporary file first so other programs never see half of an output.
+ *
+ * A hash of the contents of every graph rendered, along with the boundary and the settings,
+ * is kept in a manifest in the output directory. A graph whose hash hasn't changed since it
+ * was last rendered is skipped, even across restarts of the daemon, so touching a file or
+ * copying the same graph over it again doesn't render it again.
+ */
+public class WatchDaemon {
+
+    private static final long DEFAULT_DEBOUNCE_MILLIS = 500;
+    private static final int DEFAULT_PIXEL_WIDTH = 1000;
+    private static final String GRAPH_EXTENSION = ".json";
+    private static final String MANIFEST_NAME = ".tessellator-manifest";
+
+    private final Path inputDirectory;
+    private final Path outputDirectory;
+    private final BoundaryDocument boundary;
+    private final String svgHeader;
+    private final Set<Format> formats;
+    private final int pixelWidth;
+    private final ContactSheet.Variation parameters;
+    private final long debounceMillis;
+    // A hash of everything other than the graph which decides what the outputs look like
+    private final String settingsHash;
+
+    private final ObjectMapper objectMapper;
+    private final ScheduledExecutorService debouncer;
+    private final ExecutorService workers;
+    // The render waiting for each graph to stop changing
+    private final Map<Path, ScheduledFuture<?>> scheduled;
+    private final Set<Path> rendering;
+    // The hash each graph had when it was last rendered, by the name of the graph
+    private final Properties manifest;
+    private final Path manifestFile;
+    private WatchService watcher;
+
+    private final AtomicLong rendered;
+    private final AtomicLong skipped;
+    private final AtomicLong failed;
+
+    /**
+     * @param inputDirectory The directory watched for graphs.
+     * @param outputDirectory The directory the outputs are written to, created if it doesn't exist.
+     * @param boundaryFile The svg document of the boundary every pattern is drawn within.
+     * @param formats Whether each graph is rendered to an svg document, a PNG image or both.
+     * @param pixelWidth The width of a PNG image in pixels.
+     * @param parameters The parameters every pattern is drawn with.
+     * @param debounceMillis How long a graph has to go unchanged before it is rendered.
+     * @param workerCount The number of graphs rendered at once.
+     */
+    public WatchDaemon(Path inputDirectory, Path outputDirectory, Path boundaryFile, Set<Format> formats, int pixelWidth,
+                       ContactSheet.Variation parameters, long debounceMillis, int workerCount) throws IOException {
+        this.inputDirectory = inputDirectory.toAbsolutePath();
+        this.outputDirectory = outputDirectory.toAbsolutePath();
+        Optional<BoundaryDocument> loaded = BoundaryDocument.load(boundaryFile.toFile());
+        if (loaded.isEmpty()) throw new IOException("The boundary must have a width, a height and one element.");
+        boundary = loaded.get();
+        // The header is made once so the workers never touch the boundary's document
+        svgHeader = boundary.svgHeader();
+        this.formats = EnumSet.copyOf(formats);
+        this.pixelWidth = pixelWidth;
+        this.parameters = parameters;
+        this.debounceMillis = debounceMillis;
+        settingsHash = hash(this.formats + " " + pixelWidth + " " + parameters, Files.readAllBytes(boundaryFile));
+
+        objectMapper = new ObjectMapper();
+        debouncer = Executors.newSingleThreadScheduledExecutor();
+        workers = Executors.newFixedThreadPool(workerCount);
+        scheduled = new ConcurrentHashMap<>();
+        rendering = ConcurrentHashMap.newKeySet();
+        rendered = new AtomicLong();
+        skipped = new AtomicLong();
+        failed = new AtomicLong();
+
+        Files.createDirectories(this.outputDirectory);
+        manifestFile = this.outputDirectory.resolve(MANIFEST_NAME);
+        manifest = new Properties();
+        if (Files.exists(manifestFile)) {
+            try (InputStream in = Files.newInputStream(manifestFile)) {
+                manifest.load(in);
+            }
+        }
+    }
+
+    /**
+     * Arguments: the input directory, the output directory, the boundary svg file, optionally
+     * the formats separated by commas (svg by default) and optionally the width of PNG images.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        FlightRecording.startIfRequested();
+        String usage = "Usage: WatchDaemon <input directory> <output directory> <boundary svg> [svg,png] [pixel width]";
+        if (args.length < 3) {
+            System.out.println(usage);
+            return;
+        }
+        Set<Format> formats = EnumSet.noneOf(Format.class);
+        for (String format : ((args.length > 3) ? args[3] : "svg").split(",")) {
+            formats.add(Format.valueOf(format.trim().toUpperCase()));
+        }
+        int pixelWidth = DEFAULT_PIXEL_WIDTH;
+        if (args.length > 4) {
+            try {
+                pixelWidth = Integer.parseInt(args[4]);
+            } catch (NumberFormatException e) {
+                System.out.println("The pixel width " + args[4] + " isn't a whole number.");
+                System.out.println(usage);
+                return;
+            }
+        }
+
+        WatchDaemon daemon = new WatchDaemon(Path.of(args[0]), Path.of(args[1]), Path.of(args[2]), formats, pixelWidth,
+                                             new ContactSheet.Variation(0, 0, 0, 1), DEFAULT_DEBOUNCE_MILLIS,
+                                             Runtime.getRuntime().availableProcessors());
+        System.out.println("Watching " + daemon.inputDirectory);
+        daemon.run();
+    }
+
+    /**
+     * Render the graphs already in the input directory, then watch it and render each graph
+     * that is saved, until stop() is called.
+     */
+    public void run() throws IOException, InterruptedException {
+        synchronized (this) {
+            watcher = FileSystems.getDefault().newWatchService();
+        }
+        try {
+            inputDirectory.register(watcher, ENTRY_CREATE, ENTRY_MODIFY);
+            // Graphs saved while the daemon wasn't running are rendered when it starts
+            scanInputDirectory();
+            while (true) {
+                WatchKey key = watcher.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    // Too many events came at once for the watch service to keep, so check every graph
+                    if (event.kind() == OVERFLOW) {
+                        scanInputDirectory();
+                        continue;
+                    }
+                    Path file = inputDirectory.resolve((Path) event.context());
+                    if (isGraph(file)) changed(file);
+                }
+                // The input directory is no longer there to watch
+                if (!key.reset()) break;
+            }
+        } catch (ClosedWatchServiceException e) {
+            // stop() was called
+        } finally {
+            debouncer.shutdownNow();
+            workers.shutdown();
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Stop watching the input directory, the graphs being rendered are finished.
+     */
+    public synchronized void stop() throws IOException {
+        if (watcher != null) watcher.close();
+    }
+
+    public long getRendered() {
+        return rendered.get();
+    }
+
+    public long getSkipped() {
+        return skipped.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    private void scanInputDirectory() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(inputDirectory, "*" + GRAPH_EXTENSION)) {
+            for (Path file : files) changed(file);
+        }
+    }
+
+    private boolean isGraph(Path file) {
+        return file.getFileName().toString().endsWith(GRAPH_EXTENSION);
+    }
+
+    // Put off rendering the graph until it has gone unchanged for the debounce time
+    private void changed(Path file) {
+        scheduled.compute(file, (f, pending) -> {
+            if (pending != null) pending.cancel(false);
+            // The task needs its own future to unschedule itself, which only exists once it's scheduled
+            CompletableFuture<ScheduledFuture<?>> self = new CompletableFuture<>();
+            ScheduledFuture<?> future = debouncer.schedule(() -> submit(f, self.join()), debounceMillis, TimeUnit.MILLISECONDS);
+            self.complete(future);
+            return future;
+        });
+    }
+
+    private void submit(Path file, ScheduledFuture<?> future) {
+        // The graph may have changed again since this was scheduled, the newer render stays scheduled
+        scheduled.remove(file, future);
+        // A graph is only rendered by one worker at a time, if it changed while it was being
+        // rendered it is tried again once it has gone unchanged again
+        if (!rendering.add(file)) {
+            changed(file);
+            return;
+        }
+        workers.execute(() -> {
+            try {
+                render(file);
+            } finally {
+                rendering.remove(file);
+            }
+        });
+    }
+
+    private void render(Path file) {
+        String name = file.getFileName().toString();
+        name = name.substring(0, name.length() - GRAPH_EXTENSION.length());
+        try {
+            byte[] contents = Files.readAllBytes(file);
+            String contentHash = hash(settingsHash, contents);
+            if (contentHash.equals(manifestHash(name)) && outputsExist(name)) {
+                skipped.incrementAndGet();
+                return;
+            }
+
+            List<Polyline> paths = HeadlessRenderer.paths(objectMapper.readTree(contents), boundary, parameters);
+            for (Format format : formats) {
+                if (format == Format.SVG) {
+                    writeAtomically(outputDirectory.resolve(name + ".svg"), HeadlessRenderer.svg(paths, svgHeader));
+                } else {
+                    writeAtomically(outputDirectory.resolve(name + ".png"), HeadlessRenderer.png(paths, boundary, pixelWidth));
+                }
+            }
+            recordHash(name, contentHash);
+            rendered.incrementAndGet();
+            System.out.println("Rendered " + file.getFileName());
+        } catch (NoSuchFileException e) {
+            // The graph was deleted or renamed before it could be rendered
+        } catch (IOException | RuntimeException e) {
+            // A malformed graph can fail anywhere in the renderer, and the worker has to carry
+            // on with the next graph either way
+            failed.incrementAndGet();
+            System.out.println(file.getFileName() + " couldn't be rendered: " + e.getMessage());
+        }
+    }
+
+    private boolean outputsExist(String name) {
+        for (Format format : formats) {
+            String extension = (format == Format.SVG) ? ".svg" : ".png";
+            if (!Files.exists(outputDirectory.resolve(name + extension))) return false;
+        }
+        return true;
+    }
+
+    // Write to a temporary file in the same directory and then move it into place
+    private void writeAtomically(Path target, byte[] contents) throws IOException {
+        Path temporary = Files.createTempFile(outputDirectory, ".rendering", ".tmp");
+        try {
+            Files.write(temporary, contents);
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private synchronized String manifestHash(String name) {
+        return manifest.getProperty(name);
+    }
+
+    private synchronized void recordHash(String name, String contentHash) throws IOException {
+        manifest.setProperty(name, contentHash);
+        Path temporary = Files.createTempFile(outputDirectory, ".manifest", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                manifest.store(out, "Hashes of the graphs last rendered");
+            }
+            Files.move(temporary, manifestFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static String hash(String prefix, byte[] contents) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(prefix.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(contents));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("SHA-256 isn't available.", e);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package tessellator.service;
+
+/**
+ * The 'service' package holds the classes which render tessellations without the
+ * application's windows, for other programs to request over http or to pick up from
+ * a watched directory.
+ */
\ No newline at end of file
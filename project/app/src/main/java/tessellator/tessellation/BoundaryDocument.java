@@ -0,0 +1,297 @@
+package tessellator.tessellation;
+
+import java.awt.geom.AffineTransform;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.batik.anim.dom.SVGDOMImplementation;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import tessellator.tessellation.output.BoundaryClipper;
+import tessellator.tessellation.output.SvgStreamWriter;
+
+/**
+ * An object which holds an svg document of a boundary that a tessellation is drawn within,
+ * along with the clipper made from the boundary and the size and position of the canvas.
+ *
+ * A boundary file is read as a stream rather than parsed into a document. Only the svg
+ * element and the boundary element are kept, and the document the pattern is written into
+ * is built from them alone. Everything else in the file, such as metadata, descriptions,
+ * embedded images, scripts, definitions and the elements of editors' own namespaces, is
+ * skipped as it is read without ever being held in memory. Besides those, the svg element
+ * must have one and only one element inside it, which is the boundary.
+ *
+ * The canvas is the viewBox of the svg element if it has one. Otherwise it starts at the
+ * origin and has the width and height of the svg element, converted from their units into
+ * user units (CSS pixels). Since the tessellation is generated on a canvas that starts at
+ * the origin, the boundary is moved onto the canvas for clipping and the pattern is moved
+ * back onto the viewBox when it is written.
+ */
+public record BoundaryDocument(
+    Document document,
+    Element boundary,
+    BoundaryClipper clipper,
+    double canvasX,
+    double canvasY,
+    double canvasWidth,
+    double canvasHeight) {
+
+    private static final String SVG_NS = SVGDOMImplementation.SVG_NAMESPACE_URI;
+    // Elements of the svg namespace that are never the boundary
+    private static final Set<String> SKIPPED_ELEMENTS = Set.of("metadata", "title", "desc", "image", "script", "style", "defs");
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory(true);
+    // For documents sent by other programs, whose DTDs are never processed
+    private static final XMLInputFactory UNTRUSTED_INPUT_FACTORY = createInputFactory(false);
+
+    /**
+     * Load a boundary document from a file.
+     *
+     * @return The boundary document, empty if the file isn't an acceptable boundary.
+     */
+    public static Optional<BoundaryDocument> load(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return read(INPUT_FACTORY.createXMLStreamReader(file.toURI().toString(), in));
+        } catch (XMLStreamException e) {
+            throw new IOException("The file isn't an svg document.", e);
+        }
+    }
+
+    /**
+     * Load a boundary document from the text of an svg document sent by another program.
+     * The text can't be trusted, so its DTD is ignored and no entities declared within it
+     * are expanded. A document which uses its own entities can't be loaded this way.
+     *
+     * @param uri The uri the document is treated as coming from.
+     * @return The boundary document, empty if the text isn't an acceptable boundary.
+     */
+    public static Optional<BoundaryDocument> load(String uri, String svg) throws IOException {
+        try (Reader reader = new StringReader(svg)) {
+            return read(UNTRUSTED_INPUT_FACTORY.createXMLStreamReader(uri, reader));
+        } catch (XMLStreamException e) {
+            throw new IOException("The text isn't an svg document.", e);
+        }
+    }
+
+    /**
+     * The start of an svg document of the pattern, see SvgStreamWriter.header().
+     */
+    public String svgHeader() throws IOException {
+        return SvgStreamWriter.header(document.getDocumentElement(), boundary, patternTransform());
+    }
+
+    /**
+     * The transform which moves the pattern from the canvas onto the viewBox, or null if the
+     * canvas starts at the origin of the viewBox.
+     */
+    public String patternTransform() {
+        if (canvasX == 0 && canvasY == 0) return null;
+        return "translate(" + canvasX + " " + canvasY + ")";
+    }
+
+    private static XMLInputFactory createInputFactory(boolean isSupportingDtd) {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // When the DTD is supported, entities declared within the file are still expanded,
+        // but nothing outside of the file, such as the svg DTD, is ever fetched
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, isSupportingDtd);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setXMLResolver((publicId, systemId, baseUri, namespace) -> new ByteArrayInputStream(new byte[0]));
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+
+    private static Optional<BoundaryDocument> read(XMLStreamReader reader) throws XMLStreamException {
+        try {
+            // Read past the prolog, which may have a DOCTYPE, comments and processing instructions
+            while (reader.next() != XMLStreamConstants.START_ELEMENT) {}
+            if (!reader.getLocalName().equals("svg")) return Optional.empty();
+            Document document = SVGDOMImplementation.getDOMImplementation().createDocument(SVG_NS, "svg", null);
+            Element svgRoot = document.getDocumentElement();
+            copyNamespaces(reader, svgRoot);
+            copyAttributes(reader, svgRoot);
+
+            // Keep the first element that could be the boundary and count the rest
+            Element boundary = null;
+            int candidates = 0;
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if (isSkipped(reader)) {
+                    skipElement(reader);
+                } else if (candidates++ == 0) {
+                    boundary = readElement(reader, document);
+                    svgRoot.appendChild(boundary);
+                } else {
+                    skipElement(reader);
+                }
+            }
+            // If the svg element has more than one element then the file can't be loaded
+            if (candidates != 1) return Optional.empty();
+
+            double[] canvas = canvas(svgRoot);
+            if (canvas == null) return Optional.empty();
+
+            // The tessellation is clipped against the geometry of the boundary itself rather than
+            // with a clip path, so only the geometry within the boundary is written out
+            AffineTransform toCanvas = AffineTransform.getTranslateInstance(-canvas[0], -canvas[1]);
+            BoundaryClipper clipper = BoundaryClipper.fromElement(document, boundary, toCanvas);
+            return Optional.of(new BoundaryDocument(document, boundary, clipper, canvas[0], canvas[1], canvas[2], canvas[3]));
+        } finally {
+            reader.close();
+        }
+    }
+
+    // Whether an element at the top level of the svg element is something other than a shape
+    private static boolean isSkipped(XMLStreamReader reader) {
+        String namespace = reader.getNamespaceURI();
+        if (namespace != null && !namespace.isEmpty() && !namespace.equals(SVG_NS)) return true;
+        return SKIPPED_ELEMENTS.contains(reader.getLocalName());
+    }
+
+    // Read past the end of the current element without keeping any of it
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    // Build the current element and everything inside it, the reader is left on its end tag
+    private static Element readElement(XMLStreamReader reader, Document document) throws XMLStreamException {
+        Element element = createElement(reader, document);
+        Node parent = element;
+        int depth = 1;
+        while (depth > 0) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    Element child = createElement(reader, document);
+                    parent.appendChild(child);
+                    parent = child;
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    parent = parent.getParentNode();
+                    depth--;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    parent.appendChild(document.createTextNode(reader.getText()));
+                    break;
+                default:
+                    break;
+            }
+        }
+        return element;
+    }
+
+    private static Element createElement(XMLStreamReader reader, Document document) {
+        // Elements without a namespace are taken to be svg elements
+        String namespace = reader.getNamespaceURI();
+        if (namespace == null || namespace.isEmpty()) namespace = SVG_NS;
+        String prefix = reader.getPrefix();
+        String name = (prefix == null || prefix.isEmpty()) ? reader.getLocalName() : prefix + ":" + reader.getLocalName();
+        Element element = document.createElementNS(namespace, name);
+        copyNamespaces(reader, element);
+        copyAttributes(reader, element);
+        return element;
+    }
+
+    private static void copyNamespaces(XMLStreamReader reader, Element element) {
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            String prefix = reader.getNamespacePrefix(i);
+            // The default namespace is always the svg namespace
+            if (prefix == null || prefix.isEmpty()) continue;
+            element.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, "xmlns:" + prefix, reader.getNamespaceURI(i));
+        }
+    }
+
+    private static void copyAttributes(XMLStreamReader reader, Element element) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String namespace = reader.getAttributeNamespace(i);
+            String prefix = reader.getAttributePrefix(i);
+            String localName = reader.getAttributeLocalName(i);
+            if (namespace == null || namespace.isEmpty()) {
+                element.setAttributeNS(null, localName, reader.getAttributeValue(i));
+            } else {
+                element.setAttributeNS(namespace, prefix + ":" + localName, reader.getAttributeValue(i));
+            }
+        }
+    }
+
+    /**
+     * The x, y, width and height of the canvas of the svg element, or null if it doesn't have
+     * a usable viewBox or width and height.
+     */
+    private static double[] canvas(Element svgRoot) {
+        String viewBox = svgRoot.getAttribute("viewBox").trim();
+        if (!viewBox.isEmpty()) {
+            String[] values = viewBox.split("[\\s,]+");
+            if (values.length != 4) return null;
+            try {
+                double[] canvas = new double[4];
+                for (int i = 0; i < 4; i++) canvas[i] = Double.parseDouble(values[i]);
+                return (canvas[2] > 0 && canvas[3] > 0) ? canvas : null;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        double width = userUnits(svgRoot.getAttribute("width"));
+        double height = userUnits(svgRoot.getAttribute("height"));
+        // If the svg element doesn't have a width and height the the file can't be loaded
+        if (!(width > 0) || !(height > 0)) return null;
+        return new double[] {0, 0, width, height};
+    }
+
+    /**
+     * A length converted into user units, NaN if it isn't an absolute length. Percentages
+     * can't be converted because they depend on where the svg is shown.
+     */
+    static double userUnits(String length) {
+        length = length.trim();
+        double unitSize = 1;
+        int unitLength = 0;
+        if (length.endsWith("px")) {
+            unitLength = 2;
+        } else if (length.endsWith("pt")) {
+            unitSize = 96.0/72;
+            unitLength = 2;
+        } else if (length.endsWith("pc")) {
+            unitSize = 16;
+            unitLength = 2;
+        } else if (length.endsWith("mm")) {
+            unitSize = 96/25.4;
+            unitLength = 2;
+        } else if (length.endsWith("cm")) {
+            unitSize = 96/2.54;
+            unitLength = 2;
+        } else if (length.endsWith("in")) {
+            unitSize = 96;
+            unitLength = 2;
+        }
+        try {
+            return Double.parseDouble(length.substring(0, length.length()-unitLength).trim())*unitSize;
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package tessellator.tessellation;
 
 import javafx.geometry.Insets;
+import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.scene.control.Tooltip;
@@ -36,7 +37,7 @@ public class ParameterSpace extends BorderPane {
         constructTranslationParams();
         constructRotationParam();
         constructScaleParam();
-        
+        constructSweepParams();
 
     }
 
@@ -144,4 +145,52 @@ public class ParameterSpace extends BorderPane {
         scaleInput.setPadding(INPUT_PADDING);
         scale.getChildren().addAll(scaleLabel, scaleInput);
     }
+
+    private void constructSweepParams() {
+
+        VBox sweepParams = new VBox();
+        sweepParams.setSpacing(PARAM_OPTION_SPACING);
+        container.getChildren().add(sweepParams);
+
+        String[] names = {"X Translation", "Y Translation", "Rotation", "Scale"};
+        TextField[] fromInputs = new TextField[names.length];
+        TextField[] toInputs = new TextField[names.length];
+        for (int i = 0; i < names.length; i++) {
+            HBox range = new HBox();
+            range.setSpacing(INPUT_LABEL_SPACING);
+            sweepParams.getChildren().add(range);
+            Label rangeLabel = new Label("Sweep " + names[i]);
+            fromInputs[i] = new TextField();
+            toInputs[i] = new TextField();
+            Tooltip.install(rangeLabel, new Tooltip("The range of values to sweep, \nleave the end blank to keep one value"));
+            fromInputs[i].setPrefColumnCount(3);
+            fromInputs[i].setPadding(INPUT_PADDING);
+            toInputs[i].setPrefColumnCount(3);
+            toInputs[i].setPadding(INPUT_PADDING);
+            range.getChildren().addAll(rangeLabel, fromInputs[i], new Label("to"), toInputs[i]);
+        }
+
+        HBox steps = new HBox();
+        steps.setSpacing(INPUT_LABEL_SPACING);
+        sweepParams.getChildren().add(steps);
+        Label stepsLabel = new Label("Steps");
+        TextField stepsInput = new TextField("4");
+        Tooltip.install(stepsLabel, new Tooltip("The number of values of each swept parameter"));
+        stepsInput.setPrefColumnCount(2);
+        stepsInput.setPadding(INPUT_PADDING);
+        Button sweepButton = new Button("Sweep");
+        Tooltip.install(sweepButton, new Tooltip("Render a contact sheet of every combination"));
+
+        sweepButton.setOnAction(a -> {
+            String[] fromAmounts = new String[names.length];
+            String[] toAmounts = new String[names.length];
+            for (int i = 0; i < names.length; i++) {
+                fromAmounts[i] = fromInputs[i].getText();
+                toAmounts[i] = toInputs[i].getText();
+            }
+            paramHandler.sweep(fromAmounts, toAmounts, stepsInput.getText());
+        });
+
+        steps.getChildren().addAll(stepsLabel, stepsInput, sweepButton);
+    }
 }
@@ -1,25 +1,35 @@
 package tessellator.tessellation;
 
 
-import org.apache.batik.anim.dom.SAXSVGDocumentFactory;
-import org.apache.batik.util.XMLResourceDescriptor;
 import org.w3c.dom.Document;
-import org.w3c.dom.DocumentFragment;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
-import org.w3c.dom.Node;
 
 import javafx.scene.web.WebEngine;
+import tessellator.profiling.PatternCanvasEvent;
+import tessellator.profiling.PatternDocumentEvent;
 import tessellator.tessellation.tiling.SeedTilingStrategy;
 import tessellator.tessellation.tiling.Tile;
-import tessellator.tessellation.tiling.TileContent;
 import tessellator.tessellation.tiling.TilingStrategy;
+import tessellator.tessellation.output.AnimationExporter;
+import tessellator.tessellation.output.BoundaryClipper;
+import tessellator.tessellation.output.ChunkedTessellation;
+import tessellator.tessellation.output.ContactSheet;
+import tessellator.tessellation.output.LevelOfDetail;
+import tessellator.tessellation.output.PathMerger;
+import tessellator.tessellation.output.Polyline;
+import tessellator.tessellation.output.Segment;
+import tessellator.tessellation.output.SvgStreamWriter;
+import tessellator.tessellation.output.TravelOptimiser;
+import tessellator.tessellation.output.TravelReport;
 import tessellator.util.DocumentHelper;
 
 import java.io.File;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * An object which is responsible for handling canvas within the preview of a 
@@ -30,61 +40,81 @@ public class PatternCanvasCaretaker {
     private Document document;
     private WebEngine canvas;
     private TilingStrategy tiler;
+    // A copy of the tiler whose seed has no contents, for previews drawn with just the borders
+    // of the tiles, made when first needed and kept so its lattice can be reused
+    private TilingStrategy bordersTiler;
     private static final String svgNS = "http://www.w3.org/2000/svg";
+    // How many chunks fit across the shorter side of the canvas when it is written in chunks,
+    // since the tiles are sized relative to the shorter side this keeps the number of tiles in
+    // a chunk the same however big the canvas is
+    private static final int CHUNKS_ACROSS = 8;
+    private Element boundary;
     private Element pattern;
+    private BoundaryClipper clipper;
+    // The paths currently written to the pattern element
+    private List<Polyline> paths;
+    // Whether the paths have changed since they were last written to the pattern element
+    private boolean isPatternStale;
+    // Whether the preview was drawn with less detail, so the paths haven't been made yet
+    private boolean isDetailReduced;
+    private LevelOfDetail levelOfDetail;
+    private RenderCache renderCache;
+    // Told whenever the pattern shown changes
+    private Runnable onPatternChanged;
+
+    // The parameters last given to the tiler
+    private double xTranslation;
+    private double yTranslation;
+    private double rotation;
+    private double scale;
 
     private double canvasWidth;
     private double canvasHeight;
+    // Moves the pattern from the canvas onto the viewBox of the document, null if not needed
+    private String patternTransform;
 
     public PatternCanvasCaretaker() {
         tiler = new SeedTilingStrategy();
+        paths = new ArrayList<>();
+        isPatternStale = false;
+        isDetailReduced = false;
+        levelOfDetail = new LevelOfDetail();
+        renderCache = new RenderCache();
+        xTranslation = 0;
+        yTranslation = 0;
+        rotation = 0;
+        scale = 1;
     }
 
     // Make sure to set the canvas before creating a new document
     public boolean newDocument(File file) {
         // Assume an svg file as one and only one svg element
         try {
-            // Create an instance of the SVG document factory
-            String parser = XMLResourceDescriptor.getXMLParserClassName();
-            SAXSVGDocumentFactory factory = new SAXSVGDocumentFactory(parser);
-
-            // Parse the SVG file and create an Document object
-            Document newDocument = factory.createDocument(file.toURI().toString());
-            NodeList elements = filterNodes(newDocument.getDocumentElement().getChildNodes());
-
-            // If the svg element of the file has more than one element then the file can't be loaded
-            if (elements.getLength()!=1) return false;
-
-            Element svgRoot = newDocument.getDocumentElement();
-            String width = svgRoot.getAttribute("width");
-            String height = svgRoot.getAttribute("height");
-            // If the svg element doesn't contain a width and height attribute the the file can't be loaded
-            if (width.equals("") || height.equals("")) return false;
+            Optional<BoundaryDocument> loaded = BoundaryDocument.load(file);
+            if (loaded.isEmpty()) return false;
+            BoundaryDocument boundaryDocument = loaded.get();
 
-            document = newDocument;
+            document = boundaryDocument.document();
+            boundary = boundaryDocument.boundary();
+            clipper = boundaryDocument.clipper();
 
-            canvasWidth = extractNumericValue(width);
-            canvasHeight = extractNumericValue(height);
+            canvasWidth = boundaryDocument.canvasWidth();
+            canvasHeight = boundaryDocument.canvasHeight();
+            patternTransform = boundaryDocument.patternTransform();
 
             //Modify initial part of the document
-            Element clipPath = document.createElementNS(svgNS, "clipPath");
-            clipPath.setAttribute("id", "clip");
-            svgRoot.appendChild(clipPath);
-            Element border = (Element) elements.item(0);
-            Element borderClone = (Element) border.cloneNode(false);
-            // This is done to prevent the duplication of a potential id that the given border shape may have
-            borderClone.removeAttribute("id");
-            clipPath.appendChild(borderClone);
-
             pattern = document.createElementNS(svgNS, "g");
             pattern.setAttribute("id", "pattern");
-            pattern.setAttribute("clip-path", "url(#clip)");
-            svgRoot.appendChild(pattern);
+            if (patternTransform != null) pattern.setAttribute("transform", patternTransform);
+            document.getDocumentElement().appendChild(pattern);
 
             tiler.setCanvasDimensions(canvasWidth, canvasHeight);
-            List<Tile> tessellation = tiler.tessellate();
-            applyTessellationToDoc(tessellation);
-            applyDocToCanvas();
+            bordersTiler = null;
+            // Fitting the seed to the canvas resets the scale of the tiler
+            scale = 1;
+            // Renders of the previous boundary can't be reused
+            renderCache.clear();
+            render();
 
             //System.out.println(DocumentHelper.docToString(document));
 
@@ -97,122 +127,245 @@ public class PatternCanvasCaretaker {
         }
     }
 
-    // Method to filter out text nodes and comments from the NodeList
-    private NodeList filterNodes(NodeList nodeList) {
-        Document document = nodeList.item(0).getOwnerDocument(); // Get the owner document of the NodeList
-        DocumentFragment fragment = document.createDocumentFragment();
-        
-        // Iterate through the NodeList and add only elements to the new list
-        for (int i = 0; i < nodeList.getLength(); i++) {
-            Node node = nodeList.item(i);
-            if (node.getNodeType() == Node.ELEMENT_NODE) {
-                Node clonedNode = node.cloneNode(true); // Clone the node to avoid modifying the original
-                fragment.appendChild(clonedNode);
-            }
-        }
-        
-        return fragment.getChildNodes(); // Return the NodeList containing only elements
-    }
-
-    //Method to extract numeric value from a string
-    private int extractNumericValue(String str) {
-        // Regular expression to match numeric values
-        Pattern pattern = Pattern.compile("\\d+");
-        Matcher matcher = pattern.matcher(str);
-        if (matcher.find()) {
-            return Integer.parseInt(matcher.group());
-        } else {
-            // Handle if no numeric value found (default to 0)
-            return 0;
-        }
-    }
-
     public void setCanvas(WebEngine previewCanvas) {
         canvas = previewCanvas;
     }
 
-    public void applyDocToCanvas() {
-        canvas.loadContent(DocumentHelper.docToString(document));
+    public void setOnPatternChanged(Runnable onPatternChanged) {
+        this.onPatternChanged = onPatternChanged;
+    }
+
+    // Show an svg in the preview, or the document serialised if there isn't one
+    private String loadIntoCanvas(String svg) {
+        PatternCanvasEvent event = new PatternCanvasEvent();
+        event.begin();
+        event.fromCache = svg != null;
+        if (svg == null) svg = DocumentHelper.docToString(document);
+        canvas.loadContent(svg);
+        event.characters = svg.length();
+        event.commit();
+        return svg;
     }
 
     public void translate(double x, double y) {
+        xTranslation = x;
+        yTranslation = y;
         tiler.setXTranslation(x);
         tiler.setYTranslation(y);
-        List<Tile> tessellation = tiler.tessellate();
-        applyTessellationToDoc(tessellation);
-        applyDocToCanvas();
+        render();
     }
 
     public void rotate(double angle) {
+        rotation = angle;
         tiler.setRotation(angle);
-        List<Tile> tessellation = tiler.tessellate();
-        applyTessellationToDoc(tessellation);
-        applyDocToCanvas();
+        render();
     }
 
     public void scale(double scale) {
+        this.scale = scale;
         tiler.setScale(scale);
+        render();
+    }
+
+    /**
+     * Show the pattern for the current parameters in the preview. If the same parameters were
+     * rendered recently the paths and the svg are taken from the render cache, otherwise the
+     * pattern is tessellated, written to the document and added to the cache.
+     *
+     * If the tiles are too small on screen for their detail to be seen, the preview is drawn
+     * with less detail instead and the full paths are only made once something needs them.
+     */
+    private void render() {
         if (document == null) return;
-        List<Tile> tessellation = tiler.tessellate();
-        applyTessellationToDoc(tessellation);
-        applyDocToCanvas();
+        Tile placedSeed = tiler.placedSeed();
+        LevelOfDetail.Level level = (placedSeed == null) ? LevelOfDetail.Level.FULL : levelOfDetail.levelFor(placedSeed);
+        if (level != LevelOfDetail.Level.FULL) {
+            renderReducedDetail(placedSeed, level);
+            if (onPatternChanged != null) onPatternChanged.run();
+            return;
+        }
+        isDetailReduced = false;
+        RenderCache.Key key = new RenderCache.Key(tiler.seedFingerprint(), canvasWidth, canvasHeight,
+                                                  xTranslation, yTranslation, rotation, scale);
+        RenderCache.Render cached = renderCache.get(key);
+        if (cached != null) {
+            paths = cached.paths();
+            // The document is only brought up to date when it is next needed
+            isPatternStale = true;
+            loadIntoCanvas(cached.svg());
+        } else {
+            List<Tile> tessellation = tiler.tessellate();
+            applyTessellationToDoc(tessellation);
+            String svg = loadIntoCanvas(null);
+            renderCache.put(key, paths, svg);
+        }
+        if (onPatternChanged != null) onPatternChanged.run();
+    }
+
+    // Show the preview drawn at a reduced level of detail, the document is left to be brought
+    // up to date with the full paths when it is next needed
+    private void renderReducedDetail(Tile placedSeed, LevelOfDetail.Level level) {
+        List<Segment> segments;
+        if (level == LevelOfDetail.Level.BORDERS) {
+            if (bordersTiler == null) bordersTiler = tiler.bordersOnly();
+            bordersTiler.setXTranslation(xTranslation);
+            bordersTiler.setYTranslation(yTranslation);
+            bordersTiler.setRotation(rotation);
+            bordersTiler.setScale(scale);
+            segments = PathMerger.segmentsOf(clipper.visibleTiles(bordersTiler.tessellate()));
+        } else {
+            segments = levelOfDetail.gridLines(placedSeed, canvasWidth, canvasHeight);
+        }
+        writePaths(PathMerger.merge(clipper.clip(segments)));
+        loadIntoCanvas(null);
+        paths = new ArrayList<>();
+        isDetailReduced = true;
+        isPatternStale = true;
+    }
+
+    // Make the full paths of a pattern whose preview was drawn with less detail
+    private void restoreFullDetail() {
+        if (!isDetailReduced) return;
+        isDetailReduced = false;
+        applyTessellationToDoc(tiler.tessellate());
     }
 
     public void applyTessellationToDoc(List<Tile> tessellation) {
-        // Remove all the child nodes of the pattern element
-        // Get the list of child nodes
+        PatternDocumentEvent event = new PatternDocumentEvent();
+        event.begin();
+        // Tiles outside the boundary are dropped and the rest are clipped to it, then since
+        // neighbouring tiles share borders, rather than writing each tile on its own the
+        // tessellation is merged into polylines with every shared segment written once
+        List<Segment> segments = PathMerger.segmentsOf(clipper.visibleTiles(tessellation));
+        paths = PathMerger.merge(clipper.clip(segments));
+        writePaths();
+        event.tiles = tessellation.size();
+        event.segments = segments.size();
+        event.elementsWritten = paths.size();
+        event.commit();
+    }
+
+    /**
+     * Reorder the paths of the pattern to reduce the distance a plotter's pen travels
+     * between them, then rewrite the pattern in the new order. The drawing itself is unchanged.
+     * 
+     * @param timeBudgetMillis Roughly how long may be spent improving the order.
+     * @return The travel distance before and after the paths were reordered.
+     */
+    public TravelReport optimiseTravel(long timeBudgetMillis) {
+        restoreFullDetail();
+        List<Polyline> optimised = new ArrayList<>();
+        TravelReport report = TravelOptimiser.optimise(paths, timeBudgetMillis, optimised);
+        paths = optimised;
+        writePaths();
+        return report;
+    }
+
+    // Replace the children of the pattern element with the current paths
+    private void writePaths() {
+        isPatternStale = false;
+        writePaths(paths);
+    }
+
+    private void writePaths(List<Polyline> paths) {
         NodeList childNodes = pattern.getChildNodes();
-        // Iterate over the child nodes and remove each one
         for (int i = childNodes.getLength() - 1; i >= 0; i--) {
-            Node childNode = childNodes.item(i);
-            pattern.removeChild(childNode);
+            pattern.removeChild(childNodes.item(i));
         }
-
-        // If the tessellation is empty then return
-        if (tessellation.size()==0) return;
-
-        boolean isBorderVisible = tessellation.get(0).isBorderVisible();
-        // Convert the tessellation of tiles into new child elements of the pattern group element
-        for (Tile tile : tessellation) {
-            // Add the tile's border to the doc if the border is visible
-            // Since the only tile border shapes are triangles, squares and hexagons they are all polygons.
-            if (isBorderVisible) {
-                Element polygon = document.createElementNS(svgNS, "polygon");
-                String pointsValue = "";
-                StringBuilder pointsBuilder = new StringBuilder();
-                for (int i = 0; i < tile.xBorderCoords().size(); i++) {
-                    pointsBuilder.append(tile.xBorderCoords().get(i)).append(",").append(tile.yBorderCoords().get(i)).append(" ");
-                }
-                pointsValue = pointsBuilder.toString().trim(); // Remove trailing space
-                polygon.setAttribute("points", pointsValue);
-                polygon.setAttribute("fill", "none");
-                polygon.setAttribute("stroke", "black");
-                pattern.appendChild(polygon);
-            }
-
-            // Add the contents of the tile the doc
-            // Currently the contents are only straight lines but to future proof a switch
-            // statment is used to allow custom Element translations for all shapes.
-            for (TileContent shape : tile.contents()) {
-                switch (shape.category()) {
-                    case STRAIGHT_LINE:
-                        Element line = document.createElementNS(svgNS, "line");
-                        line.setAttribute("x1", shape.xCoords().get(0)+"");
-                        line.setAttribute("y1", shape.yCoords().get(0)+"");
-                        line.setAttribute("x2", shape.xCoords().get(1)+"");
-                        line.setAttribute("y2", shape.yCoords().get(1)+"");
-                        line.setAttribute("stroke", "black");
-                        pattern.appendChild(line);
-                        break;
-
-                    default:
-                        break;
-                }
-            }
+        for (Polyline polyline : paths) {
+            // Closed polylines such as the borders of tiles on the edge of the pattern become polygons
+            Element path = document.createElementNS(svgNS, polyline.isClosed() ? "polygon" : "polyline");
+            path.setAttribute("points", polyline.toPointsAttribute());
+            path.setAttribute("fill", "none");
+            path.setAttribute("stroke", "black");
+            pattern.appendChild(path);
         }
     }
 
+    /**
+     * The tessellation of the current pattern divided into chunks, for writing out patterns
+     * too big to hold in memory at once. Later changes to the pattern don't affect it.
+     */
+    public ChunkedTessellation chunkedTessellation() {
+        double chunkSize = Math.min(canvasWidth, canvasHeight)/CHUNKS_ACROSS;
+        return new ChunkedTessellation(tiler, clipper, canvasWidth, canvasHeight, chunkSize);
+    }
+
+    /**
+     * The current pattern carried on past the edges of the canvas, generated a cell at a time
+     * for a view that can be panned anywhere. Later changes to the pattern don't affect it.
+     */
+    public TileStreamer tileStreamer() {
+        double cellSize = Math.min(canvasWidth, canvasHeight)/CHUNKS_ACROSS;
+        return new TileStreamer(tiler, cellSize);
+    }
+
+    /**
+     * A contact sheet of the current pattern with each of the variations of the parameters.
+     * Later changes to the pattern don't affect it.
+     *
+     * @param columns The number of thumbnails in a row.
+     * @param thumbnailWidth The width of a thumbnail in pixels.
+     */
+    public ContactSheet contactSheet(List<ContactSheet.Variation> variations, int columns, int thumbnailWidth) {
+        return new ContactSheet(tiler, clipper, canvasWidth, canvasHeight, variations, columns, thumbnailWidth);
+    }
+
+    /**
+     * An exporter of an animation of the current pattern, with the parameters moving from one
+     * set of values to another over the frames. Later changes to the pattern don't affect it.
+     */
+    public AnimationExporter animationExporter(ContactSheet.Variation first, ContactSheet.Variation last, int frames) throws IOException {
+        String svgHeader = SvgStreamWriter.header(document.getDocumentElement(), boundary, patternTransform);
+        return new AnimationExporter(tiler, clipper, canvasWidth, canvasHeight, svgHeader, first, last, frames);
+    }
+
+    /**
+     * The current values of the parameters.
+     */
+    public ContactSheet.Variation currentParameters() {
+        return new ContactSheet.Variation(xTranslation, yTranslation, rotation, scale);
+    }
+
+    /**
+     * A writer which writes the current document with its pattern replaced by the paths
+     * given to the writer.
+     */
+    public SvgStreamWriter svgStreamWriter(Writer out) throws IOException {
+        return new SvgStreamWriter(out, SvgStreamWriter.header(document.getDocumentElement(), boundary, patternTransform));
+    }
+
+    public boolean hasDocument() {
+        return document != null;
+    }
+
+    /**
+     * The paths currently written to the pattern, in the coordinates of the canvas.
+     */
+    public List<Polyline> getPaths() {
+        restoreFullDetail();
+        return paths;
+    }
+
+    public double getCanvasWidth() {
+        return canvasWidth;
+    }
+
+    public double getCanvasHeight() {
+        return canvasHeight;
+    }
+
     public String getDocString() {
+        restoreFullDetail();
+        if (isPatternStale) writePaths();
         return DocumentHelper.docToString(document);
     }
+
+    public RenderCache getRenderCache() {
+        return renderCache;
+    }
+
+    public LevelOfDetail getLevelOfDetail() {
+        return levelOfDetail;
+    }
 }
\ No newline at end of file
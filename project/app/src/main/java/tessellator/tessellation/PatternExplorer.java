@@ -0,0 +1,186 @@
+package tessellator.tessellation;
+
+import java.awt.geom.Rectangle2D;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javafx.application.Platform;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.scene.Group;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.ClosePath;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.Path;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.transform.Scale;
+import javafx.scene.transform.Translate;
+import tessellator.tessellation.output.Polyline;
+
+/**
+ * An object which displays the pattern carried on past the edges of the canvas, which can be
+ * dragged to pan around and scrolled to zoom in and out.
+ *
+ * Only the cells of the pattern within the view, and a ring of cells around it, are kept.
+ * When the view moves, the cells which have come into view are generated on a background
+ * thread and added as they are finished, and the cells which have moved out of view are
+ * dropped. Nothing already on screen is generated again unless the pattern changes.
+ */
+public class PatternExplorer extends Pane {
+
+    private static final double MIN_ZOOM = 0.1;
+    private static final double MAX_ZOOM = 10;
+    private static final double ZOOM_PER_SCROLL = 1.1;
+
+    private final PatternCanvasCaretaker canvasCaretaker;
+    private final Group content;
+    private final Translate offset;
+    private final Scale zoom;
+    // Lines are drawn a pixel wide however far the view is zoomed
+    private final DoubleProperty lineWidth;
+
+    private volatile TileStreamer streamer;
+    private final Map<TileStreamer.Cell, Path> shownCells;
+    // Cells which have been asked for but not finished, read by the generating thread
+    private final Set<TileStreamer.Cell> pendingCells;
+    private final ExecutorService generator;
+
+    private double dragStartX, dragStartY;
+
+    public PatternExplorer(PatternCanvasCaretaker canvasCaretaker) {
+        this.canvasCaretaker = canvasCaretaker;
+        offset = new Translate();
+        zoom = new Scale(1, 1, 0, 0);
+        lineWidth = new SimpleDoubleProperty(1);
+        content = new Group();
+        content.getTransforms().addAll(offset, zoom);
+        getChildren().add(content);
+        shownCells = new HashMap<>();
+        pendingCells = ConcurrentHashMap.newKeySet();
+        generator = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Nothing outside of the pane is drawn
+        Rectangle clip = new Rectangle();
+        clip.widthProperty().bind(widthProperty());
+        clip.heightProperty().bind(heightProperty());
+        setClip(clip);
+        setStyle("-fx-background-color: white;");
+
+        setOnMousePressed(event -> {
+            dragStartX = event.getX();
+            dragStartY = event.getY();
+        });
+        setOnMouseDragged(event -> {
+            offset.setX(offset.getX() + event.getX() - dragStartX);
+            offset.setY(offset.getY() + event.getY() - dragStartY);
+            dragStartX = event.getX();
+            dragStartY = event.getY();
+            refresh();
+        });
+        // Zoom about the mouse, so the point under it stays where it is
+        setOnScroll(event -> {
+            double factor = (event.getDeltaY() > 0) ? ZOOM_PER_SCROLL : 1/ZOOM_PER_SCROLL;
+            double newZoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom.getX()*factor));
+            double canvasX = (event.getX() - offset.getX())/zoom.getX();
+            double canvasY = (event.getY() - offset.getY())/zoom.getY();
+            zoom.setX(newZoom);
+            zoom.setY(newZoom);
+            offset.setX(event.getX() - canvasX*newZoom);
+            offset.setY(event.getY() - canvasY*newZoom);
+            lineWidth.set(1/newZoom);
+            refresh();
+        });
+        widthProperty().addListener((obs, oldWidth, newWidth) -> refresh());
+        heightProperty().addListener((obs, oldHeight, newHeight) -> refresh());
+    }
+
+    /**
+     * Throw away every cell and generate the ones in view for the current pattern. Called
+     * whenever the pattern changes.
+     */
+    public void patternChanged() {
+        streamer = canvasCaretaker.hasDocument() ? canvasCaretaker.tileStreamer() : null;
+        content.getChildren().clear();
+        shownCells.clear();
+        pendingCells.clear();
+        refresh();
+    }
+
+    /**
+     * Show the whole canvas in the middle of the view.
+     */
+    public void resetView() {
+        double canvasWidth = canvasCaretaker.getCanvasWidth();
+        double canvasHeight = canvasCaretaker.getCanvasHeight();
+        double newZoom = 1;
+        if (canvasWidth > 0 && canvasHeight > 0 && getWidth() > 0 && getHeight() > 0) {
+            newZoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, Math.min(getWidth()/canvasWidth, getHeight()/canvasHeight)));
+        }
+        zoom.setX(newZoom);
+        zoom.setY(newZoom);
+        offset.setX((getWidth() - canvasWidth*newZoom)/2);
+        offset.setY((getHeight() - canvasHeight*newZoom)/2);
+        lineWidth.set(1/newZoom);
+        refresh();
+    }
+
+    // Drop the cells which have moved out of view and start generating the ones which have come into it
+    private void refresh() {
+        if (streamer == null) return;
+        Set<TileStreamer.Cell> needed = new HashSet<>(streamer.cellsIn(neededRegion()));
+
+        shownCells.entrySet().removeIf(entry -> {
+            if (needed.contains(entry.getKey())) return false;
+            content.getChildren().remove(entry.getValue());
+            return true;
+        });
+        pendingCells.retainAll(needed);
+
+        TileStreamer cellStreamer = streamer;
+        for (TileStreamer.Cell cell : needed) {
+            if (shownCells.containsKey(cell) || !pendingCells.add(cell)) continue;
+            generator.execute(() -> {
+                // The cell may have moved out of view before its turn came
+                if (cellStreamer != streamer || !pendingCells.contains(cell)) return;
+                List<Polyline> paths = cellStreamer.pathsOf(cell);
+                Platform.runLater(() -> showCell(cellStreamer, cell, paths));
+            });
+        }
+    }
+
+    private void showCell(TileStreamer cellStreamer, TileStreamer.Cell cell, List<Polyline> paths) {
+        if (cellStreamer != streamer || !pendingCells.remove(cell)) return;
+        Path path = new Path();
+        for (Polyline polyline : paths) {
+            path.getElements().add(new MoveTo(polyline.startX(), polyline.startY()));
+            for (int i = 1; i < polyline.size(); i++) {
+                path.getElements().add(new LineTo(polyline.xCoords().get(i), polyline.yCoords().get(i)));
+            }
+            if (polyline.isClosed()) path.getElements().add(new ClosePath());
+        }
+        path.setStroke(Color.BLACK);
+        path.strokeWidthProperty().bind(lineWidth);
+        shownCells.put(cell, path);
+        content.getChildren().add(path);
+    }
+
+    // The part of the canvas in view with a cell's width around it, so cells are ready just before they are needed
+    private Rectangle2D neededRegion() {
+        double margin = streamer.getCellSize();
+        double x = -offset.getX()/zoom.getX();
+        double y = -offset.getY()/zoom.getY();
+        return new Rectangle2D.Double(x - margin, y - margin, getWidth()/zoom.getX() + 2*margin, getHeight()/zoom.getY() + 2*margin);
+    }
+}
@@ -5,17 +5,43 @@ import javafx.scene.web.WebEngine;
 import javafx.scene.web.WebView;
 
 /**
- * An object which displays the results of the tessellation generation.
+ * An object which displays the results of the tessellation generation. It either shows the
+ * document with the pattern clipped to its boundary, or the pattern explorer which can be
+ * panned and zoomed past the edges of the canvas.
  */
 public class PatternPreview extends StackPane {
 
-    //double dragStartX, dragStartY;
     private final PatternCanvasCaretaker canvasCaretaker;
+    private final WebView webView;
+    private final PatternExplorer explorer;
+    private boolean isExploring;
 
     public PatternPreview(PatternCanvasCaretaker canvasCaretaker) {
         this.canvasCaretaker = canvasCaretaker;
-        WebView webView = createConfiguredWebView();
-        getChildren().add(webView);
+        webView = createConfiguredWebView();
+        explorer = new PatternExplorer(canvasCaretaker);
+        explorer.setVisible(false);
+        isExploring = false;
+        getChildren().addAll(webView, explorer);
+
+        // The explorer only keeps up with the pattern while it is shown
+        canvasCaretaker.setOnPatternChanged(() -> {
+            if (isExploring) explorer.patternChanged();
+        });
+    }
+
+    /**
+     * Switch between the document and the pattern explorer. The explorer starts with the
+     * whole canvas in view.
+     */
+    public void setExploring(boolean isExploring) {
+        this.isExploring = isExploring;
+        webView.setVisible(!isExploring);
+        explorer.setVisible(isExploring);
+        if (isExploring) {
+            explorer.patternChanged();
+            explorer.resetView();
+        }
     }
 
     private WebView createConfiguredWebView() {
@@ -36,24 +62,6 @@ public class PatternPreview extends StackPane {
         //     }
         // });
 
-        // Generate the scroll effect by draggin on the web view
-        // webView.setOnMousePressed(event -> {
-        //     dragStartX = event.getSceneX();
-        //     dragStartY = event.getSceneY();
-        // });
-
-        // webView.setOnMouseDragged(event -> {
-        //     double offsetX = event.getSceneX() - dragStartX;
-        //     double offsetY = event.getSceneY() - dragStartY;
-
-        //     // Update the scroll position using JavaScript
-        //     webEngine.executeScript("window.scrollBy(" + (-offsetX) + ", " + (-offsetY) + ");");
-
-        //     // Update the drag start coordinates
-        //     dragStartX = event.getSceneX();
-        //     dragStartY = event.getSceneY();
-        // });
-
         return webView;
     }
 }
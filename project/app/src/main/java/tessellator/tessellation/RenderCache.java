@@ -0,0 +1,128 @@
+package tessellator.tessellation;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import tessellator.tessellation.output.Polyline;
+
+/**
+ * An object which remembers the most recently rendered patterns of the tessellation window,
+ * so switching back to a combination of parameters that was just viewed doesn't tessellate
+ * the pattern and rebuild the document again.
+ *
+ * A render is the merged paths of the pattern and the serialised svg document shown in the
+ * preview. Renders are looked up by the seed, the size of the canvas and the values of the
+ * parameters. Once the renders held take up more than the memory budget, the least recently
+ * used renders are evicted.
+ */
+public class RenderCache {
+
+    // The default memory budget of the cache
+    private static final long DEFAULT_BUDGET_BYTES = 64L << 20;
+    // Roughly how many bytes each point of a path takes up, as two boxed doubles in lists
+    private static final int BYTES_PER_POINT = 48;
+
+    /**
+     * Everything which decides what a render looks like.
+     */
+    public record Key(long seedFingerprint, double canvasWidth, double canvasHeight,
+                      double xTranslation, double yTranslation, double rotation, double scale) {}
+
+    /**
+     * A rendered pattern.
+     */
+    public record Render(List<Polyline> paths, String svg, long sizeInBytes) {}
+
+    private final long budgetBytes;
+    // In access order, so the first entry is the least recently used
+    private final LinkedHashMap<Key, Render> renders;
+    private long usedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public RenderCache() {
+        this(DEFAULT_BUDGET_BYTES);
+    }
+
+    public RenderCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+        renders = new LinkedHashMap<>(16, 0.75f, true);
+        usedBytes = 0;
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    /**
+     * The render for the key, or null if it isn't cached.
+     */
+    public Render get(Key key) {
+        Render render = renders.get(key);
+        if (render == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return render;
+    }
+
+    /**
+     * Remember a render, evicting the least recently used renders if the cache is over its
+     * budget. A render bigger than the whole budget isn't cached.
+     */
+    public void put(Key key, List<Polyline> paths, String svg) {
+        long size = 2L*svg.length();
+        for (Polyline polyline : paths) size += (long) BYTES_PER_POINT*polyline.size();
+        if (size > budgetBytes) return;
+
+        Render old = renders.put(key, new Render(paths, svg, size));
+        if (old != null) usedBytes -= old.sizeInBytes();
+        usedBytes += size;
+
+        Iterator<Map.Entry<Key, Render>> eldest = renders.entrySet().iterator();
+        while (usedBytes > budgetBytes && eldest.hasNext()) {
+            Map.Entry<Key, Render> entry = eldest.next();
+            if (entry.getKey().equals(key)) continue;
+            usedBytes -= entry.getValue().sizeInBytes();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Forget every render, for when the boundary changes.
+     */
+    public void clear() {
+        renders.clear();
+        usedBytes = 0;
+    }
+
+    public int size() {
+        return renders.size();
+    }
+
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d renders (%d KB), %d hits, %d misses, %d evictions",
+            renders.size(), usedBytes >> 10, hits, misses, evictions);
+    }
+}
@@ -3,6 +3,7 @@ package tessellator.tessellation;
 import javafx.geometry.Insets;
 import javafx.geometry.Orientation;
 import javafx.scene.Scene;
+import javafx.scene.control.CheckMenuItem;
 import javafx.scene.control.Menu;
 import javafx.scene.control.MenuBar;
 import javafx.scene.control.MenuItem;
@@ -47,10 +48,12 @@ public class Tessellator extends BorderPane {
         MenuBar menuBar = new MenuBar();
         // Create the file menu
         Menu fileMenu = createFileMenu(tessellator);
+        // Create the view menu
+        Menu viewMenu = createViewMenu(tessellator);
         // Create the help menu
         Menu helpMenu = createHelpMenu();
         // Add menus to the menu bar
-        menuBar.getMenus().addAll(fileMenu, helpMenu);
+        menuBar.getMenus().addAll(fileMenu, viewMenu, helpMenu);
         menuBar.useSystemMenuBarProperty().set(true);
 
         tessellator.setTop(menuBar);
@@ -68,14 +71,33 @@ public class Tessellator extends BorderPane {
         Menu fileMenu = new Menu("File");
         MenuItem openItem = new MenuItem("Open");
         MenuItem exportItem = new MenuItem("Export");
+        MenuItem plotterExportItem = new MenuItem("Export for Plotter");
+        MenuItem pngExportItem = new MenuItem("Export PNG");
+        MenuItem chunkedExportItem = new MenuItem("Export Large SVG");
+        MenuItem animationExportItem = new MenuItem("Export Animation");
 
         openItem.setOnAction(a -> fileHandler.open());
         exportItem.setOnAction(a -> fileHandler.export());
+        plotterExportItem.setOnAction(a -> fileHandler.exportForPlotter());
+        pngExportItem.setOnAction(a -> fileHandler.exportPng());
+        chunkedExportItem.setOnAction(a -> fileHandler.exportInChunks());
+        animationExportItem.setOnAction(a -> fileHandler.exportAnimation());
 
-        fileMenu.getItems().addAll(openItem, exportItem);
+        fileMenu.getItems().addAll(openItem, exportItem, plotterExportItem, pngExportItem, chunkedExportItem, animationExportItem);
         return fileMenu;
     }
 
+    private static Menu createViewMenu(Tessellator tessellator) {
+
+        // Create menu and menu items
+        Menu viewMenu = new Menu("View");
+        CheckMenuItem exploreItem = new CheckMenuItem("Explore Pattern");
+
+        exploreItem.setOnAction(a -> tessellator.patternPreview().setExploring(exploreItem.isSelected()));
+        viewMenu.getItems().addAll(exploreItem);
+        return viewMenu;
+    }
+
     private static Menu createHelpMenu() {
 
         // Create menu and menu items
@@ -0,0 +1,87 @@
+package tessellator.tessellation;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+
+import tessellator.tessellation.output.PathMerger;
+import tessellator.tessellation.output.Polyline;
+import tessellator.tessellation.output.RegionClipper;
+import tessellator.tessellation.output.Segment;
+import tessellator.tessellation.tiling.Tile;
+import tessellator.tessellation.tiling.TilingStrategy;
+
+/**
+ * An object which generates the pattern a cell at a time for a view that can be panned
+ * anywhere, rather than the whole canvas at once.
+ *
+ * The plane is divided into a grid of square cells. The paths of a cell are made from only
+ * the tiles which reach into it, with the tessellation carried on past the edges of the
+ * canvas, and are clipped to the cell so that a line crossing from one cell into the next
+ * is drawn once, half in each, and a line along the edge between two cells is drawn only by
+ * the cell below or to the right of it. Which cells a view needs is worked out from their grid
+ * coordinates, so a view only has to generate the cells it hasn't got yet.
+ *
+ * The tiling strategy is a copy taken when the object is created, so cells may be generated
+ * on another thread while the pattern is changed.
+ */
+public class TileStreamer {
+
+    /**
+     * A cell of the grid, the cell at column 0 and row 0 has its top left corner at the
+     * top left corner of the canvas.
+     */
+    public record Cell(int column, int row) {}
+
+    private final TilingStrategy tiler;
+    private final double cellSize;
+
+    /**
+     * @param tiler The strategy that generates the tessellation, a copy of it is kept.
+     * @param cellSize The side length of a cell in canvas coordinates.
+     */
+    public TileStreamer(TilingStrategy tiler, double cellSize) {
+        this.tiler = tiler.copy();
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * The cells which overlap the region, a row at a time from the top left.
+     *
+     * @param region The region in canvas coordinates.
+     */
+    public List<Cell> cellsIn(Rectangle2D region) {
+        int firstColumn = (int) Math.floor(region.getMinX()/cellSize);
+        int lastColumn = (int) Math.ceil(region.getMaxX()/cellSize) - 1;
+        int firstRow = (int) Math.floor(region.getMinY()/cellSize);
+        int lastRow = (int) Math.ceil(region.getMaxY()/cellSize) - 1;
+        List<Cell> cells = new ArrayList<>();
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                cells.add(new Cell(column, row));
+            }
+        }
+        return cells;
+    }
+
+    public Rectangle2D boundsOf(Cell cell) {
+        return new Rectangle2D.Double(cell.column()*cellSize, cell.row()*cellSize, cellSize, cellSize);
+    }
+
+    /**
+     * The merged paths of the part of the tessellation within the cell, unclipped by the
+     * boundary of the document.
+     */
+    public List<Polyline> pathsOf(Cell cell) {
+        Rectangle2D bounds = boundsOf(cell);
+        List<Tile> tiles = new ArrayList<>();
+        tiler.tessellateUnbounded(bounds, tiles::add);
+        List<Segment> segments = PathMerger.segmentsOf(tiles);
+        // The plane has no edges, so every cell leaves its right and bottom edges to its neighbours
+        return PathMerger.merge(new RegionClipper(bounds, false, false).clip(segments));
+    }
+
+    public double getCellSize() {
+        return cellSize;
+    }
+}
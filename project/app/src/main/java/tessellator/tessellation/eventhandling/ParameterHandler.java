@@ -1,6 +1,25 @@
 package tessellator.tessellation.eventhandling;
 
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.BorderPane;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
 import tessellator.tessellation.PatternCanvasCaretaker;
+import tessellator.tessellation.output.ContactSheet;
 
 /**
  * An object which handles the input events of all the parameters in the
@@ -8,6 +27,9 @@ import tessellator.tessellation.PatternCanvasCaretaker;
  */
 public class ParameterHandler {
 
+    private static final int DEFAULT_SWEEP_STEPS = 4;
+    private static final int THUMBNAIL_WIDTH = 240;
+
     private final PatternCanvasCaretaker canvasCaretaker;
 
     public ParameterHandler(PatternCanvasCaretaker canvasCaretaker) {
@@ -51,4 +73,97 @@ public class ParameterHandler {
 		} catch (Exception e) {}
         canvasCaretaker.scale(scale);
     }
+
+    /**
+     * Render a contact sheet of the pattern for every combination of values of the parameters
+     * within their ranges in the background, then show it in a new window it can be exported
+     * from. Invalid values are treated the same way as by the single parameters.
+     *
+     * @param fromAmounts The start of the ranges of the x translation, y translation, rotation and scale.
+     * @param toAmounts The end of each range, if blank the parameter keeps the value it starts at.
+     * @param stepsAmount The number of values each parameter with a range takes.
+     */
+    public void sweep(String[] fromAmounts, String[] toAmounts, String stepsAmount) {
+        if (!canvasCaretaker.hasDocument()) return;
+        double[] from = new double[4];
+        double[] to = new double[4];
+        for (int i = 0; i < 4; i++) {
+            from[i] = sweepValue(i, fromAmounts[i]);
+            to[i] = toAmounts[i].isBlank() ? from[i] : sweepValue(i, toAmounts[i]);
+        }
+        int steps = DEFAULT_SWEEP_STEPS;
+        try {
+            steps = Integer.parseInt(stepsAmount.trim());
+        } catch (Exception e) {}
+
+        int columns = ContactSheet.stepsFor(from, to, steps);
+        ContactSheet sheet = canvasCaretaker.contactSheet(ContactSheet.variations(from, to, steps), columns, THUMBNAIL_WIDTH);
+        // The thumbnails take a while to render, so the window is kept responsive
+        Thread sweepThread = new Thread(() -> {
+            try {
+                BufferedImage image = sheet.render();
+                Platform.runLater(() -> showContactSheet(image));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+        sweepThread.setDaemon(true);
+        sweepThread.start();
+    }
+
+    // The value of a parameter of a sweep, with the same defaults as the single parameters
+    private double sweepValue(int parameter, String amount) {
+        double defaultValue = (parameter == 3) ? 1 : 0;
+        double value = defaultValue;
+        try {
+            value = Double.parseDouble(amount);
+        } catch (Exception e) {}
+        switch (parameter) {
+            case 0:
+            case 1:
+                return (value<0 || value>1) ? defaultValue : value;
+            case 3:
+                return (value<=0) ? defaultValue : value;
+            default:
+                return value;
+        }
+    }
+
+    private void showContactSheet(BufferedImage image) {
+        Stage sheetStage = new Stage();
+
+        // Hand the image to JavaFX as a PNG since the swing bridge isn't available
+        ImageView imageView;
+        try {
+            ByteArrayOutputStream png = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", png);
+            imageView = new ImageView(new Image(new ByteArrayInputStream(png.toByteArray())));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+
+        Button exportButton = new Button("Export");
+        exportButton.setOnAction(a -> {
+            FileChooser fileChooser = new FileChooser();
+            fileChooser.setTitle("Export Contact Sheet");
+            fileChooser.getExtensionFilters().addAll(new FileChooser.ExtensionFilter("PNG files", "*.png"));
+            File file = fileChooser.showSaveDialog(sheetStage);
+            if (file == null) return;
+            try {
+                ImageIO.write(image, "png", file);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+
+        BorderPane layout = new BorderPane(new ScrollPane(imageView));
+        layout.setBottom(exportButton);
+        BorderPane.setMargin(exportButton, new Insets(6));
+
+        Scene sheetScene = new Scene(layout, Math.min(image.getWidth() + 20, 1200), Math.min(image.getHeight() + 60, 800));
+        sheetStage.setScene(sheetScene);
+        sheetStage.setTitle("Contact Sheet");
+        sheetStage.show();
+    }
 }
@@ -1,20 +1,36 @@
 package tessellator.tessellation.eventhandling;
 
+import javafx.application.Platform;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
+import javafx.scene.control.ChoiceDialog;
+import javafx.scene.control.TextInputDialog;
+import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import tessellator.tessellation.PatternCanvasCaretaker;
+import tessellator.tessellation.output.AnimationExporter;
+import tessellator.tessellation.output.ChunkedTessellation;
+import tessellator.tessellation.output.ContactSheet;
+import tessellator.tessellation.output.RasterExporter;
+import tessellator.tessellation.output.SvgStreamWriter;
+import tessellator.tessellation.output.TravelReport;
 
+import java.awt.geom.Rectangle2D;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.Optional;
 
 /**
  * An object that handles toolbar level events or the tessellation window.
  */
 public class TessellatorFileHandler {
 
+    // How long the travel optimisation of a plotter export may spend improving the path order
+    private static final long PLOTTER_TIME_BUDGET_MILLIS = 2000;
+
     // necessary for implmenting popups
     private final Stage stage;
     private final PatternCanvasCaretaker canvasCaretaker;
@@ -80,6 +96,247 @@ public class TessellatorFileHandler {
         }
     }
 
+    /**
+     * Creates a popup that exports the svg in the preview to a file, with the paths reordered
+     * so that a pen plotter or laser travels as little as possible between them. Once exported
+     * a popup reports how much the travel was reduced by.
+     *
+     * Unlike the chunked exports this doesn't read from a tile store, the order of the paths
+     * depends on where every other path ends so they all have to be held at once, and they
+     * already are since they are the paths shown in the preview.
+     */
+    public void exportForPlotter() {
+        if (!canvasCaretaker.hasDocument()) return;
+
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Export File for Plotter");
+
+        // Set extension filters
+        fileChooser.getExtensionFilters().addAll(new FileChooser.ExtensionFilter("SVG files", "*.svg"));
+
+        // Show export file dialog
+        File file = fileChooser.showSaveDialog(stage);
+        if (file != null) {
+            TravelReport report = canvasCaretaker.optimiseTravel(PLOTTER_TIME_BUDGET_MILLIS);
+            writeToFile(file, canvasCaretaker.getDocString());
+
+            Alert alert = new Alert(AlertType.INFORMATION);
+            alert.setTitle("Plotter Export");
+            alert.setHeaderText("Exported " + report.pathCount() + " paths");
+            alert.setContentText(String.format("Pen-up travel reduced from %.0f to %.0f (%.0f%% less).",
+                report.travelBefore(), report.travelAfter(), report.saving()*100));
+            alert.showAndWait();
+        }
+    }
+
+    /**
+     * Creates a popup that asks for the width of the image, then a popup that exports the
+     * pattern in the preview to a PNG file of that width. The image is rendered in the
+     * background and a popup reports when it's done.
+     */
+    public void exportPng() {
+        if (!canvasCaretaker.hasDocument()) return;
+
+        TextInputDialog sizeDialog = new TextInputDialog(Integer.toString((int) canvasCaretaker.getCanvasWidth()*4));
+        sizeDialog.setTitle("Export PNG");
+        sizeDialog.setHeaderText("Width of the image in pixels");
+        Optional<String> sizeText = sizeDialog.showAndWait();
+        if (sizeText.isEmpty()) return;
+        int pixelWidth;
+        try {
+            pixelWidth = Integer.parseInt(sizeText.get().trim());
+        } catch (NumberFormatException e) {
+            return;
+        }
+        if (pixelWidth <= 0) return;
+
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Export PNG");
+
+        // Set extension filters
+        fileChooser.getExtensionFilters().addAll(new FileChooser.ExtensionFilter("PNG files", "*.png"));
+
+        // Show export file dialog
+        File file = fileChooser.showSaveDialog(stage);
+        if (file != null) {
+            ChunkedTessellation tessellation = canvasCaretaker.chunkedTessellation();
+            // Large images take a while to render, so the window is kept responsive
+            Thread exportThread = new Thread(() -> {
+                // The stripes of the image overlap the same tiles, so the tessellation is generated
+                // once into an off-heap store and each stripe reads its part back from there
+                try (tessellation) {
+                    tessellation.storeTiles();
+                    new RasterExporter(tessellation).export(file, pixelWidth);
+                    Platform.runLater(() -> {
+                        Alert alert = new Alert(AlertType.INFORMATION);
+                        alert.setTitle("Export PNG");
+                        alert.setHeaderText("Exported " + file.getName());
+                        alert.showAndWait();
+                    });
+                } catch (Exception e) {
+                    // Anything that stops the export, checked or not, would otherwise end the thread unseen
+                    e.printStackTrace();
+                    showExportFailure("Export PNG", file.getName(), e);
+                }
+            });
+            exportThread.setDaemon(true);
+            exportThread.start();
+        }
+    }
+
+    /**
+     * Creates a popup that exports the pattern in the preview to an svg file a chunk of the
+     * canvas at a time, so patterns with far more tiles than fit in memory can be exported.
+     * The file is written in the background and a popup reports when it's done.
+     */
+    public void exportInChunks() {
+        if (!canvasCaretaker.hasDocument()) return;
+
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Export Large SVG");
+
+        // Set extension filters
+        fileChooser.getExtensionFilters().addAll(new FileChooser.ExtensionFilter("SVG files", "*.svg"));
+
+        // Show export file dialog
+        File file = fileChooser.showSaveDialog(stage);
+        if (file != null) {
+            ChunkedTessellation tessellation = canvasCaretaker.chunkedTessellation();
+            SvgStreamWriter writer;
+            try {
+                writer = canvasCaretaker.svgStreamWriter(new BufferedWriter(new FileWriter(file)));
+            } catch (IOException e) {
+                e.printStackTrace();
+                return;
+            }
+            Thread exportThread = new Thread(() -> {
+                // Tiles that straddle chunks would otherwise be generated once for every chunk they
+                // overlap, so the tessellation is generated once into an off-heap store instead
+                try (tessellation; writer) {
+                    tessellation.storeTiles();
+                    // Only the paths of one chunk are held at a time
+                    for (Rectangle2D chunk : tessellation.chunks()) {
+                        writer.writePaths(tessellation.pathsIn(chunk));
+                    }
+                } catch (Exception e) {
+                    // The tessellation and writer are closed by then, so the store is freed either way
+                    e.printStackTrace();
+                    showExportFailure("Export Large SVG", file.getName(), e);
+                    return;
+                }
+                Platform.runLater(() -> {
+                    Alert alert = new Alert(AlertType.INFORMATION);
+                    alert.setTitle("Export Large SVG");
+                    alert.setHeaderText("Exported " + file.getName());
+                    alert.showAndWait();
+                });
+            });
+            exportThread.setDaemon(true);
+            exportThread.start();
+        }
+    }
+
+    /**
+     * Creates popups that ask which parameter to animate, the range it moves over, the number
+     * of frames and the format, then a popup that picks the directory the frames are exported
+     * to. The other parameters keep their current values. The frames are rendered in the
+     * background and a popup reports when they're done.
+     */
+    public void exportAnimation() {
+        if (!canvasCaretaker.hasDocument()) return;
+
+        String[] parameters = {"Rotation", "Scale", "X Translation", "Y Translation"};
+        ChoiceDialog<String> parameterDialog = new ChoiceDialog<>(parameters[0], parameters);
+        parameterDialog.setTitle("Export Animation");
+        parameterDialog.setHeaderText("Parameter to animate");
+        Optional<String> parameter = parameterDialog.showAndWait();
+        if (parameter.isEmpty()) return;
+
+        TextInputDialog rangeDialog = new TextInputDialog(parameter.get().equals("Rotation") ? "0 360 60" : "0 1 60");
+        rangeDialog.setTitle("Export Animation");
+        rangeDialog.setHeaderText("Start value, end value and number of frames");
+        Optional<String> rangeText = rangeDialog.showAndWait();
+        if (rangeText.isEmpty()) return;
+        double start, end;
+        int frames;
+        try {
+            String[] range = rangeText.get().trim().split("\\s+");
+            start = Double.parseDouble(range[0]);
+            end = Double.parseDouble(range[1]);
+            frames = Integer.parseInt(range[2]);
+        } catch (Exception e) {
+            return;
+        }
+        if (frames <= 0) return;
+        // Scale has to stay positive for the whole animation
+        if (parameter.get().equals("Scale") && (start <= 0 || end <= 0)) return;
+
+        ChoiceDialog<AnimationExporter.Format> formatDialog = new ChoiceDialog<>(AnimationExporter.Format.SVG, AnimationExporter.Format.values());
+        formatDialog.setTitle("Export Animation");
+        formatDialog.setHeaderText("Format of the frames");
+        Optional<AnimationExporter.Format> format = formatDialog.showAndWait();
+        if (format.isEmpty()) return;
+
+        DirectoryChooser directoryChooser = new DirectoryChooser();
+        directoryChooser.setTitle("Export Animation");
+        File directory = directoryChooser.showDialog(stage);
+        if (directory == null) return;
+
+        ContactSheet.Variation current = canvasCaretaker.currentParameters();
+        ContactSheet.Variation first = withParameter(current, parameter.get(), start);
+        ContactSheet.Variation last = withParameter(current, parameter.get(), end);
+        int pixelWidth = (int) canvasCaretaker.getCanvasWidth()*2;
+        AnimationExporter exporter;
+        try {
+            exporter = canvasCaretaker.animationExporter(first, last, frames);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        Thread exportThread = new Thread(() -> {
+            try {
+                exporter.export(directory, format.get(), pixelWidth);
+            } catch (Exception e) {
+                e.printStackTrace();
+                showExportFailure("Export Animation", "the frames to " + directory.getName(), e);
+                return;
+            }
+            Platform.runLater(() -> {
+                Alert alert = new Alert(AlertType.INFORMATION);
+                alert.setTitle("Export Animation");
+                alert.setHeaderText("Exported " + exporter.getFrames() + " frames to " + directory.getName());
+                alert.showAndWait();
+            });
+        });
+        exportThread.setDaemon(true);
+        exportThread.start();
+    }
+
+    // The parameters with one of them changed
+    private ContactSheet.Variation withParameter(ContactSheet.Variation parameters, String parameter, double value) {
+        switch (parameter) {
+            case "Rotation":
+                return new ContactSheet.Variation(parameters.xTranslation(), parameters.yTranslation(), value, parameters.scale());
+            case "Scale":
+                return new ContactSheet.Variation(parameters.xTranslation(), parameters.yTranslation(), parameters.rotation(), value);
+            case "X Translation":
+                return new ContactSheet.Variation(value, parameters.yTranslation(), parameters.rotation(), parameters.scale());
+            default:
+                return new ContactSheet.Variation(parameters.xTranslation(), value, parameters.rotation(), parameters.scale());
+        }
+    }
+
+    // Report an export that failed in the background
+    private void showExportFailure(String title, String target, Exception e) {
+        Platform.runLater(() -> {
+            Alert alert = new Alert(AlertType.ERROR);
+            alert.setTitle(title);
+            alert.setHeaderText("Couldn't export " + target);
+            alert.setContentText(e.getMessage());
+            alert.showAndWait();
+        });
+    }
+
     private void writeToFile(File file, String content) {
         try (FileWriter writer = new FileWriter(file)) {
             writer.write(content);
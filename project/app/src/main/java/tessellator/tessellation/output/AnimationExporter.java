@@ -0,0 +1,144 @@
+package tessellator.tessellation.output;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import tessellator.tessellation.tiling.TilingStrategy;
+
+/**
+ * An object which exports an animation of a pattern as a numbered sequence of svg or PNG
+ * files, one for each frame, with the parameters moving evenly from one set of values to
+ * another over the frames.
+ *
+ * The frames are rendered on a fixed pool of threads, one frame per thread at a time, so the
+ * export speeds up with the number of cores. Every frame is rendered from a copy of the
+ * tiling strategy taken when the exporter is created, and each thread keeps its own copy for
+ * all the frames it renders, so the seed is evaluated once and the lattice of placements
+ * is reused from frame to frame. A frame depends only on its number, never on which thread
+ * renders it or what that thread rendered before, so the files are the same byte for byte
+ * however the frames are scheduled.
+ */
+public class AnimationExporter {
+
+    /**
+     * The format the frames are written in.
+     */
+    public enum Format {
+        SVG,
+        PNG
+    }
+
+    private final TilingStrategy tiler;
+    private final BoundaryClipper clipper;
+    private final double canvasWidth;
+    private final double canvasHeight;
+    private final String svgHeader;
+    private final ContactSheet.Variation first;
+    private final ContactSheet.Variation last;
+    private final int frames;
+
+    /**
+     * @param tiler The strategy that generates the tessellation, a copy of it is kept.
+     * @param clipper The boundary the tessellation is clipped to.
+     * @param svgHeader The start of each svg frame, see SvgStreamWriter.header().
+     * @param first The parameters of the first frame.
+     * @param last The parameters of the last frame.
+     * @param frames The number of frames.
+     */
+    public AnimationExporter(TilingStrategy tiler, BoundaryClipper clipper, double canvasWidth, double canvasHeight,
+                             String svgHeader, ContactSheet.Variation first, ContactSheet.Variation last, int frames) {
+        this.tiler = tiler.copy();
+        this.clipper = clipper;
+        this.canvasWidth = canvasWidth;
+        this.canvasHeight = canvasHeight;
+        this.svgHeader = svgHeader;
+        this.first = first;
+        this.last = last;
+        this.frames = Math.max(1, frames);
+    }
+
+    /**
+     * Render every frame and write it to a file named frame_ followed by its number, padded
+     * so the files sort in order.
+     *
+     * @param directory The directory the frames are written to.
+     * @param format Whether the frames are svg documents or PNG images.
+     * @param pixelWidth The width of a PNG frame in pixels, unused for svg frames.
+     * @return The files of the frames, in order.
+     */
+    public List<File> export(File directory, Format format, int pixelWidth) throws IOException {
+        int digits = Integer.toString(frames-1).length();
+        String extension = (format == Format.SVG) ? ".svg" : ".png";
+
+        ThreadLocal<TilingStrategy> workerTiler = ThreadLocal.withInitial(tiler::copy);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(frames, Runtime.getRuntime().availableProcessors()));
+        List<Future<File>> rendered = new ArrayList<>();
+        try {
+            for (int frame = 0; frame < frames; frame++) {
+                File file = new File(directory, String.format("frame_%0" + digits + "d", frame) + extension);
+                ContactSheet.Variation variation = frameParameters(frame);
+                rendered.add(pool.submit(() -> {
+                    List<Polyline> paths = framePaths(workerTiler.get(), variation);
+                    if (format == Format.SVG) {
+                        try (SvgStreamWriter writer = new SvgStreamWriter(new BufferedWriter(new FileWriter(file)), svgHeader)) {
+                            writer.writePaths(paths);
+                        }
+                    } else {
+                        // The frames already keep every thread busy, so each image is drawn on its own thread
+                        new RasterExporter(paths, canvasWidth, canvasHeight).export(file, pixelWidth, 1);
+                    }
+                    return file;
+                }));
+            }
+
+            List<File> files = new ArrayList<>();
+            for (Future<File> file : rendered) {
+                files.add(file.get());
+            }
+            return files;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("The animation was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("A frame of the animation couldn't be written.", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * The parameters of a frame, evenly between those of the first and last frames.
+     */
+    public ContactSheet.Variation frameParameters(int frame) {
+        double t = (frames == 1) ? 0 : (double) frame/(frames-1);
+        return new ContactSheet.Variation(between(first.xTranslation(), last.xTranslation(), t),
+                                          between(first.yTranslation(), last.yTranslation(), t),
+                                          between(first.rotation(), last.rotation(), t),
+                                          between(first.scale(), last.scale(), t));
+    }
+
+    public int getFrames() {
+        return frames;
+    }
+
+    private List<Polyline> framePaths(TilingStrategy frameTiler, ContactSheet.Variation variation) {
+        frameTiler.setXTranslation(variation.xTranslation());
+        frameTiler.setYTranslation(variation.yTranslation());
+        frameTiler.setRotation(variation.rotation());
+        frameTiler.setScale(variation.scale());
+        List<Segment> segments = PathMerger.segmentsOf(clipper.visibleTiles(frameTiler.tessellate()));
+        return PathMerger.merge(clipper.clip(segments));
+    }
+
+    private static double between(double from, double to, double t) {
+        return from + (to-from)*t;
+    }
+}
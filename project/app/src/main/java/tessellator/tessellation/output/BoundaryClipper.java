@@ -0,0 +1,206 @@
+package tessellator.tessellation.output;
+
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Area;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.batik.bridge.BridgeContext;
+import org.apache.batik.bridge.DocumentLoader;
+import org.apache.batik.bridge.GVTBuilder;
+import org.apache.batik.bridge.UserAgent;
+import org.apache.batik.bridge.UserAgentAdapter;
+import org.apache.batik.gvt.GraphicsNode;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import tessellator.tessellation.tiling.Tile;
+
+/**
+ * An object which cuts a tessellation down to the part that lies within the boundary shape
+ * of the svg document, so that only visible geometry is written out.
+ *
+ * Tiles that lie completely outside the boundary are dropped. The segments of the remaining
+ * tiles are then clipped against the outline of the boundary, segments that lie completely
+ * inside or outside are decided by their bounding box and only segments that cross the
+ * outline are split at the points where they cross it.
+ */
+public class BoundaryClipper {
+
+    // How closely the flattened outline follows any curves of the boundary
+    private static final double FLATNESS = 0.05;
+
+    private final Area boundary;
+    // The straight edges of the flattened outline of the boundary, as x1, y1, x2, y2
+    private final List<double[]> outline;
+
+    public BoundaryClipper(Shape boundaryShape) {
+        boundary = new Area(boundaryShape);
+        outline = new ArrayList<>();
+
+        // Break the outline into straight edges, closing each sub-path
+        PathIterator it = boundary.getPathIterator(null, FLATNESS);
+        double[] coords = new double[6];
+        double startX = 0, startY = 0, lastX = 0, lastY = 0;
+        while (!it.isDone()) {
+            switch (it.currentSegment(coords)) {
+                case PathIterator.SEG_MOVETO:
+                    startX = lastX = coords[0];
+                    startY = lastY = coords[1];
+                    break;
+                case PathIterator.SEG_LINETO:
+                    outline.add(new double[] {lastX, lastY, coords[0], coords[1]});
+                    lastX = coords[0];
+                    lastY = coords[1];
+                    break;
+                case PathIterator.SEG_CLOSE:
+                    if (lastX != startX || lastY != startY) {
+                        outline.add(new double[] {lastX, lastY, startX, startY});
+                    }
+                    lastX = startX;
+                    lastY = startY;
+                    break;
+                default:
+                    break;
+            }
+            it.next();
+        }
+    }
+
+    /**
+     * Create a clipper from an element of an svg document. The shape of the element is found
+     * by building the document with Batik, so any kind of svg shape (or group of shapes) can
+     * be used as the boundary.
+     *
+     * @param document The document the element belongs to.
+     * @param boundaryElement A child element of the root svg element.
+     */
+    public static BoundaryClipper fromElement(Document document, Element boundaryElement) {
+        return fromElement(document, boundaryElement, null);
+    }
+
+    /**
+     * Create a clipper from an element of an svg document, for a tessellation drawn in a
+     * different coordinate space to the boundary's parent.
+     *
+     * @param toCanvas The transform from the boundary's parent onto the canvas of the
+     *                 tessellation, or null if they are the same.
+     */
+    public static BoundaryClipper fromElement(Document document, Element boundaryElement, AffineTransform toCanvas) {
+        UserAgent userAgent = new UserAgentAdapter();
+        BridgeContext context = new BridgeContext(userAgent, new DocumentLoader(userAgent));
+        // Interactive so the context records which graphics node was built for each element
+        context.setDynamicState(BridgeContext.INTERACTIVE);
+        new GVTBuilder().build(context, document);
+
+        GraphicsNode node = context.getGraphicsNode(boundaryElement);
+        Shape shape = node.getOutline();
+        // The tessellation is drawn in the same coordinate space as the boundary's parent,
+        // so only the boundary's own transform is applied to its outline
+        AffineTransform transform = node.getTransform();
+        if (transform != null) shape = transform.createTransformedShape(shape);
+        if (toCanvas != null) shape = toCanvas.createTransformedShape(shape);
+        context.dispose();
+        return new BoundaryClipper(shape);
+    }
+
+    /**
+     * The tiles that are at least partly within the boundary.
+     */
+    public List<Tile> visibleTiles(List<Tile> tessellation) {
+        List<Tile> visible = new ArrayList<>();
+        for (Tile tile : tessellation) {
+            if (boundary.intersects(boundsOf(tile.xBorderCoords(), tile.yBorderCoords()))) {
+                visible.add(tile);
+            }
+        }
+        return visible;
+    }
+
+    /**
+     * Clip the segments against the boundary.
+     *
+     * @return The parts of the segments which are inside the boundary.
+     */
+    public List<Segment> clip(List<Segment> segments) {
+        List<Segment> clipped = new ArrayList<>();
+        for (Segment s : segments) {
+            Rectangle2D bounds = boundsOf(s);
+            if (boundary.contains(bounds)) {
+                clipped.add(s);
+            } else if (boundary.intersects(bounds)) {
+                clipCrossing(s, clipped);
+            }
+        }
+        return clipped;
+    }
+
+    // Split a segment where it crosses the outline and keep the pieces inside the boundary
+    private void clipCrossing(Segment s, List<Segment> clipped) {
+        double dx = s.x2()-s.x1();
+        double dy = s.y2()-s.y1();
+        double[] crossings = new double[outline.size()+2];
+        int count = 0;
+        crossings[count++] = 0;
+        crossings[count++] = 1;
+
+        for (double[] edge : outline) {
+            double ex = edge[2]-edge[0];
+            double ey = edge[3]-edge[1];
+            double denominator = dx*ey - dy*ex;
+            // Parallel edges can't cross the segment at a single point
+            if (denominator == 0) continue;
+            double t = ((edge[0]-s.x1())*ey - (edge[1]-s.y1())*ex)/denominator;
+            double u = ((edge[0]-s.x1())*dy - (edge[1]-s.y1())*dx)/denominator;
+            if (t > 0 && t < 1 && u >= 0 && u <= 1) crossings[count++] = t;
+        }
+        Arrays.sort(crossings, 0, count);
+
+        // Between two consecutive crossings the segment is either all inside or all outside,
+        // so checking the middle of each piece decides the whole piece
+        double pieceStart = -1;
+        for (int i = 0; i < count-1; i++) {
+            double a = crossings[i];
+            double b = crossings[i+1];
+            if (b-a <= 0) continue;
+            double mid = (a+b)/2;
+            boolean inside = boundary.contains(s.x1()+dx*mid, s.y1()+dy*mid);
+            // Adjacent pieces that are both inside are kept as one segment
+            if (inside && pieceStart < 0) pieceStart = a;
+            if (!inside && pieceStart >= 0) {
+                clipped.add(piece(s, pieceStart, a));
+                pieceStart = -1;
+            }
+        }
+        if (pieceStart >= 0) clipped.add(piece(s, pieceStart, 1));
+    }
+
+    private static Segment piece(Segment s, double from, double to) {
+        double dx = s.x2()-s.x1();
+        double dy = s.y2()-s.y1();
+        return new Segment(s.x1()+dx*from, s.y1()+dy*from, s.x1()+dx*to, s.y1()+dy*to);
+    }
+
+    // Bounding boxes are given a tiny size so that horizontal and vertical segments still have an area
+    private static Rectangle2D boundsOf(Segment s) {
+        double minX = Math.min(s.x1(), s.x2());
+        double minY = Math.min(s.y1(), s.y2());
+        return new Rectangle2D.Double(minX, minY, Math.abs(s.x2()-s.x1())+1e-9, Math.abs(s.y2()-s.y1())+1e-9);
+    }
+
+    private static Rectangle2D boundsOf(List<Double> xs, List<Double> ys) {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < xs.size(); i++) {
+            minX = Math.min(minX, xs.get(i));
+            minY = Math.min(minY, ys.get(i));
+            maxX = Math.max(maxX, xs.get(i));
+            maxY = Math.max(maxY, ys.get(i));
+        }
+        return new Rectangle2D.Double(minX, minY, maxX-minX, maxY-minY);
+    }
+}
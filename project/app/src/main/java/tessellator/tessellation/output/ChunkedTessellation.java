@@ -0,0 +1,115 @@
+package tessellator.tessellation.output;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+
+import tessellator.tessellation.tiling.Tile;
+import tessellator.tessellation.tiling.TileStore;
+import tessellator.tessellation.tiling.TilingStrategy;
+
+/**
+ * An object which produces the paths of a tessellation one region of the canvas at a time,
+ * so that a tessellation far bigger than the heap can be written out.
+ *
+ * The canvas is divided into square chunks. The paths of a chunk are made from only the
+ * tiles which intersect it, clipped to the boundary and then to the chunk itself so that a
+ * line crossing from one chunk into the next is written once, half in each, and a line along
+ * the edge between two chunks is written only by the chunk below or to the right of it, see
+ * RegionClipper. Once a chunk
+ * has been written its paths can be thrown away, so the memory used depends on the size of
+ * a chunk rather than on the size of the canvas.
+ *
+ * The tiling strategy is a copy taken when the object is created, so later changes to the
+ * pattern don't affect a write in progress and chunks may be produced on several threads.
+ *
+ * By default each region generates its own tiles. When the same tiles will be read many times
+ * over, the whole tessellation can instead be generated once into an off-heap tile store and
+ * each region read back from there.
+ */
+public class ChunkedTessellation implements AutoCloseable {
+
+    // How much direct memory a tile store uses before it spills to a memory-mapped file
+    private static final long STORE_MEMORY_LIMIT = 256L << 20;
+
+    private final TilingStrategy tiler;
+    private final BoundaryClipper clipper;
+    private final double canvasWidth;
+    private final double canvasHeight;
+    private final double chunkSize;
+    private TileStore store;
+
+    /**
+     * @param tiler The strategy that generates the tessellation, a copy of it is kept.
+     * @param clipper The boundary the tessellation is clipped to.
+     * @param canvasWidth The width of the canvas.
+     * @param canvasHeight The height of the canvas.
+     * @param chunkSize The side length of a chunk in canvas coordinates.
+     */
+    public ChunkedTessellation(TilingStrategy tiler, BoundaryClipper clipper, double canvasWidth, double canvasHeight, double chunkSize) {
+        this.tiler = tiler.copy();
+        this.clipper = clipper;
+        this.canvasWidth = canvasWidth;
+        this.canvasHeight = canvasHeight;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * The chunks which cover the canvas, a row at a time from the top left. The chunks along
+     * the right and bottom of the canvas are cut short by the edge of the canvas.
+     */
+    public List<Rectangle2D> chunks() {
+        List<Rectangle2D> chunks = new ArrayList<>();
+        for (double y = 0; y < canvasHeight; y += chunkSize) {
+            for (double x = 0; x < canvasWidth; x += chunkSize) {
+                chunks.add(new Rectangle2D.Double(x, y, Math.min(chunkSize, canvasWidth-x), Math.min(chunkSize, canvasHeight-y)));
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * The merged paths of the part of the tessellation within the region. The paths of
+     * regions which don't overlap never share a segment, even when the regions share an edge.
+     *
+     * @param region The region in canvas coordinates, usually one of the chunks.
+     */
+    public List<Polyline> pathsIn(Rectangle2D region) {
+        List<Tile> tiles = (store == null) ? tiler.tessellate(region) : store.tilesIn(region);
+        List<Segment> segments = PathMerger.segmentsOf(clipper.visibleTiles(tiles));
+        // The right and bottom edges of the region are left to the regions beyond them,
+        // unless there is nothing beyond them
+        RegionClipper regionClipper = new RegionClipper(region, region.getMaxX() >= canvasWidth, region.getMaxY() >= canvasHeight);
+        return PathMerger.merge(regionClipper.clip(clipper.clip(segments)));
+    }
+
+    /**
+     * Generate the whole tessellation into an off-heap tile store, one tile at a time, so that
+     * regions are read from the store rather than generated. The tiles are the same either way.
+     */
+    public void storeTiles() {
+        // Direct memory is limited to the size of the heap unless the JVM is told otherwise
+        long memoryLimit = Math.min(STORE_MEMORY_LIMIT, Runtime.getRuntime().maxMemory()/4);
+        TileStore newStore = new TileStore(chunkSize, memoryLimit);
+        tiler.tessellate(null, newStore::append);
+        store = newStore;
+    }
+
+    /**
+     * Release the tile store, if there is one.
+     */
+    @Override
+    public void close() {
+        if (store == null) return;
+        store.close();
+        store = null;
+    }
+
+    public double getCanvasWidth() {
+        return canvasWidth;
+    }
+
+    public double getCanvasHeight() {
+        return canvasHeight;
+    }
+}
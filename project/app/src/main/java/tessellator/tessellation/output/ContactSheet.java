@@ -0,0 +1,227 @@
+package tessellator.tessellation.output;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.imageio.ImageIO;
+
+import tessellator.tessellation.tiling.Tile;
+import tessellator.tessellation.tiling.TilingStrategy;
+
+/**
+ * An object which renders a grid of thumbnails of the same pattern with different values of
+ * the parameters, so many variations of a design can be compared side by side.
+ *
+ * Every thumbnail is rendered from a copy of the tiling strategy taken when the sheet is
+ * created, so the seed is only evaluated once. The thumbnails are rendered on a pool of
+ * threads, each thread keeps its own copy of the strategy for every thumbnail it renders so
+ * the lattice of placements it builds up is reused, and the thumbnails are drawn onto the
+ * sheet in order once they are all done. Thumbnails are drawn at the level of detail that
+ * suits their size, so tiles too small to see in a thumbnail don't cost anything.
+ */
+public class ContactSheet {
+
+    // The height of the strip under each thumbnail which holds its parameters
+    private static final int LABEL_HEIGHT = 16;
+    private static final int PADDING = 6;
+    // The most variations a sweep makes, however many steps are asked for
+    private static final int MAX_VARIATIONS = 64;
+
+    /**
+     * A combination of the parameters.
+     */
+    public record Variation(double xTranslation, double yTranslation, double rotation, double scale) {
+
+        public String label() {
+            return String.format("x %.2f  y %.2f  r %.1f  s %.2f", xTranslation, yTranslation, rotation, scale);
+        }
+    }
+
+    private final TilingStrategy tiler;
+    private final BoundaryClipper clipper;
+    private final double canvasWidth;
+    private final double canvasHeight;
+    private final List<Variation> variations;
+    private final int columns;
+    private final int thumbnailWidth;
+    private final LevelOfDetail levelOfDetail;
+
+    /**
+     * @param tiler The strategy that generates the tessellation, a copy of it is kept.
+     * @param clipper The boundary the tessellation is clipped to.
+     * @param variations The combinations of the parameters, in the order they fill the sheet a row at a time.
+     * @param columns The number of thumbnails in a row.
+     * @param thumbnailWidth The width of a thumbnail in pixels.
+     */
+    public ContactSheet(TilingStrategy tiler, BoundaryClipper clipper, double canvasWidth, double canvasHeight,
+                        List<Variation> variations, int columns, int thumbnailWidth) {
+        this.tiler = tiler.copy();
+        this.clipper = clipper;
+        this.canvasWidth = canvasWidth;
+        this.canvasHeight = canvasHeight;
+        this.variations = variations;
+        this.columns = Math.max(1, columns);
+        this.thumbnailWidth = thumbnailWidth;
+        levelOfDetail = new LevelOfDetail();
+    }
+
+    /**
+     * Every combination of evenly spaced values of the parameters between their ranges. A
+     * parameter whose range starts and ends at the same value keeps that value. The last
+     * parameter that changes varies fastest, so with the steps as the number of columns
+     * each row of the sheet sweeps the last parameter.
+     *
+     * @param from The start of the range of the x translation, y translation, rotation and scale.
+     * @param to The end of the range of each parameter.
+     * @param steps The number of values of each parameter that changes, fewer are used if
+     *              there would be too many variations.
+     */
+    public static List<Variation> variations(double[] from, double[] to, int steps) {
+        steps = stepsFor(from, to, steps);
+        List<Variation> variations = new ArrayList<>();
+        double[] values = new double[4];
+        addVariations(variations, from, to, steps, values, 0);
+        return variations;
+    }
+
+    /**
+     * The number of values each parameter that changes takes in a sweep, the steps asked for
+     * unless that would make too many variations. Also the number of columns the sheet
+     * needs for each row to sweep the last parameter.
+     */
+    public static int stepsFor(double[] from, double[] to, int steps) {
+        int swept = 0;
+        for (int i = 0; i < 4; i++) {
+            if (from[i] != to[i]) swept++;
+        }
+        if (swept == 0) return 1;
+        steps = Math.max(1, steps);
+        while (Math.pow(steps, swept) > MAX_VARIATIONS) steps--;
+        return steps;
+    }
+
+    private static void addVariations(List<Variation> variations, double[] from, double[] to, int steps, double[] values, int parameter) {
+        if (parameter == 4) {
+            variations.add(new Variation(values[0], values[1], values[2], values[3]));
+            return;
+        }
+        int count = (from[parameter] == to[parameter] || steps == 1) ? 1 : steps;
+        for (int i = 0; i < count; i++) {
+            values[parameter] = (count == 1) ? from[parameter] : from[parameter] + (to[parameter]-from[parameter])*i/(count-1);
+            addVariations(variations, from, to, steps, values, parameter+1);
+        }
+    }
+
+    /**
+     * Render every thumbnail and lay them out in a grid, each with its parameters under it.
+     */
+    public BufferedImage render() throws IOException {
+        int thumbnailHeight = Math.max(1, (int) Math.round(canvasHeight*thumbnailWidth/canvasWidth));
+        int rows = (variations.size() + columns - 1)/columns;
+        int cellWidth = thumbnailWidth + PADDING;
+        int cellHeight = thumbnailHeight + LABEL_HEIGHT + PADDING;
+
+        ThreadLocal<TilingStrategy> workerTiler = ThreadLocal.withInitial(tiler::copy);
+        ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        List<Future<BufferedImage>> thumbnails = new ArrayList<>();
+        try {
+            for (Variation variation : variations) {
+                thumbnails.add(pool.submit(() -> renderThumbnail(workerTiler.get(), variation, thumbnailHeight)));
+            }
+
+            BufferedImage sheet = new BufferedImage(columns*cellWidth + PADDING, rows*cellHeight + PADDING, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = sheet.createGraphics();
+            g.setColor(new Color(0xE0E0E0));
+            g.fillRect(0, 0, sheet.getWidth(), sheet.getHeight());
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 11));
+            for (int i = 0; i < variations.size(); i++) {
+                int x = PADDING + (i%columns)*cellWidth;
+                int y = PADDING + (i/columns)*cellHeight;
+                g.drawImage(thumbnails.get(i).get(), x, y, null);
+                g.setColor(Color.BLACK);
+                g.drawString(variations.get(i).label(), x, y + thumbnailHeight + LABEL_HEIGHT - 4);
+            }
+            g.dispose();
+            return sheet;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("The contact sheet was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("A thumbnail couldn't be rendered.", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Render the sheet and write it to a PNG file.
+     */
+    public void export(File file) throws IOException {
+        ImageIO.write(render(), "png", file);
+    }
+
+    public List<Variation> getVariations() {
+        return variations;
+    }
+
+    private BufferedImage renderThumbnail(TilingStrategy thumbnailTiler, Variation variation, int thumbnailHeight) {
+        thumbnailTiler.setXTranslation(variation.xTranslation());
+        thumbnailTiler.setYTranslation(variation.yTranslation());
+        thumbnailTiler.setRotation(variation.rotation());
+        thumbnailTiler.setScale(variation.scale());
+        double pixelsPerUnit = thumbnailWidth/canvasWidth;
+
+        List<Segment> segments = new ArrayList<>();
+        Tile placedSeed = thumbnailTiler.placedSeed();
+        if (placedSeed != null) {
+            switch (levelOfDetail.levelFor(placedSeed, pixelsPerUnit)) {
+                case FULL:
+                    segments = PathMerger.segmentsOf(clipper.visibleTiles(thumbnailTiler.tessellate()));
+                    break;
+                case BORDERS:
+                    segments = PathMerger.segmentsOf(clipper.visibleTiles(thumbnailTiler.bordersOnly().tessellate()));
+                    break;
+                case GRID:
+                    segments = levelOfDetail.gridLines(placedSeed, canvasWidth, canvasHeight, pixelsPerUnit);
+                    break;
+            }
+        }
+        List<Polyline> paths = PathMerger.merge(clipper.clip(segments));
+
+        BufferedImage image = new BufferedImage(thumbnailWidth, thumbnailHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, thumbnailWidth, thumbnailHeight);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+        g.setColor(Color.BLACK);
+        // A line of a thumbnail is at least a pixel wide so it doesn't fade away
+        g.setStroke(new BasicStroke((float) Math.max(1, pixelsPerUnit)));
+        for (Polyline p : paths) {
+            Path2D.Double path = new Path2D.Double();
+            for (int i = 0; i < p.size(); i++) {
+                double x = p.xCoords().get(i)*pixelsPerUnit;
+                double y = p.yCoords().get(i)*pixelsPerUnit;
+                if (i == 0) path.moveTo(x, y); else path.lineTo(x, y);
+            }
+            if (p.isClosed()) path.closePath();
+            g.draw(path);
+        }
+        g.dispose();
+        return image;
+    }
+}
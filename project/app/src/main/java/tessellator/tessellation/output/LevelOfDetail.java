@@ -0,0 +1,167 @@
+package tessellator.tessellation.output;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import tessellator.tessellation.tiling.Tile;
+
+/**
+ * An object which decides how much of the pattern is worth drawing in the preview once the
+ * tiles become too small on screen to make out.
+ *
+ * The preview shows the canvas a pixel per unit, so the on screen size of a tile is the
+ * side length of the placed seed. Above the content threshold every tile is drawn in full.
+ * Below it only the borders of the tiles are drawn, and the tiles are generated without their
+ * contents (see TilingStrategy.bordersOnly()). Every tile is still generated at this level,
+ * but since each is at least the grid threshold across there are only a few for every pixel
+ * of the canvas, so the cost is bounded by the canvas in pixels rather than by the detail of
+ * the seed. Below the grid threshold even the borders would blur together, so instead of the
+ * tiles the preview draws the lines of the lattice their borders lie on, leaving out as many
+ * lines as it takes to keep them the grid threshold apart. The number of grid lines depends on
+ * the size of the canvas in pixels rather than on the number of tiles, so the tiles aren't
+ * generated at all.
+ *
+ * This only affects the preview, exports always use every tile in full.
+ */
+public class LevelOfDetail {
+
+    // The default on screen sizes, in pixels, below which the detail is reduced
+    private static final double DEFAULT_CONTENT_THRESHOLD = 12;
+    private static final double DEFAULT_GRID_THRESHOLD = 4;
+
+    /**
+     * How much of the pattern is drawn.
+     */
+    public enum Level {
+        FULL,
+        BORDERS,
+        GRID
+    }
+
+    private double contentThreshold;
+    private double gridThreshold;
+
+    public LevelOfDetail() {
+        this(DEFAULT_CONTENT_THRESHOLD, DEFAULT_GRID_THRESHOLD);
+    }
+
+    /**
+     * @param contentThreshold The side length in pixels below which tile contents are dropped.
+     * @param gridThreshold The side length in pixels below which tiles are replaced by grid lines.
+     */
+    public LevelOfDetail(double contentThreshold, double gridThreshold) {
+        this.contentThreshold = contentThreshold;
+        this.gridThreshold = gridThreshold;
+    }
+
+    /**
+     * The level to draw a tessellation grown around the placed seed at.
+     */
+    public Level levelFor(Tile placedSeed) {
+        return levelFor(placedSeed, 1);
+    }
+
+    /**
+     * The level to draw a tessellation grown around the placed seed at, when the canvas is
+     * drawn at a number of pixels per unit.
+     */
+    public Level levelFor(Tile placedSeed, double pixelsPerUnit) {
+        double side = sideLength(placedSeed)*pixelsPerUnit;
+        if (side < gridThreshold) return Level.GRID;
+        if (side < contentThreshold) return Level.BORDERS;
+        return Level.FULL;
+    }
+
+    /**
+     * The lines of the lattice the borders of the tessellation lie on, across the whole canvas.
+     *
+     * Every edge of a square, triangle or hexagon tiling lies on one of a family of evenly
+     * spaced parallel lines for each direction of the edges of the seed, all of which pass
+     * through the vertices of the seed. Only every so many lines of a family are kept so
+     * they stay at least the grid threshold apart.
+     *
+     * @param placedSeed The seed the tessellation is grown around.
+     */
+    public List<Segment> gridLines(Tile placedSeed, double canvasWidth, double canvasHeight) {
+        return gridLines(placedSeed, canvasWidth, canvasHeight, 1);
+    }
+
+    /**
+     * The lines of the lattice the borders of the tessellation lie on, kept the grid threshold
+     * apart when the canvas is drawn at a number of pixels per unit.
+     */
+    public List<Segment> gridLines(Tile placedSeed, double canvasWidth, double canvasHeight, double pixelsPerUnit) {
+        List<Segment> lines = new ArrayList<>();
+        if (!placedSeed.isBorderVisible()) return lines;
+        List<Double> xs = placedSeed.xBorderCoords();
+        List<Double> ys = placedSeed.yBorderCoords();
+
+        // The opposite edges of a square are parallel so it only has two directions
+        int families = (xs.size() == 4) ? 2 : 3;
+        double side = sideLength(placedSeed);
+        double[] first = direction(xs, ys, 0);
+        double[] second = direction(xs, ys, 1);
+        double spacing = side*Math.abs(first[0]*second[1] - first[1]*second[0]);
+        if (spacing <= 0) return lines;
+        double gap = spacing*Math.ceil(gridThreshold/pixelsPerUnit/spacing);
+
+        double[] cornerXs = {0, canvasWidth, canvasWidth, 0};
+        double[] cornerYs = {0, 0, canvasHeight, canvasHeight};
+        for (int family = 0; family < families; family++) {
+            double[] along = direction(xs, ys, family);
+            double[] across = {-along[1], along[0]};
+
+            // The range of the canvas along and across the lines
+            double lowAlong = Double.POSITIVE_INFINITY, highAlong = Double.NEGATIVE_INFINITY;
+            double lowAcross = Double.POSITIVE_INFINITY, highAcross = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < 4; i++) {
+                double a = cornerXs[i]*along[0] + cornerYs[i]*along[1];
+                double c = cornerXs[i]*across[0] + cornerYs[i]*across[1];
+                lowAlong = Math.min(lowAlong, a);
+                highAlong = Math.max(highAlong, a);
+                lowAcross = Math.min(lowAcross, c);
+                highAcross = Math.max(highAcross, c);
+            }
+
+            double origin = xs.get(0)*across[0] + ys.get(0)*across[1];
+            long firstLine = (long) Math.ceil((lowAcross-origin)/gap);
+            long lastLine = (long) Math.floor((highAcross-origin)/gap);
+            for (long line = firstLine; line <= lastLine; line++) {
+                double offset = origin + line*gap;
+                lines.add(new Segment(across[0]*offset + along[0]*lowAlong, across[1]*offset + along[1]*lowAlong,
+                                      across[0]*offset + along[0]*highAlong, across[1]*offset + along[1]*highAlong));
+            }
+        }
+        return lines;
+    }
+
+    public double getContentThreshold() {
+        return contentThreshold;
+    }
+
+    public void setContentThreshold(double contentThreshold) {
+        this.contentThreshold = contentThreshold;
+    }
+
+    public double getGridThreshold() {
+        return gridThreshold;
+    }
+
+    public void setGridThreshold(double gridThreshold) {
+        this.gridThreshold = gridThreshold;
+    }
+
+    private static double sideLength(Tile tile) {
+        return Math.hypot(tile.xBorderCoords().get(1) - tile.xBorderCoords().get(0),
+                          tile.yBorderCoords().get(1) - tile.yBorderCoords().get(0));
+    }
+
+    // The unit vector along an edge of a polygon
+    private static double[] direction(List<Double> xs, List<Double> ys, int edge) {
+        int next = (edge+1)%xs.size();
+        double dx = xs.get(next) - xs.get(edge);
+        double dy = ys.get(next) - ys.get(edge);
+        double length = Math.hypot(dx, dy);
+        return new double[] {dx/length, dy/length};
+    }
+}
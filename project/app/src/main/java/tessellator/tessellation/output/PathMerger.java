@@ -0,0 +1,281 @@
+package tessellator.tessellation.output;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import tessellator.tessellation.tiling.Tile;
+import tessellator.tessellation.tiling.TileContent;
+
+/**
+ * An object which reduces a tessellation to the smallest set of polylines that draw it.
+ *
+ * Neighbouring tiles share their borders and the content of neighbouring tiles often
+ * meets at those borders, so drawing each tile on its own draws every interior border
+ * twice and splits lines that cross tiles into many pieces. The merger:
+ * 1. Breaks the tile borders and straight line contents down into segments.
+ * 2. Snaps the ends of the segments onto a fine grid so that ends which should meet do
+ *    meet exactly, regardless of floating point error.
+ * 3. Removes duplicate segments, a segment and its reverse count as the same segment.
+ * 4. Chains segments that share an end into polylines, carrying straight on where
+ *    possible and dropping the points in the middle of straight runs.
+ */
+public class PathMerger {
+
+    // The number of grid steps per unit that ends are snapped to, far finer than anything visible
+    private static final double STEPS_PER_UNIT = 1000;
+    // How far (in grid steps) a point may sit off a straight run and still be dropped from it
+    private static final double COLLINEAR_TOLERANCE = 2;
+
+    // A point snapped onto the grid
+    private record GridPoint(long x, long y) {
+
+        double realX() {
+            return x/STEPS_PER_UNIT;
+        }
+
+        double realY() {
+            return y/STEPS_PER_UNIT;
+        }
+    }
+
+    // A segment between two snapped points
+    private record GridSegment(GridPoint a, GridPoint b) {
+
+        GridPoint other(GridPoint p) {
+            return p.equals(a) ? b : a;
+        }
+    }
+
+    /**
+     * Break the visible borders and the straight line contents of the tiles into segments.
+     */
+    public static List<Segment> segmentsOf(List<Tile> tessellation) {
+        List<Segment> segments = new ArrayList<>();
+        for (Tile tile : tessellation) {
+            if (tile.isBorderVisible()) {
+                List<Double> xs = tile.xBorderCoords();
+                List<Double> ys = tile.yBorderCoords();
+                int n = xs.size();
+                // Borders are closed polygons, the last vertex joins back to the first
+                for (int i = 0; i < n; i++) {
+                    int j = (i+1)%n;
+                    segments.add(new Segment(xs.get(i), ys.get(i), xs.get(j), ys.get(j)));
+                }
+            }
+            for (TileContent shape : tile.contents()) {
+                switch (shape.category()) {
+                    case STRAIGHT_LINE:
+                        segments.add(new Segment(shape.xCoords().get(0), shape.yCoords().get(0),
+                                                 shape.xCoords().get(1), shape.yCoords().get(1)));
+                        break;
+
+                    default:
+                        break;
+                }
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Merge the tessellation into polylines.
+     */
+    public static List<Polyline> merge(List<Tile> tessellation) {
+        return merge(segmentsOf(tessellation));
+    }
+
+    /**
+     * Snap, deduplicate and chain the segments into polylines.
+     */
+    public static List<Polyline> merge(Iterable<Segment> segments) {
+        List<GridSegment> unique = deduplicate(segments);
+
+        // Record which segments meet at each point
+        Map<GridPoint, List<Integer>> segmentsAtPoint = new HashMap<>();
+        for (int i = 0; i < unique.size(); i++) {
+            GridSegment s = unique.get(i);
+            segmentsAtPoint.computeIfAbsent(s.a(), k -> new ArrayList<>()).add(i);
+            segmentsAtPoint.computeIfAbsent(s.b(), k -> new ArrayList<>()).add(i);
+        }
+
+        boolean[] used = new boolean[unique.size()];
+        List<Polyline> polylines = new ArrayList<>();
+
+        // A path has to start or finish at every point where an odd number of segments meet,
+        // so chains are started from those first, then from the remaining points where paths
+        // branch. This avoids starting a path in its middle. Whatever remains are closed loops.
+        for (boolean odd : new boolean[] {true, false}) {
+            for (Map.Entry<GridPoint, List<Integer>> entry : segmentsAtPoint.entrySet()) {
+                int degree = entry.getValue().size();
+                if (degree == 2 || (degree%2 == 1) != odd) continue;
+                while (hasUnused(entry.getValue(), used)) {
+                    polylines.add(chainFrom(entry.getKey(), unique, segmentsAtPoint, used));
+                }
+            }
+        }
+        for (int i = 0; i < unique.size(); i++) {
+            if (!used[i]) {
+                polylines.add(chainFrom(unique.get(i).a(), unique, segmentsAtPoint, used));
+            }
+        }
+        return polylines;
+    }
+
+    /**
+     * Whether two coordinates are snapped to the same place on the grid when merging, so
+     * lines at the two coordinates would be merged into one.
+     */
+    public static boolean isSnappedTogether(double a, double b) {
+        return Math.round(a*STEPS_PER_UNIT) == Math.round(b*STEPS_PER_UNIT);
+    }
+
+    /**
+     * Count the number of segments needed to draw the polylines.
+     */
+    public static int segmentCount(List<Polyline> polylines) {
+        int count = 0;
+        for (Polyline p : polylines) {
+            count += p.isClosed() ? p.size() : p.size()-1;
+        }
+        return count;
+    }
+
+    private static List<GridSegment> deduplicate(Iterable<Segment> segments) {
+        Set<GridSegment> seen = new HashSet<>();
+        List<GridSegment> unique = new ArrayList<>();
+        for (Segment s : segments) {
+            GridPoint a = snap(s.x1(), s.y1());
+            GridPoint b = snap(s.x2(), s.y2());
+            // Segments that collapse to a point draw nothing
+            if (a.equals(b)) continue;
+            // Order the ends so a segment and its reverse look the same
+            GridSegment canonical = (compare(a, b) <= 0) ? new GridSegment(a, b) : new GridSegment(b, a);
+            if (seen.add(canonical)) unique.add(canonical);
+        }
+        return unique;
+    }
+
+    private static Polyline chainFrom(GridPoint start, List<GridSegment> segments,
+                                      Map<GridPoint, List<Integer>> segmentsAtPoint, boolean[] used) {
+        Polyline polyline = new Polyline();
+        List<GridPoint> points = new ArrayList<>();
+        // The points dropped from the straight run leading up to each point of the polyline
+        List<List<GridPoint>> droppedBefore = new ArrayList<>();
+        points.add(start);
+        droppedBefore.add(new ArrayList<>());
+
+        GridPoint current = start;
+        GridPoint previous = null;
+        while (true) {
+            int next = pickNext(current, previous, segments, segmentsAtPoint.get(current), used);
+            if (next < 0) break;
+            used[next] = true;
+            GridPoint following = segments.get(next).other(current);
+
+            // Extend a straight run rather than adding a point in the middle of it, as long as
+            // every point dropped from the run stays on the line it is extended to
+            int last = points.size()-1;
+            if (last > 0 && isStraightOn(points.get(last-1), current, following)
+                    && areAllOnLine(points.get(last-1), droppedBefore.get(last), following)) {
+                droppedBefore.get(last).add(current);
+                points.set(last, following);
+            } else {
+                points.add(following);
+                droppedBefore.add(new ArrayList<>());
+            }
+            previous = current;
+            current = following;
+            if (current.equals(start)) break;
+        }
+
+        // A chain which arrives back at its start is a closed loop
+        if (points.size() > 2 && points.get(points.size()-1).equals(start)) {
+            points.remove(points.size()-1);
+            List<GridPoint> closingRun = droppedBefore.remove(droppedBefore.size()-1);
+            // The start may itself sit in the middle of a straight run, made of the run that
+            // closes the loop and the run that leaves the start
+            if (points.size() > 2 && isStraightOn(points.get(points.size()-1), points.get(0), points.get(1))) {
+                List<GridPoint> run = new ArrayList<>(closingRun);
+                run.add(points.get(0));
+                run.addAll(droppedBefore.get(1));
+                if (areAllOnLine(points.get(points.size()-1), run, points.get(1))) points.remove(0);
+            }
+            polyline.setClosed(true);
+        }
+        for (GridPoint p : points) {
+            polyline.addPoint(p.realX(), p.realY());
+        }
+        return polyline;
+    }
+
+    /**
+     * Choose the unused segment at the current point to continue along, preferring the one
+     * which carries on most directly from the previous segment.
+     */
+    private static int pickNext(GridPoint current, GridPoint previous, List<GridSegment> segments,
+                                List<Integer> candidates, boolean[] used) {
+        int best = -1;
+        double bestAlignment = Double.NEGATIVE_INFINITY;
+        for (int i : candidates) {
+            if (used[i]) continue;
+            if (previous == null) return i;
+            GridPoint following = segments.get(i).other(current);
+            double alignment = alignment(previous, current, following);
+            if (alignment > bestAlignment) {
+                bestAlignment = alignment;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    // The cosine of the angle between the direction a->b and the direction b->c
+    private static double alignment(GridPoint a, GridPoint b, GridPoint c) {
+        double ux = b.x()-a.x(), uy = b.y()-a.y();
+        double vx = c.x()-b.x(), vy = c.y()-b.y();
+        return (ux*vx + uy*vy)/(Math.hypot(ux, uy)*Math.hypot(vx, vy));
+    }
+
+    // Whether b can be dropped from the path a->b->c, it has to lie on the line from a to c
+    // and the path mustn't double back on itself at b
+    private static boolean isStraightOn(GridPoint a, GridPoint b, GridPoint c) {
+        double ux = b.x()-a.x(), uy = b.y()-a.y();
+        double vx = c.x()-b.x(), vy = c.y()-b.y();
+        return ux*vx + uy*vy > 0 && distanceOffLine(a, b, c) <= COLLINEAR_TOLERANCE;
+    }
+
+    // Whether every one of the points lies on the line from a to c, so that a run which
+    // bends slightly at each point isn't straightened into a line that strays from them
+    private static boolean areAllOnLine(GridPoint a, List<GridPoint> points, GridPoint c) {
+        for (GridPoint b : points) {
+            if (distanceOffLine(a, b, c) > COLLINEAR_TOLERANCE) return false;
+        }
+        return true;
+    }
+
+    // How far b sits from the line through a and c
+    private static double distanceOffLine(GridPoint a, GridPoint b, GridPoint c) {
+        double ux = b.x()-a.x(), uy = b.y()-a.y();
+        double wx = c.x()-a.x(), wy = c.y()-a.y();
+        return Math.abs(wx*uy - wy*ux)/Math.hypot(wx, wy);
+    }
+
+    private static boolean hasUnused(List<Integer> segmentIndices, boolean[] used) {
+        for (int i : segmentIndices) {
+            if (!used[i]) return true;
+        }
+        return false;
+    }
+
+    private static GridPoint snap(double x, double y) {
+        return new GridPoint(Math.round(x*STEPS_PER_UNIT), Math.round(y*STEPS_PER_UNIT));
+    }
+
+    private static int compare(GridPoint a, GridPoint b) {
+        return (a.x() != b.x()) ? Long.compare(a.x(), b.x()) : Long.compare(a.y(), b.y());
+    }
+}
@@ -0,0 +1,119 @@
+package tessellator.tessellation.output;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+
+/**
+ * An object which writes an 8 bit greyscale PNG image a block of rows at a time, so an
+ * image never has to be held in memory as a whole.
+ *
+ * The image data of a PNG is a single zlib stream. Each block of rows is handed over
+ * already filtered and compressed as raw deflate data that ends on a byte boundary (a sync
+ * flush, or a finish for the last block), so blocks can be compressed independently and
+ * in parallel. The writer adds the zlib header, writes each block as its own IDAT chunk
+ * and keeps the running Adler-32 checksum of the uncompressed data for the zlib trailer.
+ */
+public class PngStreamWriter implements AutoCloseable {
+
+    private static final byte[] SIGNATURE = {(byte) 137, 80, 78, 71, 13, 10, 26, 10};
+    // The zlib header for deflate with a 32K window and the default compression level
+    private static final byte[] ZLIB_HEADER = {0x78, (byte) 0x9C};
+
+    private final DataOutputStream out;
+    private final Adler32 adler;
+    private boolean headerWritten;
+    private boolean isClosed;
+
+    public PngStreamWriter(OutputStream stream, int width, int height) throws IOException {
+        out = new DataOutputStream(stream);
+        adler = new Adler32();
+        headerWritten = false;
+        isClosed = false;
+
+        out.write(SIGNATURE);
+        DataChunk ihdr = new DataChunk();
+        ihdr.writeInt(width);
+        ihdr.writeInt(height);
+        ihdr.writeByte(8);  // bit depth
+        ihdr.writeByte(0);  // colour type, greyscale
+        ihdr.writeByte(0);  // compression method, deflate
+        ihdr.writeByte(0);  // filter method, adaptive
+        ihdr.writeByte(0);  // interlace method, none
+        writeChunk("IHDR", ihdr.toByteArray());
+    }
+
+    /**
+     * Write a block of rows.
+     *
+     * @param filtered The uncompressed rows, each starting with its filter type byte.
+     * @param compressed The rows compressed as raw deflate data ending on a byte boundary.
+     */
+    public void writeRows(byte[] filtered, byte[] compressed) throws IOException {
+        adler.update(filtered);
+        byte[] data = compressed;
+        if (!headerWritten) {
+            data = new byte[compressed.length + ZLIB_HEADER.length];
+            System.arraycopy(ZLIB_HEADER, 0, data, 0, ZLIB_HEADER.length);
+            System.arraycopy(compressed, 0, data, ZLIB_HEADER.length, compressed.length);
+            headerWritten = true;
+        }
+        writeChunk("IDAT", data);
+    }
+
+    /**
+     * Finish the zlib stream and the image. The last block of rows must have been
+     * compressed with a finish rather than a sync flush.
+     */
+    @Override
+    public void close() throws IOException {
+        if (isClosed) return;
+        isClosed = true;
+        DataChunk trailer = new DataChunk();
+        trailer.writeInt((int) adler.getValue());
+        writeChunk("IDAT", trailer.toByteArray());
+        writeChunk("IEND", new byte[0]);
+        out.close();
+    }
+
+    /**
+     * Close the stream without finishing the image, for when not every row could be written.
+     * Finishing it would give a file that looks like a whole image but is missing rows.
+     */
+    public void abort() {
+        if (isClosed) return;
+        isClosed = true;
+        try {
+            out.close();
+        } catch (IOException e) {
+            // The image is being thrown away, so there is nothing more to lose
+        }
+    }
+
+    private void writeChunk(String type, byte[] data) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        out.writeInt(data.length);
+        out.write(typeBytes);
+        out.write(data);
+        out.writeInt((int) crc.getValue());
+    }
+
+    // A small buffer for assembling the contents of a chunk
+    private static class DataChunk extends DataOutputStream {
+
+        DataChunk() {
+            super(new ByteArrayOutputStream());
+        }
+
+        byte[] toByteArray() {
+            return ((ByteArrayOutputStream) out).toByteArray();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package tessellator.tessellation.output;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An object which represents a path of connected straight segments that can be drawn
+ * in one stroke. If the polyline is closed then its last point joins back to its first.
+ */
+public class Polyline {
+
+    private final List<Double> xCoordinates;
+    private final List<Double> yCoordinates;
+    private boolean isClosed;
+
+    public Polyline() {
+        xCoordinates = new ArrayList<>();
+        yCoordinates = new ArrayList<>();
+        isClosed = false;
+    }
+
+    public Polyline(List<Double> xCoords, List<Double> yCoords, boolean isClosed) {
+        xCoordinates = xCoords;
+        yCoordinates = yCoords;
+        this.isClosed = isClosed;
+    }
+
+    public void addPoint(double x, double y) {
+        xCoordinates.add(x);
+        yCoordinates.add(y);
+    }
+
+    public List<Double> xCoords() {
+        return xCoordinates;
+    }
+
+    public List<Double> yCoords() {
+        return yCoordinates;
+    }
+
+    public int size() {
+        return xCoordinates.size();
+    }
+
+    public boolean isClosed() {
+        return isClosed;
+    }
+
+    public void setClosed(boolean isClosed) {
+        this.isClosed = isClosed;
+    }
+
+    public double startX() {
+        return xCoordinates.get(0);
+    }
+
+    public double startY() {
+        return yCoordinates.get(0);
+    }
+
+    // A closed polyline finishes where it started
+    public double endX() {
+        return isClosed ? startX() : xCoordinates.get(size()-1);
+    }
+
+    public double endY() {
+        return isClosed ? startY() : yCoordinates.get(size()-1);
+    }
+
+    /**
+     * A copy of the polyline which is drawn in the opposite direction. A closed polyline
+     * keeps its first point, so it still starts and finishes in the same place.
+     */
+    public Polyline reversed() {
+        List<Double> xs = new ArrayList<>(xCoordinates);
+        List<Double> ys = new ArrayList<>(yCoordinates);
+        int from = (isClosed && size() > 0) ? 1 : 0;
+        Collections.reverse(xs.subList(from, xs.size()));
+        Collections.reverse(ys.subList(from, ys.size()));
+        return new Polyline(xs, ys, isClosed);
+    }
+
+    /**
+     * The points of the polyline in the format of the points attribute of the svg
+     * polyline and polygon elements.
+     */
+    public String toPointsAttribute() {
+        StringBuilder pointsBuilder = new StringBuilder();
+        for (int i = 0; i < size(); i++) {
+            pointsBuilder.append(xCoordinates.get(i)).append(",").append(yCoordinates.get(i)).append(" ");
+        }
+        return pointsBuilder.toString().trim();
+    }
+}
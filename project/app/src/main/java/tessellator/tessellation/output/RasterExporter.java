@@ -0,0 +1,262 @@
+package tessellator.tessellation.output;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+
+/**
+ * An object which renders the paths of a tessellation to a PNG image of any size.
+ *
+ * The image is split into horizontal stripes. Each stripe is drawn with Java2D, filtered and
+ * compressed on a pool of threads, while the stripes are written to the file in order as soon
+ * as they are ready. Only a few stripes per thread are in flight at once, so the memory used
+ * depends on the width of the image and the number of threads, not on its height.
+ *
+ * The paths are either given up front, or produced by a chunked tessellation for each stripe
+ * as it is rendered, in which case the paths of the whole image are never in memory at once.
+ */
+public class RasterExporter {
+
+    // Roughly how many bytes of pixels each stripe holds
+    private static final int STRIPE_BYTES = 4 << 20;
+    // How many stripes per thread may be rendered ahead of the one being written
+    private static final int STRIPES_IN_FLIGHT_PER_THREAD = 2;
+
+    private final List<Polyline> paths;
+    private final ChunkedTessellation source;
+    private final double canvasWidth;
+    private final double canvasHeight;
+
+    /**
+     * @param paths The paths to draw, in the coordinates of the canvas.
+     * @param canvasWidth The width of the canvas the paths are drawn on.
+     * @param canvasHeight The height of the canvas the paths are drawn on.
+     */
+    public RasterExporter(List<Polyline> paths, double canvasWidth, double canvasHeight) {
+        this.paths = paths;
+        this.source = null;
+        this.canvasWidth = canvasWidth;
+        this.canvasHeight = canvasHeight;
+    }
+
+    /**
+     * @param source The tessellation which produces the paths of each stripe as it is rendered.
+     */
+    public RasterExporter(ChunkedTessellation source) {
+        this.paths = null;
+        this.source = source;
+        this.canvasWidth = source.getCanvasWidth();
+        this.canvasHeight = source.getCanvasHeight();
+    }
+
+    /**
+     * Render the paths as black lines on white and write them to a PNG file. The height of
+     * the image follows from the width and the proportions of the canvas.
+     *
+     * @param file The file to write to.
+     * @param pixelWidth The width of the image in pixels.
+     */
+    public void export(File file, int pixelWidth) throws IOException {
+        export(file, pixelWidth, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Render the paths to a PNG file with a set number of threads, for when several images
+     * are being rendered at once.
+     */
+    public void export(File file, int pixelWidth, int threads) throws IOException {
+        try {
+            export(new FileOutputStream(file), pixelWidth, threads);
+        } catch (IOException | RuntimeException e) {
+            // Whatever was written before the failure is removed, rather than left behind
+            file.delete();
+            throw e;
+        }
+    }
+
+    /**
+     * Render the paths to a PNG image written to a stream, which is closed once the image is
+     * written. If the image can't be rendered the stream is closed without the image being
+     * finished.
+     */
+    public void export(OutputStream stream, int pixelWidth, int threads) throws IOException {
+        double pixelsPerUnit = pixelWidth/canvasWidth;
+        int pixelHeight = Math.max(1, (int) Math.round(canvasHeight*pixelsPerUnit));
+        int stripeHeight = Math.max(1, Math.min(pixelHeight, STRIPE_BYTES/pixelWidth));
+        int stripeCount = (pixelHeight + stripeHeight - 1)/stripeHeight;
+
+        List<List<Path2D>> pathsByStripe = (source == null) ? bucketPaths(pixelsPerUnit, stripeHeight, stripeCount) : null;
+
+        PngStreamWriter writer = new PngStreamWriter(new BufferedOutputStream(stream), pixelWidth, pixelHeight);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        boolean isWritten = false;
+        try {
+            Deque<Future<Stripe>> inFlight = new ArrayDeque<>();
+            int nextToSubmit = 0;
+            for (int written = 0; written < stripeCount; written++) {
+                while (nextToSubmit < stripeCount && inFlight.size() < threads*STRIPES_IN_FLIGHT_PER_THREAD) {
+                    int index = nextToSubmit++;
+                    int top = index*stripeHeight;
+                    int rows = Math.min(stripeHeight, pixelHeight-top);
+                    boolean isLast = index == stripeCount-1;
+                    if (source == null) {
+                        List<Path2D> stripePaths = pathsByStripe.get(index);
+                        pathsByStripe.set(index, null);
+                        inFlight.add(pool.submit(() -> renderStripe(stripePaths, pixelsPerUnit, pixelWidth, top, rows, isLast)));
+                    } else {
+                        inFlight.add(pool.submit(() -> renderStripe(stripePathsFromSource(pixelsPerUnit, top, rows), pixelsPerUnit, pixelWidth, top, rows, isLast)));
+                    }
+                }
+                Stripe stripe = inFlight.poll().get();
+                writer.writeRows(stripe.filtered(), stripe.compressed());
+            }
+            isWritten = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("The export was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("A stripe of the image couldn't be rendered.", e.getCause());
+        } finally {
+            pool.shutdownNow();
+            if (!isWritten) writer.abort();
+        }
+        writer.close();
+    }
+
+    // The uncompressed and compressed rows of a stripe
+    private record Stripe(byte[] filtered, byte[] compressed) {}
+
+    /**
+     * Convert the paths into Java2D paths and sort them into the stripes they cross.
+     */
+    private List<List<Path2D>> bucketPaths(double pixelsPerUnit, int stripeHeight, int stripeCount) {
+        List<List<Path2D>> buckets = new ArrayList<>(stripeCount);
+        for (int i = 0; i < stripeCount; i++) buckets.add(new ArrayList<>());
+
+        double halfLine = halfLine(pixelsPerUnit);
+        for (Polyline p : paths) {
+            Path2D.Double path = toPath(p, pixelsPerUnit);
+            Rectangle2D bounds = path.getBounds2D();
+            double minY = bounds.getMinY();
+            double maxY = bounds.getMaxY();
+
+            int first = Math.max(0, (int) Math.floor((minY-halfLine)/stripeHeight));
+            int last = Math.min(stripeCount-1, (int) Math.floor((maxY+halfLine)/stripeHeight));
+            for (int i = first; i <= last; i++) buckets.get(i).add(path);
+        }
+        return buckets;
+    }
+
+    /**
+     * Ask the source for the paths of a stripe, including those just outside it whose lines
+     * are wide enough to reach into it.
+     */
+    private List<Path2D> stripePathsFromSource(double pixelsPerUnit, int top, int rows) {
+        double margin = halfLine(pixelsPerUnit)/pixelsPerUnit;
+        Rectangle2D region = new Rectangle2D.Double(-margin, top/pixelsPerUnit - margin,
+                                                    canvasWidth + 2*margin, rows/pixelsPerUnit + 2*margin);
+        List<Path2D> stripePaths = new ArrayList<>();
+        for (Polyline p : source.pathsIn(region)) {
+            stripePaths.add(toPath(p, pixelsPerUnit));
+        }
+        return stripePaths;
+    }
+
+    // Half the width of a line, so lines just outside a stripe still have their edge drawn
+    private static double halfLine(double pixelsPerUnit) {
+        return pixelsPerUnit/2 + 1;
+    }
+
+    // A polyline in image coordinates
+    private static Path2D.Double toPath(Polyline p, double pixelsPerUnit) {
+        Path2D.Double path = new Path2D.Double();
+        for (int i = 0; i < p.size(); i++) {
+            double x = p.xCoords().get(i)*pixelsPerUnit;
+            double y = p.yCoords().get(i)*pixelsPerUnit;
+            if (i == 0) path.moveTo(x, y); else path.lineTo(x, y);
+        }
+        if (p.isClosed()) path.closePath();
+        return path;
+    }
+
+    private static Stripe renderStripe(List<Path2D> stripePaths, double pixelsPerUnit, int width, int top, int rows, boolean isLast) {
+        BufferedImage image = new BufferedImage(width, rows, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, width, rows);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+        g.setColor(Color.BLACK);
+        // Lines are one canvas unit wide, the same as the default stroke width of the svg
+        g.setStroke(new BasicStroke((float) pixelsPerUnit));
+        g.translate(0, -top);
+        for (Path2D path : stripePaths) {
+            g.draw(path);
+        }
+        g.dispose();
+
+        byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        byte[] filtered = filterRows(pixels, width, rows);
+        return new Stripe(filtered, compress(filtered, isLast));
+    }
+
+    /**
+     * Apply the PNG 'sub' filter to each row, each pixel is stored as the difference from the
+     * pixel to its left, which leaves long runs of zeros for the deflater in line art.
+     */
+    private static byte[] filterRows(byte[] pixels, int width, int rows) {
+        byte[] filtered = new byte[rows*(width+1)];
+        for (int r = 0; r < rows; r++) {
+            int in = r*width;
+            int out = r*(width+1);
+            filtered[out] = 1;
+            filtered[out+1] = pixels[in];
+            for (int c = 1; c < width; c++) {
+                filtered[out+1+c] = (byte) (pixels[in+c] - pixels[in+c-1]);
+            }
+        }
+        return filtered;
+    }
+
+    // Compress to raw deflate data that ends on a byte boundary so stripes can be concatenated
+    private static byte[] compress(byte[] data, boolean isLast) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(data);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length/8 + 64);
+        byte[] buffer = new byte[64 << 10];
+        if (isLast) {
+            deflater.finish();
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+        } else {
+            int count;
+            do {
+                count = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                out.write(buffer, 0, count);
+            } while (count == buffer.length || !deflater.needsInput());
+        }
+        deflater.end();
+        return out.toByteArray();
+    }
+}
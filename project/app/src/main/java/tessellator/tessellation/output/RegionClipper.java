@@ -0,0 +1,74 @@
+package tessellator.tessellation.output;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An object which clips segments to one region of a grid of regions, so that writing out
+ * every region draws each segment once.
+ *
+ * A segment that crosses from one region into the next is split between them. A segment
+ * that lies along the edge two regions share would be inside both, so each region is taken
+ * to hold its top and left edges but not its bottom and right edges, except where those are
+ * the edges of the whole grid. After clipping, a piece which doesn't lie along an edge has
+ * its middle inside the region, so the piece is kept only if its middle is in the part of
+ * the region the region holds.
+ *
+ * Neighbouring tiles give their shared borders with slightly different rounding, so a border
+ * along an edge may come out just either side of it. A segment which PathMerger would snap
+ * onto an edge is moved exactly onto the edge before it is clipped, so every copy of it is
+ * held by the same region.
+ */
+public class RegionClipper {
+
+    private final Rectangle2D region;
+    private final BoundaryClipper clipper;
+    private final boolean isHoldingRightEdge;
+    private final boolean isHoldingBottomEdge;
+
+    /**
+     * @param region The region in canvas coordinates.
+     * @param isHoldingRightEdge Whether the right edge of the region is the right edge of the grid.
+     * @param isHoldingBottomEdge Whether the bottom edge of the region is the bottom edge of the grid.
+     */
+    public RegionClipper(Rectangle2D region, boolean isHoldingRightEdge, boolean isHoldingBottomEdge) {
+        this.region = region;
+        this.isHoldingRightEdge = isHoldingRightEdge;
+        this.isHoldingBottomEdge = isHoldingBottomEdge;
+        clipper = new BoundaryClipper(region);
+    }
+
+    /**
+     * Clip the segments to the region.
+     *
+     * @return The parts of the segments which belong to the region.
+     */
+    public List<Segment> clip(List<Segment> segments) {
+        List<Segment> clipped = new ArrayList<>();
+        List<Segment> aligned = new ArrayList<>(segments.size());
+        for (Segment s : segments) aligned.add(ontoEdges(s));
+        for (Segment s : clipper.clip(aligned)) {
+            if (holds((s.x1()+s.x2())/2, (s.y1()+s.y2())/2)) clipped.add(s);
+        }
+        return clipped;
+    }
+
+    // Move a segment that lies along an edge, give or take the rounding of the merge, onto it
+    private Segment ontoEdges(Segment s) {
+        double x1 = s.x1(), y1 = s.y1(), x2 = s.x2(), y2 = s.y2();
+        for (double x : new double[] {region.getMinX(), region.getMaxX()}) {
+            if (PathMerger.isSnappedTogether(x1, x) && PathMerger.isSnappedTogether(x2, x)) x1 = x2 = x;
+        }
+        for (double y : new double[] {region.getMinY(), region.getMaxY()}) {
+            if (PathMerger.isSnappedTogether(y1, y) && PathMerger.isSnappedTogether(y2, y)) y1 = y2 = y;
+        }
+        return new Segment(x1, y1, x2, y2);
+    }
+
+    private boolean holds(double x, double y) {
+        boolean isInColumn = x >= region.getMinX() && (x < region.getMaxX() || (isHoldingRightEdge && x == region.getMaxX()));
+        boolean isInRow = y >= region.getMinY() && (y < region.getMaxY() || (isHoldingBottomEdge && y == region.getMaxY()));
+        return isInColumn && isInRow;
+    }
+}
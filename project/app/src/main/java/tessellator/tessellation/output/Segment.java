@@ -0,0 +1,11 @@
+package tessellator.tessellation.output;
+
+/**
+ * A straight line segment between two points.
+ */
+public record Segment(double x1, double y1, double x2, double y2) {
+
+    public double length() {
+        return Math.hypot(x2-x1, y2-y1);
+    }
+}
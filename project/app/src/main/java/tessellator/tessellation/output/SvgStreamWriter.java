@@ -0,0 +1,120 @@
+package tessellator.tessellation.output;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+
+/**
+ * An object which writes an svg document of a tessellation a batch of paths at a time,
+ * so the paths never have to be held in memory or in a DOM as a whole.
+ *
+ * The start of the document (the svg element with the attributes of the original document
+ * and the boundary element) is written when the writer is created, each batch of paths is
+ * appended to the pattern group and the document is finished when the writer is closed.
+ */
+public class SvgStreamWriter implements AutoCloseable {
+
+    private static final String SVG_NS = "http://www.w3.org/2000/svg";
+
+    private final Writer out;
+
+    /**
+     * @param out Where the document is written to, closed along with the writer.
+     * @param svgRoot The svg element of the original document, its attributes are copied.
+     * @param boundary The boundary element of the original document, copied as it is.
+     */
+    public SvgStreamWriter(Writer out, Element svgRoot, Element boundary) throws IOException {
+        this(out, header(svgRoot, boundary));
+    }
+
+    /**
+     * @param out Where the document is written to, closed along with the writer.
+     * @param header The start of the document, as made by header().
+     */
+    public SvgStreamWriter(Writer out, String header) throws IOException {
+        this.out = out;
+        out.write(header);
+    }
+
+    /**
+     * The start of a document with the attributes of the svg element and the boundary element
+     * of the original document, up to the opening of the pattern group. Making the header once
+     * lets many documents be written from other threads without touching the original document.
+     */
+    public static String header(Element svgRoot, Element boundary) throws IOException {
+        return header(svgRoot, boundary, null);
+    }
+
+    /**
+     * The start of a document whose pattern group has a transform, see header(svgRoot, boundary).
+     *
+     * @param patternTransform The transform of the pattern group, or null for none.
+     */
+    public static String header(Element svgRoot, Element boundary, String patternTransform) throws IOException {
+        StringBuilder header = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<svg");
+        NamedNodeMap attributes = svgRoot.getAttributes();
+        boolean hasNamespace = false;
+        for (int i = 0; i < attributes.getLength(); i++) {
+            Attr attribute = (Attr) attributes.item(i);
+            if (attribute.getName().equals("xmlns")) hasNamespace = true;
+            header.append(" " + attribute.getName() + "=\"" + escape(attribute.getValue()) + "\"");
+        }
+        if (!hasNamespace) header.append(" xmlns=\"" + SVG_NS + "\"");
+        header.append(">\n");
+        if (boundary != null) header.append(elementToString(boundary) + "\n");
+        if (patternTransform == null) {
+            header.append("<g id=\"pattern\">\n");
+        } else {
+            header.append("<g id=\"pattern\" transform=\"" + escape(patternTransform) + "\">\n");
+        }
+        return header.toString();
+    }
+
+    /**
+     * Append paths to the pattern group.
+     */
+    public void writePaths(List<Polyline> paths) throws IOException {
+        for (Polyline polyline : paths) {
+            // Closed polylines such as the borders of tiles on the edge of the pattern become polygons
+            String tag = polyline.isClosed() ? "polygon" : "polyline";
+            out.write("<" + tag + " points=\"" + polyline.toPointsAttribute() + "\" fill=\"none\" stroke=\"black\"/>\n");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            out.write("</g>\n</svg>\n");
+        } finally {
+            out.close();
+        }
+    }
+
+    private static String elementToString(Element element) throws IOException {
+        try {
+            Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+            StringWriter writer = new StringWriter();
+            transformer.transform(new DOMSource(element), new StreamResult(writer));
+            return writer.toString();
+        } catch (TransformerException e) {
+            throw new IOException("The boundary element couldn't be written.", e);
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
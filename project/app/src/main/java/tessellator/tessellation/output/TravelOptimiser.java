@@ -0,0 +1,261 @@
+package tessellator.tessellation.output;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An object which reorders and reverses the paths of a drawing so that a pen plotter or
+ * laser spends as little time as possible travelling between them with the pen lifted.
+ *
+ * The order is built in two stages:
+ * 1. Nearest neighbour, starting at the origin the closest unvisited end of any path is
+ *    always visited next. The ends are kept in a uniform grid so that finding the closest
+ *    one only searches the cells around the pen.
+ * 2. 2-opt, runs of paths are reversed (both their order and the direction of each path)
+ *    whenever doing so shortens the travel. Only runs up to a fixed length are tried and the
+ *    passes stop once the time budget is spent, so large drawings still finish promptly.
+ */
+public class TravelOptimiser {
+
+    // The longest run of paths the 2-opt stage will try to reverse
+    private static final int WINDOW = 64;
+
+    /**
+     * The distance travelled with the pen lifted when drawing the paths in order,
+     * starting from the origin.
+     */
+    public static double travelDistance(List<Polyline> paths) {
+        double travel = 0;
+        double x = 0;
+        double y = 0;
+        for (Polyline p : paths) {
+            travel += Math.hypot(p.startX()-x, p.startY()-y);
+            x = p.endX();
+            y = p.endY();
+        }
+        return travel;
+    }
+
+    /**
+     * Order the paths to reduce the travel between them.
+     *
+     * @param paths The paths in their original order, these are left unchanged.
+     * @param timeBudgetMillis Roughly how long the improvement stage may run for.
+     * @param optimised The list the reordered (and possibly reversed) paths are added to.
+     * @return The travel distance before and after the paths were reordered.
+     */
+    public static TravelReport optimise(List<Polyline> paths, long timeBudgetMillis, List<Polyline> optimised) {
+        double before = travelDistance(paths);
+
+        List<Polyline> order = nearestNeighbourOrder(paths);
+        improveByTwoOpt(order, System.nanoTime() + timeBudgetMillis*1_000_000);
+
+        // Never make things worse than the original order
+        double after = travelDistance(order);
+        if (after > before) {
+            order = new ArrayList<>(paths);
+            after = before;
+        }
+        optimised.addAll(order);
+        return new TravelReport(paths.size(), before, after);
+    }
+
+    private static List<Polyline> nearestNeighbourOrder(List<Polyline> paths) {
+        List<Polyline> order = new ArrayList<>(paths.size());
+        if (paths.isEmpty()) return order;
+
+        List<Integer> remaining = new ArrayList<>(paths.size());
+        for (int i = 0; i < paths.size(); i++) remaining.add(i);
+        EndGrid grid = new EndGrid(paths, remaining, 0, 0);
+        int gridSize = remaining.size();
+        boolean[] visited = new boolean[paths.size()];
+        double x = 0;
+        double y = 0;
+        for (int n = 0; n < paths.size(); n++) {
+            // As paths are visited the grid empties and searches cover more empty cells, so
+            // the grid is rebuilt with larger cells whenever most of its paths are gone. The
+            // pen may have left the area of the paths that are left, so the grid covers it too.
+            int left = paths.size()-n;
+            if (left*4 < gridSize) {
+                remaining.removeIf(i -> visited[i]);
+                grid = new EndGrid(paths, remaining, x, y);
+                gridSize = left;
+            }
+            // The index of the closest path, negative when it should be drawn from its end
+            int nearest = grid.nearest(x, y);
+            int i = Math.abs(nearest)-1;
+            grid.remove(i);
+            visited[i] = true;
+            Polyline p = paths.get(i);
+            if (nearest < 0) p = p.reversed();
+            order.add(p);
+            x = p.endX();
+            y = p.endY();
+        }
+        return order;
+    }
+
+    private static void improveByTwoOpt(List<Polyline> order, long deadline) {
+        int n = order.size();
+        boolean improved = true;
+        while (improved && System.nanoTime() < deadline) {
+            improved = false;
+            for (int i = 0; i < n-1; i++) {
+                // The point the pen is at before the run starts
+                double ax = (i == 0) ? 0 : order.get(i-1).endX();
+                double ay = (i == 0) ? 0 : order.get(i-1).endY();
+                Polyline first = order.get(i);
+                for (int j = i+1; j < n && j <= i+WINDOW; j++) {
+                    Polyline last = order.get(j);
+                    double removed = Math.hypot(first.startX()-ax, first.startY()-ay);
+                    double added = Math.hypot(last.endX()-ax, last.endY()-ay);
+                    if (j+1 < n) {
+                        Polyline next = order.get(j+1);
+                        removed += Math.hypot(next.startX()-last.endX(), next.startY()-last.endY());
+                        added += Math.hypot(next.startX()-first.startX(), next.startY()-first.startY());
+                    }
+                    if (added < removed - 1e-9) {
+                        reverseRun(order, i, j);
+                        first = order.get(i);
+                        improved = true;
+                    }
+                }
+                if ((i & 255) == 0 && System.nanoTime() >= deadline) return;
+            }
+        }
+    }
+
+    // Reverse the order of the paths from i to j inclusive and the direction of each of them
+    private static void reverseRun(List<Polyline> order, int i, int j) {
+        Collections.reverse(order.subList(i, j+1));
+        for (int k = i; k <= j; k++) {
+            order.set(k, order.get(k).reversed());
+        }
+    }
+
+    /**
+     * A uniform grid holding both ends of a subset of the paths. The grid covers the pen's
+     * position as well as the ends, so searching outwards from the pen always reaches them.
+     */
+    private static class EndGrid {
+
+        // The most cells along either side of the grid
+        private static final int MAX_CELLS_PER_SIDE = 2048;
+
+        private final double cellSize;
+        private final double minX;
+        private final double minY;
+        // The cells are stored column by column, each holds the ends within it (or is null)
+        private final List<List<Integer>> cells;
+        private final int columns;
+        private final int rows;
+        private final List<Polyline> paths;
+        private final int maxRing;
+        private int endCount;
+
+        EndGrid(List<Polyline> paths, List<Integer> indices, double penX, double penY) {
+            this.paths = paths;
+            double loX = Double.POSITIVE_INFINITY, loY = Double.POSITIVE_INFINITY;
+            double hiX = Double.NEGATIVE_INFINITY, hiY = Double.NEGATIVE_INFINITY;
+            for (int i : indices) {
+                Polyline p = paths.get(i);
+                loX = Math.min(loX, Math.min(p.startX(), p.endX()));
+                loY = Math.min(loY, Math.min(p.startY(), p.endY()));
+                hiX = Math.max(hiX, Math.max(p.startX(), p.endX()));
+                hiY = Math.max(hiY, Math.max(p.startY(), p.endY()));
+            }
+            minX = Math.min(loX, penX);
+            minY = Math.min(loY, penY);
+            double width = Math.max(hiX, penX) - minX;
+            double height = Math.max(hiY, penY) - minY;
+            // Aim for a couple of ends per cell along the longer side, which keeps the number
+            // of cells down when the ends lie in a thin band
+            double longestSide = Math.max(width, height);
+            double size = longestSide/Math.ceil(Math.sqrt(Math.max(indices.size(), 1)));
+            size = Math.max(size, longestSide/MAX_CELLS_PER_SIDE);
+            // Every end is at the same point
+            if (!(size > 0)) size = 1;
+            cellSize = size;
+            columns = Math.min((int) Math.floor(width/cellSize) + 1, MAX_CELLS_PER_SIDE + 1);
+            rows = Math.min((int) Math.floor(height/cellSize) + 1, MAX_CELLS_PER_SIDE + 1);
+            maxRing = Math.max(columns, rows);
+
+            cells = new ArrayList<>(Collections.nCopies(columns*rows, (List<Integer>) null));
+            for (int i : indices) {
+                Polyline p = paths.get(i);
+                add(p.startX(), p.startY(), i+1);
+                if (!p.isClosed()) add(p.endX(), p.endY(), -(i+1));
+            }
+        }
+
+        /**
+         * Find the closest end of a path still in the grid, the result is the index of the path
+         * plus one, negated if the closest end is the end of the path rather than its start.
+         * Zero is only returned once the grid is empty.
+         */
+        int nearest(double x, double y) {
+            if (endCount == 0) return 0;
+            int cx = cell(x, minX, columns);
+            int cy = cell(y, minY, rows);
+            int best = 0;
+            double bestDistance = Double.POSITIVE_INFINITY;
+            for (int ring = 0; ring <= maxRing; ring++) {
+                // Nothing in this ring or beyond can beat an end closer than the ring's inner edge
+                if (best != 0 && (ring-1)*cellSize > bestDistance) break;
+                // Only the cells on the perimeter of the ring are searched
+                for (int gx = cx-ring; gx <= cx+ring; gx++) {
+                    boolean isSide = (gx == cx-ring || gx == cx+ring);
+                    int step = (isSide || ring == 0) ? 1 : 2*ring;
+                    for (int gy = cy-ring; gy <= cy+ring; gy += step) {
+                        if (gx < 0 || gy < 0 || gx >= columns || gy >= rows) continue;
+                        List<Integer> cellEnds = cells.get(gx*rows + gy);
+                        if (cellEnds == null) continue;
+                        for (int e : cellEnds) {
+                            Polyline p = paths.get(Math.abs(e)-1);
+                            double d = (e > 0) ? Math.hypot(p.startX()-x, p.startY()-y) : Math.hypot(p.endX()-x, p.endY()-y);
+                            if (d < bestDistance) {
+                                bestDistance = d;
+                                best = e;
+                            }
+                        }
+                    }
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Take both ends of a path out of the grid once it has been visited.
+         */
+        void remove(int i) {
+            Polyline p = paths.get(i);
+            removeEnd(p.startX(), p.startY(), i+1);
+            if (!p.isClosed()) removeEnd(p.endX(), p.endY(), -(i+1));
+        }
+
+        private void removeEnd(double x, double y, int end) {
+            List<Integer> cellEnds = cells.get(index(x, y));
+            cellEnds.remove(Integer.valueOf(end));
+            if (cellEnds.isEmpty()) cells.set(index(x, y), null);
+            endCount--;
+        }
+
+        private void add(double x, double y, int end) {
+            int index = index(x, y);
+            if (cells.get(index) == null) cells.set(index, new ArrayList<>(2));
+            cells.get(index).add(end);
+            endCount++;
+        }
+
+        private int index(double x, double y) {
+            return cell(x, minX, columns)*rows + cell(y, minY, rows);
+        }
+
+        private int cell(double coordinate, double min, int count) {
+            int cell = (int) Math.floor((coordinate-min)/cellSize);
+            // Rounding can put the far edge of the grid one cell past the last
+            return Math.min(Math.max(cell, 0), count-1);
+        }
+    }
+}
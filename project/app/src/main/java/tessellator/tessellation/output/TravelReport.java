@@ -0,0 +1,15 @@
+package tessellator.tessellation.output;
+
+/**
+ * The outcome of ordering the paths of a drawing, the travel distances are the total
+ * distance the pen moves while lifted, starting from the origin.
+ */
+public record TravelReport(int pathCount, double travelBefore, double travelAfter) {
+
+    /**
+     * The fraction of the original travel that was saved.
+     */
+    public double saving() {
+        return (travelBefore > 0) ? 1 - travelAfter/travelBefore : 0;
+    }
+}
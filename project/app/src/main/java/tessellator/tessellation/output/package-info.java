@@ -0,0 +1,9 @@
+package tessellator.tessellation.output;
+
+/**
+ * The 'output' package holds the classes which turn a tessellation (a list of tiles)
+ * into the geometry that is actually written out. Rather than writing every tile border
+ * and every piece of tile content as it was generated, the tessellation is broken down
+ * into straight segments, duplicate segments shared by neighbouring tiles are removed and
+ * connected segments are chained together into polylines.
+ */
@@ -0,0 +1,60 @@
+package tessellator.tessellation.tiling;
+
+/**
+ * An object which applies many affine transforms to the same set of points in one pass, for
+ * placing every instance of a seed tile at once.
+ *
+ * Each transform is given as the six coefficients of the matrix
+ * <pre>
+ *     [ m00 m01 m02 ]
+ *     [ m10 m11 m12 ]
+ * </pre>
+ * with the coefficients of all the transforms in separate arrays. The output holds, for each
+ * point in turn, that point under every transform, so the work for one point is a run of
+ * multiply-adds over contiguous arrays which is done with the Vector API when the
+ * jdk.incubator.vector module is available and with plain loops otherwise.
+ */
+public class AffineBatch {
+
+    private static final boolean IS_VECTOR_API_AVAILABLE = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    /**
+     * Transform the points by each of the transforms.
+     *
+     * @param transforms The number of transforms.
+     * @param xs The x coordinates of the points.
+     * @param ys The y coordinates of the points.
+     * @param points The number of points.
+     * @param outXs Receives the x coordinate of point p under transform t at p*transforms + t.
+     * @param outYs Receives the y coordinates in the same layout.
+     */
+    public static void transform(double[] m00, double[] m10, double[] m01, double[] m11, double[] m02, double[] m12,
+                                 int transforms, double[] xs, double[] ys, int points, double[] outXs, double[] outYs) {
+        if (IS_VECTOR_API_AVAILABLE) {
+            VectorAffineBatch.transform(m00, m10, m01, m11, m02, m12, transforms, xs, ys, points, outXs, outYs);
+        } else {
+            scalarTransform(m00, m10, m01, m11, m02, m12, transforms, xs, ys, points, outXs, outYs, 0);
+        }
+    }
+
+    public static boolean isVectorApiAvailable() {
+        return IS_VECTOR_API_AVAILABLE;
+    }
+
+    /**
+     * Transform the points one transform at a time, starting from the given transform. Also
+     * used by the vector kernel for the transforms left over after the last full vector.
+     */
+    static void scalarTransform(double[] m00, double[] m10, double[] m01, double[] m11, double[] m02, double[] m12,
+                                int transforms, double[] xs, double[] ys, int points, double[] outXs, double[] outYs, int from) {
+        for (int p = 0; p < points; p++) {
+            double x = xs[p];
+            double y = ys[p];
+            int row = p*transforms;
+            for (int t = from; t < transforms; t++) {
+                outXs[row+t] = m00[t]*x + m01[t]*y + m02[t];
+                outYs[row+t] = m10[t]*x + m11[t]*y + m12[t];
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package tessellator.tessellation.tiling;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An object which remembers where every copy of the seed goes before the rotation, scale and
+ * translation parameters are applied, so a change to those parameters only has to combine
+ * the new transform with each placement rather than grow the tessellation again.
+ *
+ * The placements are rigid transforms of the untransformed seed, kept in the order the
+ * tessellation grows in and grouped into levels (the stages of a rotation growth or the
+ * rings of a translation growth). The placements of a level start with all the placements of
+ * the level before it, so when the parameters change how much of the canvas the tessellation
+ * has to cover, levels are added to the end or the placements past the needed level are
+ * simply not used.
+ */
+class InstanceLattice {
+
+    // Each placement is a rotation followed by a translation, stored as cos, sin, x, y
+    private static final int COEFFICIENTS = 4;
+
+    private double[] placements;
+    private int count;
+    // How many placements there are up to and including each level
+    private final List<Integer> levelCounts;
+
+    private final boolean isRotational;
+    // The pivots of the next stage of a rotation growth
+    private List<Double> xPivots;
+    private List<Double> yPivots;
+    // The vectors which span the lattice of a translation growth, and the number of sides of the seed
+    private final Point2D.Double[] steps;
+    private final int sides;
+
+    private InstanceLattice(boolean isRotational, List<Double> xPivots, List<Double> yPivots, Point2D.Double[] steps, int sides) {
+        this.isRotational = isRotational;
+        this.xPivots = xPivots;
+        this.yPivots = yPivots;
+        this.steps = steps;
+        this.sides = sides;
+        placements = new double[COEFFICIENTS*64];
+        count = 0;
+        levelCounts = new ArrayList<>();
+        // Level 0 is the seed on its own
+        addPlacement(1, 0, 0, 0);
+        levelCounts.add(count);
+    }
+
+    /**
+     * A lattice grown by rotating everything so far 60 degrees about each of the vertices of
+     * its boundary, starting from the vertices of the seed.
+     */
+    static InstanceLattice rotational(List<Double> xVertices, List<Double> yVertices) {
+        return new InstanceLattice(true, new ArrayList<>(xVertices), new ArrayList<>(yVertices), null, 0);
+    }
+
+    /**
+     * A lattice grown by translating the seed in rings, each ring one step further out.
+     *
+     * @param steps The two vectors which span the lattice.
+     * @param sides The number of sides of the seed, which decides the shape of a ring.
+     */
+    static InstanceLattice translational(Point2D.Double[] steps, int sides) {
+        return new InstanceLattice(false, null, null, steps, sides);
+    }
+
+    /**
+     * Grow the lattice until it has the level.
+     */
+    void extendTo(int level) {
+        while (levelCounts.size() <= level) {
+            if (isRotational) {
+                addStage();
+            } else {
+                addRing(levelCounts.size());
+            }
+            levelCounts.add(count);
+        }
+    }
+
+    /**
+     * Hand the instancer every placement up to and including the level, each combined with the
+     * transform. The lattice must have been extended to the level.
+     */
+    void place(AffineTransform transform, int level, TileInstancer instancer) {
+        double a = transform.getScaleX(), b = transform.getShearX(), c = transform.getTranslateX();
+        double d = transform.getShearY(), e = transform.getScaleY(), f = transform.getTranslateY();
+        int placed = levelCounts.get(level);
+        for (int i = 0; i < placed; i++) {
+            int at = i*COEFFICIENTS;
+            double cos = placements[at];
+            double sin = placements[at+1];
+            double x = placements[at+2];
+            double y = placements[at+3];
+            instancer.add(a*cos + b*sin, d*cos + e*sin, b*cos - a*sin, e*cos - d*sin,
+                          a*x + b*y + c, d*x + e*y + f);
+        }
+    }
+
+    int countAt(int level) {
+        return levelCounts.get(level);
+    }
+
+    // The next stage of a rotation growth is everything so far followed by a copy of everything
+    // so far rotated about each pivot, the same order the tessellation has always grown in
+    private void addStage() {
+        int previous = count;
+        List<Double> nextXPivots = new ArrayList<>();
+        List<Double> nextYPivots = new ArrayList<>();
+        double angle = Math.toRadians(60);
+        for (int i = 0; i < xPivots.size(); i++) {
+            AffineTransform rotation = AffineTransform.getRotateInstance(angle, xPivots.get(i), yPivots.get(i));
+            double rCos = rotation.getScaleX();
+            double rSin = rotation.getShearY();
+            double rX = rotation.getTranslateX();
+            double rY = rotation.getTranslateY();
+            for (int j = 0; j < previous; j++) {
+                int at = j*COEFFICIENTS;
+                double cos = placements[at];
+                double sin = placements[at+1];
+                double x = placements[at+2];
+                double y = placements[at+3];
+                addPlacement(rCos*cos - rSin*sin, rSin*cos + rCos*sin, rCos*x - rSin*y + rX, rSin*x + rCos*y + rY);
+            }
+
+            // The pivot behind this one, rotated about this one, is a vertex of the next boundary
+            int behind = Math.floorMod(i-1, xPivots.size());
+            Point2D pivot = rotation.transform(new Point2D.Double(xPivots.get(behind), yPivots.get(behind)), null);
+            nextXPivots.add(pivot.getX());
+            nextYPivots.add(pivot.getY());
+        }
+        xPivots = nextXPivots;
+        yPivots = nextYPivots;
+    }
+
+    // Add the lattice points of a ring, for squares the edges of a ring run diagonally across
+    // the lattice and for hexagons the third direction of the lattice is the difference of the
+    // first two
+    private void addRing(int ring) {
+        for (int a = -ring; a <= ring; a++) {
+            if (sides == 6) {
+                int low = Math.max(-ring, -ring-a);
+                int high = Math.min(ring, ring-a);
+                if (Math.abs(a) == ring) {
+                    for (int b = low; b <= high; b++) addLatticePoint(a, b);
+                } else {
+                    addLatticePoint(a, low);
+                    if (high != low) addLatticePoint(a, high);
+                }
+            } else {
+                int b = ring - Math.abs(a);
+                addLatticePoint(a, b);
+                if (b != 0) addLatticePoint(a, -b);
+            }
+        }
+    }
+
+    private void addLatticePoint(int a, int b) {
+        addPlacement(1, 0, a*steps[0].x + b*steps[1].x, a*steps[0].y + b*steps[1].y);
+    }
+
+    private void addPlacement(double cos, double sin, double x, double y) {
+        if ((count+1)*COEFFICIENTS > placements.length) {
+            double[] grown = new double[placements.length*2];
+            System.arraycopy(placements, 0, grown, 0, placements.length);
+            placements = grown;
+        }
+        int at = count*COEFFICIENTS;
+        placements[at] = cos;
+        placements[at+1] = sin;
+        placements[at+2] = x;
+        placements[at+3] = y;
+        count++;
+    }
+}
@@ -1,15 +1,19 @@
 package tessellator.tessellation.tiling;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-
-import javafx.geometry.Point2D;
+import java.util.function.Consumer;
 
 import java.awt.Color;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
 
 import tessellator.editor.graph.block.category.Category;
 import tessellator.editor.preview.Drawing;
 import tessellator.editor.preview.TileCanvasCaretaker;
+import tessellator.profiling.TessellateEvent;
 
 /**
  * An object which generates a tessellation from a seed tile.
@@ -26,11 +30,21 @@ public class SeedTilingStrategy implements TilingStrategy {
     // The seed and it's fields never changes after class initialisation, for transformations
     // a copy of the seed it made and that copy is transformed.
     private Tile seed;
-    private Tile transformedSeed;
-    private List<Tile> tiles;
-    private double tileSideLength;
+    // Where every copy of the untransformed seed goes, grown as far as the parameters so far
+    // have needed, so changing the parameters doesn't mean growing the tessellation again
+    private InstanceLattice lattice;
 
     public SeedTilingStrategy() {
+        this(TileCanvasCaretaker.getDrawings());
+    }
+
+    /**
+     * A strategy whose seed is made from a collection of drawings rather than from the
+     * drawings of the editor, so a tessellation can be generated without the editor.
+     *
+     * @param drawings The drawing of the seed's border and the drawings of its contents.
+     */
+    public SeedTilingStrategy(Collection<Drawing> drawings) {
 
         xTranslation = 0;
         yTranslation = 0;
@@ -44,7 +58,7 @@ public class SeedTilingStrategy implements TilingStrategy {
          */
         Drawing seedDrawing = null;
         List<TileContent> seedContents = new ArrayList<>();
-        for (Drawing drawing: TileCanvasCaretaker.getDrawings()) {
+        for (Drawing drawing: drawings) {
             if (drawing.typeOfShape()==Category.TRIANGLE_TILE ||
                 drawing.typeOfShape()==Category.SQUARE_TILE ||
                 drawing.typeOfShape()==Category.HEXAGON_TILE) {
@@ -67,12 +81,22 @@ public class SeedTilingStrategy implements TilingStrategy {
         seed = new Tile(seedXCoordsCopy, seedYCoordsCopy, seedContents, isBorderVisible, seedDrawing.typeOfShape());
     }
 
+    // A strategy with the given seed, for copies
+    private SeedTilingStrategy(Tile seed) {
+        this.seed = seed;
+        xTranslation = 0;
+        yTranslation = 0;
+        rotation = 0;
+        scale = 1;
+    }
+
     @Override
     public void setCanvasDimensions(double width, double height) {
         canvasWidth = width;
         canvasHeight = height;
         if (seed==null) return;
         normaliseSeed();
+        lattice = null;
     }
     
     /**
@@ -100,8 +124,9 @@ public class SeedTilingStrategy implements TilingStrategy {
         double minCanvasDimension = Math.min(canvasWidth, canvasHeight);
         scale = 0.05 * (minCanvasDimension / distanceBetweenVertices);
         
-        scale(seed);
-        translate(seed, xTrans, yTrans);
+        AffineTransform normalisation = AffineTransform.getTranslateInstance(xTrans, yTrans);
+        normalisation.concatenate(scaleAbout(centerX, centerY, scale));
+        transform(seed, normalisation);
 
         // restore transformation fields
         scale = 1;
@@ -124,143 +149,412 @@ public class SeedTilingStrategy implements TilingStrategy {
 
     @Override
     public List<Tile> tessellate() {
-        tiles = new ArrayList<>();
-        if (seed==null) return tiles; 
-        transformedSeed = transformSeed();
-        tiles.add(transformedSeed);
-        growSeed();
+        return tessellate(null);
+    }
+
+    /**
+     * Generate only the tiles of the tessellation whose bounds intersect the region. The
+     * tessellation covers the same area as the full tessellation however small the region
+     * is, so the tiles of a set of regions that cover the canvas are the tiles of the full
+     * tessellation. Nothing outside of the region is generated, so the cost and the memory
+     * used depend on the size of the region rather than on the size of the tessellation.
+     *
+     * Apart from growing the lattice of placements, which is done by one thread at a time, this
+     * method only reads the fields of the strategy, so it may be called from several threads at
+     * once as long as the strategy isn't changed while it is running.
+     *
+     * @param region The region in canvas coordinates, or null for every tile.
+     */
+    @Override
+    public List<Tile> tessellate(Rectangle2D region) {
+        List<Tile> tiles = new ArrayList<>();
+        tessellate(region, tiles::add);
         return tiles;
     }
 
-    private void growSeed() {
+    /**
+     * Generate the tiles which intersect the region and hand each one to the sink as soon as
+     * it is made, rather than collecting them, so the tiles can be written somewhere other
+     * than the heap as they are generated.
+     *
+     * @param region The region in canvas coordinates, or null for every tile.
+     * @param sink Where the tiles are handed to, in the same order tessellate() returns them.
+     */
+    @Override
+    public void tessellate(Rectangle2D region, Consumer<Tile> sink) {
+        if (seed==null) return;
+        TessellateEvent event = new TessellateEvent();
+        event.begin();
+        // The tiles are only counted while the event is being recorded
+        Consumer<Tile> countedSink = event.isEnabled() ? tile -> {
+            event.tilesGenerated++;
+            sink.accept(tile);
+        } : sink;
+        Tile transformedSeed = transformSeed();
+        if (region == null) {
+            placeFromLattice(transformedSeed, countedSink);
+        } else {
+            switch (seed.category()) {
+                case TRIANGLE_TILE:
+                    growSeedByRotation(transformedSeed, region, false, countedSink);
+                    break;
+                default:
+                    growSeedByTranslation(transformedSeed, region, false, countedSink);
+                    break;
+            }
+        }
+        event.seedShape = seed.category().toString();
+        event.wholeCanvas = region == null;
+        event.commit();
+    }
+
+    /**
+     * Generate the tiles which intersect the region as if the tessellation carried on past the
+     * edges of the canvas forever. Within the area the tessellation normally covers the tiles
+     * are the same as the ones tessellate gives, the growth is just carried on until it covers
+     * the region, so regions far from the canvas cost little more than ones on it.
+     *
+     * @param region The region in canvas coordinates.
+     * @param sink Where the tiles are handed to.
+     */
+    @Override
+    public void tessellateUnbounded(Rectangle2D region, Consumer<Tile> sink) {
+        if (seed==null) return;
+        Tile transformedSeed = transformSeed();
         switch (seed.category()) {
             case TRIANGLE_TILE:
-                growSeedByRotation(transformedSeed.xBorderCoords(), transformedSeed.yBorderCoords());
+                growSeedByRotation(transformedSeed, region, true, sink);
                 break;
             default:
-                growSeedByTranslation();
+                growSeedByTranslation(transformedSeed, region, true, sink);
                 break;
         }
     }
 
-    // This tessellation currently only works for triangles but if modified a little could work
-    // for squares but never hexagons.
-    private void growSeedByRotation(List<Double> xPivots, List<Double> yPivots) {
-        List<Double> nextXPivots = new ArrayList<>();
-        List<Double> nextYPivots = new ArrayList<>();
-        
-        List<List<Tile>> transformedTilesCopies = new ArrayList<>();
+    @Override
+    public Tile placedSeed() {
+        if (seed==null) return null;
+        return transformSeed();
+    }
 
-        double angle = 60;
+    @Override
+    public TilingStrategy copy() {
+        return copyWithSeed(seed==null ? null : seed.deepCopy());
+    }
 
-        /**
-         * For each pivot create a copy of the tiles collection and rotate the copy
-         * about the pivot. Once all the copies of the tiles are rotated, extend the
-         * original tiles collection with the contents of it's copies. Then update the
-         * pivots to the vertices of the new larger boundary of the shape. Repeat until
-         * distance between 2 pivots from the previous stage of recursion is bigger
-         * than than both canvas dimension.
-         */
-        for (int i = 0; i < xPivots.size(); i++) {
-            List<Tile> tilesCopy = deepCopyTiles();
-            for (int j = 0; j < tilesCopy.size(); j++) {
-                rotate(tilesCopy.get(j), xPivots.get(i), yPivots.get(i), angle);
-            }
-            transformedTilesCopies.add(tilesCopy);
+    /**
+     * The copy's seed has the same border and no contents, so generating a tile only costs
+     * the few vertices of its border however much is drawn inside the seed.
+     */
+    @Override
+    public TilingStrategy bordersOnly() {
+        if (seed==null) return copyWithSeed(null);
+        return copyWithSeed(new Tile(new ArrayList<>(seed.xBorderCoords()), new ArrayList<>(seed.yBorderCoords()),
+                                     new ArrayList<>(), seed.isBorderVisible(), seed.category()));
+    }
 
-            double xBehindPivot = xPivots.get(Math.floorMod(i-1, 3));
-            double yBehindPivot = yPivots.get(Math.floorMod(i-1, 3));
-            double[] pivot = rotateCoordinate(xBehindPivot, yBehindPivot, xPivots.get(i), yPivots.get(i), angle);
+    private SeedTilingStrategy copyWithSeed(Tile seed) {
+        SeedTilingStrategy copy = new SeedTilingStrategy(seed);
+        copy.canvasWidth = canvasWidth;
+        copy.canvasHeight = canvasHeight;
+        copy.xTranslation = xTranslation;
+        copy.yTranslation = yTranslation;
+        copy.rotation = rotation;
+        copy.scale = scale;
+        return copy;
+    }
 
-            nextXPivots.add(pivot[0]);
-            nextYPivots.add(pivot[1]);
+    @Override
+    public long seedFingerprint() {
+        if (seed==null) return 0;
+        long hash = seed.category().ordinal()*31L + (seed.isBorderVisible() ? 1 : 0);
+        hash = hashCoords(hash, seed.xBorderCoords(), seed.yBorderCoords());
+        for (TileContent content : seed.contents()) {
+            hash = hash*31 + content.category().ordinal();
+            hash = hashCoords(hash, content.xCoords(), content.yCoords());
         }
+        return hash;
+    }
 
-        for (List<Tile> tilesCopy : transformedTilesCopies) {
-            tiles.addAll(tilesCopy);
+    private long hashCoords(long hash, List<Double> xCoords, List<Double> yCoords) {
+        for (int i = 0; i < xCoords.size(); i++) {
+            hash = hash*31 + Double.doubleToLongBits(xCoords.get(i));
+            hash = hash*31 + Double.doubleToLongBits(yCoords.get(i));
         }
+        return hash;
+    }
 
-        // The exit condition for when the growing stops
+    /**
+     * Place every tile of the tessellation from the lattice of untransformed placements. The
+     * parameters only decide how many levels of the lattice are needed and the one transform
+     * every placement is combined with, so after a change of rotation or translation nothing
+     * is grown again and each tile costs one matrix. When the scale grows or shrinks how much
+     * of the canvas has to be covered, levels are added to the lattice or fewer are used.
+     *
+     * The tiles are the same as the ones growSeedByRotation and growSeedByTranslation make,
+     * apart from rounding, and for rotation growth they come in the same order. The rings of a
+     * translation growth are placed a ring at a time from the seed outwards.
+     */
+    private synchronized void placeFromLattice(Tile transformedSeed, Consumer<Tile> sink) {
+        int level;
+        if (seed.category() == Category.TRIANGLE_TILE) {
+            if (lattice == null) lattice = InstanceLattice.rotational(seed.xBorderCoords(), seed.yBorderCoords());
+            level = rotationStages(transformedSeed, null).size();
+        } else {
+            if (lattice == null) lattice = InstanceLattice.translational(latticeSteps(seed), seed.xBorderCoords().size());
+            level = translationRings(transformedSeed);
+        }
+        lattice.extendTo(level);
+
+        TileInstancer instancer = new TileInstancer(seed, null, sink);
+        lattice.place(seedTransformation(), level, instancer);
+        instancer.flush();
+    }
+
+    /**
+     * Grow the seed by repeatedly rotating the whole tessellation 60 degrees about each
+     * of the vertices of its boundary. This currently only works for triangles but if
+     * modified a little could work for squares but never hexagons.
+     *
+     * Every stage of the growth is the previous stage plus three rotated copies of it, so
+     * rather than building each stage in turn, the copies are descended into like a tree
+     * and any copy which can't reach the region is skipped along with everything inside it.
+     *
+     * If the growth is unbounded, stages are added until the region is covered as well.
+     */
+    private void growSeedByRotation(Tile transformedSeed, Rectangle2D region, boolean isUnbounded, Consumer<Tile> sink) {
+        List<AffineTransform[]> stageRotations = rotationStages(transformedSeed, isUnbounded ? region : null);
+
+        // The radius of a circle about the center of the seed which contains each stage
+        double[] center = tileCenter(transformedSeed.xBorderCoords(), transformedSeed.yBorderCoords());
+        double[] stageRadii = new double[stageRotations.size()+1];
+        stageRadii[0] = tileRadius(transformedSeed, center[0], center[1]);
+        for (int stage = 1; stage < stageRadii.length; stage++) {
+            stageRadii[stage] = stageRadii[stage-1];
+            for (AffineTransform rotation : stageRotations.get(stage-1)) {
+                Point2D rotatedCenter = rotation.transform(new Point2D.Double(center[0], center[1]), null);
+                stageRadii[stage] = Math.max(stageRadii[stage], rotatedCenter.distance(center[0], center[1]) + stageRadii[stage-1]);
+            }
+        }
+
+        TileInstancer instancer = new TileInstancer(transformedSeed, region, sink);
+        collectRotatedTiles(instancer, stageRotations, stageRadii, center, stageRotations.size(), new AffineTransform(), region);
+        instancer.flush();
+    }
+
+    // The rotations of each stage of a rotation growth about the transformed seed, carrying on
+    // until the region to cover is inside the boundary of the last stage if there is one
+    private List<AffineTransform[]> rotationStages(Tile transformedSeed, Rectangle2D cover) {
+        List<AffineTransform[]> stageRotations = new ArrayList<>();
+
+        List<Double> xPivots = transformedSeed.xBorderCoords();
+        List<Double> yPivots = transformedSeed.yBorderCoords();
+        double angle = 60;
+
+        /**
+         * The pivots of each stage are the vertices of the boundary of the previous stage.
+         * Stop adding stages once the distance between 2 pivots from the previous stage is
+         * bigger than both canvas dimensions.
+         */
         boolean exit = false;
-        for (int i = 0; i < xPivots.size(); i++) {
-            if (xPivots.get(i) >= canvasWidth ||
-                xPivots.get(i) <= 0 ||
-                yPivots.get(i) >= canvasHeight ||
-                yPivots.get(i) <= 0) {
-                    exit = true;
-            } else {
-                exit = false;
+        while (!exit) {
+            List<Double> nextXPivots = new ArrayList<>();
+            List<Double> nextYPivots = new ArrayList<>();
+            AffineTransform[] rotations = new AffineTransform[xPivots.size()];
+            for (int i = 0; i < xPivots.size(); i++) {
+                rotations[i] = AffineTransform.getRotateInstance(Math.toRadians(angle), xPivots.get(i), yPivots.get(i));
+
+                double xBehindPivot = xPivots.get(Math.floorMod(i-1, 3));
+                double yBehindPivot = yPivots.get(Math.floorMod(i-1, 3));
+                double[] pivot = rotateCoordinate(xBehindPivot, yBehindPivot, xPivots.get(i), yPivots.get(i), angle);
+                nextXPivots.add(pivot[0]);
+                nextYPivots.add(pivot[1]);
             }
+            stageRotations.add(rotations);
+
+            // The exit condition for when the growing stops
+            for (int i = 0; i < xPivots.size(); i++) {
+                if (xPivots.get(i) >= canvasWidth ||
+                    xPivots.get(i) <= 0 ||
+                    yPivots.get(i) >= canvasHeight ||
+                    yPivots.get(i) <= 0) {
+                        exit = true;
+                } else {
+                    exit = false;
+                }
+            }
+            if (cover != null && !triangleContains(nextXPivots, nextYPivots, cover)) exit = false;
+            xPivots = nextXPivots;
+            yPivots = nextYPivots;
         }
-        if (exit) return;
-        growSeedByRotation(nextXPivots, nextYPivots);
+        return stageRotations;
     }
 
-    // This works for squares and hexagons but doesn't work for triangles with some modifications
-    // that add rotations.
-    private void growSeedByTranslation() {
+    // Add the tiles of a stage of the growth, placed by the transform, in the order the
+    // stages were originally grown in: the previous stage then each of its rotated copies
+    private void collectRotatedTiles(TileInstancer instancer, List<AffineTransform[]> stageRotations, double[] stageRadii,
+                                     double[] center, int stage, AffineTransform placement, Rectangle2D region) {
+        if (region != null) {
+            Point2D placedCenter = placement.transform(new Point2D.Double(center[0], center[1]), null);
+            if (!circleIntersects(placedCenter.getX(), placedCenter.getY(), stageRadii[stage], region)) return;
+        }
+        if (stage == 0) {
+            instancer.add(placement);
+            return;
+        }
+        collectRotatedTiles(instancer, stageRotations, stageRadii, center, stage-1, placement, region);
+        for (AffineTransform rotation : stageRotations.get(stage-1)) {
+            AffineTransform rotated = new AffineTransform(placement);
+            rotated.concatenate(rotation);
+            collectRotatedTiles(instancer, stageRotations, stageRadii, center, stage-1, rotated, region);
+        }
+    }
 
-        List<Point2D> layerVertices = new ArrayList<>();
-        List<Point2D> centerTranslations = new ArrayList<>();
-        
-        // calculate the vertices of layer 0
+    /**
+     * Grow the seed by translating copies of it in rings around the seed. This works for
+     * squares and hexagons but doesn't work for triangles without some modifications that
+     * add rotations.
+     *
+     * Twice the vectors from the center of the seed to the midpoints of its first two edges
+     * span a lattice, every tile is the seed translated to a point of that lattice. A ring is
+     * the set of lattice points a number of steps away from the seed, so rather than walking
+     * each ring, the lattice points within the region are visited and those within the outer
+     * ring are kept.
+     *
+     * If the growth is unbounded there is no outer ring and every lattice point whose tile
+     * could reach the region is kept.
+     */
+    private void growSeedByTranslation(Tile transformedSeed, Rectangle2D region, boolean isUnbounded, Consumer<Tile> sink) {
         List<Double> xCoords = transformedSeed.xBorderCoords();
         List<Double> yCoords = transformedSeed.yBorderCoords();
+        int sides = xCoords.size();
 
         double[] center = tileCenter(xCoords, yCoords);
         double xCenter = center[0];
         double yCenter = center[1];
-
-        List<Double> originalXDifs = new ArrayList<>();
-        List<Double> originalYDifs = new ArrayList<>();
-       
-        for (int i = 0; i < xCoords.size(); i++) {
-            Point2D p1 = new Point2D(xCoords.get(i), yCoords.get(i));
-            int nextVertexIndex = Math.floorMod(i+1, xCoords.size());
-            Point2D p2 = new Point2D(xCoords.get(nextVertexIndex), yCoords.get(nextVertexIndex));
-            Point2D midPoint = calculateMidpoint(p1, p2);
-            double xdif = midPoint.getX() - xCenter;
-            originalXDifs.add(xdif*2);
-            double ydif = midPoint.getY() - yCenter;
-            originalYDifs.add(ydif*2);
-            Point2D vertex = new Point2D(xCenter+2*xdif, yCenter+2*ydif);
-            layerVertices.add(vertex);
-            centerTranslations.add(vertex);
-        } 
-        
-        double diameter = calculateDistance(new Point2D(xCenter, yCenter), new Point2D(xCoords.get(1), yCoords.get(1)))*2;
-        boolean exit = false;
-        int layer = 1;
-        // start loop at layer 1
-        while (!exit) {
-            // Set the vertices for the larger layer
-            for (int i = 0; i < layerVertices.size(); i++) {
-                Point2D p = layerVertices.get(i);
-                double xdif = p.getX() - xCenter + originalXDifs.get(i);
-                double ydif = p.getY() - yCenter + originalYDifs.get(i);
-                Point2D vertex = new Point2D(xCenter+xdif, yCenter+ydif);
-                layerVertices.set(i, vertex);
-                centerTranslations.add(vertex);
+        Point2D.Double[] steps = latticeSteps(transformedSeed);
+        int rings = isUnbounded ? Integer.MAX_VALUE : translationRings(transformedSeed);
+
+        // The range of lattice coordinates whose tiles could reach the region
+        int minA = -rings, maxA = rings, minB = -rings, maxB = rings;
+        double radius = tileRadius(transformedSeed, xCenter, yCenter);
+        if (region != null) {
+            double determinant = steps[0].x*steps[1].y - steps[0].y*steps[1].x;
+            double[] cornerXs = {region.getMinX()-radius, region.getMaxX()+radius};
+            double[] cornerYs = {region.getMinY()-radius, region.getMaxY()+radius};
+            double lowA = Double.POSITIVE_INFINITY, highA = Double.NEGATIVE_INFINITY;
+            double lowB = Double.POSITIVE_INFINITY, highB = Double.NEGATIVE_INFINITY;
+            for (double x : cornerXs) {
+                for (double y : cornerYs) {
+                    double dx = x-xCenter;
+                    double dy = y-yCenter;
+                    double a = (dx*steps[1].y - dy*steps[1].x)/determinant;
+                    double b = (steps[0].x*dy - steps[0].y*dx)/determinant;
+                    lowA = Math.min(lowA, a);
+                    highA = Math.max(highA, a);
+                    lowB = Math.min(lowB, b);
+                    highB = Math.max(highB, b);
+                }
             }
-            for (int i = 0; i < layerVertices.size(); i++) {
-                int nextVertexIndex = Math.floorMod(i+1, layerVertices.size());
-                List<Point2D> midPoints = calculateDivisionPoints(layerVertices.get(i), layerVertices.get(nextVertexIndex), layer);
-                centerTranslations.addAll(midPoints);
+            minA = (int) Math.max(minA, Math.floor(lowA));
+            maxA = (int) Math.min(maxA, Math.ceil(highA));
+            minB = (int) Math.max(minB, Math.floor(lowB));
+            maxB = (int) Math.min(maxB, Math.ceil(highB));
+        }
+
+        // Create a new tile for each lattice point, aligning the new tile's center with the point
+        TileInstancer instancer = new TileInstancer(transformedSeed, region, sink);
+        for (int a = minA; a <= maxA; a++) {
+            for (int b = minB; b <= maxB; b++) {
+                if (ringOf(a, b, sides) > rings) continue;
+                double xTrans = a*steps[0].x + b*steps[1].x;
+                double yTrans = a*steps[0].y + b*steps[1].y;
+                if (region != null && !circleIntersects(xCenter+xTrans, yCenter+yTrans, radius, region)) continue;
+                instancer.addTranslation(xTrans, yTrans);
             }
-            layer++;
-            if ((diameter*((layer+1)*2+1)/2)>Math.max(canvasWidth, canvasHeight)) {
-                exit = true;
+        }
+        instancer.flush();
+    }
+
+    // The two vectors which span the lattice of a tile
+    private Point2D.Double[] latticeSteps(Tile tile) {
+        List<Double> xCoords = tile.xBorderCoords();
+        List<Double> yCoords = tile.yBorderCoords();
+        double[] center = tileCenter(xCoords, yCoords);
+        Point2D.Double[] steps = new Point2D.Double[2];
+        for (int i = 0; i < 2; i++) {
+            Point2D p1 = new Point2D.Double(xCoords.get(i), yCoords.get(i));
+            Point2D p2 = new Point2D.Double(xCoords.get(i+1), yCoords.get(i+1));
+            Point2D midPoint = calculateMidpoint(p1, p2);
+            steps[i] = new Point2D.Double(2*(midPoint.getX()-center[0]), 2*(midPoint.getY()-center[1]));
+        }
+        return steps;
+    }
+
+    // Add rings until they are wider than the canvas
+    private int translationRings(Tile transformedSeed) {
+        List<Double> xCoords = transformedSeed.xBorderCoords();
+        List<Double> yCoords = transformedSeed.yBorderCoords();
+        double[] center = tileCenter(xCoords, yCoords);
+        double diameter = calculateDistance(new Point2D.Double(center[0], center[1]), new Point2D.Double(xCoords.get(1), yCoords.get(1)))*2;
+        int rings = 1;
+        do {
+            rings++;
+        } while ((diameter*((rings+1)*2+1)/2)<=Math.max(canvasWidth, canvasHeight));
+        return rings;
+    }
+
+    // The ring a lattice point is in, for squares the edges of a ring run diagonally across
+    // the lattice and for hexagons the third direction of the lattice is the difference of the
+    // first two
+    private int ringOf(int a, int b, int sides) {
+        if (sides == 6) {
+            return Math.max(Math.max(Math.abs(a), Math.abs(b)), Math.abs(a+b));
+        }
+        return Math.abs(a) + Math.abs(b);
+    }
+
+    // The furthest any point of the tile is from the given center
+    private double tileRadius(Tile tile, double xCenter, double yCenter) {
+        double radius = 0;
+        for (int i = 0; i < tile.xBorderCoords().size(); i++) {
+            radius = Math.max(radius, Math.hypot(tile.xBorderCoords().get(i)-xCenter, tile.yBorderCoords().get(i)-yCenter));
+        }
+        for (TileContent content : tile.contents()) {
+            for (int i = 0; i < content.xCoords().size(); i++) {
+                radius = Math.max(radius, Math.hypot(content.xCoords().get(i)-xCenter, content.yCoords().get(i)-yCenter));
             }
         }
-        
-        // Create a new tile for each center translation, aligning the new tile's center with the point
-        for (int i = 0; i < centerTranslations.size(); i++) {
-            double[] translation = new double[] {centerTranslations.get(i).getX()-xCenter, centerTranslations.get(i).getY()-yCenter};
-            Tile copy = transformedSeed.deepCopy();
-            translate(copy, translation[0], translation[1]);
-            tiles.add(copy);
+        return radius;
+    }
+
+    // Whether every corner of the region is inside the triangle
+    private boolean triangleContains(List<Double> xVertices, List<Double> yVertices, Rectangle2D region) {
+        double[] cornerXs = {region.getMinX(), region.getMaxX()};
+        double[] cornerYs = {region.getMinY(), region.getMaxY()};
+        for (double x : cornerXs) {
+            for (double y : cornerYs) {
+                boolean hasNegative = false, hasPositive = false;
+                for (int i = 0; i < 3; i++) {
+                    double x1 = xVertices.get(i), y1 = yVertices.get(i);
+                    double x2 = xVertices.get((i+1)%3), y2 = yVertices.get((i+1)%3);
+                    double side = (x2-x1)*(y-y1) - (y2-y1)*(x-x1);
+                    if (side < 0) hasNegative = true;
+                    if (side > 0) hasPositive = true;
+                }
+                if (hasNegative && hasPositive) return false;
+            }
         }
-        
+        return true;
+    }
+
+    // Whether the square around a circle intersects the region. The bounds of a tile inside the
+    // circle lie within the square, so a tile can only intersect the region if the square does
+    private boolean circleIntersects(double x, double y, double radius, Rectangle2D region) {
+        // A little slack so tiles that only just touch the region aren't lost to rounding
+        double reach = radius + 1e-6;
+        return x+reach >= region.getMinX() && x-reach <= region.getMaxX() &&
+               y+reach >= region.getMinY() && y-reach <= region.getMaxY();
     }
 
     // Method to calculate the distance between two points
@@ -274,34 +568,7 @@ public class SeedTilingStrategy implements TilingStrategy {
     private Point2D calculateMidpoint(Point2D p1, Point2D p2) {
         double midX = (p1.getX() + p2.getX()) / 2.0;
         double midY = (p1.getY() + p2.getY()) / 2.0;
-        return new Point2D(midX, midY);
-    }
-
-    // Method to calculate division points between two given points
-    private List<Point2D> calculateDivisionPoints(Point2D p1, Point2D p2, int divisions) {
-        List<Point2D> divisionPoints = new ArrayList<>();
-
-        // Calculate the step size for interpolation
-        double stepX = (p2.getX() - p1.getX()) / (divisions + 1);
-        double stepY = (p2.getY() - p1.getY()) / (divisions + 1);
-
-        // Calculate division points
-        for (int i = 1; i <= divisions; i++) {
-            double x = p1.getX() + i * stepX;
-            double y = p1.getY() + i * stepY;
-            divisionPoints.add(new Point2D(x, y));
-        }
-
-        return divisionPoints;
-    }
-
-    private List<Tile> deepCopyTiles() {
-        List<Tile> deepCopyList = new ArrayList<>();
-        for (Tile tile : tiles) {
-            Tile tileCopy = tile.deepCopy();
-            deepCopyList.add(tileCopy);
-        }
-        return deepCopyList;
+        return new Point2D.Double(midX, midY);
     }
 
     public double[] rotateCoordinate(double x, double y, double pivotX, double pivotY, double angleInDegrees) {
@@ -316,140 +583,52 @@ public class SeedTilingStrategy implements TilingStrategy {
     private Tile transformSeed() {
         // copy seed
         Tile seedCopy = seed.deepCopy();
-        double[] center = tileCenter(seedCopy.xBorderCoords(), seedCopy.yBorderCoords());
-        double seedCenterX = center[0];
-        double seedCenterY = center[1];
-
-        // apply transformations to the seed
-        rotate(seedCopy, seedCenterX, seedCenterY);
-        scale(seedCopy);
-        translate(seedCopy);
-
+        transform(seedCopy, seedTransformation());
         return seedCopy;
     }
 
-    private void translate(Tile tile) {
-        translate(tile, xTranslation*tileSideLength, yTranslation*tileSideLength);
-    }
-
-    private void translate(Tile tile, double xAmount, double yAmount) {
-        // Translate the border of the tile
-        List<Double> xBorderCoords = tile.xBorderCoords();
-        List<Double> yBorderCoords = tile.yBorderCoords();
-
-        for (int i = 0; i < xBorderCoords.size(); i++) {
-            double newX = xBorderCoords.get(i) + xAmount;
-            double newY = yBorderCoords.get(i) + yAmount;
-            xBorderCoords.set(i, newX);
-            yBorderCoords.set(i, newY);
-        }
-
-        // Translate the contents of the tile
-        for (int i = 0; i < tile.contents().size(); i++) {
-            TileContent content = tile.contents().get(i);
-            List<Double> xCoords = content.xCoords();
-            List<Double> yCoords = content.yCoords();
-
-            for (int j = 0; j < xCoords.size(); j++) {
-                double newX = xCoords.get(j) + xAmount;
-                double newY = yCoords.get(j) + yAmount;
-                xCoords.set(j, newX);
-                yCoords.set(j, newY);
-            }
-        }
-    }
-
-    private void rotate(Tile tile, double xPivot, double yPivot, double angleDegrees) {
-        
-        double angleRadians = Math.toRadians(angleDegrees);
-
-        // Rotate the border of the tile
-        List<Double> xBorderCoords = tile.xBorderCoords();
-        List<Double> yBorderCoords = tile.yBorderCoords();
-
-        for (int i = 0; i < xBorderCoords.size(); i++) {
-            double x = xBorderCoords.get(i);
-            double y = yBorderCoords.get(i);
-
-            double rotatedX = xPivot + (x - xPivot) * Math.cos(angleRadians) - (y - yPivot) * Math.sin(angleRadians);
-            double rotatedY = yPivot + (x - xPivot) * Math.sin(angleRadians) + (y - yPivot) * Math.cos(angleRadians);
-
-            xBorderCoords.set(i, rotatedX);
-            yBorderCoords.set(i, rotatedY);
-        }
-
-        // Rotate the contents of the tile
-        // Iterate through each shape within the tile
-        for (int i = 0; i < tile.contents().size(); i++) {
-            TileContent content = tile.contents().get(i);
-            List<Double> xCoords = content.xCoords();
-            List<Double> yCoords = content.yCoords();
-
-            // Iterate through each point within a shape
-            for (int j = 0; j < xCoords.size(); j++) {
-                
-                double x = xCoords.get(j);
-                double y = yCoords.get(j);
-
-                double rotatedX = xPivot + (x - xPivot) * Math.cos(angleRadians) - (y - yPivot) * Math.sin(angleRadians);
-                double rotatedY = yPivot + (x - xPivot) * Math.sin(angleRadians) + (y - yPivot) * Math.cos(angleRadians);
+    // The transform the parameters apply to the seed
+    private AffineTransform seedTransformation() {
+        double[] center = tileCenter(seed.xBorderCoords(), seed.yBorderCoords());
+        double seedCenterX = center[0];
+        double seedCenterY = center[1];
 
-                xCoords.set(j, rotatedX);
-                yCoords.set(j, rotatedY);
-            }
-        }
+        // The translation is measured in side lengths of the scaled seed
+        double tileSideLength = calculateDistance(new Point2D.Double(seed.xBorderCoords().get(0), seed.yBorderCoords().get(0)),
+                                new Point2D.Double(seed.xBorderCoords().get(1), seed.yBorderCoords().get(1)))*scale;
 
+        // Rotate about the center, then scale about the center, then translate, as one matrix
+        // so the sine and cosine of the rotation are only worked out once
+        AffineTransform transformation = AffineTransform.getTranslateInstance(xTranslation*tileSideLength, yTranslation*tileSideLength);
+        transformation.concatenate(scaleAbout(seedCenterX, seedCenterY, scale));
+        transformation.concatenate(AffineTransform.getRotateInstance(Math.toRadians(rotation), seedCenterX, seedCenterY));
+        return transformation;
     }
 
-    private void rotate(Tile tile, double xPivot, double yPivot) {
-        rotate(tile, xPivot, yPivot, rotation);
+    private AffineTransform scaleAbout(double xCenter, double yCenter, double amount) {
+        AffineTransform scaling = AffineTransform.getTranslateInstance(xCenter, yCenter);
+        scaling.scale(amount, amount);
+        scaling.translate(-xCenter, -yCenter);
+        return scaling;
     }
 
-    private void scale(Tile tile) {
-        double[] centroid = tileCenter(tile.xBorderCoords(), tile.yBorderCoords());
-        double centroidX = centroid[0];
-        double centroidY = centroid[1];
-
-        tileSideLength = calculateDistance(new Point2D(tile.xBorderCoords().get(0), tile.yBorderCoords().get(0)),
-                         new Point2D(tile.xBorderCoords().get(1), tile.yBorderCoords().get(1)))*scale;
-
-        // Scale the border of the tile
-        List<Double> xBorderCoords = tile.xBorderCoords();
-        List<Double> yBorderCoords = tile.yBorderCoords();
-
-        for (int i = 0; i < xBorderCoords.size(); i++) {
-            double x = xBorderCoords.get(i);
-            double y = yBorderCoords.get(i);
-            // Calculate vector from centroid to vertex
-            double dx = x - centroidX;
-            double dy = y - centroidY;
-            // Scale down the length of the vector
-            dx *= scale;
-            dy *= scale;
-            // Update coordinates of the vertex
-            xBorderCoords.set(i, centroidX + dx);
-            yBorderCoords.set(i, centroidY + dy);
+    // Apply a transform to the border and the contents of a tile
+    private void transform(Tile tile, AffineTransform transform) {
+        if (transform.isIdentity()) return;
+        transform(tile.xBorderCoords(), tile.yBorderCoords(), transform);
+        for (TileContent content : tile.contents()) {
+            transform(content.xCoords(), content.yCoords(), transform);
         }
+    }
 
-        // Scale the contents of the tile
-        for (int i = 0; i < tile.contents().size(); i++) {
-            TileContent content = tile.contents().get(i);
-            List<Double> xCoords = content.xCoords();
-            List<Double> yCoords = content.yCoords();
-
-            for (int j = 0; j < xCoords.size(); j++) {
-                double x = xCoords.get(j);
-                double y = yCoords.get(j);
-                // Calculate vector from centroid to vertex
-                double dx = x - centroidX;
-                double dy = y - centroidY;
-                // Scale down the length of the vector
-                dx *= scale;
-                dy *= scale;
-                // Update coordinates of the vertex
-                xCoords.set(j, centroidX + dx);
-                yCoords.set(j, centroidY + dy);
-            }
+    private void transform(List<Double> xCoords, List<Double> yCoords, AffineTransform transform) {
+        double[] point = new double[2];
+        for (int i = 0; i < xCoords.size(); i++) {
+            point[0] = xCoords.get(i);
+            point[1] = yCoords.get(i);
+            transform.transform(point, 0, point, 0, 1);
+            xCoords.set(i, point[0]);
+            yCoords.set(i, point[1]);
         }
     }
 
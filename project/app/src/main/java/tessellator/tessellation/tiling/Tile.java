@@ -1,5 +1,6 @@
 package tessellator.tessellation.tiling;
 
+import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -45,6 +46,30 @@ public class Tile {
         return shapeOfTile;
     }
 
+    /**
+     * The bounds of the border and the contents of the tile. Horizontal and vertical tiles
+     * are given a tiny size so they still have an area to intersect anything.
+     */
+    public Rectangle2D bounds() {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < borderXCoords.size(); i++) {
+            minX = Math.min(minX, borderXCoords.get(i));
+            minY = Math.min(minY, borderYCoords.get(i));
+            maxX = Math.max(maxX, borderXCoords.get(i));
+            maxY = Math.max(maxY, borderYCoords.get(i));
+        }
+        for (TileContent content : contents) {
+            for (int i = 0; i < content.xCoords().size(); i++) {
+                minX = Math.min(minX, content.xCoords().get(i));
+                minY = Math.min(minY, content.yCoords().get(i));
+                maxX = Math.max(maxX, content.xCoords().get(i));
+                maxY = Math.max(maxY, content.yCoords().get(i));
+            }
+        }
+        return new Rectangle2D.Double(minX, minY, maxX-minX+1e-9, maxY-minY+1e-9);
+    }
+
     public Tile deepCopy() {
         List<Double> borderXCoordsCopy = new ArrayList<>(borderXCoords); // Create a copy of borderXCoords
         List<Double> borderYCoordsCopy = new ArrayList<>(borderYCoords); // Create a copy of borderYCoords
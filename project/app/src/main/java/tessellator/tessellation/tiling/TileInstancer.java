@@ -0,0 +1,137 @@
+package tessellator.tessellation.tiling;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * An object which turns placements of a seed tile into tiles a batch at a time.
+ *
+ * The vertices of the seed (its border followed by each of its contents) are packed into
+ * arrays once. Placements are collected until a batch is full, then every vertex is put
+ * through every placement in one call to the batch transform and the tiles are built from
+ * the results, in the order the placements were added.
+ */
+class TileInstancer {
+
+    private static final int BATCH_SIZE = 512;
+
+    private final Tile seed;
+    private final Rectangle2D region;
+    private final Consumer<Tile> sink;
+
+    // The packed vertices of the seed and where each part of the seed starts within them
+    private final double[] seedXs;
+    private final double[] seedYs;
+    private final int[] partStarts;
+
+    // The coefficients of the placements in the current batch
+    private final double[] m00 = new double[BATCH_SIZE];
+    private final double[] m10 = new double[BATCH_SIZE];
+    private final double[] m01 = new double[BATCH_SIZE];
+    private final double[] m11 = new double[BATCH_SIZE];
+    private final double[] m02 = new double[BATCH_SIZE];
+    private final double[] m12 = new double[BATCH_SIZE];
+    private int count;
+
+    private final double[] outXs;
+    private final double[] outYs;
+
+    /**
+     * @param seed The tile being placed, it isn't changed.
+     * @param region Tiles whose bounds don't intersect the region are dropped, null keeps every tile.
+     * @param sink Where the placed tiles are handed to.
+     */
+    TileInstancer(Tile seed, Rectangle2D region, Consumer<Tile> sink) {
+        this.seed = seed;
+        this.region = region;
+        this.sink = sink;
+
+        List<List<Double>> xParts = new ArrayList<>();
+        List<List<Double>> yParts = new ArrayList<>();
+        xParts.add(seed.xBorderCoords());
+        yParts.add(seed.yBorderCoords());
+        for (TileContent content : seed.contents()) {
+            xParts.add(content.xCoords());
+            yParts.add(content.yCoords());
+        }
+
+        partStarts = new int[xParts.size()+1];
+        for (int i = 0; i < xParts.size(); i++) {
+            partStarts[i+1] = partStarts[i] + xParts.get(i).size();
+        }
+        int vertices = partStarts[xParts.size()];
+        seedXs = new double[vertices];
+        seedYs = new double[vertices];
+        for (int i = 0; i < xParts.size(); i++) {
+            for (int j = 0; j < xParts.get(i).size(); j++) {
+                seedXs[partStarts[i]+j] = xParts.get(i).get(j);
+                seedYs[partStarts[i]+j] = yParts.get(i).get(j);
+            }
+        }
+        outXs = new double[vertices*BATCH_SIZE];
+        outYs = new double[vertices*BATCH_SIZE];
+        count = 0;
+    }
+
+    /**
+     * Place a copy of the seed with a transform.
+     */
+    void add(AffineTransform placement) {
+        add(placement.getScaleX(), placement.getShearY(), placement.getShearX(), placement.getScaleY(),
+            placement.getTranslateX(), placement.getTranslateY());
+    }
+
+    /**
+     * Place a copy of the seed translated by an amount.
+     */
+    void addTranslation(double xAmount, double yAmount) {
+        add(1, 0, 0, 1, xAmount, yAmount);
+    }
+
+    /**
+     * Place a copy of the seed with the coefficients of a transform, in the order of
+     * {@link AffineTransform#getMatrix(double[])}.
+     */
+    void add(double a, double b, double c, double d, double e, double f) {
+        m00[count] = a;
+        m10[count] = b;
+        m01[count] = c;
+        m11[count] = d;
+        m02[count] = e;
+        m12[count] = f;
+        count++;
+        if (count == BATCH_SIZE) flush();
+    }
+
+    /**
+     * Build the tiles of the placements added since the last flush. Must be called once all
+     * the placements have been added.
+     */
+    void flush() {
+        if (count == 0) return;
+        AffineBatch.transform(m00, m10, m01, m11, m02, m12, count, seedXs, seedYs, seedXs.length, outXs, outYs);
+
+        List<TileContent> seedContents = seed.contents();
+        for (int t = 0; t < count; t++) {
+            List<TileContent> contents = new ArrayList<>(seedContents.size());
+            for (int i = 0; i < seedContents.size(); i++) {
+                contents.add(new TileContent(part(outXs, i+1, t), part(outYs, i+1, t), seedContents.get(i).category()));
+            }
+            Tile tile = new Tile(part(outXs, 0, t), part(outYs, 0, t), contents, seed.isBorderVisible(), seed.category());
+            if (region == null || region.intersects(tile.bounds())) sink.accept(tile);
+        }
+        count = 0;
+    }
+
+    // The coordinates of a part of the seed under one placement
+    private List<Double> part(double[] out, int part, int placement) {
+        List<Double> coords = new ArrayList<>(partStarts[part+1]-partStarts[part]);
+        for (int p = partStarts[part]; p < partStarts[part+1]; p++) {
+            coords.add(out[p*count + placement]);
+        }
+        return coords;
+    }
+}
@@ -0,0 +1,289 @@
+package tessellator.tessellation.tiling;
+
+import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import tessellator.editor.graph.block.category.Category;
+
+/**
+ * An object which holds the tiles of a tessellation outside of the heap, so tessellations
+ * with tens of millions of vertices can be generated once and read back without the heap
+ * growing with the size of the tessellation.
+ *
+ * Tiles are packed as raw doubles into direct byte buffers. Once a set amount of memory has
+ * been used, further buffers are mapped from a temporary file instead, so the operating
+ * system can page the tiles out to disk rather than the process running out of memory.
+ *
+ * The canvas is divided into horizontal bands and each tile is appended to the band its top
+ * lies in. A band is a chain of fixed-size blocks, so reading the tiles of a region only
+ * walks the blocks of the bands the region overlaps, in the order the tiles were written.
+ * The only things kept on the heap are the list of buffers and the first and last block of
+ * each band.
+ *
+ * Tiles are written by one thread. Once every tile has been written, the store may be read
+ * from several threads at once.
+ */
+public class TileStore implements AutoCloseable {
+
+    // The size of each buffer the blocks are carved out of
+    private static final int SLAB_SIZE = 8 << 20;
+    // The size of a block unless a single tile needs more room
+    private static final int BLOCK_SIZE = 16 << 10;
+    // A block starts with the address of the next block in its band and how many bytes it holds
+    private static final int BLOCK_HEADER = Long.BYTES + Integer.BYTES;
+    private static final long NO_BLOCK = -1;
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final double bandHeight;
+    private final long memoryLimit;
+    private final List<ByteBuffer> slabs;
+    private final TreeMap<Integer, Band> bands;
+    // How much of the last slab has been handed out to blocks
+    private int slabUsed;
+    private long directBytes;
+    private Path spillFile;
+    private FileChannel spillChannel;
+    // The tallest tile so far, a region has to look this far above itself for tiles that reach into it
+    private double maxTileHeight;
+    private long tileCount;
+    private long vertexCount;
+
+    // The first and last blocks of a band
+    private static class Band {
+        long first = NO_BLOCK;
+        long last = NO_BLOCK;
+    }
+
+    /**
+     * @param bandHeight The height of a band, roughly the height of the regions that will be read.
+     * @param memoryLimit How many bytes of direct memory to use before spilling to a memory-mapped
+     *                    temporary file, 0 to always use the file.
+     */
+    public TileStore(double bandHeight, long memoryLimit) {
+        this.bandHeight = bandHeight;
+        this.memoryLimit = memoryLimit;
+        slabs = new ArrayList<>();
+        bands = new TreeMap<>();
+        slabUsed = 0;
+        directBytes = 0;
+        maxTileHeight = 0;
+        tileCount = 0;
+        vertexCount = 0;
+    }
+
+    /**
+     * Copy a tile into the store. The tile itself isn't kept, so it can be thrown away.
+     */
+    public void append(Tile tile) {
+        Rectangle2D bounds = tile.bounds();
+        maxTileHeight = Math.max(maxTileHeight, bounds.getHeight());
+        Band band = bands.computeIfAbsent(band(bounds.getMinY()), k -> new Band());
+
+        int size = recordSize(tile);
+        if (band.last == NO_BLOCK || BLOCK_SIZE - used(band.last) < size) {
+            long block = allocateBlock(Math.max(BLOCK_SIZE, BLOCK_HEADER + size));
+            if (band.last == NO_BLOCK) {
+                band.first = block;
+            } else {
+                slab(band.last).putLong(offset(band.last), block);
+            }
+            band.last = block;
+        }
+
+        ByteBuffer slab = slab(band.last);
+        int blockOffset = offset(band.last);
+        int used = slab.getInt(blockOffset + Long.BYTES);
+        int at = blockOffset + used;
+        slab.putInt(at, size);
+        slab.putDouble(at + 4, bounds.getX());
+        slab.putDouble(at + 12, bounds.getY());
+        slab.putDouble(at + 20, bounds.getWidth());
+        slab.putDouble(at + 28, bounds.getHeight());
+        slab.put(at + 36, (byte) tile.category().ordinal());
+        slab.put(at + 37, (byte) (tile.isBorderVisible() ? 1 : 0));
+        at = putCoords(slab, at + 38, tile.xBorderCoords(), tile.yBorderCoords());
+        slab.putInt(at, tile.contents().size());
+        at += 4;
+        for (TileContent content : tile.contents()) {
+            slab.put(at, (byte) content.category().ordinal());
+            at = putCoords(slab, at + 1, content.xCoords(), content.yCoords());
+        }
+        slab.putInt(blockOffset + Long.BYTES, used + size);
+
+        tileCount++;
+        vertexCount += tile.xBorderCoords().size();
+        for (TileContent content : tile.contents()) vertexCount += content.xCoords().size();
+    }
+
+    /**
+     * Read back the tiles whose bounds intersect the region, each as a new tile.
+     *
+     * @param region The region in canvas coordinates, or null for every tile.
+     * @param sink Where the tiles are handed to, band by band in the order they were written.
+     */
+    public void forEachIn(Rectangle2D region, Consumer<Tile> sink) {
+        Map<Integer, Band> overlapping = bands;
+        if (region != null) {
+            overlapping = bands.subMap(band(region.getMinY() - maxTileHeight), true, band(region.getMaxY()), true);
+        }
+        for (Band band : overlapping.values()) {
+            for (long block = band.first; block != NO_BLOCK; block = slab(block).getLong(offset(block))) {
+                ByteBuffer slab = slab(block);
+                int blockOffset = offset(block);
+                int end = blockOffset + slab.getInt(blockOffset + Long.BYTES);
+                for (int at = blockOffset + BLOCK_HEADER; at < end; at += slab.getInt(at)) {
+                    // The bounds are checked before anything else is read, so tiles outside the region cost little
+                    if (region == null || region.intersects(slab.getDouble(at + 4), slab.getDouble(at + 12),
+                                                            slab.getDouble(at + 20), slab.getDouble(at + 28))) {
+                        sink.accept(readTile(slab, at));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The tiles whose bounds intersect the region.
+     */
+    public List<Tile> tilesIn(Rectangle2D region) {
+        List<Tile> tiles = new ArrayList<>();
+        forEachIn(region, tiles::add);
+        return tiles;
+    }
+
+    public long tileCount() {
+        return tileCount;
+    }
+
+    public long vertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Release the buffers and delete the temporary file if one was used. Direct buffers are
+     * freed once they are garbage collected.
+     */
+    @Override
+    public void close() {
+        slabs.clear();
+        bands.clear();
+        if (spillChannel == null) return;
+        try {
+            spillChannel.close();
+            Files.deleteIfExists(spillFile);
+        } catch (IOException e) {
+            // A file that is still mapped can't be deleted on some platforms
+            spillFile.toFile().deleteOnExit();
+        }
+        spillChannel = null;
+    }
+
+    private Tile readTile(ByteBuffer slab, int at) {
+        Category category = CATEGORIES[slab.get(at + 36)];
+        boolean isBorderVisible = slab.get(at + 37) == 1;
+        List<Double> xBorder = new ArrayList<>();
+        List<Double> yBorder = new ArrayList<>();
+        at = getCoords(slab, at + 38, xBorder, yBorder);
+        int contentCount = slab.getInt(at);
+        at += 4;
+        List<TileContent> contents = new ArrayList<>(contentCount);
+        for (int i = 0; i < contentCount; i++) {
+            Category contentCategory = CATEGORIES[slab.get(at)];
+            List<Double> xs = new ArrayList<>();
+            List<Double> ys = new ArrayList<>();
+            at = getCoords(slab, at + 1, xs, ys);
+            contents.add(new TileContent(xs, ys, contentCategory));
+        }
+        return new Tile(xBorder, yBorder, contents, isBorderVisible, category);
+    }
+
+    // The bytes a tile takes up: its size, bounds, category, border visibility, border and contents
+    private int recordSize(Tile tile) {
+        int size = 4 + 32 + 1 + 1 + 4 + 16*tile.xBorderCoords().size() + 4;
+        for (TileContent content : tile.contents()) {
+            size += 1 + 4 + 16*content.xCoords().size();
+        }
+        return size;
+    }
+
+    private int putCoords(ByteBuffer slab, int at, List<Double> xs, List<Double> ys) {
+        slab.putInt(at, xs.size());
+        at += 4;
+        for (int i = 0; i < xs.size(); i++) {
+            slab.putDouble(at, xs.get(i));
+            slab.putDouble(at + 8, ys.get(i));
+            at += 16;
+        }
+        return at;
+    }
+
+    private int getCoords(ByteBuffer slab, int at, List<Double> xs, List<Double> ys) {
+        int count = slab.getInt(at);
+        at += 4;
+        for (int i = 0; i < count; i++) {
+            xs.add(slab.getDouble(at));
+            ys.add(slab.getDouble(at + 8));
+            at += 16;
+        }
+        return at;
+    }
+
+    // Blocks never straddle two slabs, so a new slab is started when the last one is too full
+    private long allocateBlock(int size) {
+        if (size > SLAB_SIZE) throw new IllegalArgumentException("A tile is too large to be stored.");
+        if (slabs.isEmpty() || SLAB_SIZE - slabUsed < size) {
+            slabs.add(newSlab());
+            slabUsed = 0;
+        }
+        long block = (long) (slabs.size()-1)*SLAB_SIZE + slabUsed;
+        ByteBuffer slab = slabs.get(slabs.size()-1);
+        slab.putLong(slabUsed, NO_BLOCK);
+        slab.putInt(slabUsed + Long.BYTES, BLOCK_HEADER);
+        slabUsed += size;
+        return block;
+    }
+
+    private ByteBuffer newSlab() {
+        if (directBytes + SLAB_SIZE <= memoryLimit) {
+            directBytes += SLAB_SIZE;
+            return ByteBuffer.allocateDirect(SLAB_SIZE);
+        }
+        try {
+            if (spillChannel == null) {
+                spillFile = Files.createTempFile("tessellation", ".tiles");
+                spillChannel = FileChannel.open(spillFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+            long position = (long) (slabs.size())*SLAB_SIZE - directBytes;
+            return spillChannel.map(FileChannel.MapMode.READ_WRITE, position, SLAB_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("The tessellation couldn't be spilled to disk.", e);
+        }
+    }
+
+    private int used(long block) {
+        return slab(block).getInt(offset(block) + Long.BYTES);
+    }
+
+    private ByteBuffer slab(long address) {
+        return slabs.get((int) (address/SLAB_SIZE));
+    }
+
+    private int offset(long address) {
+        return (int) (address%SLAB_SIZE);
+    }
+
+    private int band(double y) {
+        return (int) Math.floor(y/bandHeight);
+    }
+}
@@ -1,6 +1,8 @@
 package tessellator.tessellation.tiling;
 
+import java.awt.geom.Rectangle2D;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * An interface that provides a template for tile strategies to follow.
@@ -11,6 +13,53 @@ public interface TilingStrategy {
 
     public List<Tile> tessellate();
 
+    /**
+     * Generate only the tiles of the tessellation which intersect the region.
+     *
+     * @param region The region in canvas coordinates, or null for every tile.
+     */
+    public List<Tile> tessellate(Rectangle2D region);
+
+    /**
+     * Generate the tiles of the tessellation which intersect the region, handing each tile
+     * to the sink as it is generated rather than collecting them.
+     *
+     * @param region The region in canvas coordinates, or null for every tile.
+     */
+    public void tessellate(Rectangle2D region, Consumer<Tile> sink);
+
+    /**
+     * Generate the tiles which intersect the region as if the tessellation carried on past
+     * the edges of the canvas forever, handing each tile to the sink as it is generated.
+     *
+     * @param region The region in canvas coordinates.
+     */
+    public void tessellateUnbounded(Rectangle2D region, Consumer<Tile> sink);
+
+    /**
+     * The seed with the transformations applied, the tile the tessellation is grown around,
+     * or null if there is no seed.
+     */
+    public Tile placedSeed();
+
+    /**
+     * A copy of the strategy with the same seed and transformations which isn't affected by
+     * later changes to this strategy.
+     */
+    public TilingStrategy copy();
+
+    /**
+     * A copy of the strategy like copy() whose tiles are generated without their contents,
+     * for when only the borders of the tiles are drawn.
+     */
+    public TilingStrategy bordersOnly();
+
+    /**
+     * A hash of the seed the tessellation is grown from, strategies with equal fingerprints
+     * and equal parameters generate the same tessellation.
+     */
+    public long seedFingerprint();
+
     public void setXTranslation(double amount);
 
     public void setYTranslation(double amount);
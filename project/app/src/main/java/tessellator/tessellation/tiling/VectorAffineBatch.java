@@ -0,0 +1,38 @@
+package tessellator.tessellation.tiling;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The Vector API version of the batch transform. It is kept apart from AffineBatch so that
+ * the incubator classes are only loaded when the module is available.
+ *
+ * The multiplies and adds are done in the same order as the scalar version rather than fused,
+ * so a point comes out the same to the last bit whichever version transforms it.
+ */
+class VectorAffineBatch {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    static void transform(double[] m00, double[] m10, double[] m01, double[] m11, double[] m02, double[] m12,
+                          int transforms, double[] xs, double[] ys, int points, double[] outXs, double[] outYs) {
+        int bound = SPECIES.loopBound(transforms);
+        for (int p = 0; p < points; p++) {
+            DoubleVector x = DoubleVector.broadcast(SPECIES, xs[p]);
+            DoubleVector y = DoubleVector.broadcast(SPECIES, ys[p]);
+            int row = p*transforms;
+            for (int t = 0; t < bound; t += SPECIES.length()) {
+                DoubleVector a = DoubleVector.fromArray(SPECIES, m00, t);
+                DoubleVector b = DoubleVector.fromArray(SPECIES, m01, t);
+                DoubleVector c = DoubleVector.fromArray(SPECIES, m02, t);
+                a.mul(x).add(b.mul(y)).add(c).intoArray(outXs, row+t);
+                DoubleVector d = DoubleVector.fromArray(SPECIES, m10, t);
+                DoubleVector e = DoubleVector.fromArray(SPECIES, m11, t);
+                DoubleVector f = DoubleVector.fromArray(SPECIES, m12, t);
+                d.mul(x).add(e.mul(y)).add(f).intoArray(outYs, row+t);
+            }
+        }
+        // The transforms that don't fill a whole vector
+        AffineBatch.scalarTransform(m00, m10, m01, m11, m02, m12, transforms, xs, ys, points, outXs, outYs, bound);
+    }
+}
@@ -0,0 +1,76 @@
+package tessellator.tessellation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.Color;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import tessellator.editor.graph.block.category.Category;
+import tessellator.editor.preview.Drawing;
+import tessellator.tessellation.output.BoundaryClipper;
+import tessellator.tessellation.output.PathMerger;
+import tessellator.tessellation.output.Polyline;
+import tessellator.tessellation.tiling.SeedTilingStrategy;
+import tessellator.tessellation.tiling.Tile;
+
+class TileStreamerTest {
+
+    private static double length(List<Polyline> paths) {
+        double length = 0;
+        for (Polyline p : paths) {
+            int segments = p.isClosed() ? p.size() : p.size()-1;
+            for (int i = 0; i < segments; i++) {
+                int j = (i+1) % p.size();
+                length += Math.hypot(p.xCoords().get(j)-p.xCoords().get(i), p.yCoords().get(j)-p.yCoords().get(i));
+            }
+        }
+        return length;
+    }
+
+    private static SeedTilingStrategy tiler(Category category, int sides, double rotation, double scale) {
+        List<Double> xs = new ArrayList<>();
+        List<Double> ys = new ArrayList<>();
+        // Squares are turned so their sides are level
+        double turn = (sides == 4) ? Math.PI/4 : 0;
+        for (int i = 0; i < sides; i++) {
+            xs.add(100 + 50*Math.cos(2*Math.PI*i/sides + turn));
+            ys.add(100 + 50*Math.sin(2*Math.PI*i/sides + turn));
+        }
+        SeedTilingStrategy tiler = new SeedTilingStrategy(List.of(new Drawing(xs, ys, List.of(), Color.BLACK, category, null)));
+        tiler.setCanvasDimensions(400, 300);
+        tiler.setRotation(rotation);
+        tiler.setScale(scale);
+        return tiler;
+    }
+
+    // The cells covering an area draw the same lines as the area drawn in one go. The area is
+    // a whole number of cells across and down, so the cells cover exactly the area.
+    private static void assertCellsDrawTheAreaOnce(SeedTilingStrategy tiler, double cellSize) {
+        Rectangle2D area = new Rectangle2D.Double(0, 0, 300, 150);
+        List<Tile> tiles = new ArrayList<>();
+        tiler.tessellateUnbounded(area, tiles::add);
+        double whole = length(PathMerger.merge(new BoundaryClipper(area).clip(PathMerger.segmentsOf(tiles))));
+
+        TileStreamer streamer = new TileStreamer(tiler, cellSize);
+        double streamed = 0;
+        for (TileStreamer.Cell cell : streamer.cellsIn(area)) {
+            streamed += length(streamer.pathsOf(cell));
+        }
+        assertEquals(whole, streamed, 0.01);
+    }
+
+    @Test
+    void squaresAlongTheEdgesOfCellsAreDrawnOnce() {
+        // The sides of the squares lie along the edges of every other cell
+        assertCellsDrawTheAreaOnce(tiler(Category.SQUARE_TILE, 4, 0, 1), 7.5);
+    }
+
+    @Test
+    void hexagonsAlongTheEdgesOfCellsAreDrawnOnce() {
+        assertCellsDrawTheAreaOnce(tiler(Category.HEXAGON_TILE, 6, 30, 0.5), 50);
+    }
+}
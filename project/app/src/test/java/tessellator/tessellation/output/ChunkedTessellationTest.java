@@ -0,0 +1,94 @@
+package tessellator.tessellation.output;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.Color;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import tessellator.editor.graph.block.category.Category;
+import tessellator.editor.preview.Drawing;
+import tessellator.tessellation.tiling.SeedTilingStrategy;
+
+class ChunkedTessellationTest {
+
+    private static final double CANVAS_WIDTH = 400;
+    private static final double CANVAS_HEIGHT = 300;
+    // Paths are cut where they cross from one chunk into the next, and each cut end is
+    // rounded onto the grid of the merge, so the lengths may differ by that rounding
+    private static final double ROUNDING = 0.01;
+
+    // A tiling of hexagons of radius 50
+    private static SeedTilingStrategy hexagons(double rotation, double scale) {
+        List<Double> xs = new ArrayList<>();
+        List<Double> ys = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            xs.add(100 + 50*Math.cos(Math.PI*i/3));
+            ys.add(100 + 50*Math.sin(Math.PI*i/3));
+        }
+        Drawing hexagon = new Drawing(xs, ys, List.of(), Color.BLACK, Category.HEXAGON_TILE, null);
+        SeedTilingStrategy tiler = new SeedTilingStrategy(List.of(hexagon));
+        tiler.setCanvasDimensions(CANVAS_WIDTH, CANVAS_HEIGHT);
+        tiler.setRotation(rotation);
+        tiler.setScale(scale);
+        return tiler;
+    }
+
+    private static double length(List<Polyline> paths) {
+        double length = 0;
+        for (Polyline p : paths) {
+            int segments = p.isClosed() ? p.size() : p.size()-1;
+            for (int i = 0; i < segments; i++) {
+                int j = (i+1) % p.size();
+                length += Math.hypot(p.xCoords().get(j)-p.xCoords().get(i), p.yCoords().get(j)-p.yCoords().get(i));
+            }
+        }
+        return length;
+    }
+
+    // The length of the chunked paths against the length of the paths of the whole canvas
+    private static void assertChunksDrawTheWholeCanvas(SeedTilingStrategy tiler, double chunkSize) {
+        BoundaryClipper clipper = new BoundaryClipper(new Rectangle2D.Double(0, 0, CANVAS_WIDTH, CANVAS_HEIGHT));
+        List<Segment> segments = PathMerger.segmentsOf(clipper.visibleTiles(tiler.tessellate()));
+        double whole = length(PathMerger.merge(clipper.clip(segments)));
+
+        double chunked = 0;
+        try (ChunkedTessellation tessellation = new ChunkedTessellation(tiler, clipper, CANVAS_WIDTH, CANVAS_HEIGHT, chunkSize)) {
+            for (Rectangle2D chunk : tessellation.chunks()) {
+                chunked += length(tessellation.pathsIn(chunk));
+            }
+        }
+        assertEquals(whole, chunked, ROUNDING);
+    }
+
+    @Test
+    void chunksDrawTheWholeCanvasOnce() {
+        assertChunksDrawTheWholeCanvas(hexagons(0, 1), 50);
+    }
+
+    @Test
+    void bordersAlongTheEdgesOfChunksAreDrawnOnce() {
+        // Rotated like this some borders lie along the edges of the chunks, and the copies of
+        // a border from the tiles either side of it are rounded either side of the edge
+        SeedTilingStrategy tiler = hexagons(30, 0.5);
+        assertChunksDrawTheWholeCanvas(tiler, 25);
+        assertChunksDrawTheWholeCanvas(tiler, 100);
+    }
+
+    @Test
+    void chunksReadFromTheStoreDrawTheWholeCanvasOnce() {
+        SeedTilingStrategy tiler = hexagons(30, 0.5);
+        BoundaryClipper clipper = new BoundaryClipper(new Rectangle2D.Double(0, 0, CANVAS_WIDTH, CANVAS_HEIGHT));
+        double generated = 0;
+        double stored = 0;
+        try (ChunkedTessellation tessellation = new ChunkedTessellation(tiler, clipper, CANVAS_WIDTH, CANVAS_HEIGHT, 50)) {
+            for (Rectangle2D chunk : tessellation.chunks()) generated += length(tessellation.pathsIn(chunk));
+            tessellation.storeTiles();
+            for (Rectangle2D chunk : tessellation.chunks()) stored += length(tessellation.pathsIn(chunk));
+        }
+        assertEquals(generated, stored, 1e-9);
+    }
+}
@@ -0,0 +1,78 @@
+package tessellator.tessellation.output;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PathMergerTest {
+
+    // The segments joining consecutive points, and the last point to the first if closed
+    private static List<Segment> segmentsThrough(double[] xs, double[] ys, boolean isClosed) {
+        List<Segment> segments = new ArrayList<>();
+        int count = isClosed ? xs.length : xs.length-1;
+        for (int i = 0; i < count; i++) {
+            int j = (i+1) % xs.length;
+            segments.add(new Segment(xs[i], ys[i], xs[j], ys[j]));
+        }
+        return segments;
+    }
+
+    // The distance from a point to the nearest segment of a polyline
+    private static double distanceTo(Polyline polyline, double x, double y) {
+        List<Double> xs = polyline.xCoords();
+        List<Double> ys = polyline.yCoords();
+        int count = polyline.isClosed() ? xs.size() : xs.size()-1;
+        double nearest = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            int j = (i+1) % xs.size();
+            double dx = xs.get(j)-xs.get(i), dy = ys.get(j)-ys.get(i);
+            double t = Math.max(0, Math.min(1, ((x-xs.get(i))*dx + (y-ys.get(i))*dy)/(dx*dx + dy*dy)));
+            nearest = Math.min(nearest, Math.hypot(xs.get(i) + t*dx - x, ys.get(i) + t*dy - y));
+        }
+        return nearest;
+    }
+
+    @Test
+    void collinearSegmentsBecomeOneSegment() {
+        double[] xs = {0, 1, 2, 3, 4, 5};
+        double[] ys = {0, 1, 2, 3, 4, 5};
+        List<Polyline> merged = PathMerger.merge(segmentsThrough(xs, ys, false));
+        assertEquals(1, merged.size());
+        assertEquals(2, merged.get(0).size());
+    }
+
+    @Test
+    void gentleCurveIsNotStraightenedAwayFromItsPoints() {
+        // A curve which flattens out, so each new point keeps the last dropped point close to
+        // the line from the start of the run, while the points dropped early on drift from it
+        int count = 60;
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = i;
+            ys[i] = 0.02*(1 - Math.exp(-i/5.0));
+        }
+        List<Polyline> merged = PathMerger.merge(segmentsThrough(xs, ys, false));
+        assertEquals(1, merged.size());
+        Polyline polyline = merged.get(0);
+        assertTrue(polyline.size() > 2);
+        for (int i = 0; i < count; i++) {
+            assertTrue(distanceTo(polyline, xs[i], ys[i]) <= 0.0025, "point " + i + " strays from the merged path");
+        }
+    }
+
+    @Test
+    void closedLoopKeepsOnlyItsCorners() {
+        // A square with extra points along its sides, starting partway along a side
+        double[] xs = {1, 2, 2, 2, 1, 0, 0, 0};
+        double[] ys = {0, 0, 1, 2, 2, 2, 1, 0};
+        List<Polyline> merged = PathMerger.merge(segmentsThrough(xs, ys, true));
+        assertEquals(1, merged.size());
+        assertTrue(merged.get(0).isClosed());
+        assertEquals(4, merged.get(0).size());
+    }
+}
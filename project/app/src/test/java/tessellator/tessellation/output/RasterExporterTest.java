@@ -0,0 +1,92 @@
+package tessellator.tessellation.output;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.Color;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import tessellator.editor.graph.block.category.Category;
+import tessellator.editor.preview.Drawing;
+import tessellator.tessellation.tiling.SeedTilingStrategy;
+import tessellator.tessellation.tiling.Tile;
+import tessellator.tessellation.tiling.TilingStrategy;
+
+class RasterExporterTest {
+
+    private static final double CANVAS_WIDTH = 400;
+    private static final double CANVAS_HEIGHT = 300;
+
+    @TempDir
+    Path directory;
+
+    // A tiling of squares which fails to generate any region below the given height
+    private static SeedTilingStrategy squaresFailingBelow(double failingY) {
+        List<Double> xs = new ArrayList<>(List.of(50.0, 150.0, 150.0, 50.0));
+        List<Double> ys = new ArrayList<>(List.of(50.0, 50.0, 150.0, 150.0));
+        Drawing square = new Drawing(xs, ys, List.of(), Color.BLACK, Category.SQUARE_TILE, null);
+        SeedTilingStrategy tiler = new SeedTilingStrategy(List.of(square)) {
+            @Override
+            public TilingStrategy copy() {
+                return this;
+            }
+
+            @Override
+            public List<Tile> tessellate(Rectangle2D region) {
+                if (region.getMaxY() > failingY) throw new IllegalStateException("The region couldn't be generated.");
+                return super.tessellate(region);
+            }
+        };
+        tiler.setCanvasDimensions(CANVAS_WIDTH, CANVAS_HEIGHT);
+        return tiler;
+    }
+
+    private static ChunkedTessellation tessellation(SeedTilingStrategy tiler) {
+        BoundaryClipper clipper = new BoundaryClipper(new Rectangle2D.Double(0, 0, CANVAS_WIDTH, CANVAS_HEIGHT));
+        return new ChunkedTessellation(tiler, clipper, CANVAS_WIDTH, CANVAS_HEIGHT, 100);
+    }
+
+    @Test
+    void exportedImageCanBeRead() throws IOException {
+        File file = directory.resolve("pattern.png").toFile();
+        new RasterExporter(tessellation(squaresFailingBelow(Double.POSITIVE_INFINITY))).export(file, 2000, 2);
+        BufferedImage image = ImageIO.read(file);
+        assertNotNull(image);
+        assertEquals(2000, image.getWidth());
+        assertEquals(1500, image.getHeight());
+    }
+
+    @Test
+    void failedStripeLeavesNoFileBehind() {
+        File file = directory.resolve("pattern.png").toFile();
+        // The image is tall enough to be split into several stripes, and only the lower ones fail
+        RasterExporter exporter = new RasterExporter(tessellation(squaresFailingBelow(CANVAS_HEIGHT/2)));
+        assertThrows(IOException.class, () -> exporter.export(file, 4000, 2));
+        assertFalse(file.exists());
+    }
+
+    @Test
+    void abortedImageIsNotFinished() throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        PngStreamWriter writer = new PngStreamWriter(stream, 1, 1);
+        writer.abort();
+        // Closing after aborting mustn't finish the image either
+        writer.close();
+        assertFalse(stream.toString(StandardCharsets.ISO_8859_1).contains("IEND"));
+    }
+}
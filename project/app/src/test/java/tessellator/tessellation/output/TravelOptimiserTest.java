@@ -0,0 +1,120 @@
+package tessellator.tessellation.output;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class TravelOptimiserTest {
+
+    private static Polyline line(double x1, double y1, double x2, double y2) {
+        Polyline p = new Polyline();
+        p.addPoint(x1, y1);
+        p.addPoint(x2, y2);
+        return p;
+    }
+
+    private static Polyline square(double x, double y, double size) {
+        Polyline p = new Polyline();
+        p.addPoint(x, y);
+        p.addPoint(x+size, y);
+        p.addPoint(x+size, y+size);
+        p.addPoint(x, y+size);
+        p.setClosed(true);
+        return p;
+    }
+
+    // Optimise the paths and check the result is a reordering of them that travels no further
+    private static List<Polyline> optimise(List<Polyline> paths, long timeBudgetMillis) {
+        List<Polyline> optimised = new ArrayList<>();
+        TravelReport report = TravelOptimiser.optimise(paths, timeBudgetMillis, optimised);
+        assertEquals(paths.size(), optimised.size());
+        assertEquals(TravelOptimiser.travelDistance(paths), report.travelBefore(), 1e-6);
+        assertEquals(TravelOptimiser.travelDistance(optimised), report.travelAfter(), 1e-6);
+        assertTrue(report.travelAfter() <= report.travelBefore());
+        return optimised;
+    }
+
+    @Test
+    void reversedClosedPolylineKeepsItsFirstPoint() {
+        Polyline reversed = square(2, 3, 1).reversed();
+        assertEquals(List.of(2.0, 2.0, 3.0, 3.0), reversed.xCoords());
+        assertEquals(List.of(3.0, 4.0, 4.0, 3.0), reversed.yCoords());
+        assertEquals(2, reversed.endX());
+        assertEquals(3, reversed.endY());
+    }
+
+    @Test
+    void reversedOpenPolylineSwapsItsEnds() {
+        Polyline reversed = line(0, 0, 5, 1).reversed();
+        assertEquals(5, reversed.startX());
+        assertEquals(1, reversed.startY());
+        assertEquals(0, reversed.endX());
+        assertEquals(0, reversed.endY());
+    }
+
+    @Test
+    void closedPathsAreOnlyReorderedAndConvergeWithinTheBudget() {
+        List<Polyline> paths = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            for (int j = 0; j < 30; j++) paths.add(square(i*10, j*10, 8));
+        }
+        Collections.shuffle(paths, new Random(7));
+
+        long start = System.nanoTime();
+        List<Polyline> optimised = optimise(paths, 60_000);
+        // The 2-opt passes stop once nothing improves, long before the budget runs out
+        assertTrue(System.nanoTime()-start < 20_000_000_000L);
+
+        // Each square is still drawn from the same corner
+        Set<List<Double>> starts = new HashSet<>();
+        paths.forEach(p -> starts.add(List.of(p.startX(), p.startY())));
+        optimised.forEach(p -> assertTrue(starts.remove(List.of(p.startX(), p.startY()))));
+        assertTrue(starts.isEmpty());
+    }
+
+    @Test
+    void penFarFromTheRemainingPathsWhenTheGridIsRebuilt() {
+        List<Polyline> paths = new ArrayList<>();
+        // A long path leads from the origin to a far cluster, which is drawn before the pen
+        // returns to the few paths left near the origin
+        paths.add(line(0, 0, 1e6, 1e6));
+        for (int i = 0; i < 18; i++) paths.add(line(1e6 + i*10, 1e6, 1e6 + i*10 + 5, 1e6));
+        for (int i = 0; i < 5; i++) paths.add(line(i+1, 1, i+1.5, 1));
+
+        List<Polyline> optimised = optimise(paths, 1000);
+        assertEquals(0, optimised.get(0).startX());
+    }
+
+    @Test
+    void clusteredLayout() {
+        Random random = new Random(3);
+        List<Polyline> paths = new ArrayList<>();
+        for (int cluster = 0; cluster < 8; cluster++) {
+            double cx = random.nextDouble()*1e5;
+            double cy = random.nextDouble()*1e5;
+            int count = 10 + random.nextInt(400);
+            for (int i = 0; i < count; i++) {
+                double x = cx + random.nextGaussian()*20;
+                double y = cy + random.nextGaussian()*20;
+                paths.add(line(x, y, x + random.nextDouble()*5, y + random.nextDouble()*5));
+            }
+        }
+        Collections.shuffle(paths, random);
+        optimise(paths, 1000);
+    }
+
+    @Test
+    void endsInAThinBand() {
+        List<Polyline> paths = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) paths.add(line(i*7 % 1000, 50, i*7 % 1000 + 3, 50));
+        optimise(paths, 1000);
+    }
+}
@@ -0,0 +1,99 @@
+package tessellator.tessellation.tiling;
+
+import java.util.Random;
+
+/**
+ * A benchmark of the batch transform which places tiles, run with the runAffineBenchmark task.
+ *
+ * It times a batch the size the tile instancer uses three ways: through AffineBatch, which uses
+ * the Vector API when the jdk.incubator.vector module is available, through the scalar loops
+ * alone, and the way vertices were placed before the batch transform, rotating each point with
+ * its own sine and cosine. Each is run for a few rounds so the later rounds show the times once
+ * the JIT has compiled the loops.
+ *
+ * The batch size and number of seed vertices can be given as the first and second arguments.
+ */
+public class AffineBatchBenchmark {
+
+    private static final int ROUNDS = 5;
+    // How many points to transform in each round of each kernel
+    private static final long POINTS_PER_ROUND = 100_000_000L;
+
+    public static void main(String[] args) {
+        int transforms = (args.length > 0) ? Integer.parseInt(args[0]) : 512;
+        int points = (args.length > 1) ? Integer.parseInt(args[1]) : 10;
+        int repetitions = (int) Math.max(1, POINTS_PER_ROUND/((long) transforms*points));
+
+        Random random = new Random(1);
+        double[] m00 = new double[transforms];
+        double[] m10 = new double[transforms];
+        double[] m01 = new double[transforms];
+        double[] m11 = new double[transforms];
+        double[] m02 = new double[transforms];
+        double[] m12 = new double[transforms];
+        double[] angles = new double[transforms];
+        for (int t = 0; t < transforms; t++) {
+            angles[t] = random.nextDouble()*2*Math.PI;
+            m00[t] = Math.cos(angles[t]);
+            m10[t] = Math.sin(angles[t]);
+            m01[t] = -m10[t];
+            m11[t] = m00[t];
+            m02[t] = random.nextDouble()*1000;
+            m12[t] = random.nextDouble()*1000;
+        }
+        double[] xs = new double[points];
+        double[] ys = new double[points];
+        for (int p = 0; p < points; p++) {
+            xs[p] = random.nextDouble()*100;
+            ys[p] = random.nextDouble()*100;
+        }
+        double[] outXs = new double[transforms*points];
+        double[] outYs = new double[transforms*points];
+
+        System.out.printf("%d transforms x %d points, vector API available: %b%n",
+            transforms, points, AffineBatch.isVectorApiAvailable());
+        // Summing an output of each repetition stops the JIT throwing the work away
+        double total = 0;
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < repetitions; i++) {
+                AffineBatch.transform(m00, m10, m01, m11, m02, m12, transforms, xs, ys, points, outXs, outYs);
+                total += outXs[i % outXs.length];
+            }
+            long batchTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < repetitions; i++) {
+                AffineBatch.scalarTransform(m00, m10, m01, m11, m02, m12, transforms, xs, ys, points, outXs, outYs, 0);
+                total += outXs[i % outXs.length];
+            }
+            long scalarTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < repetitions; i++) {
+                perPointTransform(angles, m02, m12, transforms, xs, ys, points, outXs, outYs);
+                total += outXs[i % outXs.length];
+            }
+            long perPointTime = System.nanoTime() - start;
+
+            double pointCount = (double) repetitions*transforms*points;
+            System.out.printf("round %d: batch %.2f ns/point, scalar %.2f ns/point, per-point trig %.2f ns/point%n",
+                round, batchTime/pointCount, scalarTime/pointCount, perPointTime/pointCount);
+        }
+        if (Double.isNaN(total)) System.out.println(total);
+    }
+
+    // Rotate each point about the origin and then translate it, working out the sine and cosine
+    // of the rotation for every point as the tiling strategy did before the batch transform
+    private static void perPointTransform(double[] angles, double[] m02, double[] m12, int transforms,
+                                          double[] xs, double[] ys, int points, double[] outXs, double[] outYs) {
+        for (int t = 0; t < transforms; t++) {
+            for (int p = 0; p < points; p++) {
+                double x = xs[p]*Math.cos(angles[t]) - ys[p]*Math.sin(angles[t]);
+                double y = xs[p]*Math.sin(angles[t]) + ys[p]*Math.cos(angles[t]);
+                outXs[p*transforms+t] = x + m02[t];
+                outYs[p*transforms+t] = y + m12[t];
+            }
+        }
+    }
+}